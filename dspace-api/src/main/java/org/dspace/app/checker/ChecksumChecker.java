@@ -79,6 +79,10 @@ public final class ChecksumChecker {
      * <dd>Report only errors in the logs</dd>
      * <dt>-p</dt>
      * <dd>Don't prune results before running checker</dd>
+     * <dt>-t</dt>
+     * <dd>Number of threads reading bitstreams</dd>
+     * <dt>-m</dt>
+     * <dd>Maximum number of bytes read per second</dd>
      * </dl>
      *
      * @param args the command line arguments given
@@ -100,6 +104,8 @@ public final class ChecksumChecker {
         options.addOption("c", "count", true, "Check count");
         options.addOption("a", "handle", true, "Specify a handle to check");
         options.addOption("v", "verbose", false, "Report all processing");
+        options.addOption("t", "threads", true, "Number of threads reading bitstreams");
+        options.addOption("m", "max-rate", true, "Maximum number of bytes read per second by all threads");
 
         Option option;
 
@@ -207,10 +213,20 @@ public final class ChecksumChecker {
                 checker.setReportVerbose(true);
             }
 
+            if (line.hasOption('t')) {
+                checker.setThreads(Integer.parseInt(line.getOptionValue('t')));
+            }
+            if (line.hasOption('m')) {
+                checker.setMaxBytesPerSecond(Long.parseLong(line.getOptionValue('m')));
+            }
+
             checker.setProcessStartDate(processStart);
             checker.setDispatcher(dispatcher);
             checker.setCollector(logger);
             checker.process();
+            System.out.println("Checked " + checker.getBitstreamsChecked() + " bitstream(s), "
+                                   + checker.getBytesChecked() + " bytes ("
+                                   + String.format("%.2f", checker.getMegabytesPerSecond()) + " MB/s)");
             context.complete();
             context = null;
         } finally {
@@ -239,6 +255,8 @@ public final class ChecksumChecker {
         System.out.println("\nLoop continuously through all bitstreams: ChecksumChecker -L");
         System.out.println("\nCheck a defined number of bitstreams: ChecksumChecker -c 10");
         System.out.println("\nReport all processing (verbose)(default reports only errors): ChecksumChecker -v");
+        System.out.println("\nCheck with 8 threads, reading at most 100MB per second: "
+                               + "ChecksumChecker -l -t 8 -m 104857600");
         System.out.println("\nDefault (no arguments) is equivalent to '-c 1'");
         System.exit(0);
     }
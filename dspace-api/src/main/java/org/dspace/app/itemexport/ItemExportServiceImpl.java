@@ -8,6 +8,7 @@
 package org.dspace.app.itemexport;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -19,16 +20,26 @@ import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.mail.MessagingException;
@@ -128,6 +139,7 @@ public class ItemExportServiceImpl implements ItemExportService {
 
         System.out.println("Beginning export");
 
+        i = itemService.prefetch(c, i, !excludeBitstreams);
         while (i.hasNext()) {
             if (SUBDIR_LIMIT > 0 && ++counter == SUBDIR_LIMIT) {
                 subdir = Integer.toString(subDirSuffix++);
@@ -192,15 +204,9 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, Item i, File destDir, boolean migrate)
         throws Exception {
-        Set<String> schemas = new HashSet<>();
-        List<MetadataValue> dcValues = itemService.getMetadata(i, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
-        for (MetadataValue metadataValue : dcValues) {
-            schemas.add(metadataValue.getMetadataField().getMetadataSchema().getName());
-        }
-
         // Save each of the schemas into it's own metadata file
-        for (String schema : schemas) {
-            writeMetadata(c, schema, i, destDir, migrate);
+        for (Map.Entry<String, List<ExportValue>> schema : getExportValues(i).entrySet()) {
+            writeMetadata(schema.getKey(), schema.getValue(), destDir, migrate);
         }
     }
 
@@ -216,101 +222,152 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, String schema, Item i,
                                  File destDir, boolean migrate) throws Exception {
-        String filename;
-        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
-            filename = "dublin_core.xml";
-        } else {
-            filename = "metadata_" + schema + ".xml";
-        }
+        List<ExportValue> values = getExportValues(i).get(schema);
+        writeMetadata(schema, values != null ? values : new ArrayList<>(), destDir, migrate);
+    }
 
-        File outFile = new File(destDir, filename);
+    /**
+     * output the given metadata values of one schema into the item directory
+     *
+     * @param schema  schema
+     * @param values  the values of the schema
+     * @param destDir destination directory
+     * @param migrate Whether to use the migrate option or not
+     * @throws Exception if error
+     */
+    protected void writeMetadata(String schema, List<ExportValue> values,
+                                 File destDir, boolean migrate) throws Exception {
+        File outFile = new File(destDir, getMetadataFileName(schema));
 
         System.out.println("Attempting to create file " + outFile);
 
         if (outFile.createNewFile()) {
-            BufferedOutputStream out = new BufferedOutputStream(
-                new FileOutputStream(outFile));
+            try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+                out.write(serializeMetadata(schema, values, migrate));
+            }
+        } else {
+            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        }
+    }
 
-            List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
-                                                                      Item.ANY);
+    /**
+     * @param schema schema
+     * @return the name of the metadata file of the schema
+     */
+    protected String getMetadataFileName(String schema) {
+        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
+            return "dublin_core.xml";
+        } else {
+            return "metadata_" + schema + ".xml";
+        }
+    }
 
-            // XML preamble
-            byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
-                .getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * Copy the metadata values of an item, grouped by schema, so that they
+     * can be serialized without access to the database session.
+     *
+     * @param i DSpace Item
+     * @return the values of each schema
+     */
+    protected Map<String, List<ExportValue>> getExportValues(Item i) {
+        Map<String, List<ExportValue>> schemas = new LinkedHashMap<>();
+        List<MetadataValue> dcValues = itemService.getMetadata(i, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
+        for (MetadataValue metadataValue : dcValues) {
+            MetadataField metadataField = metadataValue.getMetadataField();
+            schemas.computeIfAbsent(metadataField.getMetadataSchema().getName(), schema -> new ArrayList<>())
+                   .add(new ExportValue(metadataField.getElement(), metadataField.getQualifier(),
+                                        metadataValue.getLanguage(), metadataValue.getValue()));
+        }
+        return schemas;
+    }
 
-            String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
-            utf8 = dcTag.getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * Serialize the metadata values of one schema in the dublin_core.xml format.
+     *
+     * @param schema  schema
+     * @param values  the values of the schema
+     * @param migrate Whether to use the migrate option or not
+     * @return the UTF-8 encoded file
+     * @throws IOException if error
+     */
+    protected byte[] serializeMetadata(String schema, List<ExportValue> values, boolean migrate)
+        throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-            String dateIssued = null;
-            String dateAccessioned = null;
+        // XML preamble
+        byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
+            .getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-            for (MetadataValue dcv : dcorevalues) {
-                MetadataField metadataField = dcv.getMetadataField();
-                String qualifier = metadataField.getQualifier();
+        String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
+        utf8 = dcTag.getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-                if (qualifier == null) {
-                    qualifier = "none";
-                }
+        String dateIssued = null;
+        String dateAccessioned = null;
 
-                String language = dcv.getLanguage();
+        for (ExportValue dcv : values) {
+            String element = dcv.element;
+            String qualifier = dcv.qualifier;
 
-                if (language != null) {
-                    language = " language=\"" + language + "\"";
-                } else {
-                    language = "";
-                }
+            if (qualifier == null) {
+                qualifier = "none";
+            }
 
-                utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
-                    + "qualifier=\"" + qualifier + "\""
-                    + language + ">"
-                    + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
-
-                if (!migrate ||
-                    (migrate && !(
-                        ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
-                            ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
-                                (dcv.getValue() != null && dcv.getValue().startsWith(
-                                    handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
-                            ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
-                    out.write(utf8, 0, utf8.length);
-                }
+            String language = dcv.language;
 
-                // Store the date issued and accession to see if they are different
-                // because we need to keep date.issued if they are, when migrating
-                if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
-                    dateIssued = dcv.getValue();
-                }
-                if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
-                    dateAccessioned = dcv.getValue();
-                }
+            if (language != null) {
+                language = " language=\"" + language + "\"";
+            } else {
+                language = "";
             }
 
-            // When migrating, only keep date.issued if it is different to date.accessioned
-            if (migrate &&
-                (dateIssued != null) &&
-                (dateAccessioned != null) &&
-                !dateIssued.equals(dateAccessioned)) {
-                utf8 = ("  <dcvalue element=\"date\" "
-                    + "qualifier=\"issued\">"
-                    + Utils.addEntities(dateIssued) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
+            utf8 = ("  <dcvalue element=\"" + element + "\" "
+                + "qualifier=\"" + qualifier + "\""
+                + language + ">"
+                + Utils.addEntities(dcv.value) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+
+            if (!migrate ||
+                (migrate && !(
+                    ("date".equals(element) && "issued".equals(qualifier)) ||
+                        ("date".equals(element) && "accessioned".equals(qualifier)) ||
+                        ("date".equals(element) && "available".equals(qualifier)) ||
+                        ("identifier".equals(element) && "uri".equals(qualifier) &&
+                            (dcv.value != null && dcv.value.startsWith(
+                                handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
+                        ("description".equals(element) && "provenance".equals(qualifier)) ||
+                        ("format".equals(element) && "extent".equals(qualifier)) ||
+                        ("format".equals(element) && "mimetype".equals(qualifier))))) {
                 out.write(utf8, 0, utf8.length);
             }
 
-            utf8 = "</dublin_core>\n".getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+            // Store the date issued and accession to see if they are different
+            // because we need to keep date.issued if they are, when migrating
+            if (("date".equals(element) && "issued".equals(qualifier))) {
+                dateIssued = dcv.value;
+            }
+            if (("date".equals(element) && "accessioned".equals(qualifier))) {
+                dateAccessioned = dcv.value;
+            }
+        }
 
-            out.close();
-        } else {
-            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        // When migrating, only keep date.issued if it is different to date.accessioned
+        if (migrate &&
+            (dateIssued != null) &&
+            (dateAccessioned != null) &&
+            !dateIssued.equals(dateAccessioned)) {
+            utf8 = ("  <dcvalue element=\"date\" "
+                + "qualifier=\"issued\">"
+                + Utils.addEntities(dateIssued) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+            out.write(utf8, 0, utf8.length);
         }
+
+        utf8 = "</dublin_core>\n".getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
+
+        return out.toByteArray();
     }
 
     /**
@@ -369,24 +426,10 @@ public class ItemExportServiceImpl implements ItemExportService {
                 // bundles can have multiple bitstreams now...
                 List<Bitstream> bitstreams = bundle.getBitstreams();
 
-                String bundleName = bundle.getName();
-
                 for (Bitstream bitstream : bitstreams) {
                     String myName = bitstream.getName();
                     String oldName = myName;
 
-                    String description = bitstream.getDescription();
-                    if (!StringUtils.isEmpty(description)) {
-                        description = "\tdescription:" + description;
-                    } else {
-                        description = "";
-                    }
-
-                    String primary = "";
-                    if (bitstream.equals(bundle.getPrimaryBitstream())) {
-                        primary = "\tprimary:true ";
-                    }
-
                     int myPrefix = 1; // only used with name conflict
 
                     boolean isDone = false; // done when bitstream is finally
@@ -425,16 +468,7 @@ public class ItemExportServiceImpl implements ItemExportService {
                     }
 
                     // write the manifest file entry
-                    if (bitstreamService.isRegisteredBitstream(bitstream)) {
-                        out.println("-r -s " + bitstream.getStoreNumber()
-                                        + " -f " + myName +
-                                        "\tbundle:" + bundleName +
-                                        primary + description);
-                    } else {
-                        out.println(myName + "\tbundle:" + bundleName +
-                                        primary + description);
-                    }
-
+                    out.println(getContentsEntry(bitstream, bundle, myName));
                 }
             }
 
@@ -445,30 +479,243 @@ public class ItemExportServiceImpl implements ItemExportService {
         }
     }
 
+    /**
+     * @param bitstream the bitstream
+     * @param bundle    the bundle of the bitstream
+     * @param name      the name the bitstream is exported as
+     * @return the line of the bitstream in the contents file
+     */
+    protected String getContentsEntry(Bitstream bitstream, Bundle bundle, String name) {
+        String description = bitstream.getDescription();
+        if (!StringUtils.isEmpty(description)) {
+            description = "\tdescription:" + description;
+        } else {
+            description = "";
+        }
+
+        String primary = "";
+        if (bitstream.equals(bundle.getPrimaryBitstream())) {
+            primary = "\tprimary:true ";
+        }
+
+        if (bitstreamService.isRegisteredBitstream(bitstream)) {
+            return "-r -s " + bitstream.getStoreNumber() + " -f " + name
+                + "\tbundle:" + bundle.getName() + primary + description;
+        } else {
+            return name + "\tbundle:" + bundle.getName() + primary + description;
+        }
+    }
+
+    /**
+     * Export the items straight into a zip stream, in the same layout as
+     * {@link #exportItem(Context, Iterator, String, int, boolean, boolean)}
+     * followed by {@link #zip(String, String)} would produce, but without
+     * writing them to the work directory first.
+     * <p>
+     * The metadata of the items is serialized by
+     * 'org.dspace.app.itemexport.threads' worker threads ahead of the item
+     * whose bitstreams are being copied. The workers only get copies of the
+     * metadata values, as the database session must not be shared between
+     * threads.
+     *
+     * @param c                 DSpace context
+     * @param items             the items to export
+     * @param folder            the folder of the items within the zip file, empty or ending with '/'
+     * @param seqStart          the first number in the sequence
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @param zip               the zip stream to write to
+     * @throws Exception if error
+     */
+    protected void exportItemsToZip(Context c, Iterator<Item> items, String folder, int seqStart,
+                                    boolean migrate, boolean excludeBitstreams, ZipOutputStream zip)
+        throws Exception {
+        int threads = Math.max(1, configurationService.getIntProperty("org.dspace.app.itemexport.threads", 2));
+        ExecutorService serializers = Executors.newFixedThreadPool(threads);
+        Deque<PendingItem> pending = new ArrayDeque<>();
+        int mySequenceNumber = seqStart;
+        items = itemService.prefetch(c, items, !excludeBitstreams);
+        try {
+            while (items.hasNext()) {
+                Item item = items.next();
+                Map<String, List<ExportValue>> values = getExportValues(item);
+                Future<Map<String, byte[]>> metadata = serializers.submit(() -> {
+                    Map<String, byte[]> files = new LinkedHashMap<>();
+                    for (Map.Entry<String, List<ExportValue>> schema : values.entrySet()) {
+                        files.put(getMetadataFileName(schema.getKey()),
+                                  serializeMetadata(schema.getKey(), schema.getValue(), migrate));
+                    }
+                    return files;
+                });
+                pending.add(new PendingItem(item, folder + mySequenceNumber++ + "/", metadata));
+                if (pending.size() > threads * 2) {
+                    writeItem(c, pending.poll(), migrate, excludeBitstreams, zip);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeItem(c, pending.poll(), migrate, excludeBitstreams, zip);
+            }
+        } finally {
+            serializers.shutdownNow();
+        }
+    }
+
+    /**
+     * Write the files of one item into the zip stream.
+     *
+     * @param c                 DSpace context
+     * @param pendingItem       the item and its serialized metadata
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @param zip               the zip stream to write to
+     * @throws Exception if error
+     */
+    protected void writeItem(Context c, PendingItem pendingItem, boolean migrate, boolean excludeBitstreams,
+                             ZipOutputStream zip) throws Exception {
+        Item item = pendingItem.item;
+        String path = pendingItem.path;
+        System.out.println("Exporting Item " + item.getID() +
+                               (item.getHandle() != null ? ", handle " + item.getHandle() : "") +
+                               " to " + path);
+
+        Map<String, byte[]> metadata;
+        try {
+            metadata = pendingItem.metadata.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to serialize the metadata of item " + item.getID(), e.getCause());
+        }
+        for (Map.Entry<String, byte[]> file : metadata.entrySet()) {
+            writeZipEntry(zip, path + file.getKey(), file.getValue());
+        }
+
+        boolean writeHandle = !migrate && item.getHandle() != null;
+        StringBuilder contents = new StringBuilder();
+        // the bitstreams must not collide with the generated files
+        Set<String> names = new HashSet<>(metadata.keySet());
+        names.add("contents");
+        if (writeHandle) {
+            names.add("handle");
+        }
+        for (Bundle bundle : item.getBundles()) {
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                String myName = bitstream.getName();
+                String oldName = myName;
+                int myPrefix = 1; // only used with name conflict
+                while (!excludeBitstreams && !names.add(myName)) {
+                    // keep appending numbers to the filename until unique
+                    myName = myPrefix + "_" + oldName;
+                    myPrefix++;
+                }
+                if (!excludeBitstreams) {
+                    zip.setLevel(isCompressed(c, bitstream) ? Deflater.NO_COMPRESSION : getCompressionLevel());
+                    zip.putNextEntry(new ZipEntry(path + myName));
+                    try (InputStream is = bitstreamService.retrieve(c, bitstream)) {
+                        Utils.bufferedCopy(is, zip);
+                    }
+                    zip.closeEntry();
+                }
+                contents.append(getContentsEntry(bitstream, bundle, myName)).append(System.lineSeparator());
+            }
+        }
+        writeZipEntry(zip, path + "contents", contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        if (writeHandle) {
+            writeZipEntry(zip, path + "handle",
+                          (item.getHandle() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        }
+        c.uncacheEntity(item);
+    }
+
+    /**
+     * @param zip     the zip stream to write to
+     * @param name    the name of the entry
+     * @param content the content of the entry
+     * @throws IOException if error
+     */
+    protected void writeZipEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.setLevel(getCompressionLevel());
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    /**
+     * @return the compression level of exported files, 'org.dspace.app.itemexport.zip.level'
+     */
+    protected int getCompressionLevel() {
+        return configurationService.getIntProperty("org.dspace.app.itemexport.zip.level", 9);
+    }
+
+    /**
+     * Whether the bitstream is of a format listed in
+     * 'org.dspace.app.itemexport.zip.uncompressed.mimetypes', i.e. already
+     * compressed, so that deflating it again would only cost time.
+     *
+     * @param c         DSpace context
+     * @param bitstream the bitstream
+     * @return true if the bitstream should not be compressed
+     * @throws SQLException if database error
+     */
+    protected boolean isCompressed(Context c, Bitstream bitstream) throws SQLException {
+        String[] mimeTypes = configurationService.getArrayProperty(
+            "org.dspace.app.itemexport.zip.uncompressed.mimetypes");
+        if (mimeTypes.length == 0 || bitstream.getFormat(c) == null) {
+            return false;
+        }
+        return Arrays.asList(mimeTypes).contains(bitstream.getFormat(c).getMIMEType());
+    }
+
+    /**
+     * Open a zip stream onto a temporary file next to the target, which
+     * {@link #finishZip(ZipOutputStream, String)} renames to the target.
+     *
+     * @param target the zip file to create
+     * @return the zip stream
+     * @throws IOException if error
+     */
+    protected ZipOutputStream openZip(String target) throws IOException {
+        File targetFile = new File(target + "_tmp");
+        if (!targetFile.createNewFile()) {
+            log.warn("Target file already exists: " + targetFile.getName());
+        }
+        return new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(targetFile)));
+    }
+
+    /**
+     * Close a zip stream opened with {@link #openZip(String)} and move the
+     * file to the target.
+     *
+     * @param zip    the zip stream
+     * @param target the zip file to create
+     * @throws IOException if error
+     */
+    protected void finishZip(ZipOutputStream zip, String target) throws IOException {
+        zip.close();
+        if (!new File(target + "_tmp").renameTo(new File(target))) {
+            log.error("Unable to rename file");
+        }
+    }
+
     @Override
     public void exportAsZip(Context context, Iterator<Item> items,
                             String destDirName, String zipFileName,
                             int seqStart, boolean migrate,
                             boolean excludeBitstreams) throws Exception {
-        String workDir = getExportWorkDirectory() +
-            System.getProperty("file.separator") +
-            zipFileName;
-
-        File wkDir = new File(workDir);
-        if (!wkDir.exists() && !wkDir.mkdirs()) {
-            log.error("Unable to create working direcory");
-        }
-
         File dnDir = new File(destDirName);
         if (!dnDir.exists() && !dnDir.mkdirs()) {
             log.error("Unable to create destination directory");
         }
 
-        // export the items using normal export method
-        exportItem(context, items, workDir, seqStart, migrate, excludeBitstreams);
-
-        // now zip up the export directory created above
-        zip(workDir, destDirName + System.getProperty("file.separator") + zipFileName);
+        // stream the items straight into the zip file
+        String target = destDirName + System.getProperty("file.separator") + zipFileName;
+        System.out.println("Beginning export");
+        ZipOutputStream zip = openZip(target);
+        try {
+            exportItemsToZip(context, items, "", seqStart, migrate, excludeBitstreams, zip);
+            finishZip(zip, target);
+        } finally {
+            zip.close();
+        }
     }
 
     @Override
@@ -640,43 +887,34 @@ public class ItemExportServiceImpl implements ItemExportService {
 
                         String fileName = assembleFileName("item", eperson,
                                                            new Date());
-                        String workParentDir = getExportWorkDirectory()
-                            + System.getProperty("file.separator")
-                            + fileName;
                         String downloadDir = getExportDownloadDirectory(eperson);
                         File dnDir = new File(downloadDir);
                         if (!dnDir.exists() && !dnDir.mkdirs()) {
                             log.error("Unable to create download directory");
                         }
 
-                        Iterator<String> iter = itemsMap.keySet().iterator();
-                        while (iter.hasNext()) {
-                            String keyName = iter.next();
-                            List<UUID> uuids = itemsMap.get(keyName);
-                            List<Item> items = new ArrayList<>();
-                            for (UUID uuid : uuids) {
-                                items.add(itemService.find(context, uuid));
-                            }
-                            iitems = items.iterator();
-
-                            String workDir = workParentDir
-                                + System.getProperty("file.separator")
-                                + keyName;
+                        // stream the items straight into the zip file
+                        String target = downloadDir
+                            + System.getProperty("file.separator")
+                            + fileName + ".zip";
+                        ZipOutputStream zip = openZip(target);
+                        try {
+                            Iterator<String> iter = itemsMap.keySet().iterator();
+                            while (iter.hasNext()) {
+                                String keyName = iter.next();
+                                List<UUID> uuids = itemsMap.get(keyName);
+                                List<Item> items = new ArrayList<>();
+                                for (UUID uuid : uuids) {
+                                    items.add(itemService.find(context, uuid));
+                                }
+                                iitems = items.iterator();
 
-                            File wkDir = new File(workDir);
-                            if (!wkDir.exists() && !wkDir.mkdirs()) {
-                                log.error("Unable to create working directory");
+                                exportItemsToZip(context, iitems, keyName + "/", 1, migrate, false, zip);
                             }
-
-
-                            // export the items using normal export method
-                            exportItem(context, iitems, workDir, 1, migrate, false);
+                            finishZip(zip, target);
+                        } finally {
+                            zip.close();
                         }
-
-                        // now zip up the export directory created above
-                        zip(workParentDir, downloadDir
-                            + System.getProperty("file.separator")
-                            + fileName + ".zip");
                         // email message letting user know the file is ready for
                         // download
                         emailSuccessMessage(context, eperson, fileName + ".zip");
@@ -1067,4 +1305,35 @@ public class ItemExportServiceImpl implements ItemExportService {
         return (path.delete());
     }
 
+    /**
+     * A copy of a metadata value, detached from the database session.
+     */
+    protected static class ExportValue {
+        protected final String element;
+        protected final String qualifier;
+        protected final String language;
+        protected final String value;
+
+        protected ExportValue(String element, String qualifier, String language, String value) {
+            this.element = element;
+            this.qualifier = qualifier;
+            this.language = language;
+            this.value = value;
+        }
+    }
+
+    /**
+     * An item waiting to be written into the zip stream.
+     */
+    protected static class PendingItem {
+        protected final Item item;
+        protected final String path;
+        protected final Future<Map<String, byte[]>> metadata;
+
+        protected PendingItem(Item item, String path, Future<Map<String, byte[]>> metadata) {
+            this.item = item;
+            this.path = path;
+            this.metadata = metadata;
+        }
+    }
 }
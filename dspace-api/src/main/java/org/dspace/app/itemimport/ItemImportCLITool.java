@@ -93,6 +93,12 @@ public class ItemImportCLITool {
             options.addOption("R", "resume", false,
                               "resume a failed import (add only)");
             options.addOption("q", "quiet", false, "don't display metadata");
+            options.addOption("S", "stream", false,
+                              "only extract the metadata of a zip file and read the bitstreams from the zip file");
+            options.addOption("T", "threads", true,
+                              "number of threads storing the bitstreams of an item (default 1)");
+            options.addOption("b", "batch-size", true,
+                              "commit after this many items (add only, default 0: commit once at the end)");
 
             options.addOption("h", "help", false, "help");
 
@@ -108,6 +114,9 @@ public class ItemImportCLITool {
             boolean useWorkflow = false;
             boolean useWorkflowSendEmail = false;
             boolean isQuiet = false;
+            boolean stream = false;
+            int threads = 1;
+            int batchSize = 0;
 
             if (line.hasOption('h')) {
                 HelpFormatter myhelp = new HelpFormatter();
@@ -118,6 +127,10 @@ public class ItemImportCLITool {
                     .println(
                         "\nadding items from zip file:    ItemImport -a -e eperson -c collection -s sourcedir -z " +
                             "filename.zip -m mapfile");
+                System.out
+                    .println(
+                        "\nadding items from a large zip file:    ItemImport -a -e eperson -c collection " +
+                            "-s sourcedir -z filename.zip -S -T 4 -b 100 -m mapfile");
                 System.out
                     .println("replacing items: ItemImport -r -e eperson -c collection -s sourcedir -m mapfile");
                 System.out
@@ -184,6 +197,18 @@ public class ItemImportCLITool {
                 isQuiet = true;
             }
 
+            if (line.hasOption('S')) {
+                stream = true;
+            }
+
+            if (line.hasOption('T')) {
+                threads = parsePositive(line.getOptionValue('T'), "number of threads", options);
+            }
+
+            if (line.hasOption('b')) {
+                batchSize = parsePositive(line.getOptionValue('b'), "batch size", options);
+            }
+
             boolean zip = false;
             String zipfilename = "";
             if (line.hasOption('z')) {
@@ -263,6 +288,8 @@ public class ItemImportCLITool {
             myloader.setUseWorkflow(useWorkflow);
             myloader.setUseWorkflowSendEmail(useWorkflowSendEmail);
             myloader.setQuiet(isQuiet);
+            myloader.setThreads(threads);
+            myloader.setBatchSize(batchSize);
 
             // create a context
             Context c = new Context(Context.Mode.BATCH_EDIT);
@@ -340,7 +367,9 @@ public class ItemImportCLITool {
 
             try {
                 // If this is a zip archive, unzip it first
-                if (zip) {
+                if (zip && stream) {
+                    sourcedir = myloader.unzipMetadata(sourcedir, zipfilename);
+                } else if (zip) {
                     sourcedir = myloader.unzip(sourcedir, zipfilename);
                 }
 
@@ -392,4 +421,28 @@ public class ItemImportCLITool {
 
         System.exit(status);
     }
+
+    /**
+     * Parse the value of a numeric option, print the usage and exit if it is
+     * not a number of at least 1.
+     *
+     * @param value   the value of the option
+     * @param name    the name of the option in the error message
+     * @param options the options to print the usage of
+     * @return the parsed value
+     */
+    private static int parsePositive(String value, String name, Options options) {
+        int parsed = 0;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            // rejected below
+        }
+        if (parsed < 1) {
+            new HelpFormatter().printHelp("ItemImport\n", options);
+            System.out.println("Error - the " + name + " must be a number of at least 1, not '" + value + "'");
+            System.exit(1);
+        }
+        return parsed;
+    }
 }
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URL;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
@@ -38,14 +39,22 @@ import java.util.Date;
 import java.util.Enumeration;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.mail.MessagingException;
@@ -109,6 +118,7 @@ import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
 import org.dspace.workflow.WorkflowItem;
 import org.dspace.workflow.WorkflowService;
 import org.springframework.beans.factory.InitializingBean;
@@ -181,6 +191,8 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected ClarinLicenseService clarinLicenseService;
     @Autowired(required = true)
     protected ClarinLicenseResourceMappingService clarinLicenseResourceMappingService;
+    @Autowired(required = true)
+    protected BitstreamStorageService bitstreamStorageService;
 
     protected String tempWorkDir;
 
@@ -189,6 +201,20 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int threads = 1;
+    protected int batchSize = 0;
+
+    // the zip file the content files are read from, see unzipMetadata()
+    protected ZipFile zipSource = null;
+    // the content files left in the zip file, by the path they would have been extracted to
+    protected Map<String, ZipEntry> zipContents = new HashMap<>();
+
+    // the threads storing the bits of the bitstreams, if more than one thread is used
+    protected ExecutorService storageWorkers = null;
+    // the bitstreams of the current item whose bits are being stored
+    protected List<PendingBitstream> pendingBitstreams = new ArrayList<>();
+    // number of bytes stored by the current import
+    protected long importedBytes = 0;
 
     //remember which folder item was imported from
     Map<String, Item> itemFolderMap = null;
@@ -244,6 +270,20 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         // create the mapfile
         File outFile = null;
         PrintWriter mapOut = null;
+        // with batches, the mapfile lines of the items are kept here until their batch is committed
+        StringWriter batchLines = new StringWriter();
+        PrintWriter batchOut = null;
+
+        long startTime = System.currentTimeMillis();
+        int imported = 0;
+        int uncommitted = 0;
+        importedBytes = 0;
+        if (threads > 1 && !isTest) {
+            // the workers do not use a Context, so the caller may run a job itself while they are all busy
+            storageWorkers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                                    new LinkedBlockingQueue<>(threads * 4),
+                                                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
 
         try {
             Map<String, String> skipItems = new HashMap<>(); // set of items to skip if in 'resume'
@@ -275,6 +315,9 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                 if (mapOut == null) {
                     throw new Exception("can't open mapfile: " + mapFile);
                 }
+                if (batchSize > 0) {
+                    batchOut = new PrintWriter(batchLines);
+                }
             }
 
             // open and process the source directory
@@ -317,19 +360,43 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                         clist = mycollections;
                     }
 
-                    Item item = addItem(c, clist, sourceDir, dircontents[i], mapOut, template);
+                    Item item = addItem(c, clist, sourceDir, dircontents[i],
+                                        batchOut != null ? batchOut : mapOut, template);
 
                     itemFolderMap.put(dircontents[i], item);
 
                     c.uncacheEntity(item);
                     System.out.println(i + " " + dircontents[i]);
+                    imported++;
+
+                    // commit in batches, the mapfile only lists committed items so that the import can be resumed
+                    if (batchSize > 0 && !isTest && ++uncommitted >= batchSize) {
+                        c.commit();
+                        mapOut.print(batchLines);
+                        mapOut.flush();
+                        batchLines.getBuffer().setLength(0);
+                        uncommitted = 0;
+                        mycollections = reloadCollections(c, mycollections);
+                        printStatistics(imported, startTime);
+                    }
                 }
             }
 
             //now that all items are imported, iterate again to link relationships
             addRelationships(c, sourceDir);
 
+            // the items of the last batch are committed by the caller
+            if (batchOut != null) {
+                mapOut.print(batchLines);
+            }
+
+            printStatistics(imported, startTime);
         } finally {
+            if (storageWorkers != null) {
+                storageWorkers.shutdownNow();
+                storageWorkers = null;
+                pendingBitstreams.clear();
+            }
             if (mapOut != null) {
                 mapOut.flush();
                 mapOut.close();
@@ -337,6 +404,40 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Reload the collections after a commit detached them.
+     *
+     * @param c           DSpace Context
+     * @param collections the collections, may be null
+     * @return the reloaded collections
+     * @throws SQLException if database error
+     */
+    protected List<Collection> reloadCollections(Context c, List<Collection> collections) throws SQLException {
+        if (collections == null) {
+            return null;
+        }
+        List<Collection> reloaded = new ArrayList<>(collections.size());
+        for (Collection collection : collections) {
+            reloaded.add(c.reloadEntity(collection));
+        }
+        return reloaded;
+    }
+
+    /**
+     * Print the throughput of the import so far.
+     *
+     * @param imported  number of items imported
+     * @param startTime when the import started
+     */
+    protected void printStatistics(int imported, long startTime) {
+        double seconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+        String statistics = String.format(Locale.ROOT, "Imported %d items, %.1f MB in %.1f s (%.2f items/s, %.2f MB/s)",
+                                          imported, importedBytes / 1048576.0, seconds, imported / seconds,
+                                          importedBytes / 1048576.0 / seconds);
+        System.out.println(statistics);
+        log.info(statistics);
+    }
+
      /**
       * Add relationships from a 'relationships' manifest file.
       * 
@@ -1389,6 +1490,8 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             System.out.println("No contents file found - but only metadata files found. Assuming metadata only.");
         }
 
+        awaitBitstreams(c);
+
         return options;
     }
 
@@ -1410,9 +1513,10 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         IOException, AuthorizeException {
         String fullpath = path + File.separatorChar + fileName;
 
-        // get an input stream
-        BufferedInputStream bis = new BufferedInputStream(new FileInputStream(
-            fullpath));
+        if (isTest) {
+            // make sure the file can be read
+            openContentFile(fullpath).close();
+        }
 
         Bitstream bs = null;
         String newBundleName = bundleName;
@@ -1441,7 +1545,21 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             }
 
             // now add the bitstream
-            bs = bitstreamService.create(c, targetBundle, bis);
+            if (storageWorkers != null) {
+                // the bits are stored by a worker, the bitstream is added by awaitBitstreams()
+                pendingBitstreams.add(new PendingBitstream(targetBundle, fileName, primary,
+                    storageWorkers.submit(() -> {
+                        try (InputStream is = openContentFile(fullpath)) {
+                            return bitstreamStorageService.put(is);
+                        }
+                    })));
+                return;
+            }
+
+            try (InputStream is = openContentFile(fullpath)) {
+                bs = bitstreamService.create(c, targetBundle, is);
+            }
+            importedBytes += bs.getSizeBytes();
 
             bs.setName(c, fileName);
 
@@ -1459,8 +1577,94 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
             bitstreamService.update(c, bs);
         }
+    }
+
+    /**
+     * Open a content file of the import, either from the zip file the
+     * metadata was extracted from or from the file system.
+     *
+     * @param fullpath path of the file
+     * @return the bits of the file
+     * @throws IOException if IO error
+     */
+    protected InputStream openContentFile(String fullpath) throws IOException {
+        ZipEntry entry = zipContents.get(new File(fullpath).getPath());
+        if (entry != null) {
+            return new BufferedInputStream(zipSource.getInputStream(entry));
+        }
+        return new BufferedInputStream(new FileInputStream(fullpath));
+    }
+
+    /**
+     * Wait for the workers to store the bits of the bitstreams of the current
+     * item and add the bitstreams to their bundles. The bitstreams are only
+     * created once their bits are stored, so a failed import does not leave
+     * bitstreams without bits behind.
+     *
+     * @param c DSpace Context
+     * @throws SQLException       if database error
+     * @throws IOException        if IO error
+     * @throws AuthorizeException if authorization error
+     */
+    protected void awaitBitstreams(Context c) throws SQLException, IOException, AuthorizeException {
+        try {
+            for (PendingBitstream pending : pendingBitstreams) {
+                Bitstream stored = pending.stored.get();
+
+                Bitstream bs = bitstreamService.create(c, pending.bundle);
+                bs.setInternalId(stored.getInternalId());
+                bs.setStoreNumber(stored.getStoreNumber());
+                bs.setSizeBytes(stored.getSizeBytes());
+                bs.setChecksum(stored.getChecksum());
+                bs.setChecksumAlgorithm(stored.getChecksumAlgorithm());
+                importedBytes += bs.getSizeBytes();
+
+                bs.setName(c, pending.fileName);
+
+                // Identify the format
+                BitstreamFormat bf = bitstreamFormatService.guessFormat(c, bs);
+                bitstreamService.setFormat(c, bs, bf);
+
+                // Is this a the primary bitstream?
+                if (pending.primary) {
+                    pending.bundle.setPrimaryBitstreamID(bs);
+                    bundleService.update(c, pending.bundle);
+                }
+
+                bitstreamService.update(c, bs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while storing bitstreams", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to store bitstream", e.getCause());
+        } finally {
+            for (PendingBitstream pending : pendingBitstreams) {
+                pending.stored.cancel(true);
+            }
+            pendingBitstreams.clear();
+        }
+    }
 
-        bis.close();
+    /**
+     * A content file of the current item whose bits are stored by a worker.
+     */
+    protected static class PendingBitstream {
+        protected final Bundle bundle;
+        protected final String fileName;
+        protected final boolean primary;
+        // the detached bitstream returned by BitstreamStorageService.put()
+        protected final Future<Bitstream> stored;
+
+        protected PendingBitstream(Bundle bundle, String fileName, boolean primary, Future<Bitstream> stored) {
+            this.bundle = bundle;
+            this.fileName = fileName;
+            this.primary = primary;
+            this.stored = stored;
+        }
     }
 
     /**
@@ -1918,6 +2122,21 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
     @Override
     public String unzip(File zipfile, String destDir) throws IOException {
+        return unzip(zipfile, destDir, false);
+    }
+
+    /**
+     * Unzip a file to a destination.
+     *
+     * @param zipfile      file
+     * @param destDir      destination directory
+     * @param metadataOnly whether to leave the content files of the items in
+     *                     the zip file, which is then kept open to import them
+     *                     from
+     * @return unzip location
+     * @throws IOException if error
+     */
+    protected String unzip(File zipfile, String destDir, boolean metadataOnly) throws IOException {
         // 2
         // does the zip file exist and can we write to the temp directory
         if (!zipfile.canRead()) {
@@ -1948,6 +2167,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         String sourceDirForZip = sourcedir;
         ZipFile zf = new ZipFile(zipfile);
         ZipEntry entry;
+        Set<String> itemDirs = metadataOnly ? getItemDirectories(zf) : new HashSet<>();
         Enumeration<? extends ZipEntry> entries = zf.entries();
         while (entries.hasMoreElements()) {
             entry = entries.nextElement();
@@ -1964,9 +2184,6 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                                               + "' in file '" + zipfile.getAbsolutePath() + "'!"
                                               + " Cannot process this file.");
                 } else {
-                    System.out.println("Extracting file: " + entryName);
-                    log.info("Extracting file: " + entryName);
-
                     int index = entryName.lastIndexOf('/');
                     if (index == -1) {
                         // Was it created on Windows instead?
@@ -1993,6 +2210,14 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                             }
                         }
                     }
+                    if (isContentEntry(entryName, itemDirs)) {
+                        // read from the zip file when the item is imported
+                        zipContents.put(outFile.getPath(), entry);
+                        continue;
+                    }
+                    System.out.println("Extracting file: " + entryName);
+                    log.info("Extracting file: " + entryName);
+
                     byte[] buffer = new byte[1024];
                     int len;
                     InputStream in = zf.getInputStream(entry);
@@ -2007,8 +2232,13 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             }
         }
 
-        //Close zip file
-        zf.close();
+        if (metadataOnly) {
+            // keep the zip file open for the import
+            zipSource = zf;
+        } else {
+            //Close zip file
+            zf.close();
+        }
 
         if (!StringUtils.equals(sourceDirForZip, sourcedir)) {
             sourcedir = sourceDirForZip;
@@ -2025,6 +2255,74 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         return unzip(zipfile);
     }
 
+    @Override
+    public String unzipMetadata(String sourcedir, String zipfilename) throws IOException {
+        closeZipSource();
+        File zipfile = new File(sourcedir + File.separator + zipfilename);
+        return unzip(zipfile, null, true);
+    }
+
+    /**
+     * Find the item directories of a zip file, i.e. the directories with a
+     * contents file.
+     *
+     * @param zf the zip file
+     * @return the item directories, ending with '/'
+     */
+    protected Set<String> getItemDirectories(ZipFile zf) {
+        Set<String> itemDirs = new HashSet<>();
+        Enumeration<? extends ZipEntry> entries = zf.entries();
+        while (entries.hasMoreElements()) {
+            String entryName = entries.nextElement().getName().replace('\\', '/');
+            if (entryName.equals("contents") || entryName.endsWith("/contents")) {
+                itemDirs.add(entryName.substring(0, entryName.length() - "contents".length()));
+            }
+        }
+        return itemDirs;
+    }
+
+    /**
+     * Whether a zip entry is a content file of an item, which can be read
+     * from the zip file when the item is imported. Items without contents
+     * file are extracted completely, so that they are checked as before.
+     *
+     * @param entryName the name of the entry
+     * @param itemDirs  the item directories, see {@link #getItemDirectories(ZipFile)}
+     * @return true if the entry need not be extracted
+     */
+    protected boolean isContentEntry(String entryName, Set<String> itemDirs) {
+        String[] entryChunks = entryName.split("/|\\\\");
+        String fileName = entryChunks[entryChunks.length - 1];
+        if ("contents".equals(fileName) || "handle".equals(fileName) || "collections".equals(fileName)
+            || "relationships".equals(fileName) || "dublin_core.xml".equals(fileName)
+            || metadataFileFilter.accept(null, fileName)) {
+            return false;
+        }
+        StringBuilder dir = new StringBuilder();
+        for (int i = 0; i < entryChunks.length - 1; i++) {
+            dir.append(entryChunks[i]).append('/');
+            if (itemDirs.contains(dir.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Close the zip file the content files were read from.
+     */
+    protected void closeZipSource() {
+        zipContents.clear();
+        if (zipSource != null) {
+            try {
+                zipSource.close();
+            } catch (IOException e) {
+                log.warn("Unable to close zip file " + zipSource.getName(), e);
+            }
+            zipSource = null;
+        }
+    }
+
     /**
      * Generate a random filename based on current time
      *
@@ -2343,6 +2641,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
     @Override
     public void cleanupZipTemp() {
+        closeZipSource();
         System.out.println("Deleting temporary zip directory: " + tempWorkDir);
         log.debug("Deleting temporary zip directory: " + tempWorkDir);
         deleteDirectory(new File(tempWorkDir));
@@ -2373,4 +2672,14 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         this.isQuiet = isQuiet;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
 }
@@ -89,6 +89,18 @@ public interface ItemImportService {
      */
     public String unzip(String sourcedir, String zipfilename) throws IOException;
 
+    /**
+     * Unzip only the metadata files of the items of a zip file in a specific
+     * source directory. The content files are read from the zip file when the
+     * items are added, until {@link #cleanupZipTemp()} is called.
+     *
+     * @param sourcedir   source directory
+     * @param zipfilename file name
+     * @return unzip location
+     * @throws IOException if error
+     */
+    public String unzipMetadata(String sourcedir, String zipfilename) throws IOException;
+
     /**
      * Given a public URL to a zip file that has the Simple Archive Format, this method imports the contents to DSpace
      *
@@ -235,4 +247,18 @@ public interface ItemImportService {
      * @param isQuiet true or false
      */
     public void setQuiet(boolean isQuiet);
+
+    /**
+     * Set the number of threads storing the bitstreams of an item concurrently
+     *
+     * @param threads number of threads, 1 to store them one by one
+     */
+    public void setThreads(int threads);
+
+    /**
+     * Set the number of items added per transaction
+     *
+     * @param batchSize number of items, 0 to add all items in one transaction
+     */
+    public void setBatchSize(int batchSize);
 }
@@ -0,0 +1,205 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.core.SelfNamedPlugin;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.ThreadPoolUtils;
+
+/**
+ * Applies the media filters on bounded pools of worker threads, one pool per
+ * filter, while the {@link MediaFilterServiceImpl} walks the Communities,
+ * Collections and Items on the calling thread. The size of the pool of a
+ * filter is configured with {@code filter.<class-name>[.<plugin-name>].threads}
+ * and defaults to the number of threads given to the service, so that a filter
+ * which is not thread safe or uses a lot of memory can be limited to a single
+ * thread.
+ * <p>
+ * Every filter job uses a Context of its own. The jobs of one Item which
+ * write to the same bundle are serialized, so that no two filters create that
+ * bundle or replace a derivative in it at the same time, while filters writing
+ * to other bundles of the Item run concurrently. The maximum number of Items
+ * to process is checked before every job, so it may be exceeded by the number
+ * of Items filtered concurrently.
+ */
+public class MediaFilterPipeline {
+    private static final Logger log = LogManager.getLogger(MediaFilterPipeline.class);
+
+    protected final MediaFilterServiceImpl mediaFilterService;
+    protected final ItemService itemService;
+    protected final BitstreamService bitstreamService;
+    protected final Map<FormatFilter, ThreadPoolExecutor> pools = new LinkedHashMap<>();
+
+    /**
+     * @param mediaFilterService the service walking the DSpace hierarchy
+     * @param filters            the filters to apply
+     * @param threads            default number of worker threads per filter
+     */
+    public MediaFilterPipeline(MediaFilterServiceImpl mediaFilterService, List<FormatFilter> filters, int threads) {
+        this.mediaFilterService = mediaFilterService;
+        this.itemService = ContentServiceFactory.getInstance().getItemService();
+        this.bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        for (FormatFilter filter : filters) {
+            String pluginName = null;
+            if (filter instanceof SelfNamedPlugin) {
+                pluginName = ((SelfNamedPlugin) filter).getPluginInstanceName();
+            }
+            int size = configurationService.getIntProperty("filter." + filter.getClass().getName()
+                                                               + (pluginName != null ? "." + pluginName : "")
+                                                               + ".threads", threads);
+            pools.put(filter, newPool(Math.max(1, size)));
+        }
+    }
+
+    /**
+     * Hand the filter jobs for the bitstreams of an Item over to the workers.
+     *
+     * @param context the context the Item was loaded with
+     * @param item    the Item to filter
+     * @throws Exception if the bitstreams of the Item cannot be read
+     */
+    public void submit(Context context, Item item) throws Exception {
+        ItemJobs jobs = new ItemJobs(item.getID());
+        for (Bundle bundle : itemService.getBundles(item, "ORIGINAL")) {
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                for (Map.Entry<FormatFilter, ThreadPoolExecutor> pool : pools.entrySet()) {
+                    FormatFilter filter = pool.getKey();
+                    if (mediaFilterService.isApplicable(context, bitstream, filter)) {
+                        UUID bitstreamId = bitstream.getID();
+                        pool.getValue().execute(() -> filter(jobs, bitstreamId, filter));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for all submitted jobs to be done and stop the workers.
+     */
+    public void finish() {
+        try {
+            for (ThreadPoolExecutor pool : pools.values()) {
+                pool.shutdown();
+            }
+            for (ThreadPoolExecutor pool : pools.values()) {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for the media filters to complete");
+        } finally {
+            for (ThreadPoolExecutor pool : pools.values()) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Apply one filter to one bitstream with a context of its own.
+     *
+     * @param jobs        the jobs of the Item the bitstream belongs to
+     * @param bitstreamId ID of the bitstream
+     * @param filter      the filter to apply
+     */
+    protected void filter(ItemJobs jobs, UUID bitstreamId, FormatFilter filter) {
+        synchronized (jobs) {
+            if (!jobs.counted && mediaFilterService.processed.get() >= mediaFilterService.max2Process) {
+                return;
+            }
+        }
+        synchronized (jobs.getBundleLock(filter.getBundleName())) {
+            Context context = new Context();
+            try {
+                // have to be super-user to do the filtering
+                context.turnOffAuthorisationSystem();
+                Item item = itemService.find(context, jobs.itemId);
+                Bitstream bitstream = bitstreamService.find(context, bitstreamId);
+                if (item != null && bitstream != null) {
+                    mediaFilterService.currentItem.set(item);
+                    if (mediaFilterService.applyFilter(context, item, bitstream, filter)) {
+                        jobs.count(mediaFilterService);
+                    }
+                }
+                context.complete();
+            } catch (Exception e) {
+                mediaFilterService.logError("ERROR filtering bitstream " + bitstreamId + " of item " + jobs.itemId
+                                                + " with " + mediaFilterService.getFilterName(filter), e);
+            } finally {
+                mediaFilterService.currentItem.remove();
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a pool whose queue is bounded, so that the calling thread does
+     * not load all Items into memory.
+     *
+     * @param threads number of threads
+     * @return the pool
+     */
+    protected ThreadPoolExecutor newPool(int threads) {
+        return ThreadPoolUtils.newBlockingThreadPool(threads, threads * 2);
+    }
+
+    /**
+     * The state shared by the filter jobs of one Item.
+     */
+    protected static class ItemJobs {
+        protected final UUID itemId;
+
+        /**
+         * Whether the Item was counted as processed, guarded by this object.
+         */
+        protected boolean counted = false;
+
+        /**
+         * The locks of the bundles the filters of the Item write to.
+         */
+        protected final Map<String, Object> bundleLocks = new ConcurrentHashMap<>();
+
+        protected ItemJobs(UUID itemId) {
+            this.itemId = itemId;
+        }
+
+        protected Object getBundleLock(String bundleName) {
+            return bundleLocks.computeIfAbsent(bundleName, name -> new Object());
+        }
+
+        /**
+         * Count the Item as processed, unless it was counted already.
+         */
+        protected synchronized void count(MediaFilterServiceImpl mediaFilterService) {
+            if (!counted) {
+                counted = true;
+                mediaFilterService.processed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -57,6 +57,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
     private boolean isForce = false; // default to not forced
     private String identifier = null; // object scope limiter
     private int max2Process = Integer.MAX_VALUE;
+    private int threads = 1;
     private String[] filterNames;
     private String[] skipIds = null;
     private Map<String, List<String>> filterFormats = new HashMap<>();
@@ -97,6 +98,15 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
             }
         }
 
+        if (commandLine.hasOption('t')) {
+            threads = Integer.parseInt(commandLine.getOptionValue('t'));
+            if (threads < 1) {
+                handler.logWarning("Invalid number of threads '" +
+                                           commandLine.getOptionValue('t') + "' - ignoring");
+                threads = 1;
+            }
+        }
+
         if (commandLine.hasOption('p')) {
             //specified which media filter plugins we are using
             filterNames = commandLine.getOptionValues('p');
@@ -127,6 +137,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
         mediaFilterService.setQuiet(isQuiet);
         mediaFilterService.setVerbose(isVerbose);
         mediaFilterService.setMax2Process(max2Process);
+        mediaFilterService.setThreads(threads);
 
         //initialize an array of our enabled filters
         List<FormatFilter> filterList = new ArrayList<>();
@@ -248,10 +259,13 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
                         break;
                 }
             }
+            mediaFilterService.awaitCompletion();
 
             c.complete();
             c = null;
         } catch (Exception e) {
+            // let the jobs already handed over to the worker threads finish
+            mediaFilterService.awaitCompletion();
             handler.handleException(e);
         } finally {
             if (c != null) {
@@ -57,6 +57,7 @@ public class MediaFilterScriptConfiguration<T extends MediaFilterScript> extends
         options.getOption("f").setType(boolean.class);
         options.addOption("i", "identifier", true, "ONLY process bitstreams belonging to identifier");
         options.addOption("m", "maximum", true, "process no more than maximum items");
+        options.addOption("t", "threads", true, "number of threads applying each filter (default 1)");
         options.addOption("h", "help", false, "help");
         options.getOption("h").setType(boolean.class);
 
@@ -8,11 +8,16 @@
 package org.dspace.app.mediafilter;
 
 import java.io.InputStream;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.dspace.app.mediafilter.service.MediaFilterService;
 import org.dspace.authorize.service.AuthorizeService;
@@ -23,12 +28,14 @@ import org.dspace.content.Collection;
 import org.dspace.content.Community;
 import org.dspace.content.DCDate;
 import org.dspace.content.Item;
+import org.dspace.content.MetadataField;
 import org.dspace.content.service.BitstreamFormatService;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.content.service.BundleService;
 import org.dspace.content.service.CollectionService;
 import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.ItemService;
+import org.dspace.content.service.MetadataFieldService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.SelfNamedPlugin;
@@ -47,6 +54,14 @@ import org.springframework.beans.factory.annotation.Autowired;
  * recreate index after processing bitstreams; -i [identifier] limits processing
  * scope to a community, collection or item; and -m [max] limits processing to a
  * maximum number of items.
+ * <p>
+ * Derivative bitstreams record the checksum of their source and the version of
+ * the filter which produced them (dspace.mediafilter.source and
+ * dspace.mediafilter.version). Without -f, an existing derivative is only
+ * regenerated if one of these has changed since.
+ * <p>
+ * If more than one thread is configured, the items are discovered on the
+ * calling thread and the filters are applied by a {@link MediaFilterPipeline}.
  */
 public class MediaFilterServiceImpl implements MediaFilterService, InitializingBean {
     @Autowired(required = true)
@@ -67,14 +82,31 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     protected ItemService itemService;
     @Autowired(required = true)
     protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected MetadataFieldService metadataFieldService;
+
+    /**
+     * Metadata fields of a derivative bitstream recording the checksum of its
+     * source and the version of the filter which produced it.
+     */
+    protected static final String DERIVATIVE_SCHEMA = "dspace";
+    protected static final String DERIVATIVE_ELEMENT = "mediafilter";
+    protected static final String DERIVATIVE_SOURCE = "source";
+    protected static final String DERIVATIVE_VERSION = "version";
 
     protected DSpaceRunnableHandler handler;
 
     protected int max2Process = Integer.MAX_VALUE;  // maximum number items to process
 
-    protected int processed = 0;   // number items processed
+    protected final AtomicInteger processed = new AtomicInteger();   // number items processed
+
+    protected final ThreadLocal<Item> currentItem = new ThreadLocal<>();   // current item being processed
+
+    protected int threads = 1;   // default number of worker threads per filter
+
+    protected MediaFilterPipeline pipeline = null;
 
-    protected Item currentItem = null;   // current item being processed
+    protected final Map<String, FilterStatistics> statistics = new ConcurrentHashMap<>();
 
     protected List<FormatFilter> filterClasses = null;
 
@@ -117,7 +149,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         } else {
             //otherwise, just find every item and process
             Iterator<Item> itemIterator = itemService.findAll(context);
-            while (itemIterator.hasNext() && processed < max2Process) {
+            while (itemIterator.hasNext() && processed.get() < max2Process) {
                 applyFiltersItem(context, itemIterator.next());
             }
         }
@@ -145,7 +177,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         //only apply filters if collection not in skip-list
         if (!inSkipList(collection.getHandle())) {
             Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
+            while (itemIterator.hasNext() && processed.get() < max2Process) {
                 applyFiltersItem(context, itemIterator.next());
             }
         }
@@ -155,17 +187,27 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     public void applyFiltersItem(Context c, Item item) throws Exception {
         //only apply filters if item not in skip-list
         if (!inSkipList(item.getHandle())) {
+            if (threads > 1) {
+                // hand the filter jobs over to the worker threads
+                if (pipeline == null) {
+                    pipeline = new MediaFilterPipeline(this, filterClasses, threads);
+                }
+                pipeline.submit(c, item);
+                c.uncacheEntity(item);
+                return;
+            }
+
             //cache this item in MediaFilterManager
             //so it can be accessed by MediaFilters as necessary
-            currentItem = item;
+            currentItem.set(item);
 
             if (filterItem(c, item)) {
                 // increment processed count
-                ++processed;
+                processed.incrementAndGet();
             }
             // clear item objects from context cache and internal cache
-            c.uncacheEntity(currentItem);
-            currentItem = null;
+            c.uncacheEntity(item);
+            currentItem.remove();
         }
     }
 
@@ -193,111 +235,139 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         // iterate through filter classes. A single format may be actioned
         // by more than one filter
         for (FormatFilter filterClass : filterClasses) {
-            //List fmts = (List)filterFormats.get(filterClasses[i].getClass().getName());
-            String pluginName = null;
-
-            //if this filter class is a SelfNamedPlugin,
-            //its list of supported formats is different for
-            //differently named "plugin"
-            if (SelfNamedPlugin.class.isAssignableFrom(filterClass.getClass())) {
-                //get plugin instance name for this media filter
-                pluginName = ((SelfNamedPlugin) filterClass).getPluginInstanceName();
+            if (isApplicable(context, myBitstream, filterClass)) {
+                filtered |= applyFilter(context, myItem, myBitstream, filterClass);
             }
+        }
+        return filtered;
+    }
 
-            //Get list of supported formats for the filter (and possibly named plugin)
-            //For SelfNamedPlugins, map key is:
-            //  <class-name><separator><plugin-name>
-            //For other MediaFilters, map key is just:
-            //  <class-name>
-            List<String> fmts = filterFormats.get(filterClass.getClass().getName() +
-                                                      (pluginName != null ? FILTER_PLUGIN_SEPARATOR + pluginName : ""));
-
-            if (fmts.contains(myBitstream.getFormat(context).getShortDescription())) {
-                try {
-                    // only update item if bitstream not skipped
-                    if (processBitstream(context, myItem, myBitstream, filterClass)) {
-                        itemService.update(context, myItem); // Make sure new bitstream has a sequence
-                        // number
-                        filtered = true;
-                    }
-                } catch (Exception e) {
-                    String handle = myItem.getHandle();
-                    List<Bundle> bundles = myBitstream.getBundles();
-                    long size = myBitstream.getSizeBytes();
-                    String checksum = myBitstream.getChecksum() + " (" + myBitstream.getChecksumAlgorithm() + ")";
-                    int assetstore = myBitstream.getStoreNumber();
-
-                    // Printout helpful information to find the errored bitstream.
-                    StringBuilder sb = new StringBuilder("ERROR filtering, skipping bitstream:\n");
-                    sb.append("\tItem Handle: ").append(handle);
-                    for (Bundle bundle : bundles) {
-                        sb.append("\tBundle Name: ").append(bundle.getName());
-                    }
-                    sb.append("\tFile Size: ").append(size);
-                    sb.append("\tChecksum: ").append(checksum);
-                    sb.append("\tAsset Store: ").append(assetstore);
-                    logError(sb.toString());
-                    logError(e.getMessage(), e);
-                }
-            } else if (filterClass instanceof SelfRegisterInputFormats) {
-                // Filter implements self registration, so check to see if it should be applied
-                // given the formats it claims to support
-                SelfRegisterInputFormats srif = (SelfRegisterInputFormats) filterClass;
-                boolean applyFilter = false;
-
-                // Check MIME type
-                String[] mimeTypes = srif.getInputMIMETypes();
-                if (mimeTypes != null) {
-                    for (String mimeType : mimeTypes) {
-                        if (mimeType.equalsIgnoreCase(myBitstream.getFormat(context).getMIMEType())) {
-                            applyFilter = true;
-                        }
-                    }
-                }
+    /**
+     * Check whether a filter handles the format of a bitstream, either
+     * through the input formats configured for it or through the formats it
+     * registers itself.
+     *
+     * @param context     context
+     * @param myBitstream bitstream
+     * @param filterClass filter
+     * @return true if the filter should be applied to the bitstream
+     * @throws SQLException if database error
+     */
+    protected boolean isApplicable(Context context, Bitstream myBitstream, FormatFilter filterClass)
+        throws SQLException {
+        //List fmts = (List)filterFormats.get(filterClasses[i].getClass().getName());
+        String pluginName = null;
+
+        //if this filter class is a SelfNamedPlugin,
+        //its list of supported formats is different for
+        //differently named "plugin"
+        if (SelfNamedPlugin.class.isAssignableFrom(filterClass.getClass())) {
+            //get plugin instance name for this media filter
+            pluginName = ((SelfNamedPlugin) filterClass).getPluginInstanceName();
+        }
 
-                // Check description
-                if (!applyFilter) {
-                    String[] descriptions = srif.getInputDescriptions();
-                    if (descriptions != null) {
-                        for (String desc : descriptions) {
-                            if (desc.equalsIgnoreCase(myBitstream.getFormat(context).getShortDescription())) {
-                                applyFilter = true;
-                            }
-                        }
-                    }
+        //Get list of supported formats for the filter (and possibly named plugin)
+        //For SelfNamedPlugins, map key is:
+        //  <class-name><separator><plugin-name>
+        //For other MediaFilters, map key is just:
+        //  <class-name>
+        List<String> fmts = filterFormats.get(filterClass.getClass().getName() +
+                                                  (pluginName != null ? FILTER_PLUGIN_SEPARATOR + pluginName : ""));
+
+        BitstreamFormat format = myBitstream.getFormat(context);
+        if (fmts != null && fmts.contains(format.getShortDescription())) {
+            return true;
+        }
+        if (!(filterClass instanceof SelfRegisterInputFormats)) {
+            return false;
+        }
+
+        // Filter implements self registration, so check to see if it should be applied
+        // given the formats it claims to support
+        SelfRegisterInputFormats srif = (SelfRegisterInputFormats) filterClass;
+
+        // Check MIME type
+        String[] mimeTypes = srif.getInputMIMETypes();
+        if (mimeTypes != null) {
+            for (String mimeType : mimeTypes) {
+                if (mimeType.equalsIgnoreCase(format.getMIMEType())) {
+                    return true;
                 }
+            }
+        }
 
-                // Check extensions
-                if (!applyFilter) {
-                    String[] extensions = srif.getInputExtensions();
-                    if (extensions != null) {
-                        for (String ext : extensions) {
-                            List<String> formatExtensions = myBitstream.getFormat(context).getExtensions();
-                            if (formatExtensions != null && formatExtensions.contains(ext)) {
-                                applyFilter = true;
-                            }
-                        }
-                    }
+        // Check description
+        String[] descriptions = srif.getInputDescriptions();
+        if (descriptions != null) {
+            for (String desc : descriptions) {
+                if (desc.equalsIgnoreCase(format.getShortDescription())) {
+                    return true;
                 }
+            }
+        }
 
-                // Filter claims to handle this type of file, so attempt to apply it
-                if (applyFilter) {
-                    try {
-                        // only update item if bitstream not skipped
-                        if (processBitstream(context, myItem, myBitstream, filterClass)) {
-                            itemService.update(context, myItem); // Make sure new bitstream has a sequence
-                            // number
-                            filtered = true;
-                        }
-                    } catch (Exception e) {
-                        logError("ERROR filtering, skipping bitstream #"
-                                               + myBitstream.getID() + " " + e);
-                        e.printStackTrace();
-                    }
+        // Check extensions
+        String[] extensions = srif.getInputExtensions();
+        if (extensions != null) {
+            List<String> formatExtensions = format.getExtensions();
+            for (String ext : extensions) {
+                if (formatExtensions != null && formatExtensions.contains(ext)) {
+                    return true;
                 }
             }
         }
-        return filtered;
+        return false;
+    }
+
+    /**
+     * Apply a filter to a bitstream and update the item if a new bitstream
+     * was created. Exceptions from filtering are logged and swallowed. The
+     * time spent is added to the statistics of the filter.
+     *
+     * @param context     context
+     * @param myItem      item
+     * @param myBitstream bitstream
+     * @param filterClass filter
+     * @return true if a new bitstream was created
+     * @throws Exception if the error cannot be reported
+     */
+    protected boolean applyFilter(Context context, Item myItem, Bitstream myBitstream, FormatFilter filterClass)
+        throws Exception {
+        FilterStatistics stats = statistics.computeIfAbsent(getFilterName(filterClass),
+                                                            name -> new FilterStatistics());
+        long start = System.nanoTime();
+        try {
+            // only update item if bitstream not skipped
+            if (processBitstream(context, myItem, myBitstream, filterClass)) {
+                itemService.update(context, myItem); // Make sure new bitstream has a sequence
+                // number
+                stats.filtered.increment();
+                return true;
+            }
+        } catch (Exception e) {
+            stats.failed.increment();
+            String handle = myItem.getHandle();
+            List<Bundle> bundles = myBitstream.getBundles();
+            long size = myBitstream.getSizeBytes();
+            String checksum = myBitstream.getChecksum() + " (" + myBitstream.getChecksumAlgorithm() + ")";
+            int assetstore = myBitstream.getStoreNumber();
+
+            // Printout helpful information to find the errored bitstream.
+            StringBuilder sb = new StringBuilder("ERROR filtering, skipping bitstream:\n");
+            sb.append("\tItem Handle: ").append(handle);
+            for (Bundle bundle : bundles) {
+                sb.append("\tBundle Name: ").append(bundle.getName());
+            }
+            sb.append("\tFile Size: ").append(size);
+            sb.append("\tChecksum: ").append(checksum);
+            sb.append("\tAsset Store: ").append(assetstore);
+            logError(sb.toString());
+            logError(e.getMessage(), e);
+        } finally {
+            stats.bitstreams.increment();
+            stats.nanos.add(System.nanoTime() - start);
+        }
+        return false;
     }
 
     @Override
@@ -332,8 +402,13 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             }
         }
 
-        // if exists and overwrite = false, exit
-        if (!overWrite && (existingBitstream != null)) {
+        String sourceChecksum = source.getChecksumAlgorithm() + ":" + source.getChecksum();
+        String filterVersion = getFilterVersion(formatFilter);
+
+        // if exists and overwrite = false, exit unless it was produced from
+        // another source or by another version of the filter
+        if (!overWrite && (existingBitstream != null)
+            && !isOutdated(existingBitstream, sourceChecksum, filterVersion)) {
             if (!isQuiet) {
                 logInfo("SKIPPED: bitstream " + source.getID()
                                        + " (item: " + item.getHandle() + ") because '" + newName + "' already exists");
@@ -342,6 +417,11 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             return false;
         }
 
+        if (existingBitstream != null && !overWrite && !isQuiet) {
+            logInfo("OUTDATED: '" + newName + "' (item: " + item.getHandle()
+                        + ") was produced from another source or filter version");
+        }
+
         if (isVerbose) {
             logInfo("PROCESSING: bitstream " + source.getID()
                                    + " (item: " + item.getHandle() + ")");
@@ -385,6 +465,9 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             BitstreamFormat bf = bitstreamFormatService.findByShortDescription(context,
                     formatFilter.getFormatString());
             bitstreamService.setFormat(context, b, bf);
+            // record what the derivative was produced from
+            addDerivativeMetadata(context, b, DERIVATIVE_SOURCE, sourceChecksum);
+            addDerivativeMetadata(context, b, DERIVATIVE_VERSION, filterVersion);
             bitstreamService.update(context, b);
 
             //Set permissions on the derivative bitstream
@@ -424,7 +507,92 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     @Override
     public Item getCurrentItem() {
-        return currentItem;
+        return currentItem.get();
+    }
+
+    @Override
+    public void awaitCompletion() {
+        if (pipeline != null) {
+            try {
+                pipeline.finish();
+            } finally {
+                pipeline = null;
+            }
+        }
+        if (!isQuiet) {
+            for (Map.Entry<String, FilterStatistics> entry : new TreeMap<>(statistics).entrySet()) {
+                FilterStatistics stats = entry.getValue();
+                long bitstreams = stats.bitstreams.sum();
+                long millis = stats.nanos.sum() / 1000000;
+                logInfo("STATISTICS: " + entry.getKey() + ": " + bitstreams + " bitstream(s), "
+                            + stats.filtered.sum() + " filtered, " + stats.failed.sum() + " failed, "
+                            + millis + " ms (" + (bitstreams > 0 ? millis / bitstreams : 0) + " ms per bitstream)");
+            }
+        }
+        statistics.clear();
+    }
+
+    /**
+     * Check whether a derivative was produced from another source or by
+     * another version of the filter. Derivatives which do not record this
+     * (e.g. those produced by older DSpace versions) are never outdated.
+     *
+     * @param derivative     the existing derivative bitstream
+     * @param sourceChecksum algorithm and checksum of the current source
+     * @param filterVersion  the current version of the filter
+     * @return true if the derivative should be regenerated
+     */
+    protected boolean isOutdated(Bitstream derivative, String sourceChecksum, String filterVersion) {
+        String recordedSource = bitstreamService.getMetadataFirstValue(derivative, DERIVATIVE_SCHEMA,
+                                                                       DERIVATIVE_ELEMENT, DERIVATIVE_SOURCE,
+                                                                       Item.ANY);
+        String recordedVersion = bitstreamService.getMetadataFirstValue(derivative, DERIVATIVE_SCHEMA,
+                                                                        DERIVATIVE_ELEMENT, DERIVATIVE_VERSION,
+                                                                        Item.ANY);
+        if (recordedSource == null && recordedVersion == null) {
+            return false;
+        }
+        return !sourceChecksum.equals(recordedSource) || !filterVersion.equals(recordedVersion);
+    }
+
+    /**
+     * The version of a filter is its class name, its plugin name if it is a
+     * SelfNamedPlugin and {@code filter.<class-name>[.<plugin-name>].version}
+     * (default 1). Increase the configured version to regenerate all
+     * derivatives of a filter, e.g. after changing its settings.
+     *
+     * @param filter a filter
+     * @return the version of the filter
+     */
+    protected String getFilterVersion(FormatFilter filter) {
+        String name = filter.getClass().getName();
+        if (filter instanceof SelfNamedPlugin && ((SelfNamedPlugin) filter).getPluginInstanceName() != null) {
+            name += "." + ((SelfNamedPlugin) filter).getPluginInstanceName();
+        }
+        return name + ":" + configurationService.getProperty("filter." + name + ".version", "1");
+    }
+
+    /**
+     * Add a value to a derivative metadata field, if the field is registered.
+     */
+    protected void addDerivativeMetadata(Context context, Bitstream derivative, String qualifier, String value)
+        throws SQLException {
+        MetadataField field = metadataFieldService.findByElement(context, DERIVATIVE_SCHEMA, DERIVATIVE_ELEMENT,
+                                                                 qualifier);
+        if (field != null) {
+            bitstreamService.addMetadata(context, derivative, field, null, value);
+        }
+    }
+
+    /**
+     * @param filter a filter
+     * @return the name of the filter in the statistics
+     */
+    protected String getFilterName(FormatFilter filter) {
+        if (filter instanceof SelfNamedPlugin && ((SelfNamedPlugin) filter).getPluginInstanceName() != null) {
+            return ((SelfNamedPlugin) filter).getPluginInstanceName();
+        }
+        return filter.getClass().getSimpleName();
     }
 
     @Override
@@ -439,21 +607,21 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         }
     }
 
-    private void logInfo(String message) {
+    synchronized void logInfo(String message) {
         if (handler != null) {
             handler.logInfo(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message) {
+    private synchronized void logError(String message) {
         if (handler != null) {
             handler.logError(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message, Exception e) {
+    synchronized void logError(String message, Exception e) {
         if (handler != null) {
             handler.logError(message, e);
         } else {
@@ -481,6 +649,11 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         this.max2Process = max2Process;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public void setFilterClasses(List<FormatFilter> filterClasses) {
         this.filterClasses = filterClasses;
@@ -500,4 +673,14 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     public void setLogHandler(DSpaceRunnableHandler handler) {
         this.handler = handler;
     }
+
+    /**
+     * Number of bitstreams and time spent per filter.
+     */
+    protected static class FilterStatistics {
+        protected final LongAdder bitstreams = new LongAdder();
+        protected final LongAdder filtered = new LongAdder();
+        protected final LongAdder failed = new LongAdder();
+        protected final LongAdder nanos = new LongAdder();
+    }
 }
@@ -112,6 +112,12 @@ public interface MediaFilterService {
      */
     public boolean inSkipList(String identifier);
 
+    /**
+     * Wait until all filters submitted to worker threads have been applied,
+     * and log the number of bitstreams and the time spent per filter.
+     */
+    public void awaitCompletion();
+
     public void setVerbose(boolean isVerbose);
 
     public void setQuiet(boolean isQuiet);
@@ -120,6 +126,17 @@ public interface MediaFilterService {
 
     public void setMax2Process(int max2Process);
 
+    /**
+     * Set the number of worker threads applying each filter. With more than
+     * one thread, the filters are applied in the background and
+     * {@link #awaitCompletion()} has to be called at the end.
+     * The number can be overridden per filter with
+     * {@code filter.<class-name>[.<plugin-name>].threads}.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(int threads);
+
     public void setFilterClasses(List<FormatFilter> filterClasses);
 
     public void setSkipList(List<String> skipList);
@@ -95,6 +95,10 @@ public class GenerateSitemaps {
         options
             .addOption("d", "delete", false,
                 "delete sitemaps dir and its contents");
+        options
+            .addOption("i", "incremental", false,
+                "only rewrite the gzip compressed sitemaps.org shards containing items modified since the "
+                    + "last incremental run");
 
         CommandLine line = null;
 
@@ -130,7 +134,7 @@ public class GenerateSitemaps {
 
         // Note the negation (CLI options indicate NOT to generate a sitemap)
         if (!line.hasOption('b') || !line.hasOption('s')) {
-            generateSitemaps(!line.hasOption('b'), !line.hasOption('s'));
+            generateSitemaps(!line.hasOption('b'), !line.hasOption('s'), line.hasOption('i'));
         }
 
         if (line.hasOption('d')) {
@@ -161,7 +165,7 @@ public class GenerateSitemaps {
      * @throws IOException  if IO error occurs.
      */
     public static void generateSitemapsScheduled() throws IOException, SQLException {
-        generateSitemaps(true, true);
+        generateSitemaps(true, true, configurationService.getBooleanProperty("sitemap.incremental", false));
     }
 
     /**
@@ -188,6 +192,27 @@ public class GenerateSitemaps {
      *                      if IO error occurs.
      */
     public static void generateSitemaps(boolean makeHTMLMap, boolean makeSitemapOrg) throws SQLException, IOException {
+        generateSitemaps(makeHTMLMap, makeSitemapOrg, false);
+    }
+
+    /**
+     * Generate sitemap.org protocol and/or basic HTML sitemaps. In incremental
+     * mode the sitemaps.org sitemap is written by the
+     * {@link IncrementalSitemapGenerator}, which only rewrites the shards
+     * containing items modified since its last run. The HTML sitemap is
+     * always generated in full.
+     *
+     * @param makeHTMLMap    if {@code true}, generate an HTML sitemap.
+     * @param makeSitemapOrg if {@code true}, generate an sitemap.org sitemap.
+     * @param incremental    if {@code true}, update the sitemap.org sitemap
+     *                       incrementally.
+     * @throws SQLException if database error
+     *                      if a database error occurs.
+     * @throws IOException  if IO error
+     *                      if IO error occurs.
+     */
+    public static void generateSitemaps(boolean makeHTMLMap, boolean makeSitemapOrg, boolean incremental)
+        throws SQLException, IOException {
         String uiURLStem = configurationService.getProperty("dspace.ui.url");
         String sitemapStem = uiURLStem + "/sitemap";
 
@@ -203,8 +228,21 @@ public class GenerateSitemaps {
             html = new HTMLSitemapGenerator(outputDir, sitemapStem, ".html");
         }
 
-        if (makeSitemapOrg) {
+        if (makeSitemapOrg && incremental) {
+            Context context = new Context(Context.Mode.READ_ONLY);
+            try {
+                newIncrementalGenerator(outputDir, sitemapStem).generate(context, uiURLStem);
+            } finally {
+                context.abort();
+            }
+            makeSitemapOrg = false;
+            if (!makeHTMLMap) {
+                return;
+            }
+        } else if (makeSitemapOrg) {
             sitemapsOrg = new SitemapsOrgGenerator(outputDir, sitemapStem, ".xml");
+            // the incremental shards are not updated by this run, and would be listed in no index
+            newIncrementalGenerator(outputDir, sitemapStem).deleteShards();
         }
 
         Context c = new Context(Context.Mode.READ_ONLY);
@@ -245,26 +283,8 @@ public class GenerateSitemaps {
         while (allItems.hasNext()) {
             Item i = allItems.next();
 
-            DiscoverQuery entityQuery = new DiscoverQuery();
-            entityQuery.setQuery("search.uniqueid:\"Item-" + i.getID() + "\" and entityType:*");
-            entityQuery.addSearchField("entityType");
-
             try {
-                DiscoverResult discoverResult = searchService.search(c, entityQuery);
-
-                String url;
-                if (CollectionUtils.isNotEmpty(discoverResult.getIndexableObjects())
-                    && CollectionUtils.isNotEmpty(discoverResult.getSearchDocument(
-                        discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType"))
-                    && StringUtils.isNotBlank(discoverResult.getSearchDocument(
-                        discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType").get(0))
-                ) {
-                    url = uiURLStem + "/entities/" + StringUtils.lowerCase(discoverResult.getSearchDocument(
-                            discoverResult.getIndexableObjects().get(0))
-                        .get(0).getSearchFieldValues("entityType").get(0)) + "/" + i.getID();
-                } else {
-                    url = uiURLStem + "/items/" + i.getID();
-                }
+                String url = getItemURL(c, i, uiURLStem);
                 Date lastMod = i.getLastModified();
 
                 if (makeHTMLMap) {
@@ -301,6 +321,42 @@ public class GenerateSitemaps {
         c.abort();
     }
 
+    private static IncrementalSitemapGenerator newIncrementalGenerator(File outputDir, String sitemapStem) {
+        return new IncrementalSitemapGenerator(outputDir, new SitemapsOrgGenerator(outputDir, sitemapStem, ".xml.gz"),
+                                               configurationService.getIntProperty("sitemap.incremental.shard.size",
+                                                                                   25000));
+    }
+
+    /**
+     * Return the URL of an Item in the user interface, which depends on its
+     * entity type.
+     *
+     * @param c         DSpace context
+     * @param i         the Item
+     * @param uiURLStem base URL of the user interface
+     * @return the URL of the Item
+     * @throws SearchServiceException if the entity type cannot be looked up
+     */
+    static String getItemURL(Context c, Item i, String uiURLStem) throws SearchServiceException {
+        DiscoverQuery entityQuery = new DiscoverQuery();
+        entityQuery.setQuery("search.uniqueid:\"Item-" + i.getID() + "\" and entityType:*");
+        entityQuery.addSearchField("entityType");
+
+        DiscoverResult discoverResult = searchService.search(c, entityQuery);
+
+        if (CollectionUtils.isNotEmpty(discoverResult.getIndexableObjects())
+            && CollectionUtils.isNotEmpty(discoverResult.getSearchDocument(
+                discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType"))
+            && StringUtils.isNotBlank(discoverResult.getSearchDocument(
+                discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType").get(0))
+        ) {
+            return uiURLStem + "/entities/" + StringUtils.lowerCase(discoverResult.getSearchDocument(
+                    discoverResult.getIndexableObjects().get(0))
+                .get(0).getSearchFieldValues("entityType").get(0)) + "/" + i.getID();
+        }
+        return uiURLStem + "/items/" + i.getID();
+    }
+
     /**
      * Ping all search engines configured in {@code dspace.cfg}.
      *
@@ -0,0 +1,473 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.sitemap;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.core.LogHelper;
+import org.dspace.discovery.SearchServiceException;
+
+/**
+ * Generates Sitemaps.org sitemaps incrementally. Items are spread over a fixed
+ * number of gzip compressed shards by a hash of their UUID, so every Item
+ * always lives in the same shard. The first run writes all shards; following
+ * runs only rewrite the shards containing Items modified since the previous
+ * run, copying the unchanged entries of the existing shard file. Communities
+ * and Collections are written to shard 0, which is rewritten on every run.
+ * <P>
+ * The number of shards, the time and the timings of the last run are kept in
+ * a state file in the sitemap directory. All shards are written again if the
+ * state file is missing, or if a shard grew beyond the limits of the
+ * sitemaps.org protocol; a full run uses more shards if one of them grows
+ * beyond these limits. Deleted Items cannot be found by their modification
+ * date, so they are only dropped when their shard is rewritten for another
+ * Item or on the next full run; remove the state file from time to time.
+ * A run of {@code generate-sitemaps} without {@code -i} deletes the shards.
+ * <P>
+ * If the entry of an Item cannot be determined, e.g. because Solr is not
+ * available, the run fails without changing any shard or the state, so that
+ * the next run picks up the same modified Items.
+ *
+ * @see GenerateSitemaps
+ */
+public class IncrementalSitemapGenerator {
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(IncrementalSitemapGenerator.class);
+
+    /**
+     * Name of the file the state of the last run is kept in.
+     */
+    public static final String STATE_FILENAME = "sitemap_state.properties";
+
+    /**
+     * Matches the UUID in an entry of a shard. Only entries contain a UUID, the
+     * boilerplate around them does not.
+     */
+    protected static final Pattern UUID_PATTERN =
+        Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    protected static final String STATE_SHARDS = "shards";
+    protected static final String STATE_LAST_RUN = "last.run";
+    protected static final String STATE_LAST_RUN_MODE = "last.run.mode";
+    protected static final String STATE_LAST_RUN_DURATION = "last.run.duration";
+    protected static final String STATE_LAST_RUN_ITEMS = "last.run.items";
+    protected static final String STATE_LAST_RUN_SHARDS_WRITTEN = "last.run.shards.written";
+
+    protected final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+    protected final CollectionService collectionService =
+        ContentServiceFactory.getInstance().getCollectionService();
+    protected final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    /**
+     * Directory files are written to
+     */
+    protected final File outputDir;
+
+    /**
+     * Generator used for the markup of entries and of the index
+     */
+    protected final AbstractGenerator format;
+
+    /**
+     * Number of Items a shard holds after a full run
+     */
+    protected final int shardSize;
+
+    /**
+     * Construct an incremental generator.
+     *
+     * @param outputDirIn directory to write sitemap files to
+     * @param format      generator providing the markup; its URL tail must
+     *                    match the compressed file names, e.g. {@code .xml.gz}
+     * @param shardSize   number of Items per shard after a full run. Keep this
+     *                    well below {@link AbstractGenerator#getMaxURLs()},
+     *                    so that shards can grow between full runs.
+     */
+    public IncrementalSitemapGenerator(File outputDirIn, AbstractGenerator format, int shardSize) {
+        this.outputDir = outputDirIn;
+        this.format = format;
+        this.shardSize = Math.max(1, Math.min(shardSize, format.getMaxURLs()));
+    }
+
+    /**
+     * Write the sitemap shards which changed since the last run, or all of
+     * them if there is no usable state, and the index.
+     *
+     * @param c         DSpace context
+     * @param uiURLStem base URL of the user interface
+     * @throws SQLException if database error
+     * @throws IOException  if IO error
+     */
+    public void generate(Context c, String uiURLStem) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        Properties state = loadState();
+        int shards = Integer.parseInt(state.getProperty(STATE_SHARDS, "0"));
+        long lastRun = Long.parseLong(state.getProperty(STATE_LAST_RUN, "0"));
+
+        boolean full = shards <= 0 || lastRun <= 0;
+        for (int i = 1; !full && i <= shards; i++) {
+            full = !getShardFile(i).exists();
+        }
+
+        int structure = writeStructure(c, uiURLStem);
+        long structureTime = System.currentTimeMillis() - start;
+
+        int[] counts = null;
+        if (!full) {
+            counts = updateShards(c, uiURLStem, shards, new Date(lastRun));
+            if (counts == null) {
+                log.info("A sitemap shard grew too large, writing all shards again");
+                full = true;
+            }
+        }
+        if (full) {
+            int archived = itemService.countArchivedItems(c);
+            shards = Math.max(1, (archived + shardSize - 1) / shardSize);
+            counts = writeAllShards(c, uiURLStem, shards);
+            // the hash does not spread the Items evenly, use more shards until none of them is too large
+            while (counts == null) {
+                shards *= 2;
+                log.info("A sitemap shard grew too large, writing all Items to " + shards + " shards");
+                counts = writeAllShards(c, uiURLStem, shards, shards >= archived);
+            }
+        }
+        long itemTime = System.currentTimeMillis() - start - structureTime;
+
+        writeIndex(shards + 1);
+        deleteStaleFiles(shards + 1);
+
+        long duration = System.currentTimeMillis() - start;
+        state.setProperty(STATE_SHARDS, String.valueOf(shards));
+        state.setProperty(STATE_LAST_RUN, String.valueOf(start));
+        state.setProperty(STATE_LAST_RUN_MODE, full ? "full" : "incremental");
+        state.setProperty(STATE_LAST_RUN_DURATION, String.valueOf(duration));
+        state.setProperty(STATE_LAST_RUN_ITEMS, String.valueOf(counts[0]));
+        state.setProperty(STATE_LAST_RUN_SHARDS_WRITTEN, String.valueOf(counts[1]));
+        saveState(state);
+
+        log.info(LogHelper.getHeader(c, "write_sitemap",
+                                      "type=sitemaps.org,mode=" + (full ? "full" : "incremental")
+                                          + ",num_files=" + (shards + 1) + ",files_written=" + (counts[1] + 1)
+                                          + ",structure=" + structure + ",items=" + counts[0]
+                                          + ",structure_ms=" + structureTime + ",items_ms=" + itemTime
+                                          + ",total_ms=" + duration));
+    }
+
+    /**
+     * Write shard 0 with all Communities and Collections.
+     *
+     * @return number of URLs written
+     */
+    protected int writeStructure(Context c, String uiURLStem) throws SQLException, IOException {
+        File target = getShardFile(0);
+        File tmp = getTempFile(target);
+        List<Community> comms = communityService.findAll(c);
+        List<Collection> colls = collectionService.findAll(c);
+        try (ShardWriter out = new ShardWriter(tmp)) {
+            for (Community comm : comms) {
+                out.write(format.getURLText(uiURLStem + "/communities/" + comm.getID(), null));
+                c.uncacheEntity(comm);
+            }
+            for (Collection coll : colls) {
+                out.write(format.getURLText(uiURLStem + "/collections/" + coll.getID(), null));
+                c.uncacheEntity(coll);
+            }
+        }
+        replace(tmp, target);
+        return comms.size() + colls.size();
+    }
+
+    /**
+     * Write all Item shards from scratch.
+     *
+     * @return the number of Items written and the number of shards written,
+     * or {@code null} if a shard exceeds the limits of the sitemap format.
+     * The existing shards are kept in that case.
+     */
+    protected int[] writeAllShards(Context c, String uiURLStem, int shards) throws SQLException, IOException {
+        return writeAllShards(c, uiURLStem, shards, false);
+    }
+
+    /**
+     * Write all Item shards from scratch.
+     *
+     * @param force whether to keep the shards even if one of them exceeds the
+     *              limits of the sitemap format, as more shards do not help
+     * @return the number of Items written and the number of shards written,
+     * or {@code null} if a shard exceeds the limits of the sitemap format and
+     * force is not set. The existing shards are kept in that case.
+     */
+    protected int[] writeAllShards(Context c, String uiURLStem, int shards, boolean force)
+        throws SQLException, IOException {
+        ShardWriter[] writers = new ShardWriter[shards];
+        int items = 0;
+        boolean overflow = false;
+        try {
+            for (int i = 0; i < shards; i++) {
+                writers[i] = new ShardWriter(getTempFile(getShardFile(i + 1)));
+            }
+            Iterator<Item> allItems = itemService.findAll(c);
+            while (allItems.hasNext()) {
+                Item item = allItems.next();
+                String text = getURLText(c, item, uiURLStem);
+                if (text != null) {
+                    writers[getShard(item.getID(), shards) - 1].write(text);
+                    items++;
+                }
+                c.uncacheEntity(item);
+            }
+        } finally {
+            for (ShardWriter writer : writers) {
+                if (writer != null) {
+                    writer.close();
+                    overflow |= writer.isOverflowing();
+                }
+            }
+        }
+        if (overflow && !force) {
+            for (int i = 1; i <= shards; i++) {
+                Files.deleteIfExists(getTempFile(getShardFile(i)).toPath());
+            }
+            return null;
+        }
+        for (int i = 1; i <= shards; i++) {
+            File target = getShardFile(i);
+            replace(getTempFile(target), target);
+        }
+        return new int[] {items, shards};
+    }
+
+    /**
+     * Rewrite the shards containing Items modified since the last run.
+     *
+     * @return the number of Items written and the number of shards written,
+     * or {@code null} if a shard exceeds the limits of the sitemap format.
+     */
+    protected int[] updateShards(Context c, String uiURLStem, int shards, Date since)
+        throws SQLException, IOException {
+        // shard -> Item -> new entry, or null if the Item must be removed
+        Map<Integer, Map<UUID, String>> changes = new HashMap<>();
+        int items = 0;
+        Iterator<Item> modified = itemService.findByLastModifiedSince(c, since);
+        while (modified.hasNext()) {
+            Item item = modified.next();
+            String text = item.isArchived() ? getURLText(c, item, uiURLStem) : null;
+            changes.computeIfAbsent(getShard(item.getID(), shards), s -> new LinkedHashMap<>())
+                   .put(item.getID(), text);
+            if (text != null) {
+                items++;
+            }
+            c.uncacheEntity(item);
+        }
+
+        boolean overflow = false;
+        for (Map.Entry<Integer, Map<UUID, String>> change : changes.entrySet()) {
+            File target = getShardFile(change.getKey());
+            File tmp = getTempFile(target);
+            ShardWriter out = new ShardWriter(tmp);
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(target)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Matcher matcher = UUID_PATTERN.matcher(line);
+                    if (matcher.find() && !change.getValue().containsKey(UUID.fromString(matcher.group()))) {
+                        out.write(line + "\n");
+                    }
+                }
+                for (String text : change.getValue().values()) {
+                    if (text != null) {
+                        out.write(text);
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            replace(tmp, target);
+            overflow |= out.isOverflowing();
+        }
+        return overflow ? null : new int[] {items, changes.size()};
+    }
+
+    /**
+     * Return the entry of an Item.
+     *
+     * @throws IOException if the entry cannot be determined, e.g. because Solr
+     *                     is not available
+     */
+    protected String getURLText(Context c, Item item, String uiURLStem) throws SQLException, IOException {
+        try {
+            return format.getURLText(GenerateSitemaps.getItemURL(c, item, uiURLStem), item.getLastModified());
+        } catch (SearchServiceException e) {
+            throw new IOException("Failed getting entitytype through solr for item " + item.getID(), e);
+        }
+    }
+
+    /**
+     * Return the shard (starting at 1) an Item is written to.
+     */
+    protected int getShard(UUID id, int shards) {
+        return Math.floorMod(id.hashCode(), shards) + 1;
+    }
+
+    protected File getShardFile(int number) {
+        return new File(outputDir, format.getFilename(number) + ".gz");
+    }
+
+    protected File getTempFile(File target) {
+        return new File(outputDir, target.getName() + ".tmp");
+    }
+
+    /**
+     * Write the index of all shards.
+     */
+    protected void writeIndex(int files) throws IOException {
+        File target = new File(outputDir, format.getIndexFilename());
+        File tmp = getTempFile(target);
+        try (PrintStream out = new PrintStream(new FileOutputStream(tmp), false, "UTF-8")) {
+            format.writeIndex(out, files);
+        }
+        replace(tmp, target);
+    }
+
+    /**
+     * Delete shards left over by a previous run with more shards, and the
+     * uncompressed sitemaps of a previous non-incremental run.
+     */
+    protected void deleteStaleFiles(int files) throws IOException {
+        for (int i = files; getShardFile(i).exists(); i++) {
+            Files.delete(getShardFile(i).toPath());
+        }
+        for (int i = 0; new File(outputDir, format.getFilename(i)).exists(); i++) {
+            Files.delete(new File(outputDir, format.getFilename(i)).toPath());
+        }
+    }
+
+    protected Properties loadState() throws IOException {
+        Properties state = new Properties();
+        File file = new File(outputDir, STATE_FILENAME);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                state.load(in);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unreadable sitemap state " + file.getAbsolutePath(), e);
+                state.clear();
+            }
+        }
+        return state;
+    }
+
+    protected void saveState(Properties state) throws IOException {
+        File target = new File(outputDir, STATE_FILENAME);
+        File tmp = getTempFile(target);
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            state.store(out, "State of the incremental sitemap generation, delete to write all sitemaps again");
+        }
+        replace(tmp, target);
+    }
+
+    /**
+     * Delete all shards and the state of the incremental generation, e.g.
+     * when a non-incremental run replaces them by uncompressed sitemaps. The
+     * next incremental run writes all shards again.
+     *
+     * @throws IOException if IO error
+     */
+    public void deleteShards() throws IOException {
+        // a shard in between may be missing, so go by the state as well
+        int shards = Integer.parseInt(loadState().getProperty(STATE_SHARDS, "0"));
+        for (int i = 0; i <= shards || getShardFile(i).exists(); i++) {
+            Files.deleteIfExists(getShardFile(i).toPath());
+        }
+        Files.deleteIfExists(new File(outputDir, STATE_FILENAME).toPath());
+    }
+
+    private void replace(File source, File target) throws IOException {
+        Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Streams the entries of one shard into a gzip compressed file, between
+     * the boilerplate of the sitemap format.
+     */
+    protected class ShardWriter implements Closeable {
+        private final PrintStream out;
+        private long bytesWritten;
+        private int urlsWritten;
+        private boolean closed;
+
+        protected ShardWriter(File file) throws IOException {
+            out = new PrintStream(new GZIPOutputStream(new FileOutputStream(file), 65536), false, "UTF-8");
+            String lbp = format.getLeadingBoilerPlate() + "\n";
+            out.print(lbp);
+            bytesWritten = getByteCount(lbp) + getByteCount(format.getTrailingBoilerPlate());
+        }
+
+        protected void write(String entry) {
+            out.print(entry);
+            bytesWritten += getByteCount(entry);
+            urlsWritten++;
+        }
+
+        /**
+         * The limit of the sitemap format is on the uncompressed size in bytes.
+         */
+        private long getByteCount(String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        protected boolean isOverflowing() {
+            return urlsWritten > format.getMaxURLs() || bytesWritten > format.getMaxSize();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.print(format.getTrailingBoilerPlate());
+                out.close();
+                if (out.checkError()) {
+                    throw new IOException("Error writing sitemap shard");
+                }
+            }
+        }
+    }
+}
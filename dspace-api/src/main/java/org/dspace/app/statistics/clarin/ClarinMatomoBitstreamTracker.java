@@ -132,4 +132,21 @@ public class ClarinMatomoBitstreamTracker extends ClarinMatomoTracker {
 
         trackPage(context, request, item, "Bitstream Download / Single File");
     }
+
+    /**
+     * Track the downloading of all files of the Item as one archive, once per download, i.e. only if the
+     * downloading has started (Range header is null).
+     *
+     * @param context DSpace context object
+     * @param request current request
+     * @param item Item whose files are downloading
+     */
+    public void trackItemDownload(Context context, HttpServletRequest request, Item item) {
+        if (StringUtils.isNotBlank(request.getHeader("Range")) ||
+                BooleanUtils.isFalse(configurationService.getBooleanProperty("matomo.track.enabled"))) {
+            return;
+        }
+
+        trackPage(context, request, item, "Bitstream Download / All Files");
+    }
 }
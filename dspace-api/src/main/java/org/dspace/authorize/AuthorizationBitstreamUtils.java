@@ -8,7 +8,11 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
@@ -42,6 +46,12 @@ public class AuthorizationBitstreamUtils {
 
     private static final Logger log = LoggerFactory.getLogger(AuthorizationBitstreamUtils.class);
 
+    /**
+     * Request attribute holding the license decisions resolved by prefetchLicenses()
+     */
+    private static final String LICENSE_DECISIONS_ATTRIBUTE =
+            AuthorizationBitstreamUtils.class.getName() + ".licenseDecisions";
+
     @Autowired
     ClarinLicenseResourceUserAllowanceService clarinLicenseResourceUserAllowanceService;
     @Autowired
@@ -77,8 +87,12 @@ public class AuthorizationBitstreamUtils {
         }
 
         UUID bitstreamUUID = bitstream.getID();
+        // The decision resolved by prefetchLicenses() for all bitstreams of the item, if any
+        LicenseDecision licenseDecision = getPrefetchedLicenseDecision(userID, bitstreamUUID);
+
         // 1. If the current user is submitter of the item where the current bitstream is -> the user is authorized.
-        if (userIsSubmitter(context, bitstream, currentUser, userID)) {
+        if (licenseDecision == LicenseDecision.SUBMITTER ||
+                (licenseDecision == null && userIsSubmitter(context, bitstream, currentUser, userID))) {
             return true;
         }
 
@@ -89,9 +103,78 @@ public class AuthorizationBitstreamUtils {
 
         // 3. If the bitstream license requires confirmation every time or the user didn't fill in required
         // metadata for the bitstream's license -> the user is not authorized.
+        if (licenseDecision == LicenseDecision.LICENSE_TO_AGREE) {
+            throw new MissingLicenseAgreementException("Missing license agreement!");
+        } else if (licenseDecision == LicenseDecision.ALLOWED) {
+            return true;
+        }
         return isUserAllowedToAccessTheResource(context, userID, bitstreamUUID);
     }
 
+    /**
+     * Resolve the licenses, their confirmation modes and the user's allowances of the bitstreams of an Item in a
+     * constant number of queries, and keep the result for the current request. Thus authorizing the bitstreams
+     * one by one afterwards, e.g. when listing or downloading all files of an Item, does not query the database
+     * for every bitstream. The download token is still checked for every bitstream.
+     *
+     * @param context    DSpace context object
+     * @param item       the Item the bitstreams belong to
+     * @param bitstreams the bitstreams
+     * @throws SQLException if database error
+     */
+    public void prefetchLicenses(Context context, Item item, List<Bitstream> bitstreams) throws SQLException {
+        Request currentRequest = new DSpace().getRequestService().getCurrentRequest();
+        if (Objects.isNull(currentRequest) || CollectionUtils.isEmpty(bitstreams)) {
+            return;
+        }
+
+        EPerson currentUser = context.getCurrentUser();
+        UUID userID = Objects.nonNull(currentUser) ? currentUser.getID() : null;
+        EPerson submitter = Objects.nonNull(item) ? item.getSubmitter() : null;
+        boolean isSubmitter = Objects.nonNull(userID) && Objects.nonNull(submitter) &&
+                Objects.equals(submitter.getID(), userID);
+
+        List<UUID> bitstreamUUIDs = new ArrayList<>();
+        for (Bitstream bitstream : bitstreams) {
+            bitstreamUUIDs.add(bitstream.getID());
+        }
+        Map<UUID, Boolean> allowed = isSubmitter ? Collections.emptyMap() :
+                clarinLicenseResourceUserAllowanceService.isUserAllowedToAccessTheResources(context, userID,
+                        bitstreamUUIDs);
+
+        LicenseDecisions licenseDecisions = getLicenseDecisions(currentRequest);
+        if (Objects.isNull(licenseDecisions) || !Objects.equals(licenseDecisions.userID, userID)) {
+            licenseDecisions = new LicenseDecisions(userID);
+            currentRequest.setAttribute(LICENSE_DECISIONS_ATTRIBUTE, licenseDecisions);
+        }
+        for (UUID bitstreamUUID : bitstreamUUIDs) {
+            licenseDecisions.decisions.put(bitstreamUUID, isSubmitter ? LicenseDecision.SUBMITTER :
+                    Boolean.TRUE.equals(allowed.get(bitstreamUUID)) ? LicenseDecision.ALLOWED :
+                            LicenseDecision.LICENSE_TO_AGREE);
+        }
+    }
+
+    private LicenseDecision getPrefetchedLicenseDecision(UUID userID, UUID bitstreamUUID) {
+        Request currentRequest = new DSpace().getRequestService().getCurrentRequest();
+        if (Objects.isNull(currentRequest)) {
+            return null;
+        }
+        LicenseDecisions licenseDecisions = getLicenseDecisions(currentRequest);
+        if (Objects.isNull(licenseDecisions) || !Objects.equals(licenseDecisions.userID, userID)) {
+            return null;
+        }
+        return licenseDecisions.decisions.get(bitstreamUUID);
+    }
+
+    private LicenseDecisions getLicenseDecisions(Request currentRequest) {
+        try {
+            return (LicenseDecisions) currentRequest.getAttribute(LICENSE_DECISIONS_ATTRIBUTE);
+        } catch (IllegalStateException e) {
+            // the request is no longer active
+            return null;
+        }
+    }
+
     /**
      * If the bitstream has RES or ACA license and the user is Anonymous do not authorize that user.
      * The user will be redirected to the login.
@@ -213,4 +296,25 @@ public class AuthorizationBitstreamUtils {
         }
         return true;
     }
+
+    /**
+     * How the license of a bitstream was resolved for the current user by prefetchLicenses().
+     */
+    private enum LicenseDecision {
+        SUBMITTER,
+        ALLOWED,
+        LICENSE_TO_AGREE
+    }
+
+    /**
+     * The license decisions resolved for one user during a request.
+     */
+    private static class LicenseDecisions {
+        private final UUID userID;
+        private final Map<UUID, LicenseDecision> decisions = new HashMap<>();
+
+        private LicenseDecisions(UUID userID) {
+            this.userID = userID;
+        }
+    }
 }
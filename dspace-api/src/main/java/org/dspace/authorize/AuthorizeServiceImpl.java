@@ -10,6 +10,7 @@ package org.dspace.authorize;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -248,8 +249,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return true;
         }
 
-        // If authorization was given before and cached
-        Boolean cachedResult = c.getCachedAuthorizationResult(o, action, e);
+        // If authorization was given before and cached. The cached results assume inheritance.
+        Boolean cachedResult = useInheritance ? c.getCachedAuthorizationResult(o, action, e) : null;
         if (cachedResult != null) {
             return cachedResult;
         }
@@ -334,12 +335,16 @@ public class AuthorizeServiceImpl implements AuthorizeService {
                                                                       .getAdminObject(c, o, action) : null;
 
             if (isAdmin(c, e, adminObject)) {
-                c.cacheAuthorizedAction(o, action, e, true, null);
+                if (useInheritance) {
+                    c.cacheAuthorizedAction(o, action, e, true, null);
+                }
                 return true;
             }
         }
         // default authorization is denial
-        c.cacheAuthorizedAction(o, action, e, false, null);
+        if (useInheritance) {
+            c.cacheAuthorizedAction(o, action, e, false, null);
+        }
         return false;
     }
 
@@ -540,28 +545,19 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     @Override
     public void addPolicies(Context c, List<ResourcePolicy> policies, DSpaceObject dest)
         throws SQLException, AuthorizeException {
-        // now add them to the destination object
-        List<ResourcePolicy> newPolicies = new ArrayList<>(policies.size());
-
-        for (ResourcePolicy srp : policies) {
-            ResourcePolicy rp = resourcePolicyService.create(c);
-
-            // copy over values
-            rp.setdSpaceObject(dest);
-            rp.setAction(srp.getAction());
-            rp.setEPerson(srp.getEPerson());
-            rp.setGroup(srp.getGroup());
-            rp.setStartDate(srp.getStartDate());
-            rp.setEndDate(srp.getEndDate());
-            rp.setRpName(srp.getRpName());
-            rp.setRpDescription(srp.getRpDescription());
-            rp.setRpType(srp.getRpType());
+        addPolicies(c, policies, Collections.singletonList(dest));
+    }
 
-            // and add policy to list of new policies
-            newPolicies.add(rp);
-        }
+    @Override
+    public void addPolicies(Context c, List<ResourcePolicy> policies, List<? extends DSpaceObject> dests)
+        throws SQLException, AuthorizeException {
+        resourcePolicyService.copyPolicies(c, policies, dests);
+    }
 
-        resourcePolicyService.update(c, newPolicies);
+    @Override
+    public void replaceAllPolicies(Context c, List<? extends DSpaceObject> dsos, List<ResourcePolicy> policies)
+        throws SQLException, AuthorizeException {
+        resourcePolicyService.replaceAllPolicies(c, dsos, policies);
     }
 
     @Override
@@ -569,6 +565,12 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         resourcePolicyService.removeAllPolicies(c, o);
     }
 
+    @Override
+    public void removeAllPolicies(Context c, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException {
+        resourcePolicyService.removeAllPolicies(c, dsos);
+    }
+
     @Override
     public void removeAllPoliciesByDSOAndTypeNotEqualsTo(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException {
@@ -581,6 +583,12 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         resourcePolicyService.removePolicies(c, o, type);
     }
 
+    @Override
+    public void removeAllPoliciesByDSOAndType(Context c, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException, AuthorizeException {
+        resourcePolicyService.removePolicies(c, dsos, type);
+    }
+
     @Override
     public void removePoliciesActionFilter(Context context, DSpaceObject dso, int actionID)
         throws SQLException, AuthorizeException {
@@ -682,14 +690,16 @@ public class AuthorizeServiceImpl implements AuthorizeService {
                 }
             }
             if (!isAnonymousInPlace) {
-                // add policies for all the groups
+                // add policies for all the groups, and update them together
+                List<ResourcePolicy> newPolicies = new ArrayList<>(authorizedGroups.size());
                 for (Group g : authorizedGroups) {
                     ResourcePolicy rp = createOrModifyPolicy(null, context, null, g, null, embargoDate, Constants.READ,
                                                              reason, dso);
                     if (rp != null) {
-                        resourcePolicyService.update(context, rp);
+                        newPolicies.add(rp);
                     }
                 }
+                resourcePolicyService.update(context, newPolicies);
 
             } else {
                 // add policy just for anonymous
@@ -8,9 +8,11 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -27,6 +29,7 @@ import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -51,6 +54,9 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Autowired
     private GroupService groupService;
 
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
     protected ResourcePolicyServiceImpl() {
     }
 
@@ -79,6 +85,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: Check authorisation
         // Create a table row
         ResourcePolicy resourcePolicy = resourcePolicyDAO.create(context, new ResourcePolicy());
+        context.clearCachedAuthorizationResults(null, -1);
         return resourcePolicy;
     }
 
@@ -140,6 +147,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: authorizations
         // Remove ourself
         resourcePolicyDAO.delete(context, resourcePolicy);
+        context.clearCachedAuthorizationResults(resourcePolicy.getdSpaceObject(), resourcePolicy.getAction());
 
         context.turnOffAuthorisationSystem();
         if (resourcePolicy.getdSpaceObject() != null) {
@@ -219,14 +227,93 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDso(c, o);
+        c.clearCachedAuthorizationResults(o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
     }
 
+    @Override
+    public void removeAllPolicies(Context c, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException {
+        resourcePolicyDAO.deleteByDsos(c, dsos);
+        c.clearCachedAuthorizationResults(null, -1);
+        updateLastModified(c, dsos);
+    }
+
+    @Override
+    public void removePolicies(Context c, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException, AuthorizeException {
+        resourcePolicyDAO.deleteByDsosAndType(c, dsos, type);
+        c.clearCachedAuthorizationResults(null, -1);
+        updateLastModified(c, dsos);
+    }
+
+    @Override
+    public void copyPolicies(Context c, List<ResourcePolicy> policies, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException {
+        if (CollectionUtils.isNotEmpty(policies)) {
+            createCopies(c, policies, dsos);
+            updateLastModified(c, dsos);
+        }
+    }
+
+    @Override
+    public void replaceAllPolicies(Context c, List<? extends DSpaceObject> dsos, List<ResourcePolicy> policies)
+        throws SQLException, AuthorizeException {
+        resourcePolicyDAO.deleteByDsos(c, dsos);
+        c.clearCachedAuthorizationResults(null, -1);
+        createCopies(c, policies, dsos);
+        updateLastModified(c, dsos);
+    }
+
+    /**
+     * Store a copy of every policy for every DSpace object, in JDBC batches.
+     */
+    protected void createCopies(Context c, List<ResourcePolicy> policies, List<? extends DSpaceObject> dsos)
+        throws SQLException {
+        if (CollectionUtils.isEmpty(policies) || CollectionUtils.isEmpty(dsos)) {
+            return;
+        }
+        List<ResourcePolicy> copies = new ArrayList<>(policies.size() * dsos.size());
+        for (DSpaceObject dso : dsos) {
+            for (ResourcePolicy policy : policies) {
+                // FIXME: Check authorisation
+                ResourcePolicy copy = new ResourcePolicy();
+                copy.setdSpaceObject(dso);
+                copy.setAction(policy.getAction());
+                copy.setEPerson(policy.getEPerson());
+                copy.setGroup(policy.getGroup());
+                copy.setStartDate(policy.getStartDate());
+                copy.setEndDate(policy.getEndDate());
+                copy.setRpName(policy.getRpName());
+                copy.setRpDescription(policy.getRpDescription());
+                copy.setRpType(policy.getRpType());
+                copies.add(copy);
+            }
+        }
+        resourcePolicyDAO.createAll(c, copies,
+                                    configurationService.getIntProperty("core.authorization.bulk.batch-size", 500));
+        c.clearCachedAuthorizationResults(null, -1);
+    }
+
+    /**
+     * Update the last modified date of every DSpace object once, which also fires one modify event per object for
+     * the consumers, e.g. for re-indexing.
+     */
+    protected void updateLastModified(Context c, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException {
+        c.turnOffAuthorisationSystem();
+        for (DSpaceObject dso : new LinkedHashSet<DSpaceObject>(dsos)) {
+            contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(c, dso);
+        }
+        c.restoreAuthSystemState();
+    }
+
     @Override
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndType(c, o, type);
+        c.clearCachedAuthorizationResults(o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -236,6 +323,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoGroupPolicies(Context context, DSpaceObject dso, Group group)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoGroupPolicies(context, dso, group);
+        context.clearCachedAuthorizationResults(dso, -1);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -245,6 +333,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoEPersonPolicies(Context context, DSpaceObject dso, EPerson ePerson)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoEPersonPolicies(context, dso, ePerson);
+        context.clearCachedAuthorizationResults(dso, -1);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -254,11 +343,13 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllEPersonPolicies(Context context, EPerson ePerson) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByEPerson(context, ePerson);
+        context.clearCachedAuthorizationResults(null, -1);
     }
 
     @Override
     public void removeGroupPolicies(Context c, Group group) throws SQLException {
         resourcePolicyDAO.deleteByGroup(c, group);
+        c.clearCachedAuthorizationResults(null, -1);
     }
 
     @Override
@@ -267,6 +358,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             removeAllPolicies(c, o);
         } else {
             resourcePolicyDAO.deleteByDsoAndAction(c, o, actionId);
+            c.clearCachedAuthorizationResults(o, actionId);
             c.turnOffAuthorisationSystem();
             contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
             c.restoreAuthSystemState();
@@ -277,6 +369,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoAndTypeNotEqualsToPolicies(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeNotEqualsTo(c, o, type);
+        c.clearCachedAuthorizationResults(o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -311,6 +404,8 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
 
                 // FIXME: Check authorisation
                 resourcePolicyDAO.save(context, resourcePolicy);
+                context.clearCachedAuthorizationResults(resourcePolicy.getdSpaceObject(),
+                                                        resourcePolicy.getAction());
             }
 
             //Update the last modified timestamp of all related DSpace Objects
@@ -58,6 +58,37 @@ public interface ResourcePolicyDAO extends GenericDAO<ResourcePolicy> {
 
     public void deleteByDso(Context context, DSpaceObject dso) throws SQLException;
 
+    /**
+     * Delete all policies of the given DSpace objects, with a statement per 1000 objects
+     *
+     * @param context DSpace context object
+     * @param dsos    the DSpace objects
+     * @throws SQLException if database error
+     */
+    public void deleteByDsos(Context context, List<? extends DSpaceObject> dsos) throws SQLException;
+
+    /**
+     * Delete the policies of the given type of the given DSpace objects, with a statement per 1000 objects
+     *
+     * @param context DSpace context object
+     * @param dsos    the DSpace objects
+     * @param type    the type of the policies
+     * @throws SQLException if database error
+     */
+    public void deleteByDsosAndType(Context context, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException;
+
+    /**
+     * Store new resource policies. The inserts are sent to the database in JDBC batches of the given size, which
+     * overrides 'hibernate.jdbc.batch_size' for this call.
+     *
+     * @param context          DSpace context object
+     * @param resourcePolicies the new resource policies
+     * @param batchSize        the number of inserts per JDBC batch
+     * @throws SQLException if database error
+     */
+    public void createAll(Context context, List<ResourcePolicy> resourcePolicies, int batchSize) throws SQLException;
+
     public void deleteByDsoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException;
 
     public void deleteByDsoAndType(Context context, DSpaceObject dSpaceObject, String type) throws SQLException;
@@ -27,6 +27,7 @@ import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
+import org.hibernate.Session;
 
 /**
  * Hibernate implementation of the Database Access Object interface class for the ResourcePolicy object.
@@ -163,6 +164,44 @@ public class ResourcePolicyDAOImpl extends AbstractHibernateDAO<ResourcePolicy>
         query.executeUpdate();
     }
 
+    @Override
+    public void deleteByDsos(Context context, List<? extends DSpaceObject> dsos) throws SQLException {
+        for (int i = 0; i < dsos.size(); i += 1000) {
+            Query query = createQuery(context, "delete from ResourcePolicy where dSpaceObject in (:dSpaceObjects)");
+            query.setParameter("dSpaceObjects", dsos.subList(i, Math.min(i + 1000, dsos.size())));
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void deleteByDsosAndType(Context context, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException {
+        for (int i = 0; i < dsos.size(); i += 1000) {
+            Query query = createQuery(context, "delete from ResourcePolicy where dSpaceObject in (:dSpaceObjects) " +
+                "and rptype = :rptype");
+            query.setParameter("dSpaceObjects", dsos.subList(i, Math.min(i + 1000, dsos.size())));
+            query.setParameter("rptype", type);
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void createAll(Context context, List<ResourcePolicy> resourcePolicies, int batchSize)
+        throws SQLException {
+        Session session = getHibernateSession(context);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            for (ResourcePolicy resourcePolicy : resourcePolicies) {
+                session.persist(resourcePolicy);
+            }
+            // send the inserts while the batch size is in effect
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
     @Override
     public void deleteByDsoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException {
         String queryString = "delete from ResourcePolicy where dSpaceObject= :dSpaceObject AND actionId= :actionId";
@@ -345,6 +345,32 @@ public interface AuthorizeService {
     public void addPolicies(Context c, List<ResourcePolicy> policies, DSpaceObject dest)
         throws SQLException, AuthorizeException;
 
+    /**
+     * Copies policies from a list of resource policies to many DSpaceObjects at once, inserting the copies in JDBC
+     * batches and updating the last modified date of every object once.
+     *
+     * @param c        DSpace context
+     * @param policies List of ResourcePolicy objects
+     * @param dests    objects to have policies added
+     * @throws SQLException       if there's a database problem
+     * @throws AuthorizeException if the current user is not authorized to add these policies
+     */
+    public void addPolicies(Context c, List<ResourcePolicy> policies, List<? extends DSpaceObject> dests)
+        throws SQLException, AuthorizeException;
+
+    /**
+     * Replaces ALL policies of many DSpaceObjects at once by copies of the given policies, inserting the copies in
+     * JDBC batches and updating the last modified date of every object once.
+     *
+     * @param c        DSpace context
+     * @param dsos     objects to replace the policies of
+     * @param policies List of ResourcePolicy objects
+     * @throws SQLException       if there's a database problem
+     * @throws AuthorizeException if the current user is not authorized to replace these policies
+     */
+    public void replaceAllPolicies(Context c, List<? extends DSpaceObject> dsos, List<ResourcePolicy> policies)
+        throws SQLException, AuthorizeException;
+
     /**
      * removes ALL policies for an object.  FIXME doesn't check authorization
      *
@@ -355,6 +381,16 @@ public interface AuthorizeService {
      */
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException;
 
+    /**
+     * removes ALL policies for many objects at once.  FIXME doesn't check authorization
+     *
+     * @param c    DSpace context
+     * @param dsos objects to remove policies for
+     * @throws SQLException       if there's a database problem
+     * @throws AuthorizeException if authorization error
+     */
+    public void removeAllPolicies(Context c, List<? extends DSpaceObject> dsos) throws SQLException, AuthorizeException;
+
     /**
      * removes ALL policies for an object that are not of the input type.
      *
@@ -379,6 +415,18 @@ public interface AuthorizeService {
     public void removeAllPoliciesByDSOAndType(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException;
 
+    /**
+     * removes policies of a type for many objects at once
+     *
+     * @param c    DSpace context
+     * @param dsos objects to remove policies for
+     * @param type policy type
+     * @throws SQLException       if there's a database problem
+     * @throws AuthorizeException if authorization error
+     */
+    public void removeAllPoliciesByDSOAndType(Context c, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException, AuthorizeException;
+
     /**
      * Remove all policies from an object that match a given action. FIXME
      * doesn't check authorization
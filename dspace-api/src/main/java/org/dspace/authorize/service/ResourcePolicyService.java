@@ -72,6 +72,56 @@ public interface ResourcePolicyService extends DSpaceCRUDService<ResourcePolicy>
 
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException;
 
+    /**
+     * Remove all policies of many DSpace objects at once. The last modified date of every object is updated once.
+     *
+     * @param c    DSpace context
+     * @param dsos the DSpace objects
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public void removeAllPolicies(Context c, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException;
+
+    /**
+     * Remove the policies of a type of many DSpace objects at once. The last modified date of every object is
+     * updated once.
+     *
+     * @param c    DSpace context
+     * @param dsos the DSpace objects
+     * @param type the type of the policies
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public void removePolicies(Context c, List<? extends DSpaceObject> dsos, String type)
+        throws SQLException, AuthorizeException;
+
+    /**
+     * Copy resource policies to many DSpace objects at once. The copies are inserted in JDBC batches of
+     * 'core.authorization.bulk.batch-size' statements, and the last modified date of every object is updated once.
+     *
+     * @param c        DSpace context
+     * @param policies the policies to copy
+     * @param dsos     the DSpace objects receiving a copy of every policy
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public void copyPolicies(Context c, List<ResourcePolicy> policies, List<? extends DSpaceObject> dsos)
+        throws SQLException, AuthorizeException;
+
+    /**
+     * Replace all policies of many DSpace objects by copies of the given policies, see
+     * {@link #copyPolicies(Context, List, List)}. The last modified date of every object is updated once.
+     *
+     * @param c        DSpace context
+     * @param dsos     the DSpace objects
+     * @param policies the new policies
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public void replaceAllPolicies(Context c, List<? extends DSpaceObject> dsos, List<ResourcePolicy> policies)
+        throws SQLException, AuthorizeException;
+
     public void removePolicies(Context c, DSpaceObject o, int actionId) throws SQLException, AuthorizeException;
 
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException;
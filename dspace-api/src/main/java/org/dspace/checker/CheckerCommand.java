@@ -10,7 +10,19 @@ package org.dspace.checker;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.collections4.MapUtils;
 import org.apache.logging.log4j.Logger;
@@ -19,7 +31,11 @@ import org.dspace.checker.service.ChecksumHistoryService;
 import org.dspace.checker.service.ChecksumResultService;
 import org.dspace.checker.service.MostRecentChecksumService;
 import org.dspace.content.Bitstream;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.storage.bitstore.factory.StorageServiceFactory;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
 
@@ -57,6 +73,7 @@ public final class CheckerCommand {
     private ChecksumHistoryService checksumHistoryService = null;
     private BitstreamStorageService bitstreamStorageService = null;
     private ChecksumResultService checksumResultService = null;
+    private BitstreamService bitstreamService = null;
 
     /**
      * start time for current process.
@@ -78,6 +95,33 @@ public final class CheckerCommand {
      */
     private boolean reportVerbose = false;
 
+    /**
+     * Number of threads reading bitstreams, 1 checks them one after the other
+     */
+    private int threads;
+
+    /**
+     * Maximum number of threads reading from the same asset store
+     */
+    private int threadsPerStore;
+
+    /**
+     * Maximum number of bytes read per second by all threads, 0 for no limit
+     */
+    private long maxBytesPerSecond;
+
+    /**
+     * Number of results written to the database per transaction in parallel mode
+     */
+    private int batchSize;
+
+    /**
+     * Number of bitstreams and bytes checked by the last call to process()
+     */
+    private long bitstreamsChecked;
+    private final AtomicLong bytesChecked = new AtomicLong();
+    private long processMillis;
+
     /**
      * Default constructor uses DSpace plugin manager to construct dependencies.
      *
@@ -88,7 +132,14 @@ public final class CheckerCommand {
         checksumHistoryService = CheckerServiceFactory.getInstance().getChecksumHistoryService();
         bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
         checksumResultService = CheckerServiceFactory.getInstance().getChecksumResultService();
+        bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
         this.context = context;
+
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        threads = Math.max(1, configurationService.getIntProperty("checker.threads", 1));
+        threadsPerStore = configurationService.getIntProperty("checker.threads.per.store", 0);
+        maxBytesPerSecond = configurationService.getLongProperty("checker.max.bytes.per.second", 0L);
+        batchSize = Math.max(1, configurationService.getIntProperty("checker.batch.size", 100));
     }
 
     /**
@@ -120,6 +171,28 @@ public final class CheckerCommand {
         // bitstream table - this always done.
         checksumService.updateMissingBitstreams(context);
 
+        long start = System.currentTimeMillis();
+        bitstreamsChecked = 0;
+        bytesChecked.set(0);
+        try {
+            if (threads > 1) {
+                processParallel();
+                return;
+            }
+            processSequential();
+        } finally {
+            processMillis = System.currentTimeMillis() - start;
+            LOG.info("Checked " + bitstreamsChecked + " bitstream(s), " + bytesChecked.get() + " bytes in "
+                         + processMillis + " ms (" + String.format("%.2f", getMegabytesPerSecond()) + " MB/s)");
+        }
+    }
+
+    /**
+     * Check the dispatched bitstreams one after the other.
+     *
+     * @throws SQLException if database error
+     */
+    protected void processSequential() throws SQLException {
         Bitstream bitstream = dispatcher.next();
 
         while (bitstream != null) {
@@ -131,11 +204,251 @@ public final class CheckerCommand {
                 collector.collect(context, info);
             }
 
+            bitstreamsChecked++;
             context.uncacheEntity(bitstream);
             bitstream = dispatcher.next();
         }
     }
 
+    /**
+     * Check the dispatched bitstreams on several threads. Only the checksums
+     * are computed by the worker threads, from the store number and internal
+     * ID of the bitstreams: the bitstreams are taken from the dispatcher and
+     * the results are written on the calling thread, with the context of this
+     * command, and committed every {@code checker.batch.size} results.
+     * <p>
+     * A bitstream is marked as being checked before it is handed to a worker,
+     * so that the dispatcher does not return it again. The mark is only
+     * committed together with the result: before each commit the running
+     * checks are completed, and if the run is interrupted the marks of the
+     * bitstreams which were not checked are reverted.
+     *
+     * @throws SQLException if database error
+     */
+    protected void processParallel() throws SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<ChecksumTask> completionService = new ExecutorCompletionService<>(executor);
+        Map<Integer, Semaphore> storePermits = new HashMap<>();
+        Map<UUID, ChecksumTask> running = new HashMap<>();
+        Throttle throttle = maxBytesPerSecond > 0 ? new Throttle(maxBytesPerSecond) : null;
+        int perStore = threadsPerStore > 0 ? Math.min(threadsPerStore, threads) : threads;
+        int uncommitted = 0;
+        try {
+            Bitstream bitstream = dispatcher.next();
+            while (bitstream != null) {
+                LOG.debug("Processing bitstream id = " + bitstream.getID());
+                MostRecentChecksum info = checksumService.findByBitstream(context, bitstream);
+                if (info == null || !info.isToBeProcessed() || info.getBitstream().isDeleted()) {
+                    // no checksum to compute
+                    collectResult(checkBitstream(bitstream));
+                    uncommitted++;
+                } else {
+                    // wait here for a check of the same store to complete instead of blocking a worker,
+                    // which could then not check the bitstreams of the other stores
+                    Semaphore permits = storePermits.computeIfAbsent(bitstream.getStoreNumber(),
+                                                                     store -> new Semaphore(perStore));
+                    while (!permits.tryAcquire()) {
+                        completeTask(completionService.take(), running);
+                        uncommitted++;
+                    }
+                    ChecksumTask task = new ChecksumTask(info, permits, throttle);
+                    Date now = new Date();
+                    info.setProcessStartDate(now);
+                    info.setProcessEndDate(now);
+                    checksumService.update(context, info);
+                    running.put(task.bitstreamId, task);
+                    completionService.submit(task);
+                }
+                // keep a few bitstreams queued per thread, but not the whole dispatcher
+                while (running.size() >= threads * 2) {
+                    completeTask(completionService.take(), running);
+                    uncommitted++;
+                }
+                Future<ChecksumTask> done;
+                while ((done = completionService.poll()) != null) {
+                    completeTask(done, running);
+                    uncommitted++;
+                }
+                if (uncommitted >= batchSize) {
+                    // do not commit the mark of a bitstream without its result
+                    while (!running.isEmpty()) {
+                        completeTask(completionService.take(), running);
+                    }
+                    context.commit();
+                    uncommitted = 0;
+                }
+                bitstream = dispatcher.next();
+            }
+            while (!running.isEmpty()) {
+                completeTask(completionService.take(), running);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Checksum checker interrupted, " + running.size() + " bitstream(s) were not checked");
+            executor.shutdownNow();
+            for (ChecksumTask task : running.values()) {
+                revertMark(task);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Record the result of a checksum computed by a worker thread.
+     */
+    private void completeTask(Future<ChecksumTask> future, Map<UUID, ChecksumTask> running)
+        throws SQLException, InterruptedException {
+        ChecksumTask task;
+        try {
+            task = future.get();
+        } catch (ExecutionException e) {
+            // the task catches all expected errors itself
+            throw new IllegalStateException(e.getCause());
+        }
+        running.remove(task.bitstreamId);
+        // the record may have been detached since the task was submitted
+        MostRecentChecksum info = findInfo(task.bitstreamId);
+        if (info == null) {
+            LOG.warn("Bitstream ID " + task.bitstreamId + " was removed while it was checked");
+            return;
+        }
+        info.setProcessStartDate(task.startDate);
+        if (task.error != null) {
+            // bitstream located, but file missing from asset store
+            info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
+            info.setToBeProcessed(false);
+            LOG.error("Error retrieving bitstream ID " + task.bitstreamId
+                          + " from " + "asset store.", task.error);
+        } else {
+            applyChecksum(info, task.checksumMap);
+            info.setChecksumResult(compareChecksums(info.getExpectedChecksum(), info.getCurrentChecksum()));
+            bytesChecked.addAndGet(task.size);
+        }
+        info.setProcessEndDate(task.endDate);
+        checksumService.update(context, info);
+        checksumHistoryService.addHistory(context, info);
+        collectResult(info);
+        context.uncacheEntity(info.getBitstream());
+    }
+
+    /**
+     * Restore the process dates of a bitstream which was handed to a worker
+     * but not checked.
+     */
+    private void revertMark(ChecksumTask task) throws SQLException {
+        MostRecentChecksum info = findInfo(task.bitstreamId);
+        if (info != null) {
+            info.setProcessStartDate(task.previousStartDate);
+            info.setProcessEndDate(task.previousEndDate);
+            checksumService.update(context, info);
+        }
+    }
+
+    private MostRecentChecksum findInfo(UUID bitstreamId) throws SQLException {
+        Bitstream bitstream = bitstreamService.find(context, bitstreamId);
+        return bitstream == null ? null : checksumService.findByBitstream(context, bitstream);
+    }
+
+    private void collectResult(MostRecentChecksum info) throws SQLException {
+        if (reportVerbose
+            || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
+            collector.collect(context, info);
+        }
+        bitstreamsChecked++;
+    }
+
+    private void applyChecksum(MostRecentChecksum info, Map<?, ?> checksumMap) {
+        if (MapUtils.isNotEmpty(checksumMap)) {
+            info.setBitstreamFound(true);
+            if (checksumMap.containsKey("checksum")) {
+                info.setCurrentChecksum(checksumMap.get("checksum").toString());
+            }
+
+            if (checksumMap.containsKey("checksum_algorithm")) {
+                info.setChecksumAlgorithm(checksumMap.get("checksum_algorithm").toString());
+            }
+        }
+    }
+
+    /**
+     * Computes the checksum of one bitstream on a worker thread. It does not
+     * touch the database or the bitstream entity: the fields needed to read
+     * the bits are copied before submitting, and the result is recorded by
+     * the calling thread. The permit of the store is acquired before
+     * submitting and released by the task.
+     */
+    private class ChecksumTask implements Callable<ChecksumTask> {
+        private final UUID bitstreamId;
+        private final int storeNumber;
+        private final String internalId;
+        private final long size;
+        private final Date previousStartDate;
+        private final Date previousEndDate;
+        private final Semaphore storePermits;
+        private final Throttle throttle;
+        private Date startDate;
+        private Date endDate;
+        private Map<String, Object> checksumMap;
+        private IOException error;
+
+        ChecksumTask(MostRecentChecksum info, Semaphore storePermits, Throttle throttle) {
+            Bitstream bitstream = info.getBitstream();
+            this.bitstreamId = bitstream.getID();
+            this.storeNumber = bitstream.getStoreNumber();
+            this.internalId = bitstream.getInternalId();
+            this.size = bitstream.getSizeBytes();
+            this.previousStartDate = info.getProcessStartDate();
+            this.previousEndDate = info.getProcessEndDate();
+            this.storePermits = storePermits;
+            this.throttle = throttle;
+        }
+
+        @Override
+        public ChecksumTask call() throws InterruptedException {
+            try {
+                if (throttle != null) {
+                    throttle.acquire(size);
+                }
+                startDate = new Date();
+                checksumMap = bitstreamStorageService.computeChecksum(storeNumber, internalId);
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                endDate = new Date();
+                storePermits.release();
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Limits the number of bytes read per second by all worker threads. Each
+     * bitstream reserves its size before it is read, so the average rate stays
+     * below the limit while single large bitstreams are read at full speed.
+     */
+    private static class Throttle {
+        private final long bytesPerSecond;
+        private long nextFree = System.nanoTime();
+
+        Throttle(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        void acquire(long bytes) throws InterruptedException {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextFree);
+                nextFree = start + (long) (bytes * (1_000_000_000d / bytesPerSecond));
+                wait = start - now;
+            }
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+
     /**
      * Check a specified bitstream.
      *
@@ -245,17 +558,9 @@ public final class CheckerCommand {
         info.setProcessStartDate(new Date());
 
         try {
-            Map checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
-            if (MapUtils.isNotEmpty(checksumMap)) {
-                info.setBitstreamFound(true);
-                if (checksumMap.containsKey("checksum")) {
-                    info.setCurrentChecksum(checksumMap.get("checksum").toString());
-                }
-
-                if (checksumMap.containsKey("checksum_algorithm")) {
-                    info.setChecksumAlgorithm(checksumMap.get("checksum_algorithm").toString());
-                }
-            }
+            Map<?, ?> checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
+            applyChecksum(info, checksumMap);
+            bytesChecked.addAndGet(info.getBitstream().getSizeBytes());
 
             // compare new checksum to previous checksum
             info.setChecksumResult(compareChecksums(info.getExpectedChecksum(), info.getCurrentChecksum()));
@@ -339,6 +644,72 @@ public final class CheckerCommand {
         processStartDate = startDate == null ? null : new Date(startDate.getTime());
     }
 
+    /**
+     * Get the number of threads reading bitstreams.
+     *
+     * @return number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of threads reading bitstreams. Defaults to
+     * {@code checker.threads}.
+     *
+     * @param threads number of threads, 1 to check bitstreams one after the other
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Set the maximum number of threads reading from the same asset store.
+     * Defaults to {@code checker.threads.per.store}.
+     *
+     * @param threadsPerStore number of threads, 0 for no limit
+     */
+    public void setThreadsPerStore(int threadsPerStore) {
+        this.threadsPerStore = threadsPerStore;
+    }
+
+    /**
+     * Set the maximum number of bytes read per second by all threads.
+     * Defaults to {@code checker.max.bytes.per.second}.
+     *
+     * @param maxBytesPerSecond bytes per second, 0 for no limit
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    /**
+     * Get the number of bitstreams checked by the last run.
+     *
+     * @return number of bitstreams
+     */
+    public long getBitstreamsChecked() {
+        return bitstreamsChecked;
+    }
+
+    /**
+     * Get the number of bytes read by the last run.
+     *
+     * @return number of bytes
+     */
+    public long getBytesChecked() {
+        return bytesChecked.get();
+    }
+
+    /**
+     * Get the throughput of the last run.
+     *
+     * @return megabytes read per second
+     */
+    public double getMegabytesPerSecond() {
+        return processMillis <= 0 ? 0 : bytesChecked.get() / 1048576d / (processMillis / 1000d);
+    }
+
     /**
      * Determine if any errors are reported
      *
@@ -9,6 +9,7 @@ package org.dspace.checker.service;
 
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import org.dspace.checker.ChecksumResultCode;
@@ -33,6 +34,16 @@ public interface ChecksumHistoryService {
 
     public void deleteByBitstream(Context context, Bitstream bitstream) throws SQLException;
 
+    /**
+     * Delete the most recent checksums and the checksum history of the given
+     * bitstreams, with one statement per table.
+     *
+     * @param context    Context
+     * @param bitstreams the bitstreams
+     * @throws SQLException if database error
+     */
+    public void deleteByBitstreams(Context context, List<Bitstream> bitstreams) throws SQLException;
+
     /**
      * Prune the history records from the database.
      *
@@ -148,6 +148,27 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
         return b;
     }
 
+    @Override
+    public Bitstream create(Context context, Bundle bundle) throws SQLException, AuthorizeException {
+        // Check authorisation
+        authorizeService.authorizeAction(context, bundle, Constants.ADD);
+
+        Bitstream bitstream = bitstreamDAO.create(context, new Bitstream());
+
+        log.info(LogHelper.getHeader(context, "create_bitstream",
+                                      "bitstream_id=" + bitstream.getID()));
+
+        // Set the format to "unknown"
+        setFormat(context, bitstream, null);
+
+        context.addEvent(
+            new Event(Event.CREATE, Constants.BITSTREAM, bitstream.getID(), null,
+                      getIdentifiers(context, bitstream)));
+
+        bundleService.addBitstream(context, bundle, bitstream);
+        return bitstream;
+    }
+
     @Override
     public Bitstream register(Context context, Bundle bundle, int assetstore, String bitstreamPath)
         throws IOException, SQLException, AuthorizeException {
@@ -352,11 +373,21 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
         bitstreamDAO.delete(context, bitstream);
     }
 
+    @Override
+    public List<Bitstream> findDeletedBitstreams(Context context, UUID after, int limit) throws SQLException {
+        return bitstreamDAO.findDeletedBitstreams(context, after, limit);
+    }
+
     @Override
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException {
         return bitstreamDAO.findDuplicateInternalIdentifier(context, bitstream);
     }
 
+    @Override
+    public List<Bitstream> findByInternalIds(Context context, List<String> internalIds) throws SQLException {
+        return bitstreamDAO.findByInternalIds(context, internalIds);
+    }
+
     @Override
     public Iterator<Bitstream> getItemBitstreams(Context context, Item item) throws SQLException {
         return bitstreamDAO.findByItem(context, item);
@@ -450,6 +481,11 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
         return bitstreamDAO.countRows(context);
     }
 
+    @Override
+    public void prefetch(Context context, List<Bitstream> bitstreams) throws SQLException {
+        bitstreamDAO.prefetchMetadata(context, bitstreams);
+    }
+
     @Override
     public Bitstream findByIdOrLegacyId(Context context, String id) throws SQLException {
         if (StringUtils.isNumeric(id)) {
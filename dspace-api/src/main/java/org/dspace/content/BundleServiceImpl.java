@@ -251,17 +251,10 @@ public class BundleServiceImpl extends DSpaceObjectServiceImpl<Bundle> implement
     @Override
     public void replaceAllBitstreamPolicies(Context context, Bundle bundle, List<ResourcePolicy> newpolicies)
         throws SQLException, AuthorizeException {
-        List<Bitstream> bitstreams = bundle.getBitstreams();
-        if (CollectionUtils.isNotEmpty(bitstreams)) {
-            for (Bitstream bs : bitstreams) {
-                // change bitstream policies
-                authorizeService.removeAllPolicies(context, bs);
-                authorizeService.addPolicies(context, newpolicies, bs);
-            }
-        }
-        // change bundle policies
-        authorizeService.removeAllPolicies(context, bundle);
-        authorizeService.addPolicies(context, newpolicies, bundle);
+        // change bitstream and bundle policies at once
+        List<DSpaceObject> dsos = new ArrayList<>(bundle.getBitstreams());
+        dsos.add(bundle);
+        authorizeService.replaceAllPolicies(context, dsos, newpolicies);
     }
 
     @Override
@@ -548,4 +541,19 @@ public class BundleServiceImpl extends DSpaceObjectServiceImpl<Bundle> implement
     public int countTotal(Context context) throws SQLException {
         return bundleDAO.countRows(context);
     }
+
+    @Override
+    public void prefetch(Context context, List<Bundle> bundles) throws SQLException {
+        bundleDAO.prefetchMetadata(context, bundles);
+        bundleDAO.prefetchBitstreams(context, bundles);
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (Bundle bundle : bundles) {
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                if (bitstream != null) {
+                    bitstreams.add(bitstream);
+                }
+            }
+        }
+        bitstreamService.prefetch(context, bitstreams);
+    }
 }
@@ -23,6 +23,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.google.common.collect.Iterators;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -77,6 +78,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
      */
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(Item.class);
 
+    /**
+     * Number of items prefetched together by {@link #prefetch(Context, Iterator, boolean)}
+     */
+    private static final int PREFETCH_BATCH_SIZE = 100;
+
     @Autowired(required = true)
     protected ItemDAO itemDAO;
 
@@ -245,6 +251,16 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAll(context, true, true);
     }
 
+    @Override
+    public Iterator<Item> findAllUnfiltered(Context context, boolean withBitstreams) throws SQLException {
+        if (!withBitstreams) {
+            return findAllUnfiltered(context);
+        }
+        // the metadata is loaded with the page already; a READ_ONLY context uncaches each page when the next one
+        // is loaded, so the bundles have to be loaded per page as well
+        return itemDAO.findAll(context, true, true, page -> prefetchBundles(context, page));
+    }
+
     @Override
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException {
         return itemDAO.findBySubmitter(context, eperson);
@@ -809,12 +825,13 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
     @Override
     public void replaceAllBitstreamPolicies(Context context, Item item, List<ResourcePolicy> newpolicies)
         throws SQLException, AuthorizeException {
-        // remove all policies from bundles, add new ones
-        List<Bundle> bunds = item.getBundles();
-
-        for (Bundle mybundle : bunds) {
-            bundleService.replaceAllBitstreamPolicies(context, mybundle, newpolicies);
+        // remove all policies from bundles and bitstreams, add new ones
+        List<DSpaceObject> dsos = new ArrayList<>();
+        for (Bundle mybundle : item.getBundles()) {
+            dsos.addAll(mybundle.getBitstreams());
+            dsos.add(mybundle);
         }
+        authorizeService.replaceAllPolicies(context, dsos, newpolicies);
     }
 
     @Override
@@ -862,24 +879,19 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
                                        + " has no default bitstream READ policies");
         }
 
-        // remove all policies from bundles, add new ones
-        // Remove bundles
-        List<Bundle> bunds = item.getBundles();
-        for (Bundle mybundle : bunds) {
+        // remove all policies from bundles and bitstreams, add new ones
+        List<DSpaceObject> dsos = new ArrayList<>();
+        for (Bundle mybundle : item.getBundles()) {
+            dsos.add(mybundle);
+            dsos.addAll(mybundle.getBitstreams());
+        }
 
-            // if come from InstallItem: remove all submission/workflow policies
-            authorizeService.removeAllPoliciesByDSOAndType(context, mybundle, ResourcePolicy.TYPE_SUBMISSION);
-            authorizeService.removeAllPoliciesByDSOAndType(context, mybundle, ResourcePolicy.TYPE_WORKFLOW);
-            addCustomPoliciesNotInPlace(context, mybundle, defaultItemPolicies);
-            addDefaultPoliciesNotInPlace(context, mybundle, defaultCollectionPolicies);
-
-            for (Bitstream bitstream : mybundle.getBitstreams()) {
-                // if come from InstallItem: remove all submission/workflow policies
-                authorizeService.removeAllPoliciesByDSOAndType(context, bitstream, ResourcePolicy.TYPE_SUBMISSION);
-                authorizeService.removeAllPoliciesByDSOAndType(context, bitstream, ResourcePolicy.TYPE_WORKFLOW);
-                addCustomPoliciesNotInPlace(context, bitstream, defaultItemPolicies);
-                addDefaultPoliciesNotInPlace(context, bitstream, defaultCollectionPolicies);
-            }
+        // if come from InstallItem: remove all submission/workflow policies, of all bundles and bitstreams at once
+        authorizeService.removeAllPoliciesByDSOAndType(context, dsos, ResourcePolicy.TYPE_SUBMISSION);
+        authorizeService.removeAllPoliciesByDSOAndType(context, dsos, ResourcePolicy.TYPE_WORKFLOW);
+        for (DSpaceObject dso : dsos) {
+            addCustomPoliciesNotInPlace(context, dso, defaultItemPolicies);
+            addDefaultPoliciesNotInPlace(context, dso, defaultCollectionPolicies);
         }
     }
 
@@ -1369,6 +1381,44 @@ prevent the generation of resource policy entry values with null dspace_object a
         return itemDAO.findByLastModifiedSince(context, last);
     }
 
+    @Override
+    public void prefetch(Context context, List<Item> items, boolean withBitstreams) throws SQLException {
+        itemDAO.prefetchMetadata(context, items);
+        if (withBitstreams) {
+            prefetchBundles(context, items);
+        }
+    }
+
+    /**
+     * Load the bundles and bitstreams of the given items, see {@link #prefetch(Context, List, boolean)}.
+     */
+    protected void prefetchBundles(Context context, List<Item> items) throws SQLException {
+        itemDAO.prefetchBundles(context, items);
+        List<Bundle> bundles = items.stream()
+                                    .flatMap(item -> item.getBundles().stream())
+                                    .distinct()
+                                    .collect(Collectors.toList());
+        bundleService.prefetch(context, bundles);
+    }
+
+    @Override
+    public Iterator<Item> prefetch(Context context, Iterator<Item> items, boolean withBitstreams) {
+        Iterator<List<Item>> batches = Iterators.partition(items, PREFETCH_BATCH_SIZE);
+        return Iterators.concat(Iterators.transform(batches, batch -> {
+            try {
+                prefetch(context, batch, withBitstreams);
+            } catch (SQLException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            return batch.iterator();
+        }));
+    }
+
+    @Override
+    public Iterator<Item> findByIds(Context context, List<UUID> ids) throws SQLException {
+        return itemDAO.findByIds(context, ids);
+    }
+
     @Override
     public int countTotal(Context context) throws SQLException {
         return itemDAO.countRows(context);
@@ -9,8 +9,12 @@ package org.dspace.content.clarin;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import javax.ws.rs.NotFoundException;
 
@@ -225,6 +229,57 @@ public class ClarinLicenseResourceMappingServiceImpl implements ClarinLicenseRes
         }
     }
 
+    @Override
+    public Map<UUID, ClarinLicense> getLicensesToAgree(Context context, UUID userId, List<UUID> resourceIDs)
+            throws SQLException {
+        // Load Clarin Licenses for all bitstreams, get only the first resource mapping of a bitstream
+        Map<UUID, ClarinLicenseResourceMapping> clarinLicenseResourceMappings = new HashMap<>();
+        for (ClarinLicenseResourceMapping clarinLicenseResourceMapping :
+                clarinLicenseResourceMappingDAO.findByBitstreamUUIDs(context, resourceIDs)) {
+            clarinLicenseResourceMappings.putIfAbsent(clarinLicenseResourceMapping.getBitstream().getID(),
+                    clarinLicenseResourceMapping);
+        }
+
+        // Confirmation states as in getLicenseToAgree()
+        Map<UUID, ClarinLicense> clarinLicensesToAgree = new HashMap<>();
+        List<UUID> askOnlyOnce = new ArrayList<>();
+        for (Map.Entry<UUID, ClarinLicenseResourceMapping> entry : clarinLicenseResourceMappings.entrySet()) {
+            ClarinLicense clarinLicenseToAgree = entry.getValue().getLicense();
+            if (Objects.isNull(clarinLicenseToAgree) || Objects.isNull(clarinLicenseToAgree.getConfirmation())) {
+                continue;
+            }
+            switch (clarinLicenseToAgree.getConfirmation()) {
+                case 1:
+                    askOnlyOnce.add(entry.getKey());
+                    break;
+                case 2:
+                case 3:
+                    clarinLicensesToAgree.put(entry.getKey(), clarinLicenseToAgree);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Ask only once - check if the clarin license required info is filled in by the user, for all bitstreams
+        // in one query
+        if (!askOnlyOnce.isEmpty()) {
+            Set<Integer> filledInMappingIDs = new HashSet<>();
+            if (Objects.nonNull(userId)) {
+                filledInMappingIDs.addAll(clarinLicenseResourceUserAllowanceService
+                        .findMappingIdsByEPersonIdAndBitstreamIds(context, userId, askOnlyOnce));
+            }
+            for (UUID resourceID : askOnlyOnce) {
+                ClarinLicenseResourceMapping clarinLicenseResourceMapping =
+                        clarinLicenseResourceMappings.get(resourceID);
+                if (!filledInMappingIDs.contains(clarinLicenseResourceMapping.getID())) {
+                    clarinLicensesToAgree.put(resourceID, clarinLicenseResourceMapping.getLicense());
+                }
+            }
+        }
+        return clarinLicensesToAgree;
+    }
+
     private boolean userFilledInRequiredInfo(Context context,
                                              ClarinLicenseResourceMapping clarinLicenseResourceMapping, UUID userID)
             throws SQLException {
@@ -8,7 +8,9 @@
 package org.dspace.content.clarin;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -110,6 +112,26 @@ public class ClarinLicenseResourceUserAllowanceServiceImpl implements ClarinLice
         return Objects.isNull(clarinLicenseToAgree);
     }
 
+    @Override
+    public Map<UUID, Boolean> isUserAllowedToAccessTheResources(Context context, UUID userId, List<UUID> resourceIds)
+            throws SQLException {
+        Map<UUID, ClarinLicense> clarinLicensesToAgree =
+                clarinLicenseResourceMappingService.getLicensesToAgree(context, userId, resourceIds);
+
+        Map<UUID, Boolean> allowed = new HashMap<>();
+        for (UUID resourceId : resourceIds) {
+            allowed.put(resourceId, !clarinLicensesToAgree.containsKey(resourceId));
+        }
+        return allowed;
+    }
+
+    @Override
+    public List<Integer> findMappingIdsByEPersonIdAndBitstreamIds(Context context, UUID userID,
+                                                                  List<UUID> bitstreamIDs) throws SQLException {
+        return clarinLicenseResourceUserAllowanceDAO.findMappingIdsByEPersonIdAndBitstreamIds(context, userID,
+                bitstreamIDs);
+    }
+
     @Override
     public List<ClarinLicenseResourceUserAllowance> findByEPersonId(Context context, UUID userID) throws SQLException {
         return clarinLicenseResourceUserAllowanceDAO.findByEPersonId(context, userID);
@@ -10,6 +10,7 @@ package org.dspace.content.dao;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.content.Bitstream;
 import org.dspace.content.Collection;
@@ -31,8 +32,12 @@ public interface BitstreamDAO extends DSpaceObjectLegacySupportDAO<Bitstream> {
 
     public List<Bitstream> findDeletedBitstreams(Context context) throws SQLException;
 
+    public List<Bitstream> findDeletedBitstreams(Context context, UUID after, int limit) throws SQLException;
+
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException;
 
+    public List<Bitstream> findByInternalIds(Context context, List<String> internalIds) throws SQLException;
+
     public List<Bitstream> findBitstreamsWithNoRecentChecksum(Context context) throws SQLException;
 
     public Iterator<Bitstream> findByCommunity(Context context, Community community) throws SQLException;
@@ -52,4 +57,13 @@ public interface BitstreamDAO extends DSpaceObjectLegacySupportDAO<Bitstream> {
     int countWithNoPolicy(Context context) throws SQLException;
 
     List<Bitstream> getNotReferencedBitstreams(Context context) throws SQLException;
+
+    /**
+     * Load the metadata of all the given bitstreams with a few queries
+     *
+     * @param context    context
+     * @param bitstreams the bitstreams, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetchMetadata(Context context, List<Bitstream> bitstreams) throws SQLException;
 }
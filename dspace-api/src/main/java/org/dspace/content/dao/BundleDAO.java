@@ -8,6 +8,7 @@
 package org.dspace.content.dao;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.content.Bundle;
 import org.dspace.core.Context;
@@ -22,4 +23,22 @@ import org.dspace.core.Context;
  */
 public interface BundleDAO extends DSpaceObjectLegacySupportDAO<Bundle> {
     int countRows(Context context) throws SQLException;
+
+    /**
+     * Load the metadata of all the given bundles with a few queries
+     *
+     * @param context context
+     * @param bundles the bundles, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetchMetadata(Context context, List<Bundle> bundles) throws SQLException;
+
+    /**
+     * Load the bitstreams of all the given bundles, with their formats, with a few queries
+     *
+     * @param context context
+     * @param bundles the bundles, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetchBitstreams(Context context, List<Bundle> bundles) throws SQLException;
 }
@@ -19,6 +19,7 @@ import org.dspace.content.Item;
 import org.dspace.content.MetadataField;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
+import org.dspace.util.ThrowingConsumer;
 
 /**
  * Database Access Object interface class for the Item object.
@@ -34,6 +35,20 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
 
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException;
 
+    /**
+     * Find the archived or withdrawn items page by page, handing each page to a callback before its items are
+     * returned.
+     *
+     * @param context    context
+     * @param archived   whether archived items are included
+     * @param withdrawn  whether withdrawn items are included
+     * @param pageLoaded called with every page of items which was loaded
+     * @return iterator over the items
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn,
+                                  ThrowingConsumer<List<Item>, SQLException> pageLoaded) throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
@@ -45,6 +60,17 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public Iterator<Item> findByLastModifiedSince(Context context, Date since)
         throws SQLException;
 
+    /**
+     * Find all Items with the given UUIDs in a single query. Identifiers which do not
+     * match an existing Item are ignored.
+     *
+     * @param context context
+     * @param ids     the Item UUIDs to load
+     * @return iterator over the matching items, ordered by UUID
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findByIds(Context context, List<UUID> ids) throws SQLException;
+
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException;
 
     /**
@@ -181,4 +207,22 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public int countItems(Context context, EPerson submitter, boolean includeArchived, boolean includeWithdrawn)
         throws SQLException;
 
+    /**
+     * Load the metadata of all the given items with a few queries
+     *
+     * @param context context
+     * @param items   the items, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetchMetadata(Context context, List<Item> items) throws SQLException;
+
+    /**
+     * Load the bundles of all the given items with a few queries
+     *
+     * @param context context
+     * @param items   the items, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetchBundles(Context context, List<Item> items) throws SQLException;
+
 }
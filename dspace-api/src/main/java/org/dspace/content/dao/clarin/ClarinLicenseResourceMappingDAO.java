@@ -18,4 +18,15 @@ import org.dspace.core.GenericDAO;
 public interface ClarinLicenseResourceMappingDAO extends GenericDAO<ClarinLicenseResourceMapping> {
 
     List<ClarinLicenseResourceMapping> findByBitstreamUUID(Context context, UUID bitstreamUUID) throws SQLException;
+
+    /**
+     * Find the mappings of several bitstreams, together with their licenses, in one query.
+     *
+     * @param context        DSpace context object
+     * @param bitstreamUUIDs the bitstreams
+     * @return the mappings of the bitstreams which are mapped to a license
+     * @throws SQLException if database error
+     */
+    List<ClarinLicenseResourceMapping> findByBitstreamUUIDs(Context context, List<UUID> bitstreamUUIDs)
+            throws SQLException;
 }
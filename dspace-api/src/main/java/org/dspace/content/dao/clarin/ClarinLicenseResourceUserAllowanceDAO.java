@@ -21,4 +21,17 @@ public interface ClarinLicenseResourceUserAllowanceDAO extends GenericDAO<Clarin
     List<ClarinLicenseResourceUserAllowance> findByEPersonId(Context context, UUID userID) throws SQLException;
     List<ClarinLicenseResourceUserAllowance> findByEPersonIdAndBitstreamId(Context context, UUID userID,
                                                                            UUID bitstreamID) throws SQLException;
+
+    /**
+     * Find, in one query, the resource mappings of several bitstreams for which the user has filled in the
+     * information required by the license.
+     *
+     * @param context      DSpace context object
+     * @param userID       the user
+     * @param bitstreamIDs the bitstreams
+     * @return the IDs of the resource mappings
+     * @throws SQLException if database error
+     */
+    List<Integer> findMappingIdsByEPersonIdAndBitstreamIds(Context context, UUID userID, List<UUID> bitstreamIDs)
+            throws SQLException;
 }
@@ -8,10 +8,12 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -51,6 +53,17 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
 
     }
 
+    @Override
+    public List<Bitstream> findDeletedBitstreams(Context context, UUID after, int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT b FROM Bitstream b WHERE b.deleted = true"
+            + (after != null ? " AND b.id > :after" : "") + " ORDER BY b.id");
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        query.setMaxResults(limit);
+        return list(query);
+    }
+
     @Override
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException {
         CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
@@ -65,6 +78,16 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
         return list(context, criteriaQuery, false, Bitstream.class, -1, -1);
     }
 
+    @Override
+    public List<Bitstream> findByInternalIds(Context context, List<String> internalIds) throws SQLException {
+        if (internalIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = createQuery(context, "SELECT b FROM Bitstream b WHERE b.internalId IN (:internalIds)");
+        query.setParameter("internalIds", internalIds);
+        return list(query);
+    }
+
     @Override
     public List<Bitstream> findBitstreamsWithNoRecentChecksum(Context context) throws SQLException {
         Query query = createQuery(context,
@@ -114,9 +137,8 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
 
     @Override
     public Iterator<Bitstream> findByStoreNumber(Context context, Integer storeNumber) throws SQLException {
-        Query query = createQuery(context, "select b from Bitstream b where b.storeNumber = :storeNumber");
-        query.setParameter("storeNumber", storeNumber);
-        return iterate(query);
+        return iterateByPage(context, Bitstream.class, "dso.storeNumber = :storeNumber",
+                             Map.of("storeNumber", storeNumber));
     }
 
     @Override
@@ -166,4 +188,9 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
         return findByX(context, Bitstream.class, map, true, limit, offset).iterator();
 
     }
+
+    @Override
+    public void prefetchMetadata(Context context, List<Bitstream> bitstreams) throws SQLException {
+        prefetch(context, Bitstream.class, bitstreams, FETCH_METADATA);
+    }
 }
@@ -8,6 +8,7 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.content.Bundle;
 import org.dspace.content.dao.BundleDAO;
@@ -31,4 +32,17 @@ public class BundleDAOImpl extends AbstractHibernateDSODAO<Bundle> implements Bu
     public int countRows(Context context) throws SQLException {
         return count(createQuery(context, "SELECT count(*) from Bundle"));
     }
+
+    @Override
+    public void prefetchMetadata(Context context, List<Bundle> bundles) throws SQLException {
+        prefetch(context, Bundle.class, bundles, FETCH_METADATA);
+    }
+
+    @Override
+    public void prefetchBitstreams(Context context, List<Bundle> bundles) throws SQLException {
+        // the logo associations are fetched too, otherwise each bitstream needs two queries to find out it is no logo
+        prefetch(context, Bundle.class, bundles, "LEFT JOIN FETCH dso.bitstreams bitstream " +
+            "LEFT JOIN FETCH bitstream.bitstreamFormat LEFT JOIN FETCH bitstream.community " +
+            "LEFT JOIN FETCH bitstream.collection");
+    }
 }
@@ -10,11 +10,12 @@ package org.dspace.content.dao.impl;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.persistence.Query;
-import javax.persistence.TemporalType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
@@ -29,6 +30,7 @@ import org.dspace.content.dao.ItemDAO;
 import org.dspace.core.AbstractHibernateDSODAO;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
+import org.dspace.util.ThrowingConsumer;
 import org.hibernate.Criteria;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
@@ -55,9 +57,7 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived) throws SQLException {
-        Query query = createQuery(context, "FROM Item WHERE inArchive=:in_archive ORDER BY id");
-        query.setParameter("in_archive", archived);
-        return iterate(query);
+        return iterateByPage(context, Item.class, "dso.inArchive = :in_archive", Map.of("in_archive", archived));
     }
 
     @Override
@@ -72,35 +72,33 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException {
-        Query query = createQuery(context,
-                "FROM Item WHERE inArchive=:in_archive or withdrawn=:withdrawn ORDER BY id");
-        query.setParameter("in_archive", archived);
-        query.setParameter("withdrawn", withdrawn);
-        return iterate(query);
+        return findAll(context, archived, withdrawn, null);
+    }
+
+    @Override
+    public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn,
+                                  ThrowingConsumer<List<Item>, SQLException> pageLoaded) throws SQLException {
+        return iterateByPage(context, Item.class, "dso.inArchive = :in_archive OR dso.withdrawn = :withdrawn",
+                             Map.of("in_archive", archived, "withdrawn", withdrawn), pageLoaded);
     }
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived,
                                   boolean withdrawn, boolean discoverable, Date lastModified)
         throws SQLException {
-        StringBuilder queryStr = new StringBuilder();
-        queryStr.append("SELECT i FROM Item i");
-        queryStr.append(" WHERE (inArchive = :in_archive OR withdrawn = :withdrawn)");
-        queryStr.append(" AND discoverable = :discoverable");
-
-        if (lastModified != null) {
-            queryStr.append(" AND last_modified > :last_modified");
-        }
-        queryStr.append(" ORDER BY i.id");
-
-        Query query = createQuery(context, queryStr.toString());
-        query.setParameter("in_archive", archived);
-        query.setParameter("withdrawn", withdrawn);
-        query.setParameter("discoverable", discoverable);
+        StringBuilder where = new StringBuilder();
+        where.append("(dso.inArchive = :in_archive OR dso.withdrawn = :withdrawn)");
+        where.append(" AND dso.discoverable = :discoverable");
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("in_archive", archived);
+        parameters.put("withdrawn", withdrawn);
+        parameters.put("discoverable", discoverable);
         if (lastModified != null) {
-            query.setParameter("last_modified", lastModified, TemporalType.TIMESTAMP);
+            where.append(" AND dso.lastModified > :last_modified");
+            parameters.put("last_modified", lastModified);
         }
-        return iterate(query);
+        return iterateByPage(context, Item.class, where.toString(), parameters);
     }
 
     @Override
@@ -391,9 +389,17 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
     @Override
     public Iterator<Item> findByLastModifiedSince(Context context, Date since)
         throws SQLException {
-        Query query = createQuery(context,
-                "SELECT i FROM Item i WHERE last_modified > :last_modified ORDER BY id");
-        query.setParameter("last_modified", since, TemporalType.TIMESTAMP);
+        return iterateByPage(context, Item.class, "dso.lastModified > :last_modified",
+                             Map.of("last_modified", since));
+    }
+
+    @Override
+    public Iterator<Item> findByIds(Context context, List<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        Query query = createQuery(context, "SELECT i FROM Item i WHERE i.id IN (:ids) ORDER BY i.id");
+        query.setParameter("ids", ids);
         return iterate(query);
     }
 
@@ -424,4 +430,14 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
 
     }
+
+    @Override
+    public void prefetchMetadata(Context context, List<Item> items) throws SQLException {
+        prefetch(context, Item.class, items, FETCH_METADATA);
+    }
+
+    @Override
+    public void prefetchBundles(Context context, List<Item> items) throws SQLException {
+        prefetch(context, Item.class, items, "LEFT JOIN FETCH dso.bundles");
+    }
 }
@@ -8,10 +8,10 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -44,14 +44,22 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
 
     /**
      * Cache for improvement the performance of searching metadata fields
-     * This cache only stores IDs, the actual MetadataField is retrieved from hibernate
+     * This cache only stores IDs, the actual MetadataField is retrieved from hibernate.
+     * It is shared by all threads.
      */
-    private static Map<String, Integer> cachedFields = new HashMap();
+    private static final Map<String, Integer> cachedFields = new ConcurrentHashMap<>();
 
     protected MetadataFieldDAOImpl() {
         super();
     }
 
+    /**
+     * Forget the cached IDs of all metadata fields, e.g. because another node changed the registry.
+     */
+    public static void clearCachedFields() {
+        cachedFields.clear();
+    }
+
     @Override
     public MetadataField find(Context context, int metadataFieldId, MetadataSchema metadataSchema, String element,
                               String qualifier) throws SQLException {
@@ -95,13 +103,14 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
     public MetadataField findByElement(Context context, String metadataSchema, String element, String qualifier)
         throws SQLException {
         String key = metadataSchema + "." + element + "." + qualifier;
-        if (cachedFields.containsKey(key)) {
+        Integer cachedId = cachedFields.get(key);
+        if (cachedId != null) {
             Session session = getHibernateSession(context);
             MetadataField metadataField = null;
             try {
-                metadataField = session.load(MetadataField.class, cachedFields.get(key));
+                metadataField = session.load(MetadataField.class, cachedId);
             } catch (Throwable e) {
-                log.error("Failed to load metadata field " + key + " using ID " + cachedFields.get(key));
+                log.error("Failed to load metadata field " + key + " using ID " + cachedId);
             }
             try {
                 if (metadataField != null &&
@@ -109,11 +118,11 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
                                 "." + metadataField.getQualifier()).equals(key)) {
                     return metadataField;
                 } else {
-                    cachedFields.remove(key);
+                    cachedFields.remove(key, cachedId);
                 }
             } catch (Throwable e) {
                 log.error("Failed to verify consistence of metadata field " + key +
-                        " using ID " + cachedFields.get(key));
+                        " using ID " + cachedId);
                 cachedFields.clear();
             }
         }
@@ -8,6 +8,7 @@
 package org.dspace.content.dao.impl.clarin;
 
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.Query;
@@ -36,6 +37,23 @@ public class ClarinLicenseResourceMappingDAOImpl extends AbstractHibernateDAO<Cl
         return list(query);
     }
 
+    @Override
+    public List<ClarinLicenseResourceMapping> findByBitstreamUUIDs(Context context, List<UUID> bitstreamUUIDs)
+            throws SQLException {
+        if (bitstreamUUIDs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = createQuery(context, "SELECT clrm " +
+                "FROM ClarinLicenseResourceMapping clrm " +
+                "JOIN FETCH clrm.license " +
+                "JOIN FETCH clrm.bitstream " +
+                "WHERE clrm.bitstream.id IN (:bitstreamUUIDs)");
+
+        query.setParameter("bitstreamUUIDs", bitstreamUUIDs);
+
+        return list(query);
+    }
+
     @Override
     public void delete(Context context, ClarinLicenseResourceMapping clarinLicenseResourceMapping) throws SQLException {
         clarinLicenseResourceMapping.setBitstream(null);
@@ -9,6 +9,7 @@ package org.dspace.content.dao.impl.clarin;
 
 import java.sql.SQLException;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -78,4 +79,23 @@ public class ClarinLicenseResourceUserAllowanceDAOImpl extends AbstractHibernate
 
         return list(query);
     }
+
+    @Override
+    public List<Integer> findMappingIdsByEPersonIdAndBitstreamIds(Context context, UUID userID,
+                                                                  List<UUID> bitstreamIDs) throws SQLException {
+        if (bitstreamIDs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = createQuery(context, "SELECT DISTINCT clrua.licenseResourceMapping.id " +
+                "FROM ClarinLicenseResourceUserAllowance clrua " +
+                "WHERE clrua.userRegistration.ePersonID = :userID " +
+                "AND clrua.licenseResourceMapping.bitstream.id IN (:bitstreamIDs)");
+
+        query.setParameter("userID", userID);
+        query.setParameter("bitstreamIDs", bitstreamIDs);
+
+        @SuppressWarnings("unchecked")
+        List<Integer> mappingIds = query.getResultList();
+        return mappingIds;
+    }
 }
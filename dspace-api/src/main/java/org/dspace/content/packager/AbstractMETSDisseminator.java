@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -51,6 +52,8 @@ import edu.harvard.hul.ois.mets.helper.Base64;
 import edu.harvard.hul.ois.mets.helper.MdSec;
 import edu.harvard.hul.ois.mets.helper.MetsElement;
 import edu.harvard.hul.ois.mets.helper.MetsException;
+import edu.harvard.hul.ois.mets.helper.MetsReader;
+import edu.harvard.hul.ois.mets.helper.MetsVElement;
 import edu.harvard.hul.ois.mets.helper.MetsValidator;
 import edu.harvard.hul.ois.mets.helper.MetsWriter;
 import edu.harvard.hul.ois.mets.helper.PreformedXML;
@@ -182,6 +185,216 @@ public abstract class AbstractMETSDisseminator
         }
     }
 
+    /**
+     * The sections of an Item manifest which can be streamed.
+     */
+    protected enum StreamedSection {
+        /**
+         * the {@code <amdSec>} of each bitstream
+         */
+        AMD_SEC,
+        /**
+         * the {@code <file>} of each bitstream of a bundle
+         */
+        FILE,
+        /**
+         * the {@code <fptr>} of the primary bitstream and a {@code <div>} for each bitstream of a bundle
+         */
+        DIV
+    }
+
+    /**
+     * A placeholder in the METS document whose elements are only created
+     * while the document is written, and are discarded once written. Thus the
+     * manifest of an Item with tens of thousands of bitstreams never has to be
+     * held in memory as a whole; only the IDs of the bitstream amdSecs are
+     * kept between the sections. As a consequence the streamed elements can
+     * only be validated one by one, and metadata of bitstreams disseminated by
+     * a StreamDisseminationCrosswalk is wrapped in the manifest rather than
+     * added to the package as a separate file.
+     */
+    protected abstract class StreamedElement extends MetsElement {
+        protected final Context context;
+        protected final PackageParameters params;
+
+        protected StreamedElement(Context context, PackageParameters params) {
+            this.context = context;
+            this.params = params;
+        }
+
+        @Override
+        public void read(MetsReader reader) throws MetsException {
+            throw new MetsException("Streamed METS elements cannot be read");
+        }
+
+        @Override
+        public void write(MetsWriter writer) throws MetsException {
+            try {
+                writeElements(writer);
+            } catch (MetsException e) {
+                throw e;
+            } catch (Exception e) {
+                MetsException metsException = new MetsException(e.getMessage());
+                metsException.initCause(e);
+                throw metsException;
+            }
+        }
+
+        /**
+         * Create and write the elements.
+         *
+         * @param writer the writer of the METS document
+         * @throws Exception if the elements cannot be created or written
+         */
+        protected abstract void writeElements(MetsWriter writer) throws Exception;
+
+        /**
+         * Write one element, validating it first if the "validate" parameter is set.
+         *
+         * @param element the element
+         * @param writer  the writer of the METS document
+         * @throws MetsException if the element is invalid or cannot be written
+         */
+        protected void writeElement(MetsElement element, MetsWriter writer) throws MetsException {
+            if (element instanceof MetsVElement && (params == null || params.getBooleanProperty("validate", true))) {
+                ((MetsVElement) element).validate(new MetsValidator());
+            }
+            element.write(writer);
+        }
+    }
+
+    /**
+     * Streams one {@link StreamedSection} of the bitstreams of an Item, or
+     * of one of its bundles.
+     */
+    protected class StreamedBitstreams extends StreamedElement {
+        protected final Item item;
+        protected final Bundle bundle;
+        protected final StreamedSection section;
+        protected final Map<UUID, String> techIDs;
+
+        /**
+         * @param context DSpace Context
+         * @param item    the Item
+         * @param bundle  the bundle, or null for all bundles of the Item
+         * @param params  Parameters to the Packager script
+         * @param section the section to write
+         * @param techIDs the IDs of the bitstream amdSecs, filled by the {@link StreamedSection#AMD_SEC} section
+         */
+        protected StreamedBitstreams(Context context, Item item, Bundle bundle, PackageParameters params,
+                                     StreamedSection section, Map<UUID, String> techIDs) {
+            super(context, params);
+            this.item = item;
+            this.bundle = bundle;
+            this.section = section;
+            this.techIDs = techIDs;
+        }
+
+        @Override
+        protected void writeElements(MetsWriter writer) throws Exception {
+            // how to handle unauthorized bundle/bitstream:
+            String unauth = (params == null) ? null : params.getProperty("unauthorized");
+
+            List<Bundle> bundles = bundle != null ? List.of(bundle) : item.getBundles();
+            for (Bundle currentBundle : bundles) {
+                // unauthorized bundles were already dealt with when making the manifest
+                if (!includeBundle(currentBundle) ||
+                    !authorizeService.authorizeActionBoolean(context, currentBundle, Constants.READ)) {
+                    continue;
+                }
+
+                Bitstream primaryBitstream = section == StreamedSection.DIV ?
+                    currentBundle.getPrimaryBitstream() : null;
+                if (primaryBitstream != null && isIncluded(primaryBitstream, unauth)) {
+                    // set primary bitstream in structMap
+                    Fptr fptr = new Fptr();
+                    fptr.setFILEID("bitstream_" + primaryBitstream.getSequenceID());
+                    writeElement(fptr, writer);
+                }
+
+                for (Bitstream bitstream : currentBundle.getBitstreams()) {
+                    if (!isIncluded(bitstream, unauth)) {
+                        continue;
+                    }
+                    if (section == StreamedSection.AMD_SEC) {
+                        // technical metadata for bitstream
+                        Mets amdSecs = new Mets();
+                        String techID = addAmdSec(context, bitstream, params, amdSecs, null);
+                        if (techID != null) {
+                            techIDs.put(bitstream.getID(), techID);
+                            for (Object amdSec : amdSecs.getContent()) {
+                                writeElement((MetsElement) amdSec, writer);
+                            }
+                        }
+                    } else if (section == StreamedSection.FILE) {
+                        boolean auth = authorizeService.authorizeActionBoolean(context, bitstream,
+                                                                               Constants.READ);
+                        edu.harvard.hul.ois.mets.File file = makeFile(context, item, currentBundle, bitstream,
+                                                                      auth, params);
+                        String techID = techIDs.get(bitstream.getID());
+                        if (techID != null) {
+                            file.setADMID(techID);
+                        }
+                        writeElement(file, writer);
+                    } else {
+                        writeElement(makeFileDiv("bitstream_" + bitstream.getSequenceID(),
+                                                 getObjectTypeString(bitstream)), writer);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Check for authorization to match the logic in disseminate(),
+         * i.e. "unauth=zero" means include a 0-length bitstream,
+         * "unauth=skip" means to ignore it (and exclude from manifest).
+         *
+         * @param bitstream the bitstream
+         * @param unauth    how to handle unauthorized bitstreams
+         * @return whether the bitstream is part of the package
+         * @throws SQLException       if database error
+         * @throws AuthorizeException if the bitstream may neither be read nor skipped
+         */
+        protected boolean isIncluded(Bitstream bitstream, String unauth) throws SQLException, AuthorizeException {
+            if (authorizeService.authorizeActionBoolean(context, bitstream, Constants.READ)) {
+                return true;
+            } else if (unauth != null && unauth.equalsIgnoreCase("skip")) {
+                return false;
+            } else if (unauth != null && unauth.equalsIgnoreCase("zero")) {
+                return true;
+            }
+            throw new AuthorizeException(
+                "Not authorized to read Bitstream, SID=" + String.valueOf(bitstream.getSequenceID()));
+        }
+    }
+
+    /**
+     * Streams the child {@code <div>}s of the Items of a Collection, see
+     * {@link StreamedElement}.
+     */
+    protected class StreamedItemDivs extends StreamedElement {
+        protected final Collection collection;
+
+        protected StreamedItemDivs(Context context, Collection collection, PackageParameters params) {
+            super(context, params);
+            this.collection = collection;
+        }
+
+        @Override
+        protected void writeElements(MetsWriter writer) throws Exception {
+            Iterator<Item> ii = itemService.findByCollection(context, collection);
+            while (ii.hasNext()) {
+                //add a child <div> for each item in collection
+                Item item = ii.next();
+                Div childDiv = makeChildDiv(getObjectTypeString(item), item, params);
+                if (childDiv != null) {
+                    writeElement(childDiv, writer);
+                }
+                context.uncacheEntity(item);
+            }
+        }
+    }
+
     /**
      * Make a new unique ID symbol with specified prefix.
      *
@@ -255,7 +468,8 @@ public abstract class AbstractMETSDisseminator
             if (params != null && params.getBooleanProperty("manifestOnly", false)) {
                 Mets manifest = makeManifest(context, dso, params, null);
                 //only validate METS if specified (default = true)
-                if (params.getBooleanProperty("validate", true)) {
+                // (streamed sections are validated one by one while they are written)
+                if (params.getBooleanProperty("validate", true) && !isStreaming(params)) {
                     manifest.validate(new MetsValidator());
                 }
                 manifest.write(new MetsWriter(outStream));
@@ -383,7 +597,8 @@ public abstract class AbstractMETSDisseminator
 
         // can only validate now after fixing up extraStreams
         // note: only validate METS if specified (default = true)
-        if (params.getBooleanProperty("validate", true)) {
+        // (streamed sections are validated one by one while they are written)
+        if (params.getBooleanProperty("validate", true) && !isStreaming(params)) {
             manifest.validate(new MetsValidator());
         }
         manifest.write(new MetsWriter(zip));
@@ -841,7 +1056,10 @@ public abstract class AbstractMETSDisseminator
             // and each bitstream therein into a file.
             // Create the bitstream-level techMd and div's for structmap
             // at the same time so we can connect the IDREFs to IDs.
+            // When streaming, these are only created while the manifest is written.
             fileSec = new FileSec();
+            Map<UUID, String> techIDs = new HashMap<>();
+            boolean streaming = isStreaming(params);
             List<Bundle> bundles = item.getBundles();
             for (Bundle bundle : bundles) {
                 if (!includeBundle(bundle)) {
@@ -884,6 +1102,17 @@ public abstract class AbstractMETSDisseminator
                     primaryBitstream = bundle.getPrimaryBitstream();
                 }
 
+                if (streaming) {
+                    fileGrp.getContent().add(
+                        new StreamedBitstreams(context, item, bundle, params, StreamedSection.FILE, techIDs));
+                    if (isContentBundle) {
+                        div0.getContent().add(
+                            new StreamedBitstreams(context, item, bundle, params, StreamedSection.DIV, techIDs));
+                    }
+                    fileSec.getContent().add(fileGrp);
+                    continue;
+                }
+
                 // For each bitstream, add to METS manifest
                 for (Bitstream bitstream : bitstreams) {
                     // Check for authorization.  Handle unauthorized
@@ -902,11 +1131,8 @@ public abstract class AbstractMETSDisseminator
                         }
                     }
 
-                    String sid = String.valueOf(bitstream.getSequenceID());
-                    String fileID = bitstreamIDstart + sid;
-                    edu.harvard.hul.ois.mets.File file = new edu.harvard.hul.ois.mets.File();
-                    file.setID(fileID);
-                    file.setSEQ(bitstream.getSequenceID());
+                    String fileID = bitstreamIDstart + bitstream.getSequenceID();
+                    edu.harvard.hul.ois.mets.File file = makeFile(context, item, bundle, bitstream, auth, params);
                     fileGrp.getContent().add(file);
 
                     // set primary bitstream in structMap
@@ -921,46 +1147,6 @@ public abstract class AbstractMETSDisseminator
                         div0.getContent().add(makeFileDiv(fileID, getObjectTypeString(bitstream)));
                     }
 
-                    /*
-                     * If we're in THUMBNAIL or TEXT bundles, the bitstream is
-                     * extracted text or a thumbnail, so we use the name to work
-                     * out which bitstream to be in the same group as
-                     */
-                    String groupID = "GROUP_" + bitstreamIDstart + sid;
-                    if ((bundle.getName() != null)
-                        && (bundle.getName().equals("THUMBNAIL") ||
-                        bundle.getName().startsWith("TEXT"))) {
-                        // Try and find the original bitstream, and chuck the
-                        // derived bitstream in the same group
-                        Bitstream original = findOriginalBitstream(item,
-                                                                   bitstream);
-                        if (original != null) {
-                            groupID = "GROUP_" + bitstreamIDstart
-                                + original.getSequenceID();
-                        }
-                    }
-                    file.setGROUPID(groupID);
-                    file.setMIMETYPE(bitstream.getFormat(context).getMIMEType());
-                    file.setSIZE(auth ? bitstream.getSizeBytes() : 0);
-
-                    // Translate checksum and type to METS
-                    String csType = bitstream.getChecksumAlgorithm();
-                    String cs = bitstream.getChecksum();
-                    if (auth && cs != null && csType != null) {
-                        try {
-                            file.setCHECKSUMTYPE(Checksumtype.parse(csType));
-                            file.setCHECKSUM(cs);
-                        } catch (MetsException e) {
-                            log.warn("Cannot set bitstream checksum type=" + csType + " in METS.");
-                        }
-                    }
-
-                    // FLocat: point to location of bitstream contents.
-                    FLocat flocat = new FLocat();
-                    flocat.setLOCTYPE(Loctype.URL);
-                    flocat.setXlinkHref(makeBitstreamURL(context, bitstream, params));
-                    file.getContent().add(flocat);
-
                     // technical metadata for bitstream
                     String techID = addAmdSec(context, bitstream, params, mets, extraStreams);
                     if (techID != null) {
@@ -969,15 +1155,26 @@ public abstract class AbstractMETSDisseminator
                 }
                 fileSec.getContent().add(fileGrp);
             }
+
+            // the bitstream-level amdSecs must be written before the fileSec referring to them
+            if (streaming) {
+                mets.getContent().add(
+                    new StreamedBitstreams(context, item, null, params, StreamedSection.AMD_SEC, techIDs));
+            }
         } else if (dso.getType() == Constants.COLLECTION) {
             Collection collection = (Collection) dso;
-            Iterator<Item> ii = itemService.findByCollection(context, collection);
-            while (ii.hasNext()) {
-                //add a child <div> for each item in collection
-                Item item = ii.next();
-                Div childDiv = makeChildDiv(getObjectTypeString(item), item, params);
-                if (childDiv != null) {
-                    div0.getContent().add(childDiv);
+            if (isStreaming(params)) {
+                //add the child <div>s for the items while writing the manifest
+                div0.getContent().add(new StreamedItemDivs(context, collection, params));
+            } else {
+                Iterator<Item> ii = itemService.findByCollection(context, collection);
+                while (ii.hasNext()) {
+                    //add a child <div> for each item in collection
+                    Item item = ii.next();
+                    Div childDiv = makeChildDiv(getObjectTypeString(item), item, params);
+                    if (childDiv != null) {
+                        div0.getContent().add(childDiv);
+                    }
                 }
             }
 
@@ -1088,6 +1285,83 @@ public abstract class AbstractMETSDisseminator
         return mets;
     }
 
+    /**
+     * Create the {@code <file>} element of a bitstream of an Item, without
+     * its technical metadata.
+     *
+     * @param context   DSpace Context
+     * @param item      the Item
+     * @param bundle    the bundle of the bitstream
+     * @param bitstream the bitstream
+     * @param auth      whether the bitstream may be read, otherwise its size is zero
+     * @param params    Parameters to the Packager script
+     * @return the {@code <file>} element
+     * @throws SQLException if database error
+     */
+    protected edu.harvard.hul.ois.mets.File makeFile(Context context, Item item, Bundle bundle,
+                                                     Bitstream bitstream, boolean auth, PackageParameters params)
+        throws SQLException {
+        String bitstreamIDstart = "bitstream_";
+        String sid = String.valueOf(bitstream.getSequenceID());
+        edu.harvard.hul.ois.mets.File file = new edu.harvard.hul.ois.mets.File();
+        file.setID(bitstreamIDstart + sid);
+        file.setSEQ(bitstream.getSequenceID());
+
+        /*
+         * If we're in THUMBNAIL or TEXT bundles, the bitstream is
+         * extracted text or a thumbnail, so we use the name to work
+         * out which bitstream to be in the same group as
+         */
+        String groupID = "GROUP_" + bitstreamIDstart + sid;
+        if ((bundle.getName() != null)
+            && (bundle.getName().equals("THUMBNAIL") ||
+            bundle.getName().startsWith("TEXT"))) {
+            // Try and find the original bitstream, and chuck the
+            // derived bitstream in the same group
+            Bitstream original = findOriginalBitstream(item,
+                                                       bitstream);
+            if (original != null) {
+                groupID = "GROUP_" + bitstreamIDstart
+                    + original.getSequenceID();
+            }
+        }
+        file.setGROUPID(groupID);
+        file.setMIMETYPE(bitstream.getFormat(context).getMIMEType());
+        file.setSIZE(auth ? bitstream.getSizeBytes() : 0);
+
+        // Translate checksum and type to METS
+        String csType = bitstream.getChecksumAlgorithm();
+        String cs = bitstream.getChecksum();
+        if (auth && cs != null && csType != null) {
+            try {
+                file.setCHECKSUMTYPE(Checksumtype.parse(csType));
+                file.setCHECKSUM(cs);
+            } catch (MetsException e) {
+                log.warn("Cannot set bitstream checksum type=" + csType + " in METS.");
+            }
+        }
+
+        // FLocat: point to location of bitstream contents.
+        FLocat flocat = new FLocat();
+        flocat.setLOCTYPE(Loctype.URL);
+        flocat.setXlinkHref(makeBitstreamURL(context, bitstream, params));
+        file.getContent().add(flocat);
+        return file;
+    }
+
+    /**
+     * Whether to create the bitstream-level sections of an Item manifest, and
+     * the child {@code <div>}s of a Collection manifest, only while the
+     * manifest is written. See {@link StreamedBitstreams}.
+     *
+     * @param params Parameters to the Packager script
+     * @return true if the "streaming" parameter or 'mets.dissemination.streaming' is set
+     */
+    protected boolean isStreaming(PackageParameters params) {
+        boolean streaming = configurationService.getBooleanProperty("mets.dissemination.streaming", false);
+        return params != null ? params.getBooleanProperty("streaming", streaming) : streaming;
+    }
+
     // Install logo bitstream into METS for Community, Collection.
     // Add a file element, and refer to it from an fptr in the first div
     // of the main structMap.
@@ -85,6 +85,23 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
     public Bitstream create(Context context, Bundle bundle, InputStream is)
         throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * Create a new bitstream, with a new ID, in the given bundle, but without
+     * its bits. The internal ID, store number, size and checksum of bits
+     * already stored with
+     * {@link org.dspace.storage.bitstore.service.BitstreamStorageService#put(InputStream)}
+     * must be set before the bitstream is updated. This allows the bits of
+     * several bitstreams to be stored concurrently.
+     * The newly created bitstream has the "unknown" format.
+     *
+     * @param context DSpace context object
+     * @param bundle  The bundle in which our bitstream should be added.
+     * @return the newly created bitstream
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public Bitstream create(Context context, Bundle bundle) throws SQLException, AuthorizeException;
+
     /**
      * Register a new bitstream, with a new ID.  The checksum and file size
      * are calculated. The newly created bitstream has the "unknown"
@@ -196,8 +213,32 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
      */
     public void expunge(Context context, Bitstream bitstream) throws SQLException, AuthorizeException;
 
+    /**
+     * Retrieve a page of the bitstreams with the deleted flag set to true,
+     * ordered by their ID.
+     *
+     * @param context the dspace context
+     * @param after   only return bitstreams with an ID greater than this one,
+     *                or null to start with the first one
+     * @param limit   maximum number of bitstreams to return
+     * @return a page of the bitstreams that have been "deleted"
+     * @throws SQLException if database error
+     */
+    public List<Bitstream> findDeletedBitstreams(Context context, UUID after, int limit) throws SQLException;
+
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException;
 
+    /**
+     * Retrieve all bitstreams stored under one of the given internal
+     * identifiers, deleted or not.
+     *
+     * @param context     the dspace context
+     * @param internalIds internal identifiers of the files
+     * @return the bitstreams using these files
+     * @throws SQLException if database error
+     */
+    public List<Bitstream> findByInternalIds(Context context, List<String> internalIds) throws SQLException;
+
     public Iterator<Bitstream> getItemBitstreams(Context context, Item item) throws SQLException;
 
     public Iterator<Bitstream> getCollectionBitstreams(Context context, Collection collection) throws SQLException;
@@ -226,6 +267,16 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
 
     List<Bitstream> getNotReferencedBitstreams(Context context) throws SQLException;
 
+    /**
+     * Load the metadata of the given bitstreams with a few queries for all of them together, see
+     * {@link ItemService#prefetch(Context, List, boolean)}.
+     *
+     * @param context    DSpace context object
+     * @param bitstreams the bitstreams, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    void prefetch(Context context, List<Bitstream> bitstreams) throws SQLException;
+
     /**
      * Gets the last modified timestamp of the the given bitstream's content, if known.
      *
@@ -146,4 +146,14 @@ public interface BundleService extends DSpaceObjectService<Bundle>, DSpaceObject
     public void setOrder(Context context, Bundle bundle, UUID bitstreamIds[]) throws AuthorizeException, SQLException;
 
     int countTotal(Context context) throws SQLException;
+
+    /**
+     * Load the metadata and the bitstreams (with their metadata and formats) of the given bundles with a few
+     * queries for all of them together, see {@link ItemService#prefetch(Context, List, boolean)}.
+     *
+     * @param context DSpace Context
+     * @param bundles the bundles, attached to the session of the context
+     * @throws SQLException if database error
+     */
+    public void prefetch(Context context, List<Bundle> bundles) throws SQLException;
 }
@@ -113,6 +113,18 @@ public interface ItemService
      */
     public Iterator<Item> findAllUnfiltered(Context context) throws SQLException;
 
+    /**
+     * Get all "final" items in the archive, see {@link #findAllUnfiltered(Context)}. The items are loaded page by
+     * page together with their metadata; if requested, the bundles and bitstreams of each page are loaded together
+     * with it as well, see {@link #prefetch(Context, List, boolean)}.
+     *
+     * @param context        DSpace context object
+     * @param withBitstreams whether the bundles and bitstreams are loaded too
+     * @return an iterator over the items in the archive.
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllUnfiltered(Context context, boolean withBitstreams) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
@@ -667,6 +679,41 @@ public interface ItemService
     public Iterator<Item> findByLastModifiedSince(Context context, Date last)
         throws SQLException;
 
+    /**
+     * Load the metadata of the given items, and optionally their bundles and bitstreams with their metadata and
+     * formats, with a few queries for all of them together, instead of one or more queries per item when the
+     * lazily loaded collections of each item are first accessed. Use it before converting or processing a page of
+     * items.
+     *
+     * @param context        DSpace context object
+     * @param items          the items, attached to the session of the context
+     * @param withBitstreams whether the bundles and bitstreams are loaded too
+     * @throws SQLException if database error
+     */
+    public void prefetch(Context context, List<Item> items, boolean withBitstreams) throws SQLException;
+
+    /**
+     * Wrap an iterator over items so that they are prefetched in batches, see
+     * {@link #prefetch(Context, List, boolean)}.
+     *
+     * @param context        DSpace context object
+     * @param items          iterator over items
+     * @param withBitstreams whether the bundles and bitstreams are loaded too
+     * @return iterator over the same items
+     */
+    public Iterator<Item> prefetch(Context context, Iterator<Item> items, boolean withBitstreams);
+
+    /**
+     * Find all Items with the given UUIDs using a single query, e.g. to resolve a
+     * batch of identifiers returned by a search index. Unknown UUIDs are ignored.
+     *
+     * @param context DSpace context object
+     * @param ids     the Item UUIDs to load
+     * @return iterator over the matching items, ordered by UUID
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findByIds(Context context, List<UUID> ids) throws SQLException;
+
     /**
      * counts items in the given community
      *
@@ -9,6 +9,7 @@ package org.dspace.content.service.clarin;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
@@ -41,4 +42,18 @@ public interface ClarinLicenseResourceMappingService {
     List<ClarinLicenseResourceMapping> findByBitstreamUUID(Context context, UUID bitstreamID) throws SQLException;
 
     ClarinLicense getLicenseToAgree(Context context, UUID userId, UUID resourceID) throws SQLException;
+
+    /**
+     * Bulk variant of {@link #getLicenseToAgree(Context, UUID, UUID)}, which resolves the licenses, their
+     * confirmation modes and the information filled in by the user for all the bitstreams in a constant number
+     * of queries.
+     *
+     * @param context     DSpace context object
+     * @param userId      the user, or null for an anonymous user
+     * @param resourceIDs the bitstreams
+     * @return the license to agree of every bitstream whose license has to be confirmed by the user
+     * @throws SQLException if database error
+     */
+    Map<UUID, ClarinLicense> getLicensesToAgree(Context context, UUID userId, List<UUID> resourceIDs)
+            throws SQLException;
 }
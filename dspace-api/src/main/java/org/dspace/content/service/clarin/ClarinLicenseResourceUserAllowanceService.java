@@ -9,6 +9,7 @@ package org.dspace.content.service.clarin;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
@@ -28,4 +29,30 @@ public interface ClarinLicenseResourceUserAllowanceService {
     List<ClarinLicenseResourceUserAllowance> findByEPersonId(Context context, UUID userID) throws SQLException;
     List<ClarinLicenseResourceUserAllowance> findByEPersonIdAndBitstreamId(Context context, UUID userID,
                                                                            UUID bitstreamID) throws SQLException;
+
+    /**
+     * Bulk variant of {@link #isUserAllowedToAccessTheResource(Context, UUID, UUID)}, see
+     * {@link ClarinLicenseResourceMappingService#getLicensesToAgree(Context, UUID, List)}.
+     *
+     * @param context     DSpace context object
+     * @param userId      the user, or null for an anonymous user
+     * @param resourceIds the bitstreams
+     * @return whether the user is allowed to access each of the bitstreams
+     * @throws SQLException if database error
+     */
+    Map<UUID, Boolean> isUserAllowedToAccessTheResources(Context context, UUID userId, List<UUID> resourceIds)
+            throws SQLException;
+
+    /**
+     * Find the resource mappings of the bitstreams for which the user has filled in the information required by
+     * the license, in one query.
+     *
+     * @param context      DSpace context object
+     * @param userID       the user
+     * @param bitstreamIDs the bitstreams
+     * @return the IDs of the resource mappings
+     * @throws SQLException if database error
+     */
+    List<Integer> findMappingIdsByEPersonIdAndBitstreamIds(Context context, UUID userID, List<UUID> bitstreamIDs)
+            throws SQLException;
 }
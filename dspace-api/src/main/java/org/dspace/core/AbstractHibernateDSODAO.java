@@ -8,17 +8,28 @@
 package org.dspace.core;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.MetadataField;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.ThrowingConsumer;
 
 /**
  * Hibernate implementation used by DSpaceObject Database Access Objects.
@@ -31,6 +42,23 @@ import org.dspace.content.MetadataField;
  * @param <T> type of DSO represented.
  */
 public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends AbstractHibernateDAO<T> {
+
+    /**
+     * Default number of objects loaded at once by {@link #iterateByPage(Context, Class, String, Map)}
+     */
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /**
+     * Fetch joins which load the metadata values of an object, aliased {@code dso}, with their fields and schemas
+     */
+    protected static final String FETCH_METADATA =
+        "LEFT JOIN FETCH dso.metadata mv LEFT JOIN FETCH mv.metadataField mf LEFT JOIN FETCH mf.metadataSchema";
+
+    /**
+     * Maximum number of objects in the IN clause of one prefetch query
+     */
+    private static final int PREFETCH_CHUNK_SIZE = 500;
+
     /**
      * Find a DSO by its "legacy ID".  Former versions of DSpace used integer
      * record IDs, and these may still be found in external records such as AIPs.
@@ -151,4 +179,148 @@ public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends Ab
         }
     }
 
+    /**
+     * Iterate over the objects of the given type which match the given condition, ordered by their UUID.
+     * <P>
+     * Unlike {@link #iterate(Query)} no database cursor stays open while the objects are processed. The objects are
+     * loaded in pages of {@code db.iterator.pagesize} objects, each page starting after the UUID of the last object
+     * of the previous page (keyset pagination), so every page is a short index range scan no matter how far the
+     * iteration got and the caller may commit in between. The metadata of all objects of a page is loaded together
+     * with them. If the context is in READ_ONLY mode, the objects of a page are removed from the session cache
+     * when the next page is loaded, which keeps the memory use flat; otherwise the caller should uncache the
+     * objects it is done with, as before.
+     *
+     * @param context    current DSpace context.
+     * @param clazz      type of the objects.
+     * @param where      JPQL condition on the objects, which are aliased {@code dso}, or null for all objects.
+     * @param parameters values of the named parameters used in the condition.
+     * @return iterator over the matching objects.
+     */
+    protected Iterator<T> iterateByPage(Context context, Class<T> clazz, String where, Map<String, Object> parameters) {
+        return iterateByPage(context, clazz, where, parameters, null);
+    }
+
+    /**
+     * Iterate over the objects of the given type which match the given condition, ordered by their UUID, see
+     * {@link #iterateByPage(Context, Class, String, Map)}. Each page is handed to the given callback as soon as it
+     * is loaded, before any of its objects is returned, e.g. to load further associations of all of them together.
+     * The objects of a page stay attached to the session until the next page is loaded.
+     *
+     * @param context    current DSpace context.
+     * @param clazz      type of the objects.
+     * @param where      JPQL condition on the objects, which are aliased {@code dso}, or null for all objects.
+     * @param parameters values of the named parameters used in the condition.
+     * @param pageLoaded called with every page which was loaded, or null.
+     * @return iterator over the matching objects.
+     */
+    protected Iterator<T> iterateByPage(Context context, Class<T> clazz, String where, Map<String, Object> parameters,
+                                        ThrowingConsumer<List<T>, SQLException> pageLoaded) {
+        int pageSize = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                            .getIntProperty("db.iterator.pagesize", DEFAULT_PAGE_SIZE);
+        String entityName = clazz.getSimpleName();
+        String idQuery = "SELECT dso.id FROM " + entityName + " dso";
+        String firstPageQuery;
+        String nextPageQuery;
+        if (StringUtils.isNotBlank(where)) {
+            firstPageQuery = idQuery + " WHERE (" + where + ") ORDER BY dso.id";
+            nextPageQuery = idQuery + " WHERE (" + where + ") AND dso.id > :last_id ORDER BY dso.id";
+        } else {
+            firstPageQuery = idQuery + " ORDER BY dso.id";
+            nextPageQuery = idQuery + " WHERE dso.id > :last_id ORDER BY dso.id";
+        }
+        String pageQuery = "SELECT dso FROM " + entityName + " dso " + FETCH_METADATA + " WHERE dso.id IN (:ids)";
+
+        return new AbstractIterator<T>() {
+            private Iterator<T> page = Collections.emptyIterator();
+            private List<T> loaded = Collections.emptyList();
+            private UUID lastId;
+            private boolean lastPage;
+
+            @Override
+            protected T computeNext() {
+                if (!page.hasNext() && !lastPage) {
+                    try {
+                        loadNextPage();
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Unable to load the next page of " + entityName + " objects", e);
+                    }
+                }
+                return page.hasNext() ? page.next() : endOfData();
+            }
+
+            private void loadNextPage() throws SQLException {
+                if (context.isReadOnly()) {
+                    for (T dso : loaded) {
+                        context.uncacheEntity(dso);
+                    }
+                }
+
+                Query query = createQuery(context, lastId == null ? firstPageQuery : nextPageQuery);
+                for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                    query.setParameter(parameter.getKey(), parameter.getValue());
+                }
+                if (lastId != null) {
+                    query.setParameter("last_id", lastId);
+                }
+                query.setMaxResults(pageSize);
+                @SuppressWarnings("unchecked")
+                List<UUID> ids = query.getResultList();
+                lastPage = ids.size() < pageSize;
+                if (ids.isEmpty()) {
+                    loaded = Collections.emptyList();
+                    page = loaded.iterator();
+                    return;
+                }
+                lastId = ids.get(ids.size() - 1);
+
+                // one row per metadata value; the database and Java order UUIDs differently, keep the order of
+                // the database
+                Query objectQuery = createQuery(context, pageQuery);
+                objectQuery.setParameter("ids", ids);
+                Map<UUID, T> objects = new HashMap<>();
+                for (T dso : list(objectQuery)) {
+                    objects.put(dso.getID(), dso);
+                }
+                List<T> ordered = new ArrayList<>(ids.size());
+                for (UUID id : ids) {
+                    T dso = objects.get(id);
+                    if (dso != null) {
+                        ordered.add(dso);
+                    }
+                }
+                loaded = ordered;
+                if (pageLoaded != null) {
+                    pageLoaded.accept(loaded);
+                }
+                page = loaded.iterator();
+            }
+        };
+    }
+
+    /**
+     * Load the given associations of all the given objects with one query per few hundred
+     * objects, instead of one query per object when the association of each is first accessed. The objects have to
+     * be attached to the session of the context; the loaded associations are filled into them.
+     *
+     * @param context    current DSpace context.
+     * @param clazz      type of the objects.
+     * @param dsos       the objects.
+     * @param fetchJoins the JPQL fetch joins of the associations, on the objects aliased {@code dso}, e.g.
+     *                   {@link #FETCH_METADATA}.
+     * @throws SQLException if database error
+     */
+    protected void prefetch(Context context, Class<T> clazz, List<T> dsos, String fetchJoins) throws SQLException {
+        if (CollectionUtils.isEmpty(dsos)) {
+            return;
+        }
+        // no DISTINCT: the rows are only read to fill the associations
+        String queryString = "SELECT dso FROM " + clazz.getSimpleName() + " dso " + fetchJoins +
+            " WHERE dso IN (:dsos)";
+        for (List<T> chunk : Lists.partition(dsos, PREFETCH_CHUNK_SIZE)) {
+            Query query = createQuery(context, queryString);
+            query.setParameter("dsos", chunk);
+            query.getResultList();
+        }
+    }
+
 }
@@ -10,9 +10,11 @@ package org.dspace.core;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
@@ -119,14 +121,24 @@ public class Context implements AutoCloseable {
     private Mode mode;
 
     /**
-     * Cache that is only used the context is in READ_ONLY mode
+     * Cache of the authorization decisions and group memberships of this context
      */
     private final ContextReadOnlyCache readOnlyCache = new ContextReadOnlyCache();
 
+    /**
+     * Actions to run once the changes of the current transaction are committed, by key
+     */
+    private final Map<String, Runnable> commitActions = new LinkedHashMap<>();
+
     protected EventService eventService;
 
     private DBConnection dbConnection;
 
+    /**
+     * The query statistics of the thread when this context was created
+     */
+    private QueryStatistics queryStatisticsStart;
+
     public enum Mode {
         READ_ONLY,
         READ_WRITE,
@@ -188,6 +200,8 @@ public class Context implements AutoCloseable {
         authStateChangeHistory = new ConcurrentLinkedDeque<>();
         authStateClassCallHistory = new ConcurrentLinkedDeque<>();
 
+        queryStatisticsStart = QueryStatistics.current().copy();
+
         if (this.mode != null) {
             setMode(this.mode);
         }
@@ -246,6 +260,7 @@ public class Context implements AutoCloseable {
      */
     public void setCurrentUser(EPerson user) {
         currentUser = user;
+        readOnlyCache.clearGroupMemberships();
     }
 
     /**
@@ -440,7 +455,10 @@ public class Context implements AutoCloseable {
             if (dbConnection != null) {
                 // Commit our changes (this closes the transaction but leaves database connection open)
                 dbConnection.commit();
+                // the cached groups are detached now
+                readOnlyCache.clear();
                 reloadContextBoundEntities();
+                runCommitActions();
             }
         }
     }
@@ -504,6 +522,11 @@ public class Context implements AutoCloseable {
         }
 
         events.add(event);
+
+        // content moved, installed or deleted: inherited and custom policies may apply differently now
+        if ((event.getEventType() & (Event.ADD | Event.REMOVE | Event.DELETE | Event.INSTALL)) != 0) {
+            readOnlyCache.clearAuthorizationResults();
+        }
     }
 
     /**
@@ -572,6 +595,7 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            commitActions.clear();
         }
     }
 
@@ -629,6 +653,7 @@ public class Context implements AutoCloseable {
      */
     public void setSpecialGroup(UUID groupID) {
         specialGroups.add(groupID);
+        readOnlyCache.clearGroupMemberships();
     }
 
     /**
@@ -675,6 +700,7 @@ public class Context implements AutoCloseable {
         specialGroupsPreviousState = specialGroups;
         specialGroups = new ArrayList<>();
         currentUser = newUser;
+        readOnlyCache.clearGroupMemberships();
     }
 
     /**
@@ -690,6 +716,7 @@ public class Context implements AutoCloseable {
         specialGroups = specialGroupsPreviousState;
         specialGroupsPreviousState = null;
         currentUserPreviousState = null;
+        readOnlyCache.clearGroupMemberships();
     }
 
     /**
@@ -728,6 +755,17 @@ public class Context implements AutoCloseable {
         return this.getDBConnection().getCacheSize();
     }
 
+    /**
+     * Returns the database statements executed by the current thread since this context was created, e.g. during
+     * a REST request. The statements are only counted while 'db.statistics.enabled' is true.
+     *
+     * @return the query statistics
+     * @see QueryStatistics
+     */
+    public QueryStatistics getQueryStatistics() {
+        return QueryStatistics.current().since(queryStatisticsStart);
+    }
+
     /**
      * Change the mode of this current context.
      *
@@ -760,6 +798,8 @@ public class Context implements AutoCloseable {
                     log.warn("New context mode detected that has not been configured.");
                     break;
             }
+            // leaving a transaction on the database replica detaches the entities bound to this context
+            reloadContextBoundEntities();
         } catch (SQLException ex) {
             log.warn("Unable to set database connection mode", ex);
         }
@@ -841,17 +881,13 @@ public class Context implements AutoCloseable {
     }
 
     public Boolean getCachedAuthorizationResult(DSpaceObject dspaceObject, int action, EPerson eperson) {
-        if (isReadOnly()) {
-            return readOnlyCache.getCachedAuthorizationResult(dspaceObject, action, eperson);
-        } else {
-            return null;
-        }
+        return readOnlyCache.getCachedAuthorizationResult(dspaceObject, action, eperson);
     }
 
     public void cacheAuthorizedAction(DSpaceObject dspaceObject, int action, EPerson eperson, Boolean result,
                                       ResourcePolicy rp) {
+        readOnlyCache.cacheAuthorizedAction(dspaceObject, action, eperson, result);
         if (isReadOnly()) {
-            readOnlyCache.cacheAuthorizedAction(dspaceObject, action, eperson, result);
             try {
                 uncacheEntity(rp);
             } catch (SQLException e) {
@@ -861,30 +897,82 @@ public class Context implements AutoCloseable {
     }
 
     public Boolean getCachedGroupMembership(Group group, EPerson eperson) {
-        if (isReadOnly()) {
-            return readOnlyCache.getCachedGroupMembership(group, eperson);
-        } else {
-            return null;
-        }
+        return readOnlyCache.getCachedGroupMembership(group, eperson);
     }
 
     public void cacheGroupMembership(Group group, EPerson eperson, Boolean isMember) {
-        if (isReadOnly()) {
-            readOnlyCache.cacheGroupMembership(group, eperson, isMember);
-        }
+        readOnlyCache.cacheGroupMembership(group, eperson, isMember);
     }
 
     public void cacheAllMemberGroupsSet(EPerson ePerson, Set<Group> groups) {
-        if (isReadOnly()) {
-            readOnlyCache.cacheAllMemberGroupsSet(ePerson, groups);
-        }
+        readOnlyCache.cacheAllMemberGroupsSet(ePerson, groups);
     }
 
     public Set<Group> getCachedAllMemberGroupsSet(EPerson ePerson) {
-        if (isReadOnly()) {
-            return readOnlyCache.getCachedAllMemberGroupsSet(ePerson);
+        return readOnlyCache.getCachedAllMemberGroupsSet(ePerson);
+    }
+
+    /**
+     * Forget the cached authorization decisions which a change of the policies of an object may affect.
+     * Called when policies are created, changed or removed.
+     *
+     * @param dspaceObject the object whose policies changed, or null if unknown
+     * @param action       the action of the changed policies, or -1 if unknown
+     */
+    public void clearCachedAuthorizationResults(DSpaceObject dspaceObject, int action) {
+        // ADMIN policies are inherited by the children of the object
+        if (dspaceObject == null || action == -1 || action == Constants.ADMIN) {
+            readOnlyCache.clearAuthorizationResults();
         } else {
-            return null;
+            readOnlyCache.clearAuthorizationResults(dspaceObject);
+        }
+    }
+
+    /**
+     * Forget the cached group memberships, and the authorization decisions depending on them.
+     * Called when members are added to or removed from a group.
+     */
+    public void clearCachedGroupMemberships() {
+        readOnlyCache.clearGroupMemberships();
+    }
+
+    /**
+     * @return the cache of the authorization decisions and group memberships, with its hit and miss counters
+     */
+    public ContextReadOnlyCache getReadOnlyCache() {
+        return readOnlyCache;
+    }
+
+    /**
+     * Run an action once the changes of the current transaction are committed, e.g. to drop a cache which is shared
+     * with other Contexts and must not be refreshed before the changes are visible to them. An action replaces an
+     * earlier action registered with the same key. The actions are discarded if the Context is aborted.
+     *
+     * @param key    the key of the action
+     * @param action the action
+     */
+    public void addCommitAction(String key, Runnable action) {
+        commitActions.put(key, action);
+    }
+
+    /**
+     * @param key the key of an action
+     * @return whether an action with this key waits for the current transaction to be committed, i.e. whether this
+     * Context has changes which other Contexts do not see yet
+     */
+    public boolean hasCommitAction(String key) {
+        return commitActions.containsKey(key);
+    }
+
+    private void runCommitActions() {
+        List<Runnable> actions = new ArrayList<>(commitActions.values());
+        commitActions.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Error running an action after commit", e);
+            }
         }
     }
 
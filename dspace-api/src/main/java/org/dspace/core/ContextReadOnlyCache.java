@@ -8,75 +8,120 @@
 package org.dspace.core;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.ImmutableTriple;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.dspace.content.DSpaceObject;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.springframework.util.CollectionUtils;
 
 /**
- * Object that manages the read-only caches for the Context class
+ * Object that manages the authorization and group membership caches of the Context class.
+ * <p>
+ * The caches live as long as the Context, e.g. a REST request, and are used in all modes. The Context clears them
+ * on commit, when the user or the special groups change, and when policies or group memberships are changed
+ * through the services (see {@link Context#clearCachedAuthorizationResults(DSpaceObject, int)} and
+ * {@link Context#clearCachedGroupMemberships()}).
  */
 public class ContextReadOnlyCache {
 
     /**
-     * Authorized actions cache that is used when the context is in READ_ONLY mode.
+     * Authorized actions cache.
      * The key of the cache is: DSpace Object ID, action ID, Eperson ID.
      */
-    private final HashMap<Triple<String, Integer, String>, Boolean> authorizedActionsCache = new HashMap<>();
+    private final Map<AuthorizationKey, Boolean> authorizedActionsCache = new HashMap<>();
 
     /**
-     * Group membership cache that is used when the context is in READ_ONLY mode.
-     * The key of the cache is: Group Name, Eperson ID.
+     * Group membership cache.
+     * The key of the cache is: Group ID, Eperson ID.
      */
-    private final HashMap<Pair<String, String>, Boolean> groupMembershipCache = new HashMap<>();
+    private final Map<MembershipKey, Boolean> groupMembershipCache = new HashMap<>();
 
     /**
-     * Cache for all the groups the current ePerson is a member of when the context is in READ_ONLY mode.
+     * Cache for all the groups an ePerson is a member of. The key is the ePerson ID, null for anonymous.
      */
-    private final HashMap<String, Set<Group>> allMemberGroupsCache = new HashMap<>();
+    private final Map<UUID, Set<Group>> allMemberGroupsCache = new HashMap<>();
+
+    private long authorizationHits;
+    private long authorizationMisses;
+    private long groupMembershipHits;
+    private long groupMembershipMisses;
 
     public Boolean getCachedAuthorizationResult(DSpaceObject dspaceObject, int action, EPerson eperson) {
-        return authorizedActionsCache.get(buildAuthorizedActionKey(dspaceObject, action, eperson));
+        Boolean result = authorizedActionsCache.get(new AuthorizationKey(getID(dspaceObject), action, getID(eperson)));
+        if (result != null) {
+            authorizationHits++;
+        } else {
+            authorizationMisses++;
+        }
+        return result;
     }
 
     public void cacheAuthorizedAction(DSpaceObject dspaceObject, int action, EPerson eperson, Boolean result) {
-        authorizedActionsCache.put(buildAuthorizedActionKey(dspaceObject, action, eperson), result);
+        authorizedActionsCache.put(new AuthorizationKey(getID(dspaceObject), action, getID(eperson)), result);
     }
 
     public Boolean getCachedGroupMembership(Group group, EPerson eperson) {
-        String allMembersGroupKey = buildAllMembersGroupKey(eperson);
-
-        if (CollectionUtils.isEmpty(allMemberGroupsCache.get(allMembersGroupKey))) {
-            return groupMembershipCache.get(buildGroupMembershipKey(group, eperson));
+        Set<Group> allMemberGroups = allMemberGroupsCache.get(getID(eperson));
 
+        Boolean result;
+        if (CollectionUtils.isEmpty(allMemberGroups)) {
+            result = groupMembershipCache.get(new MembershipKey(getID(group), getID(eperson)));
         } else {
-            return allMemberGroupsCache.get(allMembersGroupKey).contains(group);
+            result = allMemberGroups.contains(group);
         }
-
+        if (result != null) {
+            groupMembershipHits++;
+        } else {
+            groupMembershipMisses++;
+        }
+        return result;
     }
 
     public void cacheGroupMembership(Group group, EPerson eperson, Boolean isMember) {
-        if (CollectionUtils.isEmpty(allMemberGroupsCache.get(buildAllMembersGroupKey(eperson)))) {
-            groupMembershipCache.put(buildGroupMembershipKey(group, eperson), isMember);
+        if (CollectionUtils.isEmpty(allMemberGroupsCache.get(getID(eperson)))) {
+            groupMembershipCache.put(new MembershipKey(getID(group), getID(eperson)), isMember);
         }
     }
 
     public void cacheAllMemberGroupsSet(EPerson ePerson, Set<Group> groups) {
-        allMemberGroupsCache.put(buildAllMembersGroupKey(ePerson),
-                                 groups);
+        allMemberGroupsCache.put(getID(ePerson), groups);
 
         //clear the individual groupMembershipCache as we have all memberships now.
         groupMembershipCache.clear();
     }
 
     public Set<Group> getCachedAllMemberGroupsSet(EPerson ePerson) {
-        return allMemberGroupsCache.get(buildAllMembersGroupKey(ePerson));
+        return allMemberGroupsCache.get(getID(ePerson));
+    }
+
+    /**
+     * Forget the authorization results of an object.
+     *
+     * @param dspaceObject the object
+     */
+    public void clearAuthorizationResults(DSpaceObject dspaceObject) {
+        UUID id = getID(dspaceObject);
+        authorizedActionsCache.keySet().removeIf(key -> Objects.equals(key.dspaceObject, id));
+    }
+
+    /**
+     * Forget all authorization results.
+     */
+    public void clearAuthorizationResults() {
+        authorizedActionsCache.clear();
+    }
+
+    /**
+     * Forget all group memberships, and all authorization results as they depend on them.
+     */
+    public void clearGroupMemberships() {
+        groupMembershipCache.clear();
+        allMemberGroupsCache.clear();
+        authorizedActionsCache.clear();
     }
 
     public void clear() {
@@ -85,20 +130,86 @@ public class ContextReadOnlyCache {
         allMemberGroupsCache.clear();
     }
 
-    private String buildAllMembersGroupKey(EPerson ePerson) {
-        return ePerson == null ? "" : ePerson.getID().toString();
+    public long getAuthorizationHits() {
+        return authorizationHits;
     }
 
-    private ImmutableTriple<String, Integer, String> buildAuthorizedActionKey(DSpaceObject dspaceObject, int action,
-                                                                              EPerson eperson) {
-        return new ImmutableTriple<>(dspaceObject == null ? "" : dspaceObject.getID().toString(),
-                                     Integer.valueOf(action),
-                                     eperson == null ? "" : eperson.getID().toString());
+    public long getAuthorizationMisses() {
+        return authorizationMisses;
     }
 
-    private Pair<String, String> buildGroupMembershipKey(Group group, EPerson eperson) {
-        return new ImmutablePair<>(group == null ? "" : group.getName(),
-                                   eperson == null ? "" : eperson.getID().toString());
+    public long getGroupMembershipHits() {
+        return groupMembershipHits;
     }
 
+    public long getGroupMembershipMisses() {
+        return groupMembershipMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "authorization cache " + authorizationHits + " hits/" + authorizationMisses + " misses, "
+            + "group membership cache " + groupMembershipHits + " hits/" + groupMembershipMisses + " misses";
+    }
+
+    private UUID getID(DSpaceObject dspaceObject) {
+        return dspaceObject == null ? null : dspaceObject.getID();
+    }
+
+    /**
+     * Key of the authorized actions cache
+     */
+    private static final class AuthorizationKey {
+        private final UUID dspaceObject;
+        private final int action;
+        private final UUID eperson;
+
+        private AuthorizationKey(UUID dspaceObject, int action, UUID eperson) {
+            this.dspaceObject = dspaceObject;
+            this.action = action;
+            this.eperson = eperson;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof AuthorizationKey)) {
+                return false;
+            }
+            AuthorizationKey other = (AuthorizationKey) o;
+            return action == other.action && Objects.equals(dspaceObject, other.dspaceObject)
+                && Objects.equals(eperson, other.eperson);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hashCode(dspaceObject) + action) + Objects.hashCode(eperson);
+        }
+    }
+
+    /**
+     * Key of the group membership cache
+     */
+    private static final class MembershipKey {
+        private final UUID group;
+        private final UUID eperson;
+
+        private MembershipKey(UUID group, UUID eperson) {
+            this.group = group;
+            this.eperson = eperson;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MembershipKey)) {
+                return false;
+            }
+            MembershipKey other = (MembershipKey) o;
+            return Objects.equals(group, other.group) && Objects.equals(eperson, other.eperson);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(group) + Objects.hashCode(eperson);
+        }
+    }
 }
@@ -102,6 +102,8 @@ public interface DBConnection<T> {
      *                          flushing at appropriate points in the process.
      * @param readOnlyOptimized if true, optimize for read-only use.  Typically
      *                          this suppresses all updating.
+     *                          When a read-only transaction served by a replica of the database is
+     *                          left, it is ended, which detaches all previously loaded entities.
      * @throws SQLException
      */
     public void setConnectionMode(boolean batchOptimized, boolean readOnlyOptimized) throws SQLException;
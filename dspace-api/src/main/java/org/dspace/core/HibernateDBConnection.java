@@ -21,6 +21,8 @@ import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.handle.Handle;
 import org.dspace.storage.rdbms.DatabaseConfigVO;
+import org.dspace.storage.rdbms.ReplicaRoutingDataSource;
+import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.Hibernate;
 import org.hibernate.Session;
@@ -63,6 +65,8 @@ public class HibernateDBConnection implements DBConnection<Session> {
 
     private boolean batchModeEnabled = false;
     private boolean readOnlyEnabled = false;
+    // whether the current transaction was begun on the replica of the database
+    private boolean replicaTransaction = false;
 
     /**
      * Retrieves the current Session from Hibernate (per our settings, Hibernate is configured to create one Session
@@ -76,7 +80,17 @@ public class HibernateDBConnection implements DBConnection<Session> {
         // If we don't yet have a live transaction, start a new one
         // NOTE: a Session cannot be used until a Transaction is started.
         if (!isTransActionAlive()) {
-            sessionFactory.getCurrentSession().beginTransaction();
+            // Read-only transactions may be served by a replica of the database, see ReplicaRoutingDataSource
+            ReplicaRoutingDataSource.setReadOnly(readOnlyEnabled && !batchModeEnabled);
+            try {
+                sessionFactory.getCurrentSession().beginTransaction();
+                // beginning the transaction obtained its connection
+                replicaTransaction = ReplicaRoutingDataSource.isUsingReplica();
+            } finally {
+                ReplicaRoutingDataSource.setReadOnly(false);
+            }
+            // Objects read from a replica may be outdated, so they are not put into the second level cache
+            sessionFactory.getCurrentSession().setCacheMode(replicaTransaction ? CacheMode.GET : CacheMode.NORMAL);
             configureDatabaseMode();
         }
         // Return the current Hibernate Session object (Hibernate will create one if it doesn't yet exist)
@@ -159,6 +173,10 @@ public class HibernateDBConnection implements DBConnection<Session> {
             getSession().flush();
             // Commit those results to the database & ends the Transaction
             getTransaction().commit();
+            if (!readOnlyEnabled) {
+                // Read the changes from the primary database until the replica has them too
+                ReplicaRoutingDataSource.recordWrite();
+            }
         }
     }
 
@@ -225,6 +243,12 @@ public class HibernateDBConnection implements DBConnection<Session> {
     public void setConnectionMode(final boolean batchOptimized, final boolean readOnlyOptimized) throws SQLException {
         this.batchModeEnabled = batchOptimized;
         this.readOnlyEnabled = readOnlyOptimized;
+        if (replicaTransaction && (batchOptimized || !readOnlyOptimized) && isTransActionAlive()) {
+            // The replica cannot be written to, so end its transaction before anything is written. It contains no
+            // changes, and as the flush mode is still MANUAL nothing is flushed. The next transaction is begun on
+            // the primary database by configureDatabaseMode().
+            getTransaction().commit();
+        }
         configureDatabaseMode();
     }
 
@@ -0,0 +1,204 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Counters of the JDBC statements a thread executed, the time they took and the time spent waiting for
+ * connections from the pool. The counters are updated by {@link QueryStatisticsListener} while
+ * 'db.statistics.enabled' is true, which can be changed at runtime with {@link #setEnabled(boolean)}.
+ * <p>
+ * {@link Context#getQueryStatistics()} returns the figures of the lifetime of a Context, e.g. of a REST
+ * request. The totals of all threads are available through {@link #getTotals()}.
+ * <p>
+ * Statements which take longer than 'db.statistics.slowquery.threshold' milliseconds are logged.
+ */
+public class QueryStatistics {
+    private static final Logger log = LogManager.getLogger(QueryStatistics.class);
+
+    private static final ThreadLocal<QueryStatistics> current = ThreadLocal.withInitial(QueryStatistics::new);
+
+    private static final LongAdder totalStatementCount = new LongAdder();
+    private static final LongAdder totalStatementNanos = new LongAdder();
+    private static final LongAdder totalSlowStatementCount = new LongAdder();
+    private static final LongAdder totalConnectionCount = new LongAdder();
+    private static final LongAdder totalConnectionWaitNanos = new LongAdder();
+
+    // null until read from the configuration
+    private static volatile Boolean enabled;
+
+    private static volatile long slowQueryThreshold = -1;
+
+    private long statementCount;
+    private long statementNanos;
+    private long slowStatementCount;
+    private long connectionCount;
+    private long connectionWaitNanos;
+
+    /**
+     * @return the counters of the current thread
+     */
+    public static QueryStatistics current() {
+        return current.get();
+    }
+
+    /**
+     * @return the counters of all threads since startup or the last {@link #resetTotals()}
+     */
+    public static QueryStatistics getTotals() {
+        QueryStatistics totals = new QueryStatistics();
+        totals.statementCount = totalStatementCount.sum();
+        totals.statementNanos = totalStatementNanos.sum();
+        totals.slowStatementCount = totalSlowStatementCount.sum();
+        totals.connectionCount = totalConnectionCount.sum();
+        totals.connectionWaitNanos = totalConnectionWaitNanos.sum();
+        return totals;
+    }
+
+    /**
+     * Reset the totals of all threads.
+     */
+    public static void resetTotals() {
+        totalStatementCount.reset();
+        totalStatementNanos.reset();
+        totalSlowStatementCount.reset();
+        totalConnectionCount.reset();
+        totalConnectionWaitNanos.reset();
+    }
+
+    /**
+     * @return whether the statements are counted
+     */
+    public static boolean isEnabled() {
+        Boolean isEnabled = enabled;
+        if (isEnabled == null) {
+            ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+            isEnabled = configurationService.getBooleanProperty("db.statistics.enabled", false);
+            slowQueryThreshold = configurationService.getLongProperty("db.statistics.slowquery.threshold", 1000L);
+            enabled = isEnabled;
+        }
+        return isEnabled;
+    }
+
+    /**
+     * Start or stop counting the statements, until the next restart.
+     *
+     * @param isEnabled whether the statements are counted
+     */
+    public static void setEnabled(boolean isEnabled) {
+        isEnabled();
+        enabled = isEnabled;
+    }
+
+    /**
+     * @return a copy of these counters
+     */
+    public QueryStatistics copy() {
+        QueryStatistics copy = new QueryStatistics();
+        copy.statementCount = statementCount;
+        copy.statementNanos = statementNanos;
+        copy.slowStatementCount = slowStatementCount;
+        copy.connectionCount = connectionCount;
+        copy.connectionWaitNanos = connectionWaitNanos;
+        return copy;
+    }
+
+    /**
+     * @param start earlier counters of the same thread
+     * @return the difference between these counters and the given ones
+     */
+    public QueryStatistics since(QueryStatistics start) {
+        QueryStatistics difference = new QueryStatistics();
+        difference.statementCount = statementCount - start.statementCount;
+        difference.statementNanos = statementNanos - start.statementNanos;
+        difference.slowStatementCount = slowStatementCount - start.slowStatementCount;
+        difference.connectionCount = connectionCount - start.connectionCount;
+        difference.connectionWaitNanos = connectionWaitNanos - start.connectionWaitNanos;
+        return difference;
+    }
+
+    /**
+     * Count an executed statement.
+     *
+     * @param nanos     the execution time
+     * @param statement the SQL of the statement, if known
+     */
+    void addStatement(long nanos, String statement) {
+        statementCount++;
+        statementNanos += nanos;
+        totalStatementCount.increment();
+        totalStatementNanos.add(nanos);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (slowQueryThreshold >= 0 && millis > slowQueryThreshold) {
+            slowStatementCount++;
+            totalSlowStatementCount.increment();
+            log.warn("Slow query ({} ms): {}", millis, statement);
+        }
+    }
+
+    /**
+     * Count a connection obtained from the pool.
+     *
+     * @param nanos the time spent waiting for the connection
+     */
+    void addConnection(long nanos) {
+        connectionCount++;
+        connectionWaitNanos += nanos;
+        totalConnectionCount.increment();
+        totalConnectionWaitNanos.add(nanos);
+    }
+
+    /**
+     * @return the number of executed statements and batches
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return the total execution time of the statements in milliseconds
+     */
+    public long getStatementTime() {
+        return TimeUnit.NANOSECONDS.toMillis(statementNanos);
+    }
+
+    /**
+     * @return the number of statements slower than 'db.statistics.slowquery.threshold'
+     */
+    public long getSlowStatementCount() {
+        return slowStatementCount;
+    }
+
+    /**
+     * @return the number of connections obtained from the pool
+     */
+    public long getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @return the total time spent waiting for connections in milliseconds
+     */
+    public long getConnectionWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(connectionWaitNanos);
+    }
+
+    @Override
+    public String toString() {
+        return statementCount + " statements in " + getStatementTime() + " ms (" + slowStatementCount
+            + " slow), " + connectionCount + " connections obtained in " + getConnectionWaitTime() + " ms";
+    }
+}
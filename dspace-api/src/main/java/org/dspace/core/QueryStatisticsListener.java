@@ -0,0 +1,88 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Updates the {@link QueryStatistics} of the current thread from the JDBC events of a Hibernate session.
+ * <p>
+ * Hibernate creates one instance per session, configured as 'hibernate.session.events.auto' in
+ * hibernate.cfg.xml. The class is also configured as 'hibernate.session_factory.statement_inspector' to see the
+ * SQL of the statements, which is only used to log slow queries.
+ */
+public class QueryStatisticsListener extends BaseSessionEventListener implements StatementInspector {
+
+    private static final ThreadLocal<String> lastStatement = new ThreadLocal<>();
+
+    private long statementStart = -1;
+
+    private long connectionStart = -1;
+
+    @Override
+    public String inspect(String sql) {
+        if (QueryStatistics.isEnabled()) {
+            lastStatement.set(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        if (QueryStatistics.isEnabled()) {
+            connectionStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        if (connectionStart >= 0) {
+            QueryStatistics.current().addConnection(System.nanoTime() - connectionStart);
+            connectionStart = -1;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startStatement();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        endStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        endStatement();
+    }
+
+    private void startStatement() {
+        if (QueryStatistics.isEnabled()) {
+            statementStart = System.nanoTime();
+        }
+    }
+
+    private void endStatement() {
+        if (statementStart >= 0) {
+            QueryStatistics.current().addStatement(System.nanoTime() - statementStart, lastStatement.get());
+            statementStart = -1;
+        }
+    }
+
+    @Override
+    public void end() {
+        lastStatement.remove();
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core.cache;
+
+import java.util.Objects;
+
+/**
+ * The eviction of an entity from the Hibernate second level cache, as it is
+ * sent to the other nodes by a {@link CacheInvalidationChannel}.
+ */
+public class CacheInvalidation {
+
+    private final String entityName;
+
+    private final String entityId;
+
+    /**
+     * @param entityName the Hibernate entity name, i.e. the class name of the entity
+     * @param entityId   the identifier of the entity as a string, or null to evict all entities of this type
+     */
+    public CacheInvalidation(String entityName, String entityId) {
+        this.entityName = entityName;
+        this.entityId = entityId;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return entityName.equals(that.entityName) && Objects.equals(entityId, that.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityName, entityId);
+    }
+
+    @Override
+    public String toString() {
+        return entityName + "#" + (entityId != null ? entityId : "*");
+    }
+}
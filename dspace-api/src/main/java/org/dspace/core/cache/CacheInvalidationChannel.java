@@ -0,0 +1,41 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core.cache;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A channel which broadcasts evictions from the Hibernate second level cache
+ * to the other nodes running DSpace on the same database, see
+ * {@link ClusterCacheInvalidator}.
+ * <p>
+ * The implementation is configured as a single plugin of this interface, e.g.
+ * {@link DatabaseCacheInvalidationChannel}.
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Send evictions made on this node to all other nodes.
+     *
+     * @param invalidations the evictions
+     * @throws IOException if the evictions could not be sent
+     */
+    void publish(Collection<CacheInvalidation> invalidations) throws IOException;
+
+    /**
+     * Receive the evictions the other nodes made since the last call. The
+     * evictions sent by this node are not returned. An eviction may be
+     * returned more than once.
+     *
+     * @return the evictions, oldest first
+     * @throws IOException if the evictions could not be received
+     */
+    List<CacheInvalidation> receive() throws IOException;
+}
@@ -0,0 +1,265 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core.cache;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.MetadataField;
+import org.dspace.content.MetadataSchema;
+import org.dspace.content.dao.impl.MetadataFieldDAOImpl;
+import org.dspace.core.PluginConfigurationError;
+import org.dspace.core.factory.CoreServiceFactory;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.Cache;
+import org.hibernate.MappingException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Keeps the Hibernate second level caches of several nodes running DSpace on
+ * the same database coherent.
+ * <p>
+ * Every committed insert, update or delete of a cached entity (Community,
+ * Collection, Group, EPerson, MetadataField...) is queued and sent to the
+ * other nodes through the configured {@link CacheInvalidationChannel}. The
+ * evictions received from the other nodes are applied to the entity caches
+ * of this node, together with the query cache and the metadata field
+ * identifiers of {@link MetadataFieldDAOImpl}. Both directions are handled by
+ * one background thread every 'cache.invalidation.interval' milliseconds, so
+ * commits are never delayed by the channel.
+ * <p>
+ * The invalidator is registered with Hibernate as an {@link Integrator} and
+ * only becomes active if 'cache.invalidation.enabled' is true.
+ */
+public class ClusterCacheInvalidator implements Integrator, PostCommitInsertEventListener,
+    PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final Logger log = LogManager.getLogger(ClusterCacheInvalidator.class);
+
+    protected SessionFactoryImplementor sessionFactory;
+
+    protected CacheInvalidationChannel channel;
+
+    // evictions made on this node which have not been published yet
+    protected final Queue<CacheInvalidation> outgoing = new ConcurrentLinkedQueue<>();
+
+    protected ScheduledExecutorService executor;
+
+    public ClusterCacheInvalidator() {
+    }
+
+    ClusterCacheInvalidator(SessionFactoryImplementor sessionFactory, CacheInvalidationChannel channel) {
+        this.sessionFactory = sessionFactory;
+        this.channel = channel;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        if (!configurationService.getBooleanProperty("cache.invalidation.enabled", false)) {
+            return;
+        }
+        this.sessionFactory = sessionFactory;
+        try {
+            channel = (CacheInvalidationChannel) CoreServiceFactory.getInstance().getPluginService()
+                                                                   .getSinglePlugin(CacheInvalidationChannel.class);
+        } catch (PluginConfigurationError e) {
+            channel = new DatabaseCacheInvalidationChannel();
+        }
+
+        EventListenerRegistry listenerRegistry = serviceRegistry.getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        long interval = configurationService.getLongProperty("cache.invalidation.interval", 1000L);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::synchronize, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Cache invalidation through {} every {} ms", channel.getClass().getName(), interval);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // the evictions of the last moments still have to reach the other nodes
+        publish();
+    }
+
+    /**
+     * Publish the evictions of this node and apply the evictions of the other
+     * nodes. Errors are logged, the next run tries again.
+     */
+    protected void synchronize() {
+        publish();
+        try {
+            List<CacheInvalidation> incoming = channel.receive();
+            if (!incoming.isEmpty()) {
+                evict(incoming);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to receive cache invalidations", e);
+        }
+    }
+
+    /**
+     * Publish the queued evictions of this node.
+     */
+    protected void publish() {
+        Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+        CacheInvalidation invalidation;
+        while ((invalidation = outgoing.poll()) != null) {
+            invalidations.add(invalidation);
+        }
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        try {
+            channel.publish(invalidations);
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to publish cache invalidations, trying again later", e);
+            outgoing.addAll(invalidations);
+        }
+    }
+
+    /**
+     * Evict the given entities from the second level cache of this node. The
+     * query cache is cleared as well, since its results may contain the
+     * entities or miss new ones.
+     *
+     * @param invalidations the evictions made by other nodes
+     */
+    protected void evict(List<CacheInvalidation> invalidations) {
+        Cache cache = sessionFactory.getCache();
+        boolean registryChanged = false;
+        for (CacheInvalidation invalidation : invalidations) {
+            String entityName = invalidation.getEntityName();
+            EntityPersister persister;
+            try {
+                persister = sessionFactory.getMetamodel().entityPersister(entityName);
+            } catch (MappingException e) {
+                log.warn("Ignoring the invalidation of unknown entity {}", invalidation);
+                continue;
+            }
+            if (invalidation.getEntityId() == null) {
+                cache.evictEntityData(entityName);
+            } else {
+                cache.evictEntityData(entityName, toIdentifier(persister, invalidation.getEntityId()));
+            }
+            registryChanged |= MetadataField.class.getName().equals(entityName)
+                || MetadataSchema.class.getName().equals(entityName);
+        }
+        cache.evictDefaultQueryRegion();
+        if (registryChanged) {
+            MetadataFieldDAOImpl.clearCachedFields();
+        }
+        log.debug("Evicted {} entities invalidated by other nodes", invalidations.size());
+    }
+
+    /**
+     * Convert an identifier received from another node to the identifier type of the entity.
+     *
+     * @param persister the persister of the entity
+     * @param id        the identifier as a string
+     * @return the identifier
+     */
+    protected Serializable toIdentifier(EntityPersister persister, String id) {
+        Class<?> type = persister.getIdentifierType().getReturnedClass();
+        if (UUID.class.equals(type)) {
+            return UUID.fromString(id);
+        } else if (Integer.class.equals(type)) {
+            return Integer.valueOf(id);
+        } else if (Long.class.equals(type)) {
+            return Long.valueOf(id);
+        }
+        return id;
+    }
+
+    /**
+     * Queue the eviction of a committed entity, if the entity is cached.
+     *
+     * @param persister the persister of the entity
+     * @param id        the identifier of the entity
+     */
+    protected void queue(EntityPersister persister, Serializable id) {
+        if (persister.canWriteToCache()) {
+            outgoing.add(new CacheInvalidation(persister.getEntityName(), id != null ? id.toString() : null));
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        queue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        queue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        queue(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // nothing was changed
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // nothing was changed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // nothing was changed
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core.cache;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * CacheInvalidationChannel backed by the cache_invalidation table, which
+ * every node polls for the evictions of the other nodes.
+ * <p>
+ * Rows are numbered by a sequence, and each node remembers the highest number
+ * it has read. Since a row with a lower number may be committed after one with
+ * a higher number, the last 'cache.invalidation.db.lookback' numbers are read
+ * again on every poll; rows seen before are skipped. Rows older than
+ * 'cache.invalidation.db.retention' seconds are deleted by the nodes.
+ * <p>
+ * The channel uses a database connection of its own rather than the Hibernate
+ * session of the calling thread, so that it works outside of any Context.
+ */
+public class DatabaseCacheInvalidationChannel implements CacheInvalidationChannel {
+    private static final Logger log = LogManager.getLogger(DatabaseCacheInvalidationChannel.class);
+
+    protected static final String TABLE = "cache_invalidation";
+
+    // at most one cleanup per minute
+    private static final long CLEANUP_INTERVAL = 60 * 1000L;
+
+    // identifies the rows of this node
+    protected final String nodeId = UUID.randomUUID().toString();
+
+    // number of row numbers read again on each poll
+    protected long lookback;
+
+    // milliseconds after which rows are deleted
+    protected long retention;
+
+    // highest row number read so far, -1 before the first poll
+    protected long lastId = -1;
+
+    // row numbers read within the lookback window
+    protected final NavigableSet<Long> seen = new TreeSet<>();
+
+    protected long lastCleanup;
+
+    public DatabaseCacheInvalidationChannel() {
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        lookback = configurationService.getLongProperty("cache.invalidation.db.lookback", 100L);
+        retention = configurationService.getLongProperty("cache.invalidation.db.retention", 3600L) * 1000L;
+    }
+
+    @Override
+    public void publish(Collection<CacheInvalidation> invalidations) throws IOException {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (node_id, entity_name, entity_id, invalidation_time) "
+                    + "VALUES (?, ?, ?, ?)")) {
+                long now = System.currentTimeMillis();
+                for (CacheInvalidation invalidation : invalidations) {
+                    statement.setString(1, nodeId);
+                    statement.setString(2, invalidation.getEntityName());
+                    statement.setString(3, invalidation.getEntityId());
+                    statement.setLong(4, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to publish " + invalidations.size() + " cache invalidations", e);
+        }
+    }
+
+    @Override
+    public synchronized List<CacheInvalidation> receive() throws IOException {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        try (Connection connection = getConnection()) {
+            if (lastId < 0) {
+                // the caches of this node are empty yet, so only later rows matter
+                try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT MAX(invalidation_id) FROM " + TABLE);
+                     ResultSet results = statement.executeQuery()) {
+                    lastId = results.next() ? results.getLong(1) : 0;
+                }
+                return invalidations;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT invalidation_id, node_id, entity_name, entity_id FROM " + TABLE
+                    + " WHERE invalidation_id > ? ORDER BY invalidation_id")) {
+                statement.setLong(1, lastId - lookback);
+                try (ResultSet results = statement.executeQuery()) {
+                    while (results.next()) {
+                        long id = results.getLong(1);
+                        if (!seen.add(id)) {
+                            continue;
+                        }
+                        lastId = Math.max(lastId, id);
+                        if (!nodeId.equals(results.getString(2))) {
+                            invalidations.add(new CacheInvalidation(results.getString(3), results.getString(4)));
+                        }
+                    }
+                }
+            }
+            seen.headSet(lastId - lookback, true).clear();
+
+            cleanup(connection);
+        } catch (SQLException e) {
+            throw new IOException("Unable to receive cache invalidations", e);
+        }
+        return invalidations;
+    }
+
+    /**
+     * Delete the rows older than the retention time, at most once per minute.
+     *
+     * @param connection the connection
+     * @throws SQLException if database error
+     */
+    protected void cleanup(Connection connection) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < CLEANUP_INTERVAL) {
+            return;
+        }
+        lastCleanup = now;
+        try (PreparedStatement statement = connection.prepareStatement(
+            "DELETE FROM " + TABLE + " WHERE invalidation_time < ?")) {
+            statement.setLong(1, now - retention);
+            int deleted = statement.executeUpdate();
+            if (deleted > 0) {
+                log.debug("Deleted {} cache invalidations older than {} ms", deleted, retention);
+            }
+        }
+    }
+
+    /**
+     * @return a connection of the DSpace DataSource, not bound to Hibernate
+     * @throws SQLException if no connection can be obtained
+     */
+    protected Connection getConnection() throws SQLException {
+        DataSource dataSource = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                     .getServiceByName("dataSource", DataSource.class);
+        if (dataSource == null) {
+            throw new SQLException("The service manager could not find the DataSource");
+        }
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(true);
+        return connection;
+    }
+}
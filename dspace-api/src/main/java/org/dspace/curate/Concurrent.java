@@ -0,0 +1,24 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Annotation type for CurationTasks. A task is concurrent if it may be
+ * performed on several Items at once, each with a Context of its own. Tasks
+ * which are not {@link Mutative} are assumed to be concurrent.
+ *
+ * @see Curator#setThreads(int)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Concurrent {
+}
@@ -55,6 +55,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private String queue;
     private String scope;
     private String reporter;
+    private Integer threads;
     private Map<String, String> parameters;
     private boolean verbose;
 
@@ -143,29 +144,43 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
      * @return Time when queue started
      */
     private long runQueue(TaskQueue queue, Curator curator) throws SQLException, AuthorizeException, IOException {
+        if (verbose) {
+            long size = queue.size(this.queue);
+            if (size >= 0) {
+                super.handler.logInfo("Queue '" + this.queue + "' holds " + size + " entries");
+            }
+        }
         // use current time as our reader 'ticket'
         long ticket = System.currentTimeMillis();
+        long timeRun = ticket;
+        // a queue may hand out its entries in portions, e.g. when it is
+        // shared by several readers, so read until it is drained
         Iterator<TaskQueueEntry> entryIter = queue.dequeue(this.queue, ticket).iterator();
         while (entryIter.hasNext()) {
-            TaskQueueEntry entry = entryIter.next();
-            if (verbose) {
-                super.handler.logInfo("Curating id: " + entry.getObjectId());
-            }
-            curator.clear();
-            // does entry relate to a DSO or workflow object?
-            if (entry.getObjectId().indexOf('/') > 0) {
-                for (String taskName : entry.getTaskNames()) {
-                    curator.addTask(taskName);
+            while (entryIter.hasNext()) {
+                TaskQueueEntry entry = entryIter.next();
+                if (verbose) {
+                    super.handler.logInfo("Curating id: " + entry.getObjectId());
+                }
+                curator.clear();
+                // does entry relate to a DSO or workflow object?
+                if (entry.getObjectId().indexOf('/') > 0) {
+                    for (String taskName : entry.getTaskNames()) {
+                        curator.addTask(taskName);
+                    }
+                    curator.curate(context, entry.getObjectId());
+                } else {
+                    // TODO: Remove this exception once curation tasks are supported by configurable workflow
+                    // e.g. see https://github.com/DSpace/DSpace/pull/3157
+                    throw new IllegalArgumentException("curation for workflow items is no longer supported");
                 }
-                curator.curate(context, entry.getObjectId());
-            } else {
-                // TODO: Remove this exception once curation tasks are supported by configurable workflow
-                // e.g. see https://github.com/DSpace/DSpace/pull/3157
-                throw new IllegalArgumentException("curation for workflow items is no longer supported");
             }
+            queue.release(this.queue, ticket, true);
+            ticket = Math.max(System.currentTimeMillis(), ticket + 1);
+            entryIter = queue.dequeue(this.queue, ticket).iterator();
         }
         queue.release(this.queue, ticket, true);
-        return ticket;
+        return timeRun;
     }
 
     /**
@@ -206,6 +221,10 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             curator.setTransactionScope(txScope);
         }
 
+        if (this.threads != null) {
+            curator.setThreads(this.threads);
+        }
+
         curator.addParameters(parameters);
         // we are operating in batch mode, if anyone cares.
         curator.setInvoked(Curator.Invoked.BATCH);
@@ -297,6 +316,20 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             verbose = true;
         }
 
+        // threads
+        if (this.commandLine.hasOption("threads")) {
+            try {
+                this.threads = Integer.parseInt(this.commandLine.getOptionValue("threads"));
+            } catch (NumberFormatException e) {
+                this.threads = 0;
+            }
+            if (this.threads < 1) {
+                this.handler.logError("Bad number of threads '" + this.commandLine.getOptionValue("threads") + "'");
+                throw new IllegalArgumentException(
+                    "Bad number of threads '" + this.commandLine.getOptionValue("threads") + "'");
+            }
+        }
+
         // scope
         if (this.commandLine.getOptionValue('s') != null) {
             this.scope = this.commandLine.getOptionValue('s');
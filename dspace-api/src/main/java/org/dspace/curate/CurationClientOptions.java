@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.services.ConfigurationService;
@@ -65,6 +66,10 @@ public enum CurationClientOptions {
         options.addOption("s", "scope", true,
             "transaction scope to impose: use 'object', 'curation', or 'open'. If absent, 'open' applies");
         options.addOption("v", "verbose", false, "report activity to stdout");
+        options.addOption(Option.builder().longOpt("threads").hasArg()
+                                .desc("number of threads curating the items of a collection. If absent, " +
+                                      "'curate.threads' applies")
+                                .build());
         options.addOption("h", "help", false, "help");
 
         return options;
@@ -9,11 +9,19 @@ package org.dspace.curate;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -28,8 +36,10 @@ import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.factory.CoreServiceFactory;
+import org.dspace.eperson.EPerson;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Curator orchestrates and manages the application of a one or more curation
@@ -87,6 +97,8 @@ public class Curator {
     protected Invoked iMode = null;
     protected TaskResolver resolver = new TaskResolver();
     protected TxScope txScope = TxScope.OPEN;
+    protected int threads = 1;
+    protected ItemWorkers workers = null;
     protected CommunityService communityService;
     protected ItemService itemService;
     protected HandleService handleService;
@@ -99,6 +111,8 @@ public class Curator {
         itemService = ContentServiceFactory.getInstance().getItemService();
         handleService = HandleServiceFactory.getInstance().getHandleService();
         resolver = new TaskResolver();
+        threads = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                       .getIntProperty("curate.threads", 1);
     }
 
     /**
@@ -214,6 +228,28 @@ public class Curator {
         return this;
     }
 
+    /**
+     * Sets the number of threads performing a task on the Items of a
+     * Collection. The default is taken from 'curate.threads' (1).
+     * With more than one thread, each Item is curated by a worker thread
+     * with a task instance and a Context of its own, which is committed once
+     * the Item is done. The report output, status and result of the Items
+     * are applied in the order of the Items, as with a single thread.
+     * <p>
+     * This only applies to {@link Concurrent} tasks. A {@link Mutative} task
+     * additionally requires the 'object' transaction scope, as each Item is
+     * committed separately. Other tasks are performed on a single thread.
+     * If a task suspends the curation, Items already handed to the workers
+     * are still curated.
+     *
+     * @param threads number of threads
+     * @return return self (Curator instance) with number of threads set
+     */
+    public Curator setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
     /**
      * Performs all configured tasks upon object identified by id. If
      * the object can be resolved as a handle, the DSO will be the
@@ -268,17 +304,24 @@ public class Curator {
             throw new IOException("Cannot perform curation task(s) on a null DSpaceObject!");
         }
         int type = dso.getType();
-        for (String taskName : perfList) {
-            TaskRunner tr = trMap.get(taskName);
-            // do we need to iterate over the object ?
-            if (type == Constants.ITEM || tr.task.isDistributive()) {
-                tr.run(dso);
-            } else if (type == Constants.COLLECTION) {
-                doCollection(tr, (Collection) dso);
-            } else if (type == Constants.COMMUNITY) {
-                doCommunity(tr, (Community) dso);
-            } else if (type == Constants.SITE) {
-                doSite(tr, (Site) dso);
+        try {
+            for (String taskName : perfList) {
+                TaskRunner tr = trMap.get(taskName);
+                // do we need to iterate over the object ?
+                if (type == Constants.ITEM || tr.task.isDistributive()) {
+                    tr.run(dso);
+                } else if (type == Constants.COLLECTION) {
+                    doCollection(tr, (Collection) dso);
+                } else if (type == Constants.COMMUNITY) {
+                    doCommunity(tr, (Community) dso);
+                } else if (type == Constants.SITE) {
+                    doSite(tr, (Site) dso);
+                }
+            }
+        } finally {
+            if (workers != null) {
+                workers.shutdown();
+                workers = null;
             }
         }
     }
@@ -500,6 +543,9 @@ public class Curator {
             }
             Context context = curationContext();
             Iterator<Item> iter = itemService.findByCollection(context, coll);
+            if (threads > 1 && tr.isConcurrent()) {
+                return doItemsConcurrently(tr, context, iter);
+            }
             while (iter.hasNext()) {
                 Item item = iter.next();
                 boolean shouldContinue = tr.run(item);
@@ -514,6 +560,43 @@ public class Curator {
         return true;
     }
 
+    /**
+     * Run task for Items on the worker threads, applying the results in the
+     * order of the Items.
+     *
+     * @param tr      TaskRunner
+     * @param context the context the Items are read with
+     * @param iter    the Items
+     * @return true if successful, false otherwise
+     * @throws IOException  if IO error
+     * @throws SQLException if database error
+     */
+    protected boolean doItemsConcurrently(TaskRunner tr, Context context, Iterator<Item> iter)
+        throws IOException, SQLException {
+        if (workers == null) {
+            workers = new ItemWorkers(context);
+        }
+        String taskName = tr.task.getName();
+        // limit the number of Items handed over, to keep memory use bounded
+        // Items already handed over are still curated if the task suspends, see ItemWorkers.shutdown()
+        Deque<Future<ItemResult>> pending = new ArrayDeque<>();
+        while (iter.hasNext()) {
+            Item item = iter.next();
+            UUID itemId = item.getID();
+            context.uncacheEntity(item);
+            pending.add(workers.submit(taskName, itemId));
+            if (pending.size() >= threads * 2 && !tr.apply(pending.poll())) {
+                return false;
+            }
+        }
+        while (!pending.isEmpty()) {
+            if (!tr.apply(pending.poll())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Record a 'visit' to a DSpace object and enforce any policies set
      * on this curator.
@@ -576,6 +659,42 @@ public class Curator {
             this.result = result;
         }
 
+        /**
+         * @return whether the task may be performed by the worker threads
+         */
+        protected boolean isConcurrent() {
+            return task.isConcurrent() && (!task.isMutative() || txScope.equals(TxScope.OBJECT));
+        }
+
+        /**
+         * Apply the outcome of the task on an Item curated by a worker
+         * thread, as if it had been performed by this runner.
+         *
+         * @param future the outcome
+         * @return false if the task suspends the curation
+         * @throws IOException if the task failed
+         */
+        protected boolean apply(Future<ItemResult> future) throws IOException {
+            ItemResult itemResult;
+            try {
+                itemResult = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for curation task '" + task.getName() + "'", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            if (itemResult.report.length() > 0) {
+                report(itemResult.report);
+            }
+            statusCode = itemResult.statusCode;
+            result = itemResult.result;
+            return !itemResult.suspended;
+        }
+
         protected boolean suspend(int code) {
             Invoked mode = task.getMode();
             if (mode != null && (mode.equals(Invoked.ANY) || mode.equals(iMode))) {
@@ -605,4 +724,100 @@ public class Curator {
             return mb.toString();
         }
     }
+
+    /**
+     * The outcome of a task performed on an Item by a worker thread.
+     */
+    protected static class ItemResult {
+        protected final int statusCode;
+        protected final String result;
+        protected final String report;
+        protected final boolean suspended;
+
+        protected ItemResult(int statusCode, String result, String report, boolean suspended) {
+            this.statusCode = statusCode;
+            this.result = result;
+            this.report = report;
+            this.suspended = suspended;
+        }
+    }
+
+    /**
+     * Worker threads performing tasks on Items. Each worker thread has a
+     * Curator and task instances of its own, as tasks may keep state between
+     * performances, and curates each Item with a new Context using the
+     * current user and authorization state of the curation Context.
+     */
+    protected class ItemWorkers {
+        protected final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        protected final ThreadLocal<Curator> curators = new ThreadLocal<>();
+        protected final EPerson currentUser;
+        protected final boolean ignoreAuthorization;
+
+        protected ItemWorkers(Context context) {
+            currentUser = context.getCurrentUser();
+            ignoreAuthorization = context.ignoreAuthorization();
+        }
+
+        protected Future<ItemResult> submit(String taskName, UUID itemId) {
+            return executor.submit(() -> perform(taskName, itemId));
+        }
+
+        protected ItemResult perform(String taskName, UUID itemId) throws IOException {
+            Curator curator = curators.get();
+            if (curator == null) {
+                curator = new Curator();
+                curator.addParameters(runParameters);
+                curator.setInvoked(iMode);
+                curator.setTransactionScope(txScope);
+                curators.set(curator);
+            }
+            if (!curator.hasTask(taskName)) {
+                curator.addTask(taskName);
+            }
+            TaskRunner runner = curator.trMap.get(taskName);
+            if (runner == null) {
+                throw new IOException("Task: '" + taskName + "' could not be initialized on a worker thread");
+            }
+            StringBuilder report = new StringBuilder();
+            curator.setReporter(report);
+
+            Context context = new Context();
+            try {
+                context.setCurrentUser(currentUser);
+                if (ignoreAuthorization) {
+                    context.turnOffAuthorisationSystem();
+                }
+                curationCtx.set(context);
+                Item item = itemService.find(context, itemId);
+                // Items deleted in the meantime are skipped
+                boolean proceed = item == null || runner.run(item);
+                ItemResult itemResult = new ItemResult(runner.statusCode, runner.result, report.toString(),
+                                                       !proceed);
+                context.complete();
+                return itemResult;
+            } catch (SQLException sqlE) {
+                throw new IOException(sqlE.getMessage(), sqlE);
+            } finally {
+                curationCtx.remove();
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
+
+        /**
+         * Wait for the Items handed to the workers to be curated and stop
+         * the workers.
+         */
+        protected void shutdown() {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+    }
 }
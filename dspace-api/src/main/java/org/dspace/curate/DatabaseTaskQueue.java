@@ -0,0 +1,232 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.storage.rdbms.DatabaseUtils;
+
+/**
+ * DatabaseTaskQueue provides a TaskQueue implementation backed by the
+ * curation_task_queue table, so that several nodes and command line runners
+ * can share queues and drain them concurrently.
+ * <p>
+ * A reader claims up to 'curate.taskqueue.db.batch.size' entries per
+ * {@link #dequeue(String, long)}, skipping rows locked by other readers
+ * (SELECT ... FOR UPDATE SKIP LOCKED where the database supports it). The
+ * claimed entries are deleted on {@link #release(String, long, boolean)}.
+ * Entries whose claim is older than 'curate.taskqueue.db.claim.timeout'
+ * seconds, e.g. because the reader died, are handed out again, so every
+ * entry is performed at least once.
+ * <p>
+ * The queue uses a database connection of its own rather than the Hibernate
+ * session of the calling thread, so that claiming entries commits
+ * immediately and never commits or rolls back the caller's work.
+ */
+public class DatabaseTaskQueue implements TaskQueue {
+    private static final Logger log = LogManager.getLogger(DatabaseTaskQueue.class);
+
+    protected static final String TABLE = "curation_task_queue";
+
+    // maximum number of entries claimed per dequeue
+    protected int batchSize;
+
+    // milliseconds after which a claim expires
+    protected long claimTimeout;
+
+    // claim identifiers of the tickets of this reader
+    protected final Map<Long, String> claims = new ConcurrentHashMap<>();
+
+    public DatabaseTaskQueue() {
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        batchSize = configurationService.getIntProperty("curate.taskqueue.db.batch.size", 100);
+        claimTimeout = configurationService.getLongProperty("curate.taskqueue.db.claim.timeout", 3600L) * 1000L;
+    }
+
+    @Override
+    public String[] queueNames() {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT DISTINCT queue_name FROM " + TABLE);
+             ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                names.add(results.getString(1));
+            }
+        } catch (SQLException e) {
+            log.error("Unable to list curation task queues", e);
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public void enqueue(String queueName, TaskQueueEntry entry) throws IOException {
+        Set<TaskQueueEntry> entrySet = new LinkedHashSet<>();
+        entrySet.add(entry);
+        enqueue(queueName, entrySet);
+    }
+
+    @Override
+    public void enqueue(String queueName, Set<TaskQueueEntry> entrySet) throws IOException {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (queue_name, eperson, submit_time, task_names, object_id) "
+                    + "VALUES (?, ?, ?, ?, ?)")) {
+                for (TaskQueueEntry entry : entrySet) {
+                    statement.setString(1, queueName);
+                    statement.setString(2, entry.getEpersonId());
+                    statement.setLong(3, entry.getSubmitTime());
+                    statement.setString(4, String.join(",", entry.getTaskNames()));
+                    statement.setString(5, entry.getObjectId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to enqueue to curation task queue '" + queueName + "'", e);
+        }
+    }
+
+    @Override
+    public Set<TaskQueueEntry> dequeue(String queueName, long ticket) throws IOException {
+        String claimId = claims.computeIfAbsent(ticket, t -> UUID.randomUUID().toString());
+        long now = System.currentTimeMillis();
+        Set<TaskQueueEntry> entrySet = new LinkedHashSet<>();
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            List<Integer> ids = new ArrayList<>();
+            try {
+                try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT entry_id, eperson, submit_time, task_names, object_id FROM " + TABLE
+                        + " WHERE queue_name = ? AND (claim_id IS NULL OR claim_time < ?)"
+                        + " ORDER BY entry_id" + getLockClause(connection))) {
+                    statement.setString(1, queueName);
+                    statement.setLong(2, now - claimTimeout);
+                    statement.setMaxRows(batchSize);
+                    try (ResultSet results = statement.executeQuery()) {
+                        while (results.next()) {
+                            ids.add(results.getInt(1));
+                            entrySet.add(new TaskQueueEntry(results.getString(2), results.getLong(3),
+                                                            Arrays.asList(results.getString(4).split(",")),
+                                                            results.getString(5)));
+                        }
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE " + TABLE + " SET claim_id = ?, claim_time = ? WHERE entry_id = ?")) {
+                        for (Integer id : ids) {
+                            statement.setString(1, claimId);
+                            statement.setLong(2, now);
+                            statement.setInt(3, id);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to dequeue from curation task queue '" + queueName + "'", e);
+        }
+        return entrySet;
+    }
+
+    @Override
+    public void release(String queueName, long ticket, boolean removeEntries) {
+        String claimId = claims.remove(ticket);
+        if (claimId == null) {
+            return;
+        }
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(removeEntries
+                 ? "DELETE FROM " + TABLE + " WHERE claim_id = ?"
+                 : "UPDATE " + TABLE + " SET claim_id = ?, claim_time = NULL WHERE claim_id = ?")) {
+            if (removeEntries) {
+                statement.setString(1, claimId);
+            } else {
+                statement.setNull(1, Types.VARCHAR);
+                statement.setString(2, claimId);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            log.error("Unable to release curation task queue '" + queueName + "'", e);
+        }
+    }
+
+    @Override
+    public long size(String queueName) throws IOException {
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT COUNT(*) FROM " + TABLE + " WHERE queue_name = ?")) {
+            statement.setString(1, queueName);
+            try (ResultSet results = statement.executeQuery()) {
+                return results.next() ? results.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to count curation task queue '" + queueName + "'", e);
+        }
+    }
+
+    /**
+     * Row locking clause of the claiming query. H2 does not support skipping
+     * locked rows, so readers wait for each other there.
+     *
+     * @param connection the connection
+     * @return the clause to append to the query
+     * @throws SQLException if database error
+     */
+    protected String getLockClause(Connection connection) throws SQLException {
+        String dbType = DatabaseUtils.getDbType(connection);
+        if (DatabaseUtils.DBMS_POSTGRES.equals(dbType) || DatabaseUtils.DBMS_ORACLE.equals(dbType)) {
+            return " FOR UPDATE SKIP LOCKED";
+        }
+        return " FOR UPDATE";
+    }
+
+    /**
+     * @return a connection of the DSpace DataSource, not bound to Hibernate
+     * @throws SQLException if no connection can be obtained
+     */
+    protected Connection getConnection() throws SQLException {
+        DataSource dataSource = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                     .getServiceByName("dataSource", DataSource.class);
+        if (dataSource == null) {
+            throw new SQLException("The service manager could not find the DataSource");
+        }
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(true);
+        return connection;
+    }
+}
@@ -162,6 +162,26 @@ public class FileTaskQueue implements TaskQueue {
         }
     }
 
+    @Override
+    public long size(String queueName) throws IOException {
+        long size = 0;
+        File qDir = ensureQueue(queueName);
+        int queueIdx = 0;
+        File queue;
+        while ((queue = new File(qDir, "queue" + Integer.toString(queueIdx))).exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(queue, StandardCharsets.UTF_8))) {
+                String entryStr;
+                while ((entryStr = reader.readLine()) != null) {
+                    if (entryStr.trim().length() > 0) {
+                        size++;
+                    }
+                }
+            }
+            queueIdx++;
+        }
+        return size;
+    }
+
     protected File ensureQueue(String queueName) {
         // create directory structures as needed
         File baseDir = new File(tqDir, queueName);
@@ -28,6 +28,7 @@ public class ResolvedTask {
     // annotation data
     private boolean distributive = false;
     private boolean mutative = false;
+    private boolean concurrent = false;
     private Curator.Invoked mode = null;
     private int[] codes = null;
 
@@ -39,6 +40,7 @@ public class ResolvedTask {
         Class ctClass = cTask.getClass();
         distributive = ctClass.isAnnotationPresent(Distributive.class);
         mutative = ctClass.isAnnotationPresent(Mutative.class);
+        concurrent = !mutative || ctClass.isAnnotationPresent(Concurrent.class);
         Suspendable suspendAnno = (Suspendable) ctClass.getAnnotation(Suspendable.class);
         if (suspendAnno != null) {
             mode = suspendAnno.invoked();
@@ -119,6 +121,15 @@ public class ResolvedTask {
         return mutative;
     }
 
+    /**
+     * Returns whether task may be performed on several objects at once
+     *
+     * @return whether task may be performed on several objects at once
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     public Curator.Invoked getMode() {
         return mode;
     }
@@ -71,4 +71,17 @@ public interface TaskQueue {
      * @param removeEntries flag to indicate whether entries may be deleted
      */
     void release(String queueName, long ticket, boolean removeEntries);
+
+    /**
+     * Returns the number of task entries in the named queue, including those
+     * which are currently dequeued. Implementations which cannot count their
+     * entries need not override this.
+     *
+     * @param queueName the name of the queue
+     * @return the number of task entries, or -1 if unknown
+     * @throws IOException if IO error
+     */
+    default long size(String queueName) throws IOException {
+        return -1;
+    }
 }
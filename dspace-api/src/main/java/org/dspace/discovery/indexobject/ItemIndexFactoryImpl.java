@@ -100,7 +100,8 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
 
     @Override
     public Iterator<IndexableItem> findAll(Context context) throws SQLException {
-        Iterator<Item> items = itemService.findAllUnfiltered(context);
+        // the bundles and bitstreams are indexed too (file names, full text)
+        Iterator<Item> items = itemService.findAllUnfiltered(context, true);
         return new Iterator<IndexableItem>() {
             @Override
             public boolean hasNext() {
@@ -0,0 +1,172 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Immutable snapshot of the group hierarchy, i.e. of the transitive closure of the group2group table which is also
+ * stored in the group2groupcache table.
+ * <p>
+ * Every group having a parent or a member group gets a compact index. For every index the snapshot holds the
+ * indices of all descendants (member groups, their member groups etc.) and of all ancestors in a {@link BitSet}, so
+ * that membership tests are bit operations instead of queries on the group2groupcache table. Groups without
+ * relations to other groups are not indexed.
+ * <p>
+ * The snapshot carries the version of the hierarchy it was built from, see
+ * {@link GroupServiceImpl#getGroupHierarchy(org.dspace.core.Context)}.
+ */
+public class GroupHierarchy {
+
+    private final long version;
+
+    private final long creationTime;
+
+    private final Map<UUID, Integer> indices;
+
+    private final UUID[] groups;
+
+    private final BitSet[] descendants;
+
+    private final BitSet[] ancestors;
+
+    /**
+     * Build the snapshot of a hierarchy.
+     *
+     * @param version   the version of the hierarchy
+     * @param relations the direct relations of the hierarchy, as pairs of parent and member group
+     */
+    public GroupHierarchy(long version, Collection<Pair<UUID, UUID>> relations) {
+        this.version = version;
+        this.creationTime = System.currentTimeMillis();
+
+        indices = new HashMap<>();
+        List<UUID> groupList = new ArrayList<>();
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        for (Pair<UUID, UUID> relation : relations) {
+            int parent = index(relation.getLeft(), groupList);
+            int child = index(relation.getRight(), groupList);
+            children.computeIfAbsent(parent, key -> new ArrayList<>()).add(child);
+        }
+        groups = groupList.toArray(new UUID[0]);
+
+        descendants = new BitSet[groups.length];
+        ancestors = new BitSet[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            ancestors[i] = new BitSet();
+        }
+        for (int i = 0; i < groups.length; i++) {
+            // breadth-first walk through the member groups, the visited set protects against cycles
+            BitSet visited = new BitSet();
+            Deque<Integer> queue = new ArrayDeque<>(children.getOrDefault(i, List.of()));
+            while (!queue.isEmpty()) {
+                int child = queue.poll();
+                if (!visited.get(child)) {
+                    visited.set(child);
+                    ancestors[child].set(i);
+                    queue.addAll(children.getOrDefault(child, List.of()));
+                }
+            }
+            descendants[i] = visited;
+        }
+    }
+
+    private int index(UUID group, List<UUID> groupList) {
+        return indices.computeIfAbsent(group, key -> {
+            groupList.add(key);
+            return groupList.size() - 1;
+        });
+    }
+
+    /**
+     * @return the version of the hierarchy this snapshot was built from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return when this snapshot was built, in milliseconds since the epoch
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @param parent a group
+     * @param child  another group
+     * @return whether child is a direct or indirect member group of parent
+     */
+    public boolean isAncestor(UUID parent, UUID child) {
+        Integer parentIndex = indices.get(parent);
+        Integer childIndex = indices.get(child);
+        return parentIndex != null && childIndex != null && descendants[parentIndex].get(childIndex);
+    }
+
+    /**
+     * @param parent a group
+     * @param groups other groups
+     * @return whether parent is one of the groups, or one of the groups is a direct or indirect member of parent
+     */
+    public boolean containsAny(UUID parent, Collection<UUID> groups) {
+        if (groups.contains(parent)) {
+            return true;
+        }
+        Integer parentIndex = indices.get(parent);
+        if (parentIndex == null) {
+            return false;
+        }
+        BitSet parentDescendants = descendants[parentIndex];
+        for (UUID group : groups) {
+            Integer index = indices.get(group);
+            if (index != null && parentDescendants.get(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param groups groups
+     * @return all groups of which one of the groups is a direct or indirect member, without the groups themselves
+     * unless they are members of each other
+     */
+    public Set<UUID> getAncestors(Collection<UUID> groups) {
+        BitSet result = new BitSet();
+        for (UUID group : groups) {
+            Integer index = indices.get(group);
+            if (index != null) {
+                result.or(ancestors[index]);
+            }
+        }
+        Set<UUID> ancestorIds = new HashSet<>();
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            ancestorIds.add(this.groups[i]);
+        }
+        return ancestorIds;
+    }
+
+    /**
+     * @return the number of groups having a parent or a member group
+     */
+    public int size() {
+        return groups.length;
+    }
+}
@@ -18,6 +18,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -42,6 +44,7 @@ import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
 import org.dspace.event.Event;
+import org.dspace.services.ConfigurationService;
 import org.dspace.util.UUIDUtils;
 import org.dspace.xmlworkflow.Role;
 import org.dspace.xmlworkflow.factory.XmlWorkflowFactory;
@@ -95,6 +98,23 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     protected ClaimedTaskService claimedTaskService;
     @Autowired(required = true)
     protected XmlWorkflowFactory workflowFactory;
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    /**
+     * Key of the commit action of a Context which changed the group hierarchy
+     */
+    private static final String GROUP_HIERARCHY_CHANGE = GroupServiceImpl.class.getName() + ".groupHierarchy";
+
+    /**
+     * The current version of the group hierarchy, incremented on every change
+     */
+    private final AtomicLong groupHierarchyVersion = new AtomicLong();
+
+    /**
+     * The last snapshot of the group hierarchy, possibly of an older version
+     */
+    private volatile GroupHierarchy groupHierarchy;
 
     protected GroupServiceImpl() {
         super();
@@ -138,6 +158,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
         group.addMember(e);
         e.getGroups().add(group);
+        context.clearCachedGroupMemberships();
         context.addEvent(
             new Event(Event.ADD, Constants.GROUP, group.getID(), Constants.EPERSON, e.getID(), e.getEmail(),
                       getIdentifiers(context, group)));
@@ -153,6 +174,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
         groupParent.addMember(groupChild);
         groupChild.addParentGroup(groupParent);
+        context.clearCachedGroupMemberships();
 
         context.addEvent(new Event(Event.ADD, Constants.GROUP, groupParent.getID(), Constants.GROUP, groupChild.getID(),
                                    groupChild.getName(), getIdentifiers(context, groupParent)));
@@ -201,6 +223,8 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             }
         }
         if (group.remove(ePerson)) {
+            ePerson.getGroups().remove(group);
+            context.clearCachedGroupMemberships();
             context.addEvent(new Event(Event.REMOVE, Constants.GROUP, group.getID(), Constants.EPERSON, ePerson.getID(),
                                        ePerson.getEmail(), getIdentifiers(context, group)));
         }
@@ -224,6 +248,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
         if (groupParent.remove(childGroup)) {
             childGroup.removeParentGroup(groupParent);
+            context.clearCachedGroupMemberships();
             context.addEvent(
                 new Event(Event.REMOVE, Constants.GROUP, groupParent.getID(), Constants.GROUP, childGroup.getID(),
                           childGroup.getName(), getIdentifiers(context, groupParent)));
@@ -243,6 +268,11 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
     @Override
     public boolean isParentOf(Context context, Group parentGroup, Group childGroup) throws SQLException {
+        GroupHierarchy hierarchy = getGroupHierarchy(context);
+        if (hierarchy != null) {
+            return parentGroup != null && childGroup != null
+                && hierarchy.isAncestor(parentGroup.getID(), childGroup.getID());
+        }
         return group2GroupCacheDAO.findByParentAndChild(context, parentGroup, childGroup) != null;
     }
 
@@ -351,12 +381,22 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         // all the users are members of the anonymous group
         groups.add(findByName(context, Group.ANONYMOUS));
 
-        List<Group2GroupCache> groupCache = group2GroupCacheDAO.findByChildren(context, groups);
-        // now we have all owning groups, also grab all parents of owning groups
-        // yes, I know this could have been done as one big query and a union,
-        // but doing the Oracle port taught me to keep to simple SQL!
-        for (Group2GroupCache group2GroupCache : groupCache) {
-            groups.add(group2GroupCache.getParent());
+        GroupHierarchy hierarchy = getGroupHierarchy(context);
+        if (hierarchy != null) {
+            // now we have all owning groups, also grab all parents of owning groups from the hierarchy snapshot
+            Set<UUID> groupIds = groups.stream().filter(Objects::nonNull).map(Group::getID)
+                                       .collect(Collectors.toSet());
+            Set<UUID> parentIds = hierarchy.getAncestors(groupIds);
+            parentIds.removeAll(groupIds);
+            groups.addAll(groupDAO.findByIds(context, parentIds));
+        } else {
+            List<Group2GroupCache> groupCache = group2GroupCacheDAO.findByChildren(context, groups);
+            // now we have all owning groups, also grab all parents of owning groups
+            // yes, I know this could have been done as one big query and a union,
+            // but doing the Oracle port taught me to keep to simple SQL!
+            for (Group2GroupCache group2GroupCache : groupCache) {
+                groups.add(group2GroupCache.getParent());
+            }
         }
 
         context.cacheAllMemberGroupsSet(ePerson, groups);
@@ -603,9 +643,71 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
     protected boolean isEPersonInGroup(Context context, Group group, EPerson ePerson)
         throws SQLException {
+        GroupHierarchy hierarchy = getGroupHierarchy(context);
+        if (hierarchy != null) {
+            // the direct groups of the eperson are loaded once per session
+            EPerson attachedEPerson = context.reloadEntity(ePerson);
+            if (attachedEPerson == null) {
+                return false;
+            }
+            List<UUID> directGroupIds = attachedEPerson.getGroups().stream().map(Group::getID)
+                                                       .collect(Collectors.toList());
+            return hierarchy.containsAny(group.getID(), directGroupIds);
+        }
         return groupDAO.findByIdAndMembership(context, group.getID(), ePerson) != null;
     }
 
+    /**
+     * Get a snapshot of the group hierarchy, which answers the questions about group membership otherwise answered by
+     * the group2groupcache table. The snapshot only contains committed changes and is shared by all Contexts. It is
+     * rebuilt when it was built from an older version of the hierarchy, or is older than
+     * 'groups.hierarchy.snapshot.max-age' seconds, so that changes made by other DSpace instances sharing the
+     * database are picked up as well.
+     *
+     * @param context The relevant DSpace Context.
+     * @return the snapshot, or null if the snapshot is disabled ('groups.hierarchy.snapshot.enabled') or the
+     * Context changed the hierarchy and has not committed the changes yet
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected GroupHierarchy getGroupHierarchy(Context context) throws SQLException {
+        if (!configurationService.getBooleanProperty("groups.hierarchy.snapshot.enabled", true)
+            || context.hasCommitAction(GROUP_HIERARCHY_CHANGE)) {
+            return null;
+        }
+        GroupHierarchy hierarchy = groupHierarchy;
+        if (!isCurrent(hierarchy)) {
+            synchronized (this) {
+                hierarchy = groupHierarchy;
+                if (!isCurrent(hierarchy)) {
+                    // a change during the build increments the version, so the snapshot is rebuilt at the next call
+                    long version = groupHierarchyVersion.get();
+                    hierarchy = new GroupHierarchy(version, groupDAO.getCommittedGroup2GroupResults(context));
+                    groupHierarchy = hierarchy;
+                    log.debug("Built the snapshot of version {} of the group hierarchy, with {} groups",
+                              version, hierarchy.size());
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    private boolean isCurrent(GroupHierarchy hierarchy) {
+        return hierarchy != null && hierarchy.getVersion() == groupHierarchyVersion.get()
+            && System.currentTimeMillis() - hierarchy.getCreationTime()
+                < configurationService.getLongProperty("groups.hierarchy.snapshot.max-age", 60L) * 1000L;
+    }
+
+    /**
+     * Note a change of the group hierarchy. The Context answers questions about group membership from the database
+     * until it commits the change, and the snapshot of the hierarchy is rebuilt after the commit.
+     *
+     * @param context The relevant DSpace Context.
+     */
+    protected void invalidateGroupHierarchy(Context context) {
+        groupHierarchyVersion.incrementAndGet();
+        context.addCommitAction(GROUP_HIERARCHY_CHANGE, groupHierarchyVersion::incrementAndGet);
+    }
+
 
     /**
      * Regenerate the group cache AKA the group2groupcache table in the database -
@@ -616,6 +718,8 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
      * @throws SQLException An exception that provides information on a database access error or other errors.
      */
     protected void rethinkGroupCache(Context context, boolean flushQueries) throws SQLException {
+        context.clearCachedGroupMemberships();
+        invalidateGroupHierarchy(context);
 
         Map<UUID, Set<UUID>> parents = new HashMap<>();
 
@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -85,6 +86,26 @@ public interface GroupDAO extends DSpaceObjectDAO<Group>, DSpaceObjectLegacySupp
      */
     List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, boolean flushQueries) throws SQLException;
 
+    /**
+     * Get a list of all direct parent - child group relations which are committed to the database. The relations
+     * are read in a separate session, so uncommitted changes of the context are not included.
+     *
+     * @param context The DSpace context
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    List<Pair<UUID, UUID>> getCommittedGroup2GroupResults(Context context) throws SQLException;
+
+    /**
+     * Find the groups with the given UUIDs. UUIDs which do not match an existing group are ignored.
+     *
+     * @param context The DSpace context
+     * @param ids     The UUIDs of the groups
+     * @return The matching groups
+     * @throws SQLException if database error
+     */
+    List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException;
+
     /**
      * Return all empty groups
      *
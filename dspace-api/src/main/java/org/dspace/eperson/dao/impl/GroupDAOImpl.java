@@ -8,6 +8,8 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +23,7 @@ import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.dao.GroupDAO;
+import org.hibernate.StatelessSession;
 
 /**
  * Hibernate implementation of the Database Access Object interface class for the Group object.
@@ -186,6 +189,34 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return results;
     }
 
+    @Override
+    public List<Pair<UUID, UUID>> getCommittedGroup2GroupResults(Context context) throws SQLException {
+        StatelessSession session = getHibernateSession(context).getSessionFactory().openStatelessSession();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> results = session.createQuery(
+                "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.id, c.id) " +
+                "FROM Group g " +
+                "JOIN g.groups c ").getResultList();
+            return results;
+        } finally {
+            session.close();
+        }
+    }
+
+    @Override
+    public List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException {
+        List<Group> groups = new ArrayList<>();
+        List<UUID> idList = new ArrayList<>(ids);
+        // keep the IN clause within the limits of all databases
+        for (int i = 0; i < idList.size(); i += 1000) {
+            Query query = createQuery(context, "SELECT g FROM Group g WHERE g.id IN (:ids)");
+            query.setParameter("ids", idList.subList(i, Math.min(i + 1000, idList.size())));
+            groups.addAll(list(query));
+        }
+        return groups;
+    }
+
     @Override
     public List<Group> getEmptyGroups(Context context) throws SQLException {
         return list(createQuery(context, "SELECT g from Group g where g.epeople is EMPTY"));
@@ -0,0 +1,316 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+
+package org.dspace.rdf;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
+import org.dspace.rdf.storage.RDFStorage;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.ThreadPoolUtils;
+
+/**
+ * Converts the Items of Collections into RDF on a bounded pool of worker
+ * threads, while the {@link RDFizer} walks the Communities and Collections on
+ * the main thread. Items are handed over in batches of
+ * {@code rdf.storage.batch.size} Items. Each batch is converted with a Context
+ * of its own and all its graphs are stored with a single call to
+ * {@link RDFStorage#store(Map)}.
+ * <p>
+ * If a checkpoint file is used, the ID of every Collection whose Items have
+ * all been converted is appended to it, and those Collections are skipped
+ * when the conversion is started again.
+ *
+ * @see RDFizer
+ */
+public class RDFConversionPipeline {
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(RDFConversionPipeline.class);
+
+    /**
+     * Report the throughput every time this number of Items was processed.
+     */
+    protected static final int REPORT_INTERVAL = 1000;
+
+    protected final RDFizer rdfizer;
+    protected final RDFStorage storage;
+    protected final ItemService itemService;
+    protected final EPersonService ePersonService;
+    protected final UUID currentUserId;
+    protected final int batchSize;
+    protected final ThreadPoolExecutor executor;
+    protected final Path checkpoint;
+
+    /**
+     * Collections completed by a previous run, read from the checkpoint file.
+     */
+    protected final Set<UUID> completed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Batches submitted per Collection which may still be running.
+     */
+    protected final Map<UUID, List<Future<?>>> pending = new LinkedHashMap<>();
+
+    protected final AtomicLong processedItems = new AtomicLong();
+    protected final AtomicLong convertedItems = new AtomicLong();
+    protected final AtomicLong storeRequests = new AtomicLong();
+    protected final long start;
+
+    /**
+     * @param rdfizer    the RDFizer walking the DSpace hierarchy, used for its
+     *                   settings (dry run, stdout, verbose) and reporting.
+     * @param context    the context of the RDFizer. The workers use the same
+     *                   current user, loaded with their own contexts.
+     * @param threads    number of worker threads.
+     * @param checkpoint file to record completed Collections in, or null.
+     * @throws IOException if the checkpoint file cannot be read.
+     */
+    public RDFConversionPipeline(RDFizer rdfizer, Context context, int threads, Path checkpoint)
+        throws IOException {
+        this.rdfizer = rdfizer;
+        this.storage = rdfizer.storage;
+        this.itemService = ContentServiceFactory.getInstance().getItemService();
+        this.ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+        EPerson currentUser = context.getCurrentUser();
+        this.currentUserId = currentUser == null ? null : currentUser.getID();
+        this.batchSize = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                              .getIntProperty("rdf.storage.batch.size", 50);
+        this.executor = ThreadPoolUtils.newBlockingThreadPool(threads, threads * 2);
+        this.checkpoint = checkpoint;
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            for (String line : Files.readAllLines(checkpoint, StandardCharsets.UTF_8)) {
+                if (StringUtils.isNotBlank(line)) {
+                    completed.add(UUID.fromString(line.trim()));
+                }
+            }
+            rdfizer.report("Resuming conversion, skipping " + completed.size()
+                               + " Collection(s) listed in " + checkpoint + ".");
+        }
+        this.start = System.currentTimeMillis();
+    }
+
+    /**
+     * @param collectionId ID of a Collection.
+     * @return whether all Items of the Collection have been converted by a
+     * previous run.
+     */
+    public boolean isCompleted(UUID collectionId) {
+        return completed.contains(collectionId);
+    }
+
+    /**
+     * Hand the Items of a Collection over to the workers.
+     *
+     * @param context      the context the Items were loaded with.
+     * @param collectionId ID of the Collection the Items belong to.
+     * @param items        the Items to convert.
+     */
+    public void submit(Context context, UUID collectionId, Iterator<Item> items) throws SQLException {
+        List<Future<?>> futures = new ArrayList<>();
+        List<UUID> batch = new ArrayList<>(batchSize);
+        while (items.hasNext()) {
+            Item item = items.next();
+            if (!rdfizer.isProcessed(item)) {
+                rdfizer.markProcessed(item);
+                batch.add(item.getID());
+            }
+            context.uncacheEntity(item);
+            if (batch.size() >= batchSize) {
+                futures.add(submitBatch(batch));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            futures.add(submitBatch(batch));
+        }
+        pending.put(collectionId, futures);
+        recordCompletedCollections(false);
+    }
+
+    /**
+     * Wait for all submitted Items to be converted and stop the workers.
+     */
+    public void finish() {
+        try {
+            recordCompletedCollections(true);
+        } finally {
+            executor.shutdownNow();
+        }
+        long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+        rdfizer.report("Converted " + convertedItems.get() + " of " + processedItems.get() + " Item(s) in "
+                           + seconds + "s (" + (processedItems.get() / seconds) + " Items/s, "
+                           + storeRequests.get() + " store request(s)).");
+    }
+
+    protected Future<?> submitBatch(List<UUID> batch) {
+        return executor.submit(() -> convertBatch(batch));
+    }
+
+    /**
+     * Append the Collections whose batches are all done to the checkpoint file.
+     *
+     * @param wait whether to wait for the batches which are still running.
+     */
+    protected void recordCompletedCollections(boolean wait) {
+        Iterator<Map.Entry<UUID, List<Future<?>>>> entries = pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<UUID, List<Future<?>>> entry = entries.next();
+            boolean done = true;
+            boolean failed = false;
+            for (Future<?> future : entry.getValue()) {
+                if (!wait && !future.isDone()) {
+                    done = false;
+                    break;
+                }
+                try {
+                    future.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException ex) {
+                    failed = true;
+                    log.error("Conversion of a batch of Items of Collection " + entry.getKey() + " failed.",
+                              ex.getCause());
+                }
+            }
+            if (done) {
+                entries.remove();
+                // a failed Collection is not recorded, so that it is converted again on the next run
+                if (checkpoint != null && !failed) {
+                    try {
+                        Files.write(checkpoint, Collections.singletonList(entry.getKey().toString()),
+                                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    } catch (IOException ex) {
+                        log.error("Cannot write checkpoint file " + checkpoint + ".", ex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert a batch of Items with a context of its own and store the
+     * results with one call to the RDFStorage.
+     *
+     * @param batch IDs of the Items to convert.
+     */
+    protected void convertBatch(List<UUID> batch) {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        Map<String, Model> converted = new LinkedHashMap<>();
+        List<String> empty = new ArrayList<>();
+        try {
+            // the EPerson of the main thread belongs to its database session
+            if (currentUserId != null) {
+                context.setCurrentUser(ePersonService.find(context, currentUserId));
+            }
+            for (UUID id : batch) {
+                Item item = itemService.find(context, id);
+                if (item == null) {
+                    continue;
+                }
+                convertItem(context, item, converted, empty);
+                context.uncacheEntity(item);
+            }
+            if (!rdfizer.isDryrun()) {
+                if (!converted.isEmpty()) {
+                    storage.store(converted);
+                    storeRequests.incrementAndGet();
+                }
+                // if data about an item is stored in the triplestore already, we
+                // should remove it as the conversion currently results in no data
+                for (String identifier : empty) {
+                    storage.delete(identifier);
+                }
+            }
+            convertedItems.addAndGet(converted.size());
+        } catch (SQLException ex) {
+            // fails the batch, so that its Collection is not recorded as completed
+            throw new RuntimeException("A problem with the database connection occurred while converting Items.",
+                                       ex);
+        } finally {
+            for (Model model : converted.values()) {
+                model.close();
+            }
+            context.abort();
+        }
+        long processed = processedItems.addAndGet(batch.size());
+        if (processed / REPORT_INTERVAL != (processed - batch.size()) / REPORT_INTERVAL) {
+            long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+            rdfizer.report("Processed " + processed + " Items (" + (processed / seconds) + " Items/s).");
+        }
+    }
+
+    protected void convertItem(Context context, Item item, Map<String, Model> converted, List<String> empty)
+        throws SQLException {
+        try {
+            Model model = RDFUtil.convert(context, item);
+            String identifier = RDFUtil.generateIdentifier(context, item);
+            if (StringUtils.isEmpty(identifier)) {
+                if (model != null) {
+                    model.close();
+                }
+                throw new RDFMissingIdentifierException(item.getType(), item.getID());
+            }
+            if (model == null) {
+                empty.add(identifier);
+                return;
+            }
+            converted.put(identifier, model);
+            if (rdfizer.isStdout()) {
+                synchronized (System.out) {
+                    model.write(System.out, rdfizer.lang);
+                }
+            }
+            rdfizer.report("Processed Item " + item.getID() + " (handle " + item.getHandle() + ").");
+        } catch (ItemNotArchivedException ex) {
+            rdfizer.report("Skipping conversion of Item " + item.getID()
+                               + " (handle " + item.getHandle() + "): Item is not archived.");
+        } catch (ItemWithdrawnException ex) {
+            rdfizer.report("Skipping conversion of Item " + item.getID()
+                               + " (handle " + item.getHandle() + "): Item is withdrawn.");
+        } catch (ItemNotDiscoverableException ex) {
+            rdfizer.report("Skipping conversion of Item " + item.getID()
+                               + " (handle " + item.getHandle() + "): Item is not discoverable.");
+        } catch (AuthorizeException ex) {
+            rdfizer.report("Skipping conversion of Item " + item.getID()
+                               + " (handle " + item.getHandle() + "), not authorized: " + ex.getMessage());
+        } catch (RDFMissingIdentifierException ex) {
+            String errormessage = "Skipping conversion of Item " + item.getID()
+                + " (handle " + item.getHandle() + ").";
+            log.error(errormessage + " Error while converting: " + ex.getMessage(), ex);
+        }
+    }
+}
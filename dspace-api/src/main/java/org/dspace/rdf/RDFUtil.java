@@ -77,6 +77,13 @@ public class RDFUtil {
      * endpoint will be used.
      */
     public static final String STORAGE_SPARQL_ENDPOINT_KEY = "rdf.storage.sparql.endpoint";
+    /**
+     * Property key to load the address of the SPARQL 1.1 UPDATE endpoint used
+     * to store several graphs with one request. If the property is empty or
+     * does not exist, graphs are stored one by one using the graph store
+     * endpoint.
+     */
+    public static final String STORAGE_SPARQL_UPDATE_ENDPOINT_KEY = "rdf.storage.sparql.update.endpoint";
     /**
      * Property key to load the username if authentication for the graph store
      * endpoint is required.
@@ -8,13 +8,16 @@
 
 package org.dspace.rdf;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.hp.hpl.jena.rdf.model.Model;
 import org.apache.commons.cli.CommandLine;
@@ -60,6 +63,14 @@ public class RDFizer {
     protected boolean dryrun;
     protected String lang;
     protected Context context;
+    protected int threads;
+    protected Path checkpoint;
+
+    /**
+     * Converts the Items of Collections in parallel while a conversion with
+     * more than one thread is running, null otherwise.
+     */
+    protected RDFConversionPipeline pipeline;
 
     protected final ConfigurationService configurationService;
     protected final ContentServiceFactory contentServiceFactory;
@@ -82,7 +93,8 @@ public class RDFizer {
         this.verbose = false;
         this.dryrun = false;
         this.lang = "TURTLE";
-        this.processed = new CopyOnWriteArraySet<>();
+        this.threads = 1;
+        this.processed = ConcurrentHashMap.newKeySet();
         this.context = new Context(Context.Mode.READ_ONLY);
 
         this.configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
@@ -173,6 +185,38 @@ public class RDFizer {
         this.dryrun = dryrun;
     }
 
+    /**
+     * Returns the number of threads used to convert Items.
+     *
+     * @return number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of threads used to convert Items. With more than one
+     * thread, each thread uses a Context of its own and the graphs of several
+     * Items are stored with one request.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Set a file to record the Collections whose Items have all been
+     * converted in. Collections listed in this file are skipped, so that an
+     * interrupted conversion can be resumed. Only used with more than one
+     * thread.
+     *
+     * @param checkpoint path of the checkpoint file or null
+     */
+    public void setCheckpoint(Path checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     /**
      * Deletes all data stored in the triplestore (drops all named graphs and
      * cleans the default graph).
@@ -326,7 +370,21 @@ public class RDFizer {
             }
         };
 
-        this.dspaceDFS(dso, callback, true, reset);
+        if (threads > 1 && !stdout) {
+            try {
+                pipeline = new RDFConversionPipeline(this, context, threads, checkpoint);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot read checkpoint file " + checkpoint + ".", ex);
+            }
+            try {
+                this.dspaceDFS(dso, callback, true, reset);
+            } finally {
+                pipeline.finish();
+                pipeline = null;
+            }
+        } else {
+            this.dspaceDFS(dso, callback, true, reset);
+        }
     }
 
     protected void dspaceDFS(DSpaceObject dso, Callback callback, boolean check, boolean reset)
@@ -343,6 +401,12 @@ public class RDFizer {
             this.processed.clear();
         }
 
+        if (pipeline != null && dso instanceof Collection && pipeline.isCompleted(dso.getID())) {
+            report("Skipping processing of Collection " + dso.getID() + " (handle " + dso.getHandle()
+                       + "), converted by a previous run.");
+            return;
+        }
+
         if (isProcessed(dso)) {
             log.debug(
                 "Skipping processing of " + contentServiceFactory.getDSpaceObjectService(dso).getTypeText(dso) + " "
@@ -417,9 +481,13 @@ public class RDFizer {
 
         if (dso instanceof Collection) {
             Iterator<Item> items = itemService.findAllByCollection(context, (Collection) dso);
-            while (items.hasNext()) {
-                Item item = items.next();
-                this.dspaceDFS(item, callback, check, false);
+            if (pipeline != null) {
+                pipeline.submit(context, dso.getID(), items);
+            } else {
+                while (items.hasNext()) {
+                    Item item = items.next();
+                    this.dspaceDFS(item, callback, check, false);
+                }
             }
         }
 
@@ -518,6 +586,20 @@ public class RDFizer {
             setStdout(true);
         }
 
+        if (line.hasOption("threads")) {
+            try {
+                setThreads(Integer.parseInt(line.getOptionValue("threads")));
+            } catch (NumberFormatException ex) {
+                usage(options);
+                System.err.println("\n\nThe number of threads must be a number.");
+                System.exit(1);
+            }
+        }
+
+        if (line.hasOption("checkpoint")) {
+            setCheckpoint(Paths.get(line.getOptionValue("checkpoint")));
+        }
+
         // check mutual exclusive arguments
         if (line.hasOption("delete") && line.hasOption("delete-all")) {
             usage(options);
@@ -547,6 +629,12 @@ public class RDFizer {
                                    + "with --delete or --deleta-all.");
             System.exit(1);
         }
+        if (line.hasOption("stdout") && threads > 1) {
+            usage(options);
+            System.err.println("\n\nYou cannot use the option --threads <n> "
+                                   + "together with --stdout.");
+            System.exit(1);
+        }
 
         // Run commands depending on CLI arguments.
         // process help first to prevent further evaluation of given options.
@@ -707,6 +795,29 @@ public class RDFizer {
             "depending on the number of stored communties, collections and " +
             "items. Existing information in the triple store will be updated.");
 
+        Option optThreads = Option.builder("t")
+                .longOpt("threads")
+                .hasArg()
+                .argName("number")
+                .desc("Convert Items with this number of threads and store "
+                        + "the data of several Items with one request "
+                        + "(see rdf.storage.batch.size). Cannot be used "
+                        + "together with --stdout. Default is 1.")
+                .build();
+        options.addOption(optThreads);
+
+        Option optCheckpoint = Option.builder()
+                .longOpt("checkpoint")
+                .hasArg()
+                .argName("file")
+                .desc("Record the Collections whose Items have all been "
+                        + "converted in this file and skip Collections "
+                        + "already listed in it, so that an interrupted "
+                        + "conversion can be resumed. Only used together "
+                        + "with --threads.")
+                .build();
+        options.addOption(optCheckpoint);
+
         Option optIdentifiers = Option.builder("i")
                 .longOpt("identifiers")
                 .hasArgs()
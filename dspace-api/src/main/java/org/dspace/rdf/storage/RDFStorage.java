@@ -9,6 +9,7 @@
 package org.dspace.rdf.storage;
 
 import java.util.List;
+import java.util.Map;
 
 import com.hp.hpl.jena.rdf.model.Model;
 
@@ -31,6 +32,20 @@ public interface RDFStorage {
      */
     public void store(String uri, Model model);
 
+    /**
+     * Store several models at once, replacing any data stored under the same
+     * URIs before. Implementations should send the models in as few requests
+     * as possible; by default they are stored one by one.
+     *
+     * @param models The models to store, keyed by the URI identifying the DSO.
+     * @see #store(String, Model)
+     */
+    public default void store(Map<String, Model> models) {
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+            store(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Don't use this method directly, use
      * {@link org.dspace.rdf.RDFUtil#loadModel(String) RDFizer.loadModel(...)} instead.
@@ -11,10 +11,12 @@ package org.dspace.rdf.storage;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.hp.hpl.jena.graph.Graph;
 import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.query.Dataset;
 import com.hp.hpl.jena.query.DatasetFactory;
 import com.hp.hpl.jena.query.QueryExecution;
@@ -23,8 +25,16 @@ import com.hp.hpl.jena.query.QuerySolution;
 import com.hp.hpl.jena.query.ResultSet;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.sparql.core.DatasetGraph;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.sparql.modify.request.QuadDataAcc;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDataInsert;
+import com.hp.hpl.jena.sparql.modify.request.UpdateDrop;
 import com.hp.hpl.jena.update.GraphStore;
 import com.hp.hpl.jena.update.GraphStoreFactory;
+import com.hp.hpl.jena.update.UpdateExecutionFactory;
+import com.hp.hpl.jena.update.UpdateProcessor;
+import com.hp.hpl.jena.update.UpdateRequest;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.atlas.web.auth.HttpAuthenticator;
 import org.apache.jena.atlas.web.auth.SimpleAuthenticator;
@@ -55,6 +65,64 @@ public class RDFStorageImpl
         accessor.httpPut(graphNode, g);
     }
 
+    /**
+     * Stores all models with a single SPARQL UPDATE request, dropping and
+     * inserting one graph after another, if an update endpoint is configured.
+     * Otherwise the models are stored one by one using the graph store
+     * endpoint.
+     *
+     * @param models The models to store, keyed by the URI identifying the DSO.
+     */
+    @Override
+    public void store(Map<String, Model> models) {
+        String endpoint = configurationService.getProperty(RDFUtil.STORAGE_SPARQL_UPDATE_ENDPOINT_KEY);
+        if (StringUtils.isEmpty(endpoint) || models.size() < 2) {
+            RDFStorage.super.store(models);
+            return;
+        }
+
+        UpdateRequest request = createUpdateRequest(models);
+
+        UpdateProcessor processor;
+        if (configurationService.hasProperty(RDFUtil.STORAGE_SPARQL_LOGIN_KEY)
+            && configurationService.hasProperty(RDFUtil.STORAGE_SPARQL_PASSWORD_KEY)) {
+            HttpAuthenticator httpAuthenticator = new SimpleAuthenticator(
+                configurationService.getProperty(RDFUtil.STORAGE_SPARQL_LOGIN_KEY),
+                configurationService.getProperty(RDFUtil.STORAGE_SPARQL_PASSWORD_KEY).toCharArray());
+            processor = UpdateExecutionFactory.createRemote(request, endpoint, httpAuthenticator);
+        } else {
+            processor = UpdateExecutionFactory.createRemote(request, endpoint);
+        }
+        processor.execute();
+    }
+
+    /**
+     * Create a single SPARQL UPDATE request replacing the graphs of all
+     * models: each graph is dropped, if it exists, and its triples are
+     * inserted again.
+     *
+     * @param models The models to store, keyed by the URI identifying the DSO.
+     * @return the request
+     */
+    protected UpdateRequest createUpdateRequest(Map<String, Model> models) {
+        UpdateRequest request = new UpdateRequest();
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+            Node graphNode = NodeFactory.createURI(entry.getKey());
+            List<Quad> quads = new ArrayList<>();
+            ExtendedIterator<Triple> triples = entry.getValue().getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+            try {
+                while (triples.hasNext()) {
+                    quads.add(new Quad(graphNode, triples.next()));
+                }
+            } finally {
+                triples.close();
+            }
+            request.add(new UpdateDrop(graphNode, true));
+            request.add(new UpdateDataInsert(new QuadDataAcc(quads)));
+        }
+        return request;
+    }
+
     @Override
     public Model load(String uri) {
         Node graphNode = NodeFactory.createURI(uri);
@@ -7,6 +7,8 @@
  */
 package org.dspace.storage.bitstore;
 
+import java.io.File;
+
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -62,6 +64,15 @@ public class BitStoreMigrate {
                               "Delete file from losing assetstore. (Default: Keep bitstream in old assetstore)");
             options.addOption("p", "print", false, "Print out current assetstore information");
             options.addOption("s", "size", true, "Batch commit size. (Default: 1, commit after each file transfer)");
+            options.addOption("t", "threads", true, "Number of bitstreams copied in parallel. (Default: 1)");
+            options.addOption("c", "checkpoint", true,
+                              "File to keep the progress in. Bitstreams which failed in an earlier run with the "
+                                  + "same checkpoint are skipped.");
+            options.addOption("r", "retry", false, "Retry the bitstreams which failed according to the checkpoint");
+            options.addOption("n", "dry-run", false,
+                              "Only report the number and size of the bitstreams which would be migrated");
+            options.addOption("V", "no-verify", false,
+                              "Do not compare the checksum of the copies with the recorded checksums");
             options.addOption("h", "help", false, "Help");
 
             try {
@@ -103,8 +114,20 @@ public class BitStoreMigrate {
                     batchCommitSize = Integer.parseInt(line.getOptionValue('s'));
                 }
 
-                bitstreamStorageService
-                    .migrate(context, sourceAssetstore, destinationAssetstore, deleteOld, batchCommitSize);
+                BitstreamMigration migration = new BitstreamMigration(bitstreamStorageService.getStores(),
+                                                                      sourceAssetstore, destinationAssetstore);
+                migration.setDeleteOld(deleteOld);
+                migration.setBatchSize(batchCommitSize);
+                if (line.hasOption('t')) {
+                    migration.setThreads(Integer.parseInt(line.getOptionValue('t')));
+                }
+                if (line.hasOption('c')) {
+                    migration.setCheckpoint(new File(line.getOptionValue('c')));
+                }
+                migration.setRetryFailed(line.hasOption('r'));
+                migration.setDryRun(line.hasOption('n'));
+                migration.setVerify(!line.hasOption('V'));
+                migration.migrate(context);
             } else {
                 printHelp(options);
                 System.exit(0);
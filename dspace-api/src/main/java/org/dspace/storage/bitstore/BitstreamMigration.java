@@ -0,0 +1,451 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.content.Bitstream;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Context;
+import org.dspace.util.ThreadPoolUtils;
+
+/**
+ * Moves the bitstreams of one assetstore to another on a pool of worker
+ * threads. Every worker migrates batches of bitstreams with a Context of its
+ * own and commits the new store numbers once per batch. Only after the commit
+ * the files are removed from the source store, if requested, so an
+ * interrupted migration never leaves a bitstream pointing at a missing file.
+ * <P>
+ * Since migrated bitstreams no longer belong to the source store, a restarted
+ * migration continues with the bitstreams which were not migrated yet. The
+ * optional checkpoint file keeps the totals of previous runs and the
+ * bitstreams which failed, so that they are not retried on every run.
+ * <P>
+ * After each copy the checksum reported by the destination store is compared
+ * with the checksum recorded for the bitstream. A copy which does not match
+ * is removed again and the bitstream stays in the source store.
+ *
+ * @see BitStoreMigrate
+ */
+public class BitstreamMigration {
+    private static final Logger log = LogManager.getLogger(BitstreamMigration.class);
+
+    protected static final String CHECKPOINT_MIGRATED = "migrated.count";
+    protected static final String CHECKPOINT_BYTES = "migrated.bytes";
+    protected static final String CHECKPOINT_FAILED = "failed";
+
+    /**
+     * Print the progress every time this number of milliseconds has passed.
+     */
+    protected static final long REPORT_INTERVAL = 60000;
+
+    protected final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    protected final BitStoreService sourceStore;
+    protected final BitStoreService destinationStore;
+    protected final Integer source;
+    protected final Integer destination;
+
+    protected boolean deleteOld = false;
+    protected boolean verify = true;
+    protected boolean dryRun = false;
+    protected boolean retryFailed = false;
+    protected int threads = 1;
+    protected int batchSize = 1;
+    protected File checkpoint;
+    protected PrintStream out = System.out;
+
+    protected final AtomicLong migrated = new AtomicLong();
+    protected final AtomicLong migratedBytes = new AtomicLong();
+    protected final AtomicLong unverified = new AtomicLong();
+    protected final Set<UUID> failed = new LinkedHashSet<>();
+    protected long previouslyMigrated;
+    protected long previouslyMigratedBytes;
+    protected long total;
+    protected long start;
+    protected long lastReport;
+
+    /**
+     * @param stores      the configured assetstores, by store number
+     * @param source      store number of the assetstore to empty
+     * @param destination store number of the assetstore to fill
+     */
+    public BitstreamMigration(Map<Integer, BitStoreService> stores, Integer source, Integer destination) {
+        this.sourceStore = stores.get(source);
+        this.destinationStore = stores.get(destination);
+        if (sourceStore == null || destinationStore == null) {
+            throw new IllegalArgumentException("Unknown assetstore " + (sourceStore == null ? source : destination));
+        }
+        if (source.equals(destination)) {
+            throw new IllegalArgumentException("Source and destination assetstore are the same");
+        }
+        this.source = source;
+        this.destination = destination;
+    }
+
+    /**
+     * Migrate all bitstreams of the source store, or only report their number
+     * and size in a dry run.
+     *
+     * @param context context used to find the bitstreams to migrate
+     * @throws SQLException if database error
+     * @throws IOException  if the checkpoint file cannot be read or written
+     */
+    public void migrate(Context context) throws SQLException, IOException {
+        readCheckpoint();
+        total = bitstreamService.countByStoreNumber(context, source);
+
+        if (dryRun) {
+            long bytes = 0;
+            long skipped = 0;
+            Iterator<Bitstream> bitstreams = bitstreamService.findByStoreNumber(context, source);
+            while (bitstreams.hasNext()) {
+                Bitstream bitstream = bitstreams.next();
+                if (isSkipped(bitstream.getID())) {
+                    skipped++;
+                } else {
+                    bytes += bitstream.getSizeBytes();
+                }
+                context.uncacheEntity(bitstream);
+            }
+            report("Dry run: " + (total - skipped) + " bitstream(s), " + bytes + " bytes ("
+                       + String.format("%.1f", bytes / 1048576d) + " MB) would be migrated from assetstore["
+                       + source + "] to assetstore[" + destination + "]"
+                       + (skipped > 0 ? ", " + skipped + " skipped because they failed before" : "")
+                       + (previouslyMigrated > 0 ? ", " + previouslyMigrated + " were migrated by earlier runs" : ""));
+            return;
+        }
+
+        report("Migrating " + total + " bitstream(s) from assetstore[" + source + "] to assetstore[" + destination
+                   + "] with " + threads + " thread(s)");
+        start = System.currentTimeMillis();
+        lastReport = start;
+        // Bound the queue, so that the IDs of all bitstreams are not loaded
+        // into memory at once: if it is full the main thread waits.
+        ThreadPoolExecutor executor = ThreadPoolUtils.newBlockingThreadPool(threads, threads * 2);
+        try {
+            List<UUID> batch = new ArrayList<>(batchSize);
+            Iterator<Bitstream> bitstreams = bitstreamService.findByStoreNumber(context, source);
+            while (bitstreams.hasNext()) {
+                Bitstream bitstream = bitstreams.next();
+                if (!isSkipped(bitstream.getID())) {
+                    batch.add(bitstream.getID());
+                }
+                context.uncacheEntity(bitstream);
+                if (batch.size() >= batchSize) {
+                    List<UUID> submitted = batch;
+                    executor.execute(() -> migrateBatch(submitted));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<UUID> submitted = batch;
+                executor.execute(() -> migrateBatch(submitted));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Assetstore migration interrupted");
+        } finally {
+            executor.shutdownNow();
+            writeCheckpoint();
+        }
+
+        long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+        report("Assetstore Migration from assetstore[" + source + "] to assetstore[" + destination + "] completed. "
+                   + migrated.get() + " objects (" + migratedBytes.get() + " bytes) were transferred in " + seconds
+                   + "s (" + String.format("%.2f", migratedBytes.get() / 1048576d / seconds) + " MB/s), "
+                   + getFailedCount() + " failed, " + unverified.get() + " could not be verified.");
+    }
+
+    /**
+     * Migrate a batch of bitstreams with a Context of its own. If the batch
+     * cannot be committed, its Context is aborted and all its bitstreams are
+     * recorded as failed.
+     *
+     * @param ids IDs of the bitstreams to migrate
+     */
+    protected void migrateBatch(List<UUID> ids) {
+        Context context = null;
+        List<Bitstream> moved = new ArrayList<>(ids.size());
+        List<UUID> failures = new ArrayList<>();
+        long bytes = 0;
+        try {
+            context = new Context(Context.Mode.BATCH_EDIT);
+            context.turnOffAuthorisationSystem();
+            for (UUID id : ids) {
+                Bitstream bitstream = bitstreamService.find(context, id);
+                // skip bitstreams which are gone or were migrated meanwhile
+                if (bitstream == null || !source.equals(bitstream.getStoreNumber())) {
+                    continue;
+                }
+                if (migrateBitstream(context, bitstream)) {
+                    moved.add(bitstream);
+                    bytes += bitstream.getSizeBytes();
+                } else {
+                    failures.add(id);
+                }
+            }
+            context.complete();
+        } catch (SQLException | AuthorizeException | RuntimeException e) {
+            // nothing of the batch was committed, the copies made so far are left to the cleanup
+            log.error("Migration of a batch of " + ids.size() + " bitstream(s) failed", e);
+            moved.clear();
+            failures.clear();
+            failures.addAll(ids);
+            bytes = 0;
+        } finally {
+            if (context != null && context.isValid()) {
+                context.abort();
+            }
+        }
+
+        // only delete the old files once the new location is committed
+        if (deleteOld) {
+            for (Bitstream bitstream : moved) {
+                try {
+                    log.info("Removing bitstream:" + bitstream.getID() + " from assetstore[" + source + "]");
+                    sourceStore.remove(bitstream);
+                } catch (IOException e) {
+                    log.error("Unable to remove bitstream:" + bitstream.getID() + " from assetstore["
+                                  + source + "]", e);
+                }
+            }
+        }
+
+        migrated.addAndGet(moved.size());
+        migratedBytes.addAndGet(bytes);
+        synchronized (this) {
+            failed.addAll(failures);
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= REPORT_INTERVAL) {
+                lastReport = now;
+                long seconds = Math.max(1, (now - start) / 1000);
+                report("Migrated " + migrated.get() + " of " + total + " bitstream(s), "
+                           + String.format("%.1f", migratedBytes.get() / 1048576d) + " MB ("
+                           + String.format("%.2f", migratedBytes.get() / 1048576d / seconds) + " MB/s), "
+                           + failed.size() + " failed");
+                try {
+                    writeCheckpoint();
+                } catch (IOException e) {
+                    log.error("Unable to write checkpoint " + checkpoint, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy one bitstream to the destination store, verify the copy and point
+     * the bitstream at the destination store.
+     *
+     * @return whether the bitstream was migrated
+     */
+    protected boolean migrateBitstream(Context context, Bitstream bitstream) throws SQLException, AuthorizeException {
+        log.info("Copying bitstream:" + bitstream.getID() + " from assetstore[" + source + "] to assetstore["
+                     + destination + "] Name:" + bitstream.getName() + ", SizeBytes:" + bitstream.getSizeBytes());
+        String checksum = bitstream.getChecksum();
+        String checksumAlgorithm = bitstream.getChecksumAlgorithm();
+        long size = bitstream.getSizeBytes();
+        try {
+            try (InputStream in = sourceStore.get(bitstream)) {
+                destinationStore.put(bitstream, in);
+            }
+            if (verify && !verifyCopy(bitstream, checksum, checksumAlgorithm)) {
+                destinationStore.remove(bitstream);
+                throw new IOException("Checksum of the copy does not match " + checksum);
+            }
+        } catch (IOException e) {
+            log.error("Unable to migrate bitstream:" + bitstream.getID() + " to assetstore[" + destination + "]", e);
+            // put() updates the technical metadata, which must not be saved
+            bitstream.setChecksum(checksum);
+            bitstream.setChecksumAlgorithm(checksumAlgorithm);
+            bitstream.setSizeBytes(size);
+            context.uncacheEntity(bitstream);
+            return false;
+        }
+        bitstream.setStoreNumber(destination);
+        bitstreamService.update(context, bitstream);
+        context.uncacheEntity(bitstream);
+        return true;
+    }
+
+    /**
+     * Compare the checksum the destination store reports for the copy with
+     * the checksum recorded before the copy.
+     *
+     * @return false if the checksums differ or the copy is missing
+     */
+    protected boolean verifyCopy(Bitstream bitstream, String checksum, String checksumAlgorithm) throws IOException {
+        Map<String, Object> attrs = new HashMap<>();
+        attrs.put("checksum", null);
+        attrs.put("checksum_algorithm", null);
+        Map<?, ?> received = destinationStore.about(bitstream, attrs);
+        if (received == null) {
+            return false;
+        }
+        Object copyChecksum = received.get("checksum");
+        Object copyAlgorithm = received.get("checksum_algorithm");
+        if (checksum == null || copyChecksum == null
+            || !StringUtils.equalsIgnoreCase(checksumAlgorithm, String.valueOf(copyAlgorithm))) {
+            log.warn("Unable to verify the copy of bitstream:" + bitstream.getID() + " in assetstore["
+                         + destination + "]");
+            unverified.incrementAndGet();
+            return true;
+        }
+        return checksum.equalsIgnoreCase(copyChecksum.toString());
+    }
+
+    protected boolean isSkipped(UUID id) {
+        synchronized (this) {
+            return !retryFailed && failed.contains(id);
+        }
+    }
+
+    protected synchronized int getFailedCount() {
+        return failed.size();
+    }
+
+    protected void readCheckpoint() throws IOException {
+        if (checkpoint == null || !checkpoint.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(checkpoint)) {
+            properties.load(in);
+        }
+        previouslyMigrated = Long.parseLong(properties.getProperty(CHECKPOINT_MIGRATED, "0"));
+        previouslyMigratedBytes = Long.parseLong(properties.getProperty(CHECKPOINT_BYTES, "0"));
+        synchronized (this) {
+            for (String id : StringUtils.split(properties.getProperty(CHECKPOINT_FAILED, ""), ',')) {
+                failed.add(UUID.fromString(id.trim()));
+            }
+        }
+        report("Resuming migration: " + previouslyMigrated + " bitstream(s) migrated by earlier runs, "
+                   + failed.size() + " failed" + (retryFailed ? " (retrying them)" : " (skipping them)"));
+        if (retryFailed) {
+            synchronized (this) {
+                failed.clear();
+            }
+        }
+    }
+
+    protected synchronized void writeCheckpoint() throws IOException {
+        if (checkpoint == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_MIGRATED, String.valueOf(previouslyMigrated + migrated.get()));
+        properties.setProperty(CHECKPOINT_BYTES, String.valueOf(previouslyMigratedBytes + migratedBytes.get()));
+        properties.setProperty(CHECKPOINT_FAILED, StringUtils.join(failed, ','));
+        File tmp = new File(checkpoint.getAbsolutePath() + ".tmp");
+        try (OutputStream os = new FileOutputStream(tmp)) {
+            properties.store(os, "Migration from assetstore[" + source + "] to assetstore[" + destination + "]");
+        }
+        Files.move(tmp.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    protected void report(String message) {
+        log.info(message);
+        if (out != null) {
+            out.println(message);
+        }
+    }
+
+    /**
+     * @param deleteOld whether to remove the files from the source store
+     */
+    public void setDeleteOld(boolean deleteOld) {
+        this.deleteOld = deleteOld;
+    }
+
+    /**
+     * @param verify whether to compare the checksum of every copy
+     */
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * @param dryRun whether to only report the number and size of the
+     *               bitstreams to migrate
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * @param retryFailed whether to retry the bitstreams recorded as failed
+     *                    in the checkpoint
+     */
+    public void setRetryFailed(boolean retryFailed) {
+        this.retryFailed = retryFailed;
+    }
+
+    /**
+     * @param threads number of worker threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * @param batchSize number of bitstreams committed together
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @param checkpoint file to keep the progress in, or null
+     */
+    public void setCheckpoint(File checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * @param out stream to print the progress to, or null to only log it
+     */
+    public void setOut(PrintStream out) {
+        this.out = out;
+    }
+
+    public long getMigrated() {
+        return migrated.get();
+    }
+
+    public long getMigratedBytes() {
+        return migratedBytes.get();
+    }
+}
@@ -10,11 +10,20 @@ package org.dspace.storage.bitstore;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 
 import org.apache.commons.collections4.MapUtils;
@@ -85,6 +94,11 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
      */
     protected final String REGISTERED_FLAG = "-R";
 
+    /**
+     * Number of deleted bitstreams handled per transaction by the cleanup.
+     */
+    protected static final int DEFAULT_CLEANUP_BATCH_SIZE = 100;
+
     protected BitstreamStorageServiceImpl() {
 
     }
@@ -139,6 +153,16 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return bitstreamId;
     }
 
+    @Override
+    public Bitstream put(InputStream is) throws IOException {
+        // the bits go to the incoming store, as in store()
+        Bitstream stored = new DetachedBitstream(incoming, Utils.generateKey());
+
+        //For efficiencies sake, PUT is responsible for setting bitstream size_bytes, checksum, and checksum_algorithm
+        stores.get(incoming).put(stored, is);
+        return stored;
+    }
+
     /**
      * Register a bitstream already in storage.
      *
@@ -208,6 +232,17 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return receivedMetadata;
     }
 
+    @Override
+    public Map<String, Object> computeChecksum(int storeNumber, String internalId) throws IOException {
+        Map<String, Object> wantedMetadata = new HashMap<>();
+        wantedMetadata.put("checksum", null);
+        wantedMetadata.put("checksum_algorithm", null);
+
+        Map<?, ?> receivedMetadata = stores.get(storeNumber)
+                                           .about(new DetachedBitstream(storeNumber, internalId), wantedMetadata);
+        return receivedMetadata == null ? null : wantedMetadata;
+    }
+
     @Override
     public boolean isRegisteredBitstream(String internalId) {
         return internalId.startsWith(REGISTERED_FLAG);
@@ -222,90 +257,94 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
 
     @Override
     public void cleanup(boolean deleteDbRecords, boolean verbose) throws SQLException, IOException, AuthorizeException {
+        cleanup(deleteDbRecords, verbose, 1, DEFAULT_CLEANUP_BATCH_SIZE);
+    }
+
+    @Override
+    public void cleanup(boolean deleteDbRecords, boolean verbose, int threads, int batchSize)
+        throws SQLException, IOException, AuthorizeException {
         Context context = null;
-        int commitCounter = 0;
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        long start = System.currentTimeMillis();
+        long checked = 0;
+        long expunged = 0;
+        long removed = 0;
 
         try {
             context = new Context(Context.Mode.BATCH_EDIT);
             context.turnOffAuthorisationSystem();
 
-            List<Bitstream> storage = bitstreamService.findDeletedBitstreams(context);
-            for (Bitstream bitstream : storage) {
-                UUID bid = bitstream.getID();
-                Map wantedMetadata = new HashMap();
-                wantedMetadata.put("size_bytes", null);
-                wantedMetadata.put("modified", null);
-                Map receivedMetadata = stores.get(bitstream.getStoreNumber()).about(bitstream, wantedMetadata);
-
-
-                // Make sure entries which do not exist are removed
-                if (MapUtils.isEmpty(receivedMetadata)) {
-                    log.debug("bitstore.about is empty, so file is not present");
-                    if (deleteDbRecords) {
-                        log.debug("deleting record");
-                        if (verbose) {
-                            System.out.println(" - Deleting bitstream information (ID: " + bid + ")");
+            // Walk the deleted bitstreams in pages ordered by ID, so that the
+            // records which are left in place do not have to be read again.
+            UUID lastId = null;
+            List<Bitstream> batch;
+            while (!(batch = bitstreamService.findDeletedBitstreams(context, lastId, batchSize)).isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getID();
+                List<Map> about = about(executor, batch);
+
+                List<Bitstream> toExpunge = new ArrayList<>();
+                List<Bitstream> toRemove = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    Bitstream bitstream = batch.get(i);
+                    Map receivedMetadata = about.get(i);
+
+                    // Make sure entries which do not exist are removed
+                    if (MapUtils.isEmpty(receivedMetadata)) {
+                        log.debug("bitstore.about is empty, so file is not present");
+                        if (deleteDbRecords) {
+                            toExpunge.add(bitstream);
                         }
-                        checksumHistoryService.deleteByBitstream(context, bitstream);
-                        if (verbose) {
-                            System.out.println(" - Deleting bitstream record from database (ID: " + bid + ")");
-                        }
-                        bitstreamService.expunge(context, bitstream);
+                        continue;
                     }
-                    context.uncacheEntity(bitstream);
-                    continue;
-                }
 
-                // This is a small chance that this is a file which is
-                // being stored -- get it next time.
-                if (isRecent(Long.valueOf(receivedMetadata.get("modified").toString()))) {
-                    log.debug("file is recent");
-                    context.uncacheEntity(bitstream);
-                    continue;
-                }
+                    // This is a small chance that this is a file which is
+                    // being stored -- get it next time.
+                    if (isRecent(Long.valueOf(receivedMetadata.get("modified").toString()))) {
+                        log.debug("file is recent");
+                        continue;
+                    }
 
-                if (deleteDbRecords) {
-                    log.debug("deleting db record");
-                    if (verbose) {
-                        System.out.println(" - Deleting bitstream information (ID: " + bid + ")");
+                    if (deleteDbRecords) {
+                        toExpunge.add(bitstream);
                     }
-                    checksumHistoryService.deleteByBitstream(context, bitstream);
-                    if (verbose) {
-                        System.out.println(" - Deleting bitstream record from database (ID: " + bid + ")");
+                    // do not delete registered bitstreams
+                    if (!isRegisteredBitstream(bitstream.getInternalId())) {
+                        toRemove.add(bitstream);
                     }
-                    bitstreamService.expunge(context, bitstream);
-                }
-
-                if (isRegisteredBitstream(bitstream.getInternalId())) {
-                    context.uncacheEntity(bitstream);
-                    continue;            // do not delete registered bitstreams
                 }
 
+                // The files are removed before the records: if the transaction
+                // fails, the records are expunged on the next run as their
+                // files are gone.
+                removed += remove(executor, withoutSharedFiles(context, toRemove, toExpunge), verbose);
 
-                // Since versioning allows for multiple bitstreams, check if the internal identifier isn't used on
-                // another place
-                if (bitstreamService.findDuplicateInternalIdentifier(context, bitstream).isEmpty()) {
-                    stores.get(bitstream.getStoreNumber()).remove(bitstream);
-
-                    String message = ("Deleted bitstreamID " + bid + ", internalID " + bitstream.getInternalId());
-                    if (log.isDebugEnabled()) {
-                        log.debug(message);
-                    }
-                    if (verbose) {
-                        System.out.println(message);
+                if (!toExpunge.isEmpty()) {
+                    checksumHistoryService.deleteByBitstreams(context, toExpunge);
+                    for (Bitstream bitstream : toExpunge) {
+                        if (verbose) {
+                            System.out.println(" - Deleting bitstream record from database (ID: "
+                                                   + bitstream.getID() + ")");
+                        }
+                        bitstreamService.expunge(context, bitstream);
                     }
+                    expunged += toExpunge.size();
                 }
 
-                // Make sure to commit our outstanding work every 100
-                // iterations. Otherwise you risk losing the entire transaction
-                // if we hit an exception, which isn't useful at all for large
-                // amounts of bitstreams.
-                commitCounter++;
-                if (commitCounter % 100 == 0) {
-                    context.dispatchEvents();
+                // Commit every batch, otherwise you risk losing the entire
+                // transaction if we hit an exception, which isn't useful at
+                // all for large amounts of bitstreams.
+                context.commit();
+                // the session is not cleared by the commit, so drop the page from it
+                for (Bitstream bitstream : batch) {
+                    context.uncacheEntity(bitstream);
                 }
 
-                context.uncacheEntity(bitstream);
+                checked += batch.size();
+                if (verbose) {
+                    long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+                    System.out.println("Checked " + checked + " deleted bitstream(s) ("
+                                           + (checked / seconds) + " bitstreams/s)");
+                }
             }
 
             System.out.print("Committing changes to the database...");
@@ -321,10 +360,18 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
             context.abort();
             throw sqle;
         } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
             if (context != null) {
                 context.restoreAuthSystemState();
             }
         }
+
+        long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+        System.out.println("Checked " + checked + " deleted bitstream(s) in " + seconds + "s ("
+                               + (checked / seconds) + " bitstreams/s), deleted " + expunged
+                               + " record(s) and " + removed + " file(s)");
     }
 
     @Nullable
@@ -475,4 +522,155 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         // Less than one hour old
         return (now - lastModified) < (1 * 60 * 1000);
     }
+
+    /**
+     * Query the size and modification date of the files of the given
+     * bitstreams, in parallel if an executor is given.
+     *
+     * @param executor  executor to query the stores with, or null
+     * @param bitstreams the bitstreams
+     * @return the metadata of each bitstream, in the order of the given list
+     * @throws IOException If a problem occurs while querying a store
+     */
+    protected List<Map> about(ExecutorService executor, List<Bitstream> bitstreams) throws IOException {
+        List<Callable<Map>> tasks = new ArrayList<>(bitstreams.size());
+        for (Bitstream bitstream : bitstreams) {
+            tasks.add(() -> {
+                Map wantedMetadata = new HashMap();
+                wantedMetadata.put("size_bytes", null);
+                wantedMetadata.put("modified", null);
+                return stores.get(bitstream.getStoreNumber()).about(bitstream, wantedMetadata);
+            });
+        }
+        return invokeAll(executor, tasks);
+    }
+
+    /**
+     * Remove the files of the given bitstreams, in parallel if an executor is
+     * given.
+     *
+     * @param executor   executor to remove the files with, or null
+     * @param bitstreams the bitstreams
+     * @param verbose    verbosity flag
+     * @return the number of removed files
+     * @throws IOException If a problem occurs while removing a file
+     */
+    protected int remove(ExecutorService executor, List<Bitstream> bitstreams, boolean verbose)
+        throws IOException {
+        List<Callable<Void>> tasks = new ArrayList<>(bitstreams.size());
+        for (Bitstream bitstream : bitstreams) {
+            tasks.add(() -> {
+                stores.get(bitstream.getStoreNumber()).remove(bitstream);
+
+                String message = ("Deleted bitstreamID " + bitstream.getID() + ", internalID "
+                    + bitstream.getInternalId());
+                if (log.isDebugEnabled()) {
+                    log.debug(message);
+                }
+                if (verbose) {
+                    System.out.println(message);
+                }
+                return null;
+            });
+        }
+        invokeAll(executor, tasks);
+        return bitstreams.size();
+    }
+
+    /**
+     * Since versioning allows for multiple bitstreams, drop the bitstreams
+     * whose internal identifier is used on another place, with one query for
+     * the whole list. Each file is returned only once.
+     *
+     * @param context    The current context
+     * @param bitstreams the bitstreams whose files should be removed
+     * @param expunged   the bitstreams whose records are about to be deleted,
+     *                   these do not keep a file in use
+     * @return the bitstreams whose files can be removed
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    protected List<Bitstream> withoutSharedFiles(Context context, List<Bitstream> bitstreams,
+                                                 List<Bitstream> expunged) throws SQLException {
+        List<String> internalIds = new ArrayList<>();
+        for (Bitstream bitstream : bitstreams) {
+            internalIds.add(bitstream.getInternalId());
+        }
+        Set<UUID> expungedIds = new HashSet<>();
+        for (Bitstream bitstream : expunged) {
+            expungedIds.add(bitstream.getID());
+        }
+
+        Set<UUID> batchIds = new HashSet<>();
+        for (Bitstream bitstream : bitstreams) {
+            batchIds.add(bitstream.getID());
+        }
+
+        Map<String, Set<UUID>> users = new HashMap<>();
+        for (Bitstream other : bitstreamService.findByInternalIds(context, internalIds)) {
+            users.computeIfAbsent(other.getInternalId(), k -> new HashSet<>()).add(other.getID());
+            // only the IDs are needed, the bitstreams of the batch itself are uncached by the caller
+            if (!batchIds.contains(other.getID()) && !expungedIds.contains(other.getID())) {
+                context.uncacheEntity(other);
+            }
+        }
+
+        List<Bitstream> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Bitstream bitstream : bitstreams) {
+            boolean shared = false;
+            for (UUID id : users.getOrDefault(bitstream.getInternalId(), Collections.emptySet())) {
+                if (!id.equals(bitstream.getID()) && !expungedIds.contains(id)) {
+                    shared = true;
+                    break;
+                }
+            }
+            if (!shared && seen.add(bitstream.getInternalId())) {
+                result.add(bitstream);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Run the given tasks on the executor, or on the current thread if the
+     * executor is null.
+     */
+    protected <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (executor == null) {
+                for (Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+                return results;
+            }
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while accessing the bitstream store", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Bitstream which is not managed by any session, only carrying the fields
+     * the asset stores use to locate the bits.
+     */
+    private static class DetachedBitstream extends Bitstream {
+        DetachedBitstream(int storeNumber, String internalId) {
+            setStoreNumber(storeNumber);
+            setInternalId(internalId);
+        }
+    }
 }
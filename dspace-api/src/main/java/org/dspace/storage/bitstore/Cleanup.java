@@ -55,6 +55,9 @@ public class Cleanup {
 
             options.addOption("l", "leave", false, "Leave database records but delete file from assetstore");
             options.addOption("v", "verbose", false, "Provide verbose output");
+            options.addOption("t", "threads", true, "Number of threads accessing the assetstore (default 1)");
+            options.addOption("b", "batch-size", true,
+                              "Number of bitstreams handled per transaction (default 100)");
             options.addOption("h", "help", false, "Help");
 
             try {
@@ -77,8 +80,18 @@ public class Cleanup {
                 deleteDbRecords = false;
             }
             log.debug("leave db records = " + deleteDbRecords);
+            int threads = 1;
+            int batchSize = 100;
+            try {
+                threads = Integer.parseInt(line.getOptionValue('t', "1"));
+                batchSize = Integer.parseInt(line.getOptionValue('b', "100"));
+            } catch (NumberFormatException e) {
+                log.fatal("Invalid number of threads or batch size", e);
+                System.exit(1);
+            }
             StorageServiceFactory.getInstance().getBitstreamStorageService()
-                                 .cleanup(deleteDbRecords, line.hasOption('v'));
+                                 .cleanup(deleteDbRecords, line.hasOption('v'), Math.max(1, threads),
+                                          Math.max(1, batchSize));
 
             System.exit(0);
         } catch (IOException | SQLException | AuthorizeException e) {
@@ -17,6 +17,7 @@ import javax.annotation.Nullable;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Context;
+import org.dspace.storage.bitstore.BitStoreService;
 
 /**
  * <P>
@@ -83,6 +84,19 @@ public interface BitstreamStorageService {
      */
     public UUID store(Context context, Bitstream bitstream, InputStream is) throws SQLException, IOException;
 
+    /**
+     * Store the bits of a new bitstream in the incoming asset store without
+     * accessing the RDBMS, so that it may be called from a thread other than
+     * the one owning a Context. The returned bitstream is not persisted: it
+     * only carries the internal ID, store number, size and checksum of the
+     * stored bits, which the caller has to copy to a bitstream of its Context.
+     *
+     * @param is The stream of bits to store
+     * @return a detached bitstream describing the stored bits
+     * @throws java.io.IOException If a problem occurs while storing the bits
+     */
+    public Bitstream put(InputStream is) throws IOException;
+
 
     /**
      * Register a bitstream already in storage.
@@ -104,6 +118,19 @@ public interface BitstreamStorageService {
 
     public Map computeChecksum(Context context, Bitstream bitstream) throws IOException;
 
+    /**
+     * Compute the checksum of the bits of a bitstream without accessing the
+     * RDBMS or the bitstream entity, so that it may be called from a thread
+     * other than the one owning the Context the bitstream was loaded with.
+     *
+     * @param storeNumber The number of the asset store holding the bits
+     * @param internalId  The internal ID of the bitstream
+     * @return the checksum and checksum algorithm, empty or null if the bits
+     * were not found
+     * @throws java.io.IOException If a problem occurs while reading the bits
+     */
+    public Map<String, Object> computeChecksum(int storeNumber, String internalId) throws IOException;
+
     /**
      * Does the internal_id column in the bitstream row indicate the bitstream
      * is a registered file
@@ -141,6 +168,25 @@ public interface BitstreamStorageService {
      */
     public void cleanup(boolean deleteDbRecords, boolean verbose) throws SQLException, IOException, AuthorizeException;
 
+    /**
+     * Clean up the bitstream storage area, as {@link #cleanup(boolean, boolean)}
+     * does. The deleted bitstreams are handled in batches, each in a
+     * transaction of its own, and the stores are accessed by a number of
+     * threads in parallel.
+     *
+     * @param deleteDbRecords if true deletes the database records otherwise it
+     *                        only deletes the files and directories in the assetstore
+     * @param verbose         verbosity flag
+     * @param threads         number of threads accessing the stores
+     * @param batchSize       number of bitstreams handled per transaction
+     * @throws IOException        If a problem occurs while cleaning up
+     * @throws SQLException       If a problem occurs accessing the RDBMS
+     * @throws AuthorizeException Exception indicating the current user of the context does not have permission
+     *                            to perform a particular action.
+     */
+    public void cleanup(boolean deleteDbRecords, boolean verbose, int threads, int batchSize)
+        throws SQLException, IOException, AuthorizeException;
+
     /**
      * Clone the given bitstream to a new bitstream with a new ID.
      * Metadata of the given bitstream are also copied to the new bitstream.
@@ -156,6 +202,13 @@ public interface BitstreamStorageService {
      */
     public Bitstream clone(Context context, Bitstream bitstream) throws SQLException, IOException, AuthorizeException;
 
+    /**
+     * Get the configured assetstores.
+     *
+     * @return the assetstores, by store number
+     */
+    public Map<Integer, BitStoreService> getStores();
+
     /**
      * Print out (log/out) a listing of the assetstores configured, and how many assets they contain
      *
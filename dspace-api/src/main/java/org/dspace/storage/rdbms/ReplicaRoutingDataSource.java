@@ -0,0 +1,181 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource of Hibernate which sends the transactions of read-only Contexts to a replica of the database,
+ * if one is configured ('db.replica.enabled'). All other transactions use the primary database.
+ * <p>
+ * {@link org.dspace.core.HibernateDBConnection} marks the transactions of a Context in READ_ONLY mode with
+ * {@link #setReadOnly(boolean)} when it begins them. The replica is not used:
+ * <ul>
+ *     <li>for 'db.replica.read-your-writes' milliseconds after the same thread committed a transaction on the
+ *     primary database, so that a thread always reads its own changes;</li>
+ *     <li>while the replica lags more than 'db.replica.lag.max' milliseconds behind the primary, if
+ *     'db.replica.lag.query' is configured. The query is run on the replica at most every
+ *     'db.replica.lag.interval' milliseconds and returns the lag in milliseconds.</li>
+ * </ul>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger log = LogManager.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    // whether the transaction which is beginning on this thread is read-only
+    private static final ThreadLocal<Boolean> readOnly = ThreadLocal.withInitial(() -> false);
+
+    // whether the last connection of this thread was obtained from the replica
+    private static final ThreadLocal<Boolean> usingReplica = ThreadLocal.withInitial(() -> false);
+
+    // time of the last commit of this thread on the primary database
+    private static final ThreadLocal<Long> lastWrite = ThreadLocal.withInitial(() -> 0L);
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private boolean replicaEnabled = false;
+
+    private long readYourWrites = 10000L;
+
+    private String lagQuery;
+
+    private long maxLag = 10000L;
+
+    private long lagInterval = 5000L;
+
+    private volatile long lag;
+
+    private volatile long lagCheckTime;
+
+    @Override
+    public void afterPropertiesSet() {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        if (replicaEnabled) {
+            targetDataSources.put(REPLICA, replica);
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean useReplica = replicaEnabled && readOnly.get()
+            && System.currentTimeMillis() - lastWrite.get() > readYourWrites
+            && isReplicaCurrent();
+        usingReplica.set(useReplica);
+        return useReplica ? REPLICA : PRIMARY;
+    }
+
+    /**
+     * @return whether the lag of the replica is acceptable
+     */
+    protected boolean isReplicaCurrent() {
+        if (StringUtils.isBlank(lagQuery)) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lagCheckTime > lagInterval) {
+            synchronized (this) {
+                if (System.currentTimeMillis() - lagCheckTime > lagInterval) {
+                    lag = measureLag();
+                    lagCheckTime = System.currentTimeMillis();
+                }
+            }
+        }
+        return lag <= maxLag;
+    }
+
+    /**
+     * Run the lag query on the replica.
+     *
+     * @return the lag in milliseconds, or Long.MAX_VALUE if it could not be measured
+     */
+    protected long measureLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet results = statement.executeQuery(lagQuery)) {
+            long measured = results.next() ? results.getLong(1) : Long.MAX_VALUE;
+            if (measured > maxLag) {
+                log.warn("The database replica lags {} ms behind, reading from the primary database", measured);
+            }
+            return measured;
+        } catch (SQLException e) {
+            log.error("Unable to measure the lag of the database replica, reading from the primary database", e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Mark the transactions beginning on the current thread as read-only or not. This does not change
+     * {@link #isUsingReplica()}, which keeps describing the connection obtained last.
+     *
+     * @param isReadOnly whether they are read-only
+     */
+    public static void setReadOnly(boolean isReadOnly) {
+        readOnly.set(isReadOnly);
+    }
+
+    /**
+     * @return whether the last connection of the current thread was obtained from the replica
+     */
+    public static boolean isUsingReplica() {
+        return usingReplica.get();
+    }
+
+    /**
+     * Note that the current thread committed a transaction on the primary database, so that it reads from the
+     * primary database for a while.
+     */
+    public static void recordWrite() {
+        lastWrite.set(System.currentTimeMillis());
+    }
+
+    public void setPrimary(DataSource primary) {
+        this.primary = primary;
+    }
+
+    public void setReplica(DataSource replica) {
+        this.replica = replica;
+    }
+
+    public void setReplicaEnabled(boolean replicaEnabled) {
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    public void setReadYourWrites(long readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public void setMaxLag(long maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public void setLagInterval(long lagInterval) {
+        this.lagInterval = lagInterval;
+    }
+}
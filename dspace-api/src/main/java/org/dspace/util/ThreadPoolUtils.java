@@ -0,0 +1,53 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class to create the worker pools of the batch tools (RDF conversion,
+ * bitstream migration, media filters).
+ */
+public class ThreadPoolUtils {
+
+    /**
+     * Default constructor
+     */
+    private ThreadPoolUtils() { }
+
+    /**
+     * Create a pool of worker threads with a bounded queue. If the queue is
+     * full, the submitting thread waits for room instead of running the task
+     * itself, so that it does not load e.g. the IDs of all Items into memory.
+     * <p>
+     * The tasks must never run on the submitting thread: all Contexts of a
+     * thread share one database session, so a task aborting its own Context
+     * would close the session the submitting thread is still working with.
+     *
+     * @param threads   number of worker threads
+     * @param queueSize number of tasks which may wait for a worker
+     * @return the pool
+     */
+    public static ThreadPoolExecutor newBlockingThreadPool(int threads, int queueSize) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<>(queueSize), (task, pool) -> {
+                                          if (pool.isShutdown()) {
+                                              throw new RejectedExecutionException("The pool is shut down");
+                                          }
+                                          try {
+                                              pool.getQueue().put(task);
+                                          } catch (InterruptedException e) {
+                                              Thread.currentThread().interrupt();
+                                              throw new RejectedExecutionException(e);
+                                          }
+                                      });
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+/**
+ * Functional interface that can be used to accept an object and potentially
+ * throws a Exception.
+ *
+ * @see ThrowingSupplier
+ */
+@FunctionalInterface
+public interface ThrowingConsumer<T, E extends Exception> {
+
+    /**
+     * Accepts an object.
+     *
+     * @param t  the object
+     * @throws E if some error occurs
+     */
+    void accept(T t) throws E;
+}
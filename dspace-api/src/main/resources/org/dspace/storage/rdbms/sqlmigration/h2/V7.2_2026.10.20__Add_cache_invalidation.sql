@@ -0,0 +1,33 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-- ===============================================================
+-- WARNING WARNING WARNING WARNING WARNING WARNING WARNING WARNING
+--
+-- DO NOT MANUALLY RUN THIS DATABASE MIGRATION. IT WILL BE EXECUTED
+-- AUTOMATICALLY (IF NEEDED) BY "FLYWAY" WHEN YOU STARTUP DSPACE.
+-- http://flywaydb.org/
+-- ===============================================================
+
+-------------------------------------------------------------
+-- Evictions from the Hibernate second level cache, which are
+-- sent to the other nodes (DatabaseCacheInvalidationChannel)
+-------------------------------------------------------------
+
+CREATE SEQUENCE cache_invalidation_seq;
+CREATE TABLE cache_invalidation
+(
+    invalidation_id BIGINT DEFAULT NEXT VALUE FOR cache_invalidation_seq,
+    node_id VARCHAR(36) NOT NULL,
+    entity_name VARCHAR(256) NOT NULL,
+    entity_id VARCHAR(64),
+    invalidation_time BIGINT NOT NULL,
+    CONSTRAINT cache_invalidation_pkey PRIMARY KEY (invalidation_id)
+);
+
+CREATE INDEX cache_invalidation_time_idx ON cache_invalidation(invalidation_time);
@@ -0,0 +1,36 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-- ===============================================================
+-- WARNING WARNING WARNING WARNING WARNING WARNING WARNING WARNING
+--
+-- DO NOT MANUALLY RUN THIS DATABASE MIGRATION. IT WILL BE EXECUTED
+-- AUTOMATICALLY (IF NEEDED) BY "FLYWAY" WHEN YOU STARTUP DSPACE.
+-- http://flywaydb.org/
+-- ===============================================================
+
+-------------------------------------------------------------
+-- Table of the database backed curation task queue (DatabaseTaskQueue)
+-------------------------------------------------------------
+
+CREATE SEQUENCE curation_task_queue_seq;
+CREATE TABLE curation_task_queue
+(
+    entry_id INTEGER DEFAULT nextval('curation_task_queue_seq'),
+    queue_name VARCHAR(256) NOT NULL,
+    eperson VARCHAR(256),
+    submit_time BIGINT,
+    task_names TEXT,
+    object_id VARCHAR(256),
+    claim_id VARCHAR(36),
+    claim_time BIGINT,
+    CONSTRAINT curation_task_queue_pkey PRIMARY KEY (entry_id)
+);
+
+CREATE INDEX curation_task_queue_name_idx ON curation_task_queue(queue_name, entry_id);
+CREATE INDEX curation_task_queue_claim_idx ON curation_task_queue(claim_id);
@@ -0,0 +1,168 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemexport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.itemexport.factory.ItemExportServiceFactory;
+import org.dspace.app.itemexport.service.ItemExportService;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the zip export of the {@link ItemExportServiceImpl},
+ * which streams the items straight into the zip file.
+ */
+public class ItemExportIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int ITEMS = 3;
+
+    private final ItemExportService itemExportService =
+        ItemExportServiceFactory.getInstance().getItemExportService();
+
+    private final List<Item> items = new ArrayList<>();
+    private File workDir;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            // both bitstreams have the same name, the second one is renamed in the export
+            for (int j = 0; j < 2; j++) {
+                String content = "Bitstream " + j + " of item " + i;
+                try (InputStream is = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))) {
+                    BitstreamBuilder.createBitstream(context, item, is).withName("file.txt").build();
+                }
+            }
+            items.add(item);
+        }
+        context.restoreAuthSystemState();
+        workDir = Files.createTempDirectory("itemexport").toFile();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(workDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testExportAsZip() throws Exception {
+        itemExportService.exportAsZip(context, items.iterator(), workDir.getAbsolutePath(), "export.zip",
+                                      1, false, false);
+
+        File zipFile = new File(workDir, "export.zip");
+        assertTrue("The zip file should exist", zipFile.exists());
+        assertFalse("The temporary file should be gone", new File(workDir, "export.zip_tmp").exists());
+
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            for (int i = 0; i < ITEMS; i++) {
+                Item item = context.reloadEntity(items.get(i));
+                String folder = (i + 1) + "/";
+
+                assertTrue(read(zip, folder + "dublin_core.xml").contains("Item " + i));
+                assertEquals(item.getHandle() + System.lineSeparator(), read(zip, folder + "handle"));
+
+                assertEquals(new HashSet<>(Arrays.asList("Bitstream 0 of item " + i, "Bitstream 1 of item " + i)),
+                             new HashSet<>(Arrays.asList(read(zip, folder + "file.txt"),
+                                                         read(zip, folder + "1_file.txt"))));
+
+                String contents = read(zip, folder + "contents");
+                assertTrue(contents.contains("file.txt\tbundle:ORIGINAL"));
+                assertTrue(contents.contains("1_file.txt\tbundle:ORIGINAL"));
+            }
+        }
+    }
+
+    @Test
+    public void testBitstreamsNamedLikeGeneratedFilesAreRenamed() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = context.reloadEntity(items.get(0));
+        for (String name : Arrays.asList("contents", "handle", "dublin_core.xml")) {
+            try (InputStream is = new ByteArrayInputStream(("Bitstream " + name).getBytes(StandardCharsets.UTF_8))) {
+                BitstreamBuilder.createBitstream(context, item, is).withName(name).build();
+            }
+        }
+        context.restoreAuthSystemState();
+
+        itemExportService.exportAsZip(context, List.of(item).iterator(), workDir.getAbsolutePath(), "export.zip",
+                                      1, false, false);
+
+        try (ZipFile zip = new ZipFile(new File(workDir, "export.zip"))) {
+            item = context.reloadEntity(item);
+            assertTrue(read(zip, "1/dublin_core.xml").contains("Item 0"));
+            assertEquals(item.getHandle() + System.lineSeparator(), read(zip, "1/handle"));
+            assertEquals("Bitstream contents", read(zip, "1/1_contents"));
+            assertEquals("Bitstream handle", read(zip, "1/1_handle"));
+            assertEquals("Bitstream dublin_core.xml", read(zip, "1/1_dublin_core.xml"));
+
+            String contents = read(zip, "1/contents");
+            assertTrue(contents.contains("1_contents\tbundle:ORIGINAL"));
+            assertTrue(contents.contains("1_handle\tbundle:ORIGINAL"));
+            assertTrue(contents.contains("1_dublin_core.xml\tbundle:ORIGINAL"));
+        }
+    }
+
+    @Test
+    public void testExportAsZipWithoutBitstreams() throws Exception {
+        itemExportService.exportAsZip(context, items.iterator(), workDir.getAbsolutePath(), "export.zip",
+                                      1, true, true);
+
+        try (ZipFile zip = new ZipFile(new File(workDir, "export.zip"))) {
+            for (int i = 0; i < ITEMS; i++) {
+                String folder = (i + 1) + "/";
+                assertTrue(read(zip, folder + "dublin_core.xml").contains("Item " + i));
+                assertNotNull(zip.getEntry(folder + "contents"));
+                // neither the bitstreams nor, when migrating, the handle are exported
+                assertNull(zip.getEntry(folder + "file.txt"));
+                assertNull(zip.getEntry(folder + "handle"));
+            }
+        }
+    }
+
+    private String read(ZipFile zip, String name) throws Exception {
+        ZipEntry entry = zip.getEntry(name);
+        assertNotNull("Missing zip entry " + name, entry);
+        try (InputStream in = zip.getInputStream(entry)) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+}
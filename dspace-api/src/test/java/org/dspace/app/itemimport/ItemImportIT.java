@@ -0,0 +1,200 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemimport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.itemimport.factory.ItemImportServiceFactory;
+import org.dspace.app.itemimport.service.ItemImportService;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the Simple Archive Format import storing the bitstreams
+ * of an item with several threads, from a directory or streamed from a zip
+ * file.
+ */
+public class ItemImportIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int ITEMS = 3;
+    private static final int FILES = 4;
+
+    private final ItemImportService itemImportService =
+        ItemImportServiceFactory.getInstance().getItemImportService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private Collection collection;
+    private File workDir;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection").build();
+        context.restoreAuthSystemState();
+        workDir = Files.createTempDirectory("itemimport").toFile();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        itemImportService.setThreads(1);
+        itemImportService.setBatchSize(0);
+        FileUtils.deleteDirectory(workDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testThreadedImportStoresAllBitstreams() throws Exception {
+        File source = new File(workDir, "source");
+        Map<String, String> checksums = createItems(source);
+        File mapFile = new File(workDir, "mapfile");
+
+        context.turnOffAuthorisationSystem();
+        itemImportService.setThreads(3);
+        itemImportService.setBatchSize(2);
+        itemImportService.addItems(context, Collections.singletonList(collection), source.getAbsolutePath(),
+                                   mapFile.getAbsolutePath(), false);
+        context.restoreAuthSystemState();
+
+        assertImported(checksums, mapFile);
+    }
+
+    @Test
+    public void testStreamedZipImportReadsBitstreamsFromZip() throws Exception {
+        File source = new File(workDir, "source");
+        Map<String, String> checksums = createItems(source);
+        File zipFile = new File(workDir, "items.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (File file : FileUtils.listFiles(source, null, true)) {
+                out.putNextEntry(new ZipEntry(source.toPath().relativize(file.toPath()).toString()));
+                FileUtils.copyFile(file, out);
+                out.closeEntry();
+            }
+        }
+        File mapFile = new File(workDir, "mapfile");
+
+        context.turnOffAuthorisationSystem();
+        itemImportService.setThreads(3);
+        itemImportService.setBatchSize(2);
+        try {
+            String sourceDir = itemImportService.unzipMetadata(workDir.getAbsolutePath(), zipFile.getName());
+            // only the metadata is extracted, the content files are read from the zip file
+            assertTrue(new File(sourceDir, "item0/dublin_core.xml").exists());
+            assertTrue(new File(sourceDir, "item0/contents").exists());
+            assertFalse(new File(sourceDir, "item0/file0.txt").exists());
+
+            itemImportService.addItems(context, Collections.singletonList(collection), sourceDir,
+                                       mapFile.getAbsolutePath(), false);
+        } finally {
+            itemImportService.cleanupZipTemp();
+        }
+        context.restoreAuthSystemState();
+
+        assertImported(checksums, mapFile);
+    }
+
+    /**
+     * Write the items to import in the Simple Archive Format.
+     *
+     * @param source the directory to write the items to
+     * @return the MD5 checksum of each file by item title and file name
+     */
+    private Map<String, String> createItems(File source) throws Exception {
+        Map<String, String> checksums = new HashMap<>();
+        for (int i = 0; i < ITEMS; i++) {
+            File itemDir = new File(source, "item" + i);
+            FileUtils.writeStringToFile(new File(itemDir, "dublin_core.xml"),
+                "<dublin_core><dcvalue element=\"title\" qualifier=\"none\">Item " + i + "</dcvalue></dublin_core>",
+                StandardCharsets.UTF_8);
+            StringBuilder contents = new StringBuilder();
+            for (int j = 0; j < FILES; j++) {
+                String name = "file" + j + ".txt";
+                String content = "Content " + j + " of item " + i;
+                FileUtils.writeStringToFile(new File(itemDir, name), content, StandardCharsets.UTF_8);
+                checksums.put("Item " + i + "/" + name, md5(content.getBytes(StandardCharsets.UTF_8)));
+                contents.append(name).append("\tbundle:ORIGINAL");
+                if (j == 1) {
+                    contents.append("\tprimary:true");
+                }
+                contents.append("\n");
+            }
+            FileUtils.writeStringToFile(new File(itemDir, "contents"), contents.toString(), StandardCharsets.UTF_8);
+        }
+        return checksums;
+    }
+
+    private void assertImported(Map<String, String> checksums, File mapFile) throws Exception {
+        List<Item> items = new ArrayList<>();
+        Iterator<Item> iterator = itemService.findByCollection(context, context.reloadEntity(collection));
+        iterator.forEachRemaining(items::add);
+        assertEquals(ITEMS, items.size());
+        // every imported item is listed once in the mapfile
+        assertEquals(ITEMS, FileUtils.readLines(mapFile, StandardCharsets.UTF_8).size());
+
+        for (Item item : items) {
+            String title = itemService.getMetadataFirstValue(item, "dc", "title", null, Item.ANY);
+            List<Bundle> bundles = itemService.getBundles(item, "ORIGINAL");
+            assertEquals(1, bundles.size());
+            Bundle bundle = bundles.get(0);
+            assertEquals(FILES, bundle.getBitstreams().size());
+            assertNotNull(bundle.getPrimaryBitstream());
+            assertEquals("file1.txt", bundle.getPrimaryBitstream().getName());
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                String expected = checksums.get(title + "/" + bitstream.getName());
+                assertEquals(expected, bitstream.getChecksum());
+                assertNotNull(bitstream.getInternalId());
+                assertEquals("text/plain", bitstream.getFormat(context).getMIMEType());
+                try (InputStream in = bitstreamService.retrieve(context, bitstream)) {
+                    byte[] bytes = IOUtils.toByteArray(in);
+                    assertEquals(bitstream.getSizeBytes(), bytes.length);
+                    assertEquals(expected, md5(bytes));
+                }
+            }
+        }
+    }
+
+    private static String md5(byte[] bytes) throws Exception {
+        return Utils.toHex(MessageDigest.getInstance("MD5").digest(bytes));
+    }
+}
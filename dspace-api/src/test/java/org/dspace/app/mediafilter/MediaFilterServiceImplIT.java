@@ -0,0 +1,243 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.mediafilter.factory.MediaFilterServiceFactory;
+import org.dspace.app.mediafilter.service.MediaFilterService;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the {@link MediaFilterServiceImpl} with two test
+ * filters writing to bundles of their own.
+ */
+public class MediaFilterServiceImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int ITEMS = 3;
+
+    // the filters wait for each other, if set
+    private static CyclicBarrier barrier = null;
+
+    private final MediaFilterService mediaFilterService =
+        MediaFilterServiceFactory.getInstance().getMediaFilterService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private final List<Item> items = new ArrayList<>();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            try (InputStream is = new ByteArrayInputStream(("Item " + i).getBytes(StandardCharsets.UTF_8))) {
+                BitstreamBuilder.createBitstream(context, item, is).withName("file.txt")
+                                .withMimeType("text/plain").build();
+            }
+            items.add(item);
+        }
+        context.restoreAuthSystemState();
+
+        Map<String, List<String>> formats = new HashMap<>();
+        formats.put(FilterA.class.getName(), Collections.singletonList("Text"));
+        formats.put(FilterB.class.getName(), Collections.singletonList("Text"));
+        mediaFilterService.setFilterFormats(formats);
+        mediaFilterService.setQuiet(true);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        barrier = null;
+        mediaFilterService.setThreads(1);
+        mediaFilterService.setQuiet(false);
+        configurationService.setProperty("filter." + FilterA.class.getName() + ".threads", null);
+        configurationService.setProperty("filter." + FilterB.class.getName() + ".threads", null);
+        configurationService.setProperty("filter." + FilterA.class.getName() + ".version", null);
+        super.destroy();
+    }
+
+    @Test
+    public void testFiltersRunInParallel() throws Exception {
+        // one thread per filter: both threads must reach the barrier for the same Item at the same time
+        configurationService.setProperty("filter." + FilterA.class.getName() + ".threads", 1);
+        configurationService.setProperty("filter." + FilterB.class.getName() + ".threads", 1);
+        barrier = new CyclicBarrier(2);
+        mediaFilterService.setFilterClasses(Arrays.asList(new FilterA(), new FilterB()));
+        mediaFilterService.setThreads(2);
+        // the filters run with Contexts of their own
+        context.commit();
+
+        context.turnOffAuthorisationSystem();
+        for (Item item : items) {
+            mediaFilterService.applyFiltersItem(context, context.reloadEntity(item));
+        }
+        mediaFilterService.awaitCompletion();
+        context.restoreAuthSystemState();
+
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = context.reloadEntity(items.get(i));
+            assertEquals("filtered by A: Item " + i, getDerivative(item, "TEST_A", "file.txt.a"));
+            assertEquals("filtered by B: Item " + i, getDerivative(item, "TEST_B", "file.txt.b"));
+        }
+    }
+
+    @Test
+    public void testUnchangedDerivativeIsSkipped() throws Exception {
+        mediaFilterService.setFilterClasses(Collections.singletonList(new FilterA()));
+        Item item = items.get(0);
+        UUID derivative = filter(item);
+
+        assertEquals("The derivative must be kept", derivative, filter(item));
+    }
+
+    @Test
+    public void testDerivativeOfChangedSourceIsRegenerated() throws Exception {
+        mediaFilterService.setFilterClasses(Collections.singletonList(new FilterA()));
+        Item item = items.get(0);
+        UUID derivative = filter(item);
+
+        context.turnOffAuthorisationSystem();
+        Bitstream source = itemService.getBundles(context.reloadEntity(item), "ORIGINAL").get(0)
+                                      .getBitstreams().get(0);
+        source.setChecksum("0123456789abcdef0123456789abcdef");
+        ContentServiceFactory.getInstance().getBitstreamService().update(context, source);
+        context.restoreAuthSystemState();
+
+        assertNotEquals("The derivative must be regenerated", derivative, filter(item));
+    }
+
+    @Test
+    public void testDerivativeOfChangedFilterVersionIsRegenerated() throws Exception {
+        mediaFilterService.setFilterClasses(Collections.singletonList(new FilterA()));
+        Item item = items.get(0);
+        UUID derivative = filter(item);
+
+        configurationService.setProperty("filter." + FilterA.class.getName() + ".version", "2");
+
+        assertNotEquals("The derivative must be regenerated", derivative, filter(item));
+    }
+
+    /**
+     * Apply the filters to an Item on the current thread.
+     *
+     * @return the ID of the only derivative of FilterA
+     */
+    private UUID filter(Item item) throws Exception {
+        context.turnOffAuthorisationSystem();
+        item = context.reloadEntity(item);
+        mediaFilterService.applyFiltersItem(context, item);
+        context.restoreAuthSystemState();
+        item = context.reloadEntity(item);
+        assertEquals("filtered by A: Item 0", getDerivative(item, "TEST_A", "file.txt.a"));
+        return itemService.getBundles(item, "TEST_A").get(0).getBitstreams().get(0).getID();
+    }
+
+    private String getDerivative(Item item, String bundleName, String name) throws Exception {
+        List<Bundle> bundles = itemService.getBundles(item, bundleName);
+        assertEquals(1, bundles.size());
+        List<Bitstream> bitstreams = bundles.get(0).getBitstreams();
+        assertEquals(1, bitstreams.size());
+        assertEquals(name, bitstreams.get(0).getName());
+        try (InputStream in = ContentServiceFactory.getInstance().getBitstreamService()
+                                                   .retrieve(context, bitstreams.get(0))) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Test filter prefixing the text of its source.
+     */
+    public abstract static class TestFilter extends MediaFilter {
+        private final String name;
+
+        protected TestFilter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getFilteredName(String sourceName) {
+            return sourceName + "." + name.toLowerCase();
+        }
+
+        @Override
+        public String getBundleName() {
+            return "TEST_" + name;
+        }
+
+        @Override
+        public String getFormatString() {
+            return "Text";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Filtered by " + name;
+        }
+
+        @Override
+        public InputStream getDestinationStream(Item currentItem, InputStream source, boolean verbose)
+            throws Exception {
+            CyclicBarrier current = barrier;
+            if (current != null) {
+                current.await(30, TimeUnit.SECONDS);
+            }
+            String text = "filtered by " + name + ": " + IOUtils.toString(source, StandardCharsets.UTF_8);
+            return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static class FilterA extends TestFilter {
+        public FilterA() {
+            super("A");
+        }
+    }
+
+    public static class FilterB extends TestFilter {
+        public FilterB() {
+            super("B");
+        }
+    }
+}
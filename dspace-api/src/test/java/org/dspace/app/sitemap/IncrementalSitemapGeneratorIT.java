@@ -0,0 +1,278 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.sitemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the {@link IncrementalSitemapGenerator}. The entries of
+ * the Items contain their title instead of looking up their entity type in
+ * Solr, so that changed entries can be recognized.
+ */
+public class IncrementalSitemapGeneratorIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final String UI_URL = "http://localhost:4000";
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private File outputDir;
+    private Collection collection;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        outputDir = Files.createTempDirectory("sitemaps").toFile();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection").build();
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(outputDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testAddUpdateAndRemoveItems() throws Exception {
+        Item first = createItem("first");
+        Item second = createItem("second");
+        TestGenerator generator = new TestGenerator(outputDir, 50000, 100);
+        generator.generate(context, UI_URL);
+        assertEquals("full", getState().getProperty(IncrementalSitemapGenerator.STATE_LAST_RUN_MODE));
+        assertEquals(Map.of(first.getID(), "first", second.getID(), "second"), readEntries());
+
+        // the modifications must be newer than the last run
+        Thread.sleep(10);
+        context.turnOffAuthorisationSystem();
+        Item third = createItem("third");
+        // the generator detached the Items
+        first = context.reloadEntity(first);
+        second = context.reloadEntity(second);
+        itemService.clearMetadata(context, first, "dc", "title", null, Item.ANY);
+        itemService.addMetadata(context, first, "dc", "title", null, null, "renamed");
+        itemService.update(context, first);
+        itemService.withdraw(context, second);
+        context.restoreAuthSystemState();
+
+        generator.generate(context, UI_URL);
+        assertEquals("incremental", getState().getProperty(IncrementalSitemapGenerator.STATE_LAST_RUN_MODE));
+        assertEquals(Map.of(first.getID(), "renamed", third.getID(), "third"), readEntries());
+    }
+
+    @Test
+    public void testShardsRollOver() throws Exception {
+        // at most two Items per shard, the Items are spread over the shards in the order of their creation
+        TestGenerator generator = new TestGenerator(outputDir, 2, 2);
+        for (int i = 0; i < 4; i++) {
+            generator.order.add(createItem("item" + i).getID());
+        }
+        generator.generate(context, UI_URL);
+        assertEquals("2", getState().getProperty(IncrementalSitemapGenerator.STATE_SHARDS));
+        assertEquals(4, readEntries(2).size());
+
+        // the incremental run overflows both shards and writes all of them again
+        Thread.sleep(10);
+        for (int i = 4; i < 8; i++) {
+            generator.order.add(createItem("item" + i).getID());
+        }
+        generator.generate(context, UI_URL);
+        assertEquals("full", getState().getProperty(IncrementalSitemapGenerator.STATE_LAST_RUN_MODE));
+        assertEquals("4", getState().getProperty(IncrementalSitemapGenerator.STATE_SHARDS));
+        assertEquals(8, readEntries(2).size());
+    }
+
+    @Test
+    public void testUnevenShardsAreSplit() throws Exception {
+        // all Items of the first shard of a full run would exceed its limit
+        TestGenerator generator = new TestGenerator(outputDir, 2, 2);
+        for (int i = 0; i < 4; i++) {
+            generator.order.add(createItem("item" + i).getID());
+        }
+        generator.uneven = true;
+        generator.generate(context, UI_URL);
+        assertEquals("full", getState().getProperty(IncrementalSitemapGenerator.STATE_LAST_RUN_MODE));
+        assertEquals("4", getState().getProperty(IncrementalSitemapGenerator.STATE_SHARDS));
+        assertEquals(4, readEntries(2).size());
+    }
+
+    @Test
+    public void testFailedEntryKeepsShards() throws Exception {
+        Item first = createItem("first");
+        TestGenerator generator = new TestGenerator(outputDir, 50000, 100);
+        generator.generate(context, UI_URL);
+        Properties state = getState();
+
+        Thread.sleep(10);
+        context.turnOffAuthorisationSystem();
+        Item second = createItem("second");
+        context.restoreAuthSystemState();
+        generator.failing = true;
+        try {
+            generator.generate(context, UI_URL);
+            fail("The run must fail if an entry cannot be determined");
+        } catch (IOException e) {
+            // expected
+        }
+        // nothing was dropped, and the next run picks up the modified Item
+        assertEquals(state, getState());
+        assertEquals(Map.of(first.getID(), "first"), readEntries());
+        generator.failing = false;
+        generator.generate(context, UI_URL);
+        assertEquals(Map.of(first.getID(), "first", second.getID(), "second"), readEntries());
+    }
+
+    @Test
+    public void testDeleteShards() throws Exception {
+        TestGenerator generator = new TestGenerator(outputDir, 2, 2);
+        for (int i = 0; i < 4; i++) {
+            generator.order.add(createItem("item" + i).getID());
+        }
+        generator.generate(context, UI_URL);
+        assertEquals("2", getState().getProperty(IncrementalSitemapGenerator.STATE_SHARDS));
+        // a shard in between is missing
+        assertTrue(generator.getShardFile(1).delete());
+
+        generator.deleteShards();
+        assertFalse(new File(outputDir, IncrementalSitemapGenerator.STATE_FILENAME).exists());
+        for (int i = 0; i <= 2; i++) {
+            assertFalse("Shard " + i + " must be deleted", generator.getShardFile(i).exists());
+        }
+        // the index is left for the run replacing the shards
+        assertTrue(new File(outputDir, "sitemap_index.xml").exists());
+    }
+
+    private Item createItem(String title) {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle(title).build();
+        context.restoreAuthSystemState();
+        return item;
+    }
+
+    private Properties getState() throws IOException {
+        Properties state = new Properties();
+        try (InputStream in = new FileInputStream(new File(outputDir, IncrementalSitemapGenerator.STATE_FILENAME))) {
+            state.load(in);
+        }
+        return state;
+    }
+
+    /**
+     * @return the title of every Item in the Item shards
+     */
+    private Map<UUID, String> readEntries() throws IOException {
+        return readEntries(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxURLs the number of Items a shard may contain
+     * @return the title of every Item in the Item shards
+     */
+    private Map<UUID, String> readEntries(int maxURLs) throws IOException {
+        TestGenerator generator = new TestGenerator(outputDir, 50000, 100);
+        int shards = Integer.parseInt(getState().getProperty(IncrementalSitemapGenerator.STATE_SHARDS));
+        Map<UUID, String> entries = new HashMap<>();
+        for (int i = 1; i <= shards; i++) {
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(generator.getShardFile(i))), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Matcher matcher = IncrementalSitemapGenerator.UUID_PATTERN.matcher(line);
+                    if (matcher.find()) {
+                        lines.add(line);
+                        String title = line.substring(line.indexOf("?title=") + 7, line.indexOf("</loc>"));
+                        assertEquals("Every Item is listed once", null,
+                                     entries.put(UUID.fromString(matcher.group()), title));
+                    }
+                }
+            }
+            assertTrue("Shard " + i + " has " + lines.size() + " entries", lines.size() <= maxURLs);
+        }
+        assertFalse(new File(outputDir, "sitemap" + (shards + 1) + ".xml.gz").exists());
+        return entries;
+    }
+
+    /**
+     * Generator whose Item entries contain the title of the Item, with a
+     * format allowing the given number of URLs per shard. Items listed in
+     * order are spread over the shards by their position instead of their
+     * hash, or all put into the first shard while there are less than four
+     * shards if uneven is set.
+     */
+    private class TestGenerator extends IncrementalSitemapGenerator {
+        private final List<UUID> order = new ArrayList<>();
+        private boolean uneven;
+        private boolean failing;
+
+        TestGenerator(File dir, int maxURLs, int shardSize) {
+            super(dir, new SitemapsOrgGenerator(dir, UI_URL + "/sitemap", ".xml.gz") {
+                @Override
+                public int getMaxURLs() {
+                    return maxURLs;
+                }
+            }, shardSize);
+        }
+
+        @Override
+        protected String getURLText(Context c, Item item, String uiURLStem) throws IOException {
+            if (failing) {
+                throw new IOException("Solr is not available");
+            }
+            String title = itemService.getMetadataFirstValue(item, "dc", "title", null, Item.ANY);
+            return format.getURLText(uiURLStem + "/items/" + item.getID() + "?title=" + title,
+                                     item.getLastModified());
+        }
+
+        @Override
+        protected int getShard(UUID id, int shards) {
+            int position = order.indexOf(id);
+            if (position < 0) {
+                return super.getShard(id, shards);
+            }
+            return uneven && shards < 4 ? 1 : position % shards + 1;
+        }
+    }
+}
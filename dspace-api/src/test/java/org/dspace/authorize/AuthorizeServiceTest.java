@@ -9,6 +9,8 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
@@ -127,6 +129,44 @@ public class AuthorizeServiceTest extends AbstractUnitTest {
             throw new AssertionError(ex);
         }
     }
+
+    @Test
+    public void testBulkPoliciesAreCopiedAndReplaced() throws Exception {
+        context.turnOffAuthorisationSystem();
+        try {
+            Group group = groupService.create(context);
+            groupService.setName(group, "My test group 3");
+            Community source = communityService.create(null, context);
+            authorizeService.addPolicy(context, source, Constants.READ, group);
+            List<Community> dests = Arrays.asList(communityService.create(null, context),
+                                                  communityService.create(null, context));
+            authorizeService.addPolicy(context, dests.get(0), Constants.WRITE, group);
+
+            // the copies are added next to the existing policies
+            authorizeService.addPolicies(context, authorizeService.getPolicies(context, source), dests);
+            Assert.assertEquals(2, authorizeService.getPolicies(context, dests.get(0)).size());
+            Assert.assertEquals(1, authorizeService.getPolicies(context, dests.get(1)).size());
+            Assert.assertTrue(authorizeService.isAnIdenticalPolicyAlreadyInPlace(context, dests.get(1), group,
+                                                                                  Constants.READ, -1));
+
+            // the copies replace all existing policies
+            authorizeService.replaceAllPolicies(context, dests, authorizeService.getPolicies(context, source));
+            for (Community dest : dests) {
+                List<ResourcePolicy> policies = authorizeService.getPolicies(context, dest);
+                Assert.assertEquals(1, policies.size());
+                Assert.assertEquals(Constants.READ, policies.get(0).getAction());
+            }
+
+            authorizeService.removeAllPolicies(context, dests);
+            for (Community dest : dests) {
+                Assert.assertTrue(authorizeService.getPolicies(context, dest).isEmpty());
+            }
+            // the source keeps its policy
+            Assert.assertEquals(1, authorizeService.getPolicies(context, source).size());
+        } finally {
+            context.restoreAuthSystemState();
+        }
+    }
 //
 //    @Test
 //    public void testIsCollectionAdmin() throws SQLException, AuthorizeException, IOException {
@@ -0,0 +1,131 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the parallel mode of the {@link CheckerCommand}.
+ */
+public class CheckerCommandIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int BITSTREAMS = 6;
+
+    private final MostRecentChecksumService checksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        for (int i = 0; i < BITSTREAMS; i++) {
+            try (InputStream is = new ByteArrayInputStream(("Bitstream " + i).getBytes(StandardCharsets.UTF_8))) {
+                bitstreams.add(BitstreamBuilder.createBitstream(context, item, is).withName("file" + i).build());
+            }
+        }
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("checker.batch.size", null);
+        super.destroy();
+    }
+
+    @Test
+    public void testParallelChecksAreRecorded() throws Exception {
+        Date start = new Date();
+        RecordingCollector collector = runChecker(start);
+
+        for (Bitstream bitstream : bitstreams) {
+            MostRecentChecksum info = checksumService.findByBitstream(context, context.reloadEntity(bitstream));
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, info.getChecksumResult().getResultCode());
+            assertEquals(info.getBitstream().getChecksum(), info.getCurrentChecksum());
+            assertFalse(info.getProcessStartDate().before(start));
+            assertEquals("Bitstream " + bitstream.getID() + " must be checked once",
+                         1, Collections.frequency(collector.checked, bitstream.getID()));
+        }
+    }
+
+    @Test
+    public void testEveryBitstreamIsCheckedOnceWithSmallBatches() throws Exception {
+        // every result is committed on its own, after the running checks are completed
+        configurationService.setProperty("checker.batch.size", 1);
+        Date start = new Date();
+        RecordingCollector collector = runChecker(start);
+
+        for (Bitstream bitstream : bitstreams) {
+            assertEquals("Bitstream " + bitstream.getID() + " must be checked once",
+                         1, Collections.frequency(collector.checked, bitstream.getID()));
+            MostRecentChecksum info = checksumService.findByBitstream(context, context.reloadEntity(bitstream));
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, info.getChecksumResult().getResultCode());
+        }
+    }
+
+    private RecordingCollector runChecker(Date start) throws Exception {
+        RecordingCollector collector = new RecordingCollector();
+        CheckerCommand checker = new CheckerCommand(context);
+        checker.setThreads(3);
+        checker.setThreadsPerStore(2);
+        checker.setReportVerbose(true);
+        checker.setProcessStartDate(start);
+        checker.setCollector(collector);
+        checker.setDispatcher(new SimpleDispatcher(context, start, false));
+        checker.process();
+        return collector;
+    }
+
+    /**
+     * Collector recording the IDs of the checked bitstreams.
+     */
+    private static class RecordingCollector implements ChecksumResultsCollector {
+        private final List<UUID> checked = new ArrayList<>();
+
+        @Override
+        public void collect(Context context, MostRecentChecksum info) {
+            checked.add(info.getBitstream().getID());
+        }
+    }
+}
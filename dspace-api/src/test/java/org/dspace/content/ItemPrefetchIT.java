@@ -0,0 +1,174 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of {@link ItemService#prefetch(org.dspace.core.Context, List, boolean)}
+ */
+public class ItemPrefetchIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private List<Item> items;
+
+    private Statistics statistics;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection 1").build();
+        items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = ItemBuilder.createItem(context, collection)
+                                   .withTitle("Item " + i)
+                                   .withAuthor("Smith, Donald")
+                                   .build();
+            try (InputStream is = IOUtils.toInputStream("content " + i, CharEncoding.UTF_8)) {
+                BitstreamBuilder.createBitstream(context, item, is)
+                                .withName("file" + i + ".txt")
+                                .withMimeType("text/plain")
+                                .build();
+            }
+            items.add(item);
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // start from items whose metadata, bundles and bitstreams have not been loaded yet
+        for (int i = 0; i < items.size(); i++) {
+            context.uncacheEntity(items.get(i));
+            items.set(i, context.reloadEntity(items.get(i)));
+        }
+
+        SessionFactory sessionFactory = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                             .getServiceByName("sessionFactory", SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        statistics.setStatisticsEnabled(false);
+        super.destroy();
+    }
+
+    @Test
+    public void prefetchLoadsEverythingAtOnce() throws Exception {
+        assertFalse(Hibernate.isInitialized(items.get(0).getMetadata()));
+        assertFalse(Hibernate.isInitialized(items.get(0).getBundles()));
+
+        // warm up, e.g. the bitstream format is loaded only once
+        itemService.prefetch(context, items.subList(0, 1), true);
+
+        statistics.clear();
+        itemService.prefetch(context, items.subList(1, 2), true);
+        long oneItem = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        itemService.prefetch(context, items.subList(2, 5), true);
+        long threeItems = statistics.getPrepareStatementCount();
+
+        // the number of queries does not depend on the number of items
+        assertTrue(oneItem > 0);
+        assertEquals(oneItem, threeItems);
+
+        // nothing is loaded afterwards
+        statistics.clear();
+        for (Item item : items) {
+            assertEquals(2, item.getMetadata().stream()
+                                .filter(value -> value.getMetadataField().getMetadataSchema().getName().equals("dc"))
+                                .filter(value -> value.getValue().startsWith("Item ")
+                                    || value.getValue().equals("Smith, Donald"))
+                                .count());
+            for (Bundle bundle : item.getBundles()) {
+                bundle.getName();
+                for (Bitstream bitstream : bundle.getBitstreams()) {
+                    assertTrue(bitstream.getName().startsWith("file"));
+                    assertEquals("text/plain", bitstream.getFormat(context).getMIMEType());
+                }
+            }
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void prefetchIterator() throws Exception {
+        statistics.clear();
+        Iterator<Item> prefetched = itemService.prefetch(context, items.iterator(), false);
+        // nothing is loaded before the iteration starts
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        List<Item> found = new ArrayList<>();
+        while (prefetched.hasNext()) {
+            Item item = prefetched.next();
+            assertTrue(Hibernate.isInitialized(item.getMetadata()));
+            found.add(item);
+        }
+        assertEquals(items, found);
+    }
+
+    @Test
+    public void findAllUnfilteredPrefetchesEachPage() throws Exception {
+        // pages which are not a multiple of any batch size; a READ_ONLY context uncaches every page
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("db.iterator.pagesize", 3);
+        context.setMode(Context.Mode.READ_ONLY);
+        try {
+            List<Item> found = new ArrayList<>();
+            Iterator<Item> all = itemService.findAllUnfiltered(context, true);
+            while (all.hasNext()) {
+                Item item = all.next();
+                assertTrue(Hibernate.isInitialized(item.getMetadata()));
+                assertTrue(Hibernate.isInitialized(item.getBundles()));
+                for (Bundle bundle : item.getBundles()) {
+                    // a detached item would fail here
+                    for (Bitstream bitstream : bundle.getBitstreams()) {
+                        assertTrue(bitstream.getName().startsWith("file"));
+                    }
+                }
+                found.add(item);
+            }
+            assertEquals(items.size(), found.size());
+        } finally {
+            DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("db.iterator.pagesize", null);
+            context.setMode(Context.Mode.READ_WRITE);
+        }
+    }
+}
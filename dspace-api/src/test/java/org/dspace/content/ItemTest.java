@@ -47,6 +47,8 @@ import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
+import org.dspace.services.ConfigurationService;
+import org.dspace.utils.DSpace;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -214,6 +216,46 @@ public class ItemTest extends AbstractDSpaceObjectTest {
         assertTrue("testFindAll 1", added);
     }
 
+    /**
+     * Test of findAll method, of class Item, when the items are loaded in several pages.
+     */
+    @Test
+    public void testFindAllByPage() throws Exception {
+        context.turnOffAuthorisationSystem();
+        WorkspaceItem workspaceItem = workspaceItemService.create(context, collection, false);
+        Item second = installItemService.installItem(context, workspaceItem);
+        context.restoreAuthSystemState();
+
+        final ConfigurationService configurationService = new DSpace().getConfigurationService();
+        configurationService.setProperty("db.iterator.pagesize", 1);
+        try {
+            List<Item> found = new ArrayList<>();
+            Iterator<Item> all = itemService.findAll(context);
+            while (all.hasNext()) {
+                found.add(all.next());
+            }
+            assertTrue("testFindAllByPage 0", found.contains(it));
+            assertTrue("testFindAllByPage 1", found.contains(second));
+            assertEquals("testFindAllByPage 2", found.size(), found.stream().distinct().count());
+        } finally {
+            configurationService.setProperty("db.iterator.pagesize", null);
+        }
+    }
+
+    /**
+     * Test of findByIds method, of class Item.
+     */
+    @Test
+    public void testFindByIds() throws Exception {
+        Iterator<Item> found = itemService.findByIds(context, Arrays.asList(it.getID(), UUID.randomUUID()));
+        assertThat("testFindByIds 0", found, notNullValue());
+        assertTrue("testFindByIds 1", found.hasNext());
+        assertThat("testFindByIds 2", found.next(), equalTo(it));
+        assertFalse("testFindByIds 3", found.hasNext());
+
+        assertFalse("testFindByIds 4", itemService.findByIds(context, new ArrayList<>()).hasNext());
+    }
+
     /**
      * Test of findBySubmitter method, of class Item.
      */
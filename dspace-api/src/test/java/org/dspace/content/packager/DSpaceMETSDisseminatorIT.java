@@ -0,0 +1,134 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.packager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.factory.CoreServiceFactory;
+import org.jdom2.Element;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the dissemination of an Item as a METS package, with
+ * the bitstream sections of the manifest streamed while it is written.
+ */
+public class DSpaceMETSDisseminatorIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int BITSTREAMS = 3;
+
+    private final PackageDisseminator disseminator = (PackageDisseminator) CoreServiceFactory.getInstance()
+        .getPluginService().getNamedPlugin(PackageDisseminator.class, "METS");
+
+    private Item item;
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+    private File workDir;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        for (int i = 0; i < BITSTREAMS; i++) {
+            try (InputStream is = new ByteArrayInputStream(("Bitstream " + i).getBytes(StandardCharsets.UTF_8))) {
+                bitstreams.add(BitstreamBuilder.createBitstream(context, item, is).withName("file" + i + ".txt")
+                                               .withMimeType("text/plain").build());
+            }
+        }
+        Bundle bundle = bitstreams.get(0).getBundles().get(0);
+        bundle.setPrimaryBitstreamID(bitstreams.get(1));
+        context.restoreAuthSystemState();
+        workDir = Files.createTempDirectory("metsdisseminator").toFile();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(workDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testDisseminateStreamed() throws Exception {
+        assertNotNull("Could not find a disseminator for type 'METS'", disseminator);
+        PackageParameters params = new PackageParameters();
+        params.addProperty("streaming", "true");
+        File pkgFile = new File(workDir, "streamed.zip");
+
+        context.turnOffAuthorisationSystem();
+        disseminator.disseminate(context, item, params, pkgFile);
+        context.restoreAuthSystemState();
+
+        try (ZipFile zip = new ZipFile(pkgFile)) {
+            ZipEntry manifestEntry = zip.getEntry(METSManifest.MANIFEST_FILE);
+            assertNotNull("The package must contain a manifest", manifestEntry);
+            METSManifest manifest;
+            try (InputStream in = zip.getInputStream(manifestEntry)) {
+                manifest = METSManifest.create(in, false, null);
+            }
+
+            Map<String, Element> files = new HashMap<>();
+            for (Element file : manifest.getContentFiles()) {
+                files.put(file.getAttributeValue("ID"), file);
+            }
+            assertEquals(BITSTREAMS, files.size());
+
+            for (int i = 0; i < BITSTREAMS; i++) {
+                Bitstream bitstream = bitstreams.get(i);
+                Element file = files.get("bitstream_" + bitstream.getSequenceID());
+                assertNotNull("The manifest must list bitstream " + i, file);
+                assertEquals("ORIGINAL", METSManifest.getBundleName(file));
+                assertEquals(bitstream.getChecksum(), file.getAttributeValue("CHECKSUM"));
+                assertEquals(String.valueOf(bitstream.getSizeBytes()), file.getAttributeValue("SIZE"));
+                // the technical metadata of the bitstream is streamed as well
+                assertNotNull(file.getAttributeValue("ADMID"));
+
+                ZipEntry entry = zip.getEntry(METSManifest.getFileName(file));
+                assertNotNull("The package must contain bitstream " + i, entry);
+                try (InputStream in = zip.getInputStream(entry)) {
+                    assertEquals("Bitstream " + i, IOUtils.toString(in, StandardCharsets.UTF_8));
+                }
+            }
+
+            Element primary = manifest.getPrimaryOrLogoBitstream();
+            assertNotNull("The manifest must point to the primary bitstream", primary);
+            assertEquals("bitstream_" + bitstreams.get(1).getSequenceID(), primary.getAttributeValue("ID"));
+            // one <div> per bitstream in the structMap of the Item
+            assertEquals(BITSTREAMS, manifest.getObjStructDiv().getChildren("div", METSManifest.metsNS).size());
+        }
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.dspace.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -114,9 +115,54 @@ public class ContextReadOnlyCacheTest {
         assertNull(readOnlyCache.getCachedGroupMembership(group1, ePerson));
     }
 
+    @Test
+    public void clearAuthorizationResults() throws Exception {
+        Item item1 = Mockito.mock(Item.class);
+        when(item1.getID()).thenReturn(UUID.randomUUID());
+        Item item2 = Mockito.mock(Item.class);
+        when(item2.getID()).thenReturn(UUID.randomUUID());
+        Group group1 = buildGroupMock("Test Group 1");
+
+        readOnlyCache.cacheAuthorizedAction(item1, Constants.READ, ePerson, true);
+        readOnlyCache.cacheAuthorizedAction(item1, Constants.WRITE, null, false);
+        readOnlyCache.cacheAuthorizedAction(item2, Constants.READ, ePerson, true);
+        readOnlyCache.cacheGroupMembership(group1, ePerson, true);
+
+        //only the results of the first item are forgotten
+        readOnlyCache.clearAuthorizationResults(item1);
+        assertNull(readOnlyCache.getCachedAuthorizationResult(item1, Constants.READ, ePerson));
+        assertNull(readOnlyCache.getCachedAuthorizationResult(item1, Constants.WRITE, null));
+        assertTrue(readOnlyCache.getCachedAuthorizationResult(item2, Constants.READ, ePerson));
+        assertTrue(readOnlyCache.getCachedGroupMembership(group1, ePerson));
+
+        //a change of group memberships also affects the authorization results
+        readOnlyCache.clearGroupMemberships();
+        assertNull(readOnlyCache.getCachedAuthorizationResult(item2, Constants.READ, ePerson));
+        assertNull(readOnlyCache.getCachedGroupMembership(group1, ePerson));
+    }
+
+    @Test
+    public void hitsAndMisses() throws Exception {
+        Item item = Mockito.mock(Item.class);
+        when(item.getID()).thenReturn(UUID.randomUUID());
+        Group group1 = buildGroupMock("Test Group 1");
+
+        readOnlyCache.getCachedAuthorizationResult(item, Constants.READ, ePerson);
+        readOnlyCache.cacheAuthorizedAction(item, Constants.READ, ePerson, false);
+        readOnlyCache.getCachedAuthorizationResult(item, Constants.READ, ePerson);
+        readOnlyCache.getCachedAuthorizationResult(item, Constants.READ, ePerson);
+        readOnlyCache.getCachedGroupMembership(group1, ePerson);
+
+        assertEquals(2, readOnlyCache.getAuthorizationHits());
+        assertEquals(1, readOnlyCache.getAuthorizationMisses());
+        assertEquals(0, readOnlyCache.getGroupMembershipHits());
+        assertEquals(1, readOnlyCache.getGroupMembershipMisses());
+    }
+
     private Group buildGroupMock(final String name) {
         Group group = Mockito.mock(Group.class);
-        when(group.getName()).thenReturn(name);
+        Mockito.lenient().when(group.getID()).thenReturn(UUID.randomUUID());
+        Mockito.lenient().when(group.getName()).thenReturn(name);
         return group;
     }
 
@@ -17,7 +17,9 @@ import java.sql.SQLException;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.eperson.EPerson;
+import org.dspace.storage.rdbms.ReplicaRoutingDataSource;
 import org.dspace.utils.DSpace;
+import org.hibernate.CacheMode;
 import org.hibernate.Session;
 import org.junit.Before;
 import org.junit.Test;
@@ -226,4 +228,40 @@ public class HibernateDBConnectionTest extends AbstractUnitTest {
         assertTrue("Current user should be cached back in session", dbConnection.getSession()
                                                                                 .contains(person));
     }
+
+    /**
+     * Test of setConnectionMode method, leaving a read-only transaction on the replica
+     */
+    @Test
+    public void testLeavingReadOnlyModeEndsReplicaTransaction() throws SQLException {
+        ReplicaRoutingDataSource routingDataSource = new DSpace().getServiceManager()
+            .getServiceByName("routingDataSource", ReplicaRoutingDataSource.class);
+        HibernateDBConnection dbConnection = (HibernateDBConnection) context.getDBConnection();
+        // the replica is a read-only pool of the test database itself
+        routingDataSource.setReplicaEnabled(true);
+        routingDataSource.setReadYourWrites(-1L);
+        routingDataSource.afterPropertiesSet();
+        try {
+            context.commit();
+            context.setMode(Context.Mode.READ_ONLY);
+            assertEquals("Read-only transactions should not fill the second level cache", CacheMode.GET,
+                         dbConnection.getSession().getCacheMode());
+            assertTrue("Read-only transaction should be begun on the replica",
+                       ReplicaRoutingDataSource.isUsingReplica());
+
+            context.setMode(Context.Mode.READ_WRITE);
+            assertTrue("A transaction should be open after the mode changed", dbConnection.isTransActionAlive());
+            assertFalse("Read-write transaction should be begun on the primary database",
+                        ReplicaRoutingDataSource.isUsingReplica());
+            assertEquals("Read-write transactions should use the second level cache", CacheMode.NORMAL,
+                         dbConnection.getSession().getCacheMode());
+            assertTrue("Current user should be cached back in session",
+                       dbConnection.getSession().contains(context.getCurrentUser()));
+        } finally {
+            routingDataSource.setReplicaEnabled(false);
+            routingDataSource.setReadYourWrites(10000L);
+            routingDataSource.afterPropertiesSet();
+            context.setMode(Context.Mode.READ_WRITE);
+        }
+    }
 }
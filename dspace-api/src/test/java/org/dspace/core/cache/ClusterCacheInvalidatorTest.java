@@ -0,0 +1,79 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.dspace.AbstractUnitTest;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ClusterCacheInvalidator} and {@link DatabaseCacheInvalidationChannel}, with two channels
+ * standing in for two nodes.
+ */
+public class ClusterCacheInvalidatorTest extends AbstractUnitTest {
+
+    private final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+
+    private final DatabaseCacheInvalidationChannel first = new DatabaseCacheInvalidationChannel();
+    private final DatabaseCacheInvalidationChannel second = new DatabaseCacheInvalidationChannel();
+
+    private SessionFactoryImplementor sessionFactory;
+
+    @Before
+    public void initChannels() throws Exception {
+        sessionFactory = DSpaceServicesFactory.getInstance().getServiceManager()
+                                              .getServiceByName("sessionFactory", SessionFactory.class)
+                                              .unwrap(SessionFactoryImplementor.class);
+        // the first poll only finds the current end of the table
+        assertTrue(first.receive().isEmpty());
+        assertTrue(second.receive().isEmpty());
+    }
+
+    @Test
+    public void testChannelDeliversToOtherNodes() throws Exception {
+        CacheInvalidation invalidation = new CacheInvalidation(EPerson.class.getName(), eperson.getID().toString());
+        first.publish(List.of(invalidation));
+
+        assertTrue(first.receive().isEmpty());
+        assertEquals(List.of(invalidation), second.receive());
+        // rows within the lookback window are not delivered twice
+        assertTrue(second.receive().isEmpty());
+    }
+
+    @Test
+    public void testEvictRemoteChanges() throws Exception {
+        context.commit();
+        context.uncacheEntity(eperson);
+        eperson = ePersonService.find(context, eperson.getID());
+        assertTrue(sessionFactory.getCache().containsEntity(EPerson.class, eperson.getID()));
+
+        // the first node changes the eperson
+        ClusterCacheInvalidator firstNode = new ClusterCacheInvalidator(sessionFactory, first);
+        firstNode.queue(sessionFactory.getMetamodel().entityPersister(EPerson.class), eperson.getID());
+        firstNode.synchronize();
+        // a node does not evict its own changes a second time
+        assertTrue(sessionFactory.getCache().containsEntity(EPerson.class, eperson.getID()));
+
+        // the second node evicts it
+        ClusterCacheInvalidator secondNode = new ClusterCacheInvalidator(sessionFactory, second);
+        secondNode.synchronize();
+        assertFalse(sessionFactory.getCache().containsEntity(EPerson.class, eperson.getID()));
+    }
+}
@@ -8,20 +8,41 @@
 package org.dspace.curate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.dspace.AbstractUnitTest;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
+import org.dspace.content.WorkspaceItem;
 import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
+import org.dspace.content.service.InstallItemService;
+import org.dspace.content.service.ItemService;
 import org.dspace.content.service.SiteService;
+import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.core.factory.CoreServiceFactory;
 import org.dspace.ctask.general.NoOpCurationTask;
 import org.dspace.services.ConfigurationService;
+import org.junit.After;
 import org.junit.Test;
 
 /**
@@ -46,6 +67,50 @@ public class CuratorTest extends AbstractUnitTest {
      */
     static String taskProperty;
 
+    /**
+     * Items curated by the concurrent test tasks, in the order they were done.
+     */
+    static final Queue<UUID> curated = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Transaction scopes of the Curators of the concurrent test tasks.
+     */
+    static final Set<Curator.TxScope> txScopes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of performances of the concurrent test tasks which were interrupted.
+     */
+    static final AtomicInteger interrupted = new AtomicInteger();
+
+    /**
+     * Item the concurrent test tasks fail on, if any.
+     */
+    static volatile UUID failingItem;
+
+    private Community community;
+
+    @After
+    @Override
+    public void destroy() {
+        curated.clear();
+        txScopes.clear();
+        interrupted.set(0);
+        failingItem = null;
+        if (community != null) {
+            try {
+                context.turnOffAuthorisationSystem();
+                CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+                communityService.delete(context, context.reloadEntity(community));
+                context.commit();
+                context.restoreAuthSystemState();
+            } catch (Exception e) {
+                throw new AssertionError("Unable to delete the test community", e);
+            }
+            community = null;
+        }
+        super.destroy();
+    }
+
     /**
      * Test of curate method, of class Curator.
      * Currently this just tests task properties and run parameters.
@@ -116,4 +181,116 @@ public class CuratorTest extends AbstractUnitTest {
         assertEquals(Curator.CURATE_SUCCESS, curator.getStatus(TASK_NAME));
         assertEquals("No operation performed on testHandle", reporterOutput.toString());
     }
+
+    @Test
+    public void testCurate_ConcurrentItems() throws Exception {
+        CoreServiceFactory.getInstance().getPluginService().clearNamedPluginClasses();
+
+        final String TASK_NAME = "concurrentTask";
+        ConfigurationService cfg = kernelImpl.getConfigurationService();
+        cfg.setProperty("plugin.named.org.dspace.curate.CurationTask",
+            ConcurrentTask.class.getName() + " = " + TASK_NAME);
+
+        Collection collection = createCollection(8);
+
+        Curator curator = new Curator();
+        StringBuilder reporterOutput = new StringBuilder();
+        curator.setReporter(reporterOutput);
+        curator.setTransactionScope(Curator.TxScope.OBJECT);
+        curator.setThreads(3);
+        curator.addTask(TASK_NAME);
+        curator.curate(context, collection);
+
+        // the reports are applied in the order of the Items
+        List<UUID> expected = new ArrayList<>();
+        StringBuilder expectedReport = new StringBuilder();
+        ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+        Iterator<Item> items = itemService.findByCollection(context, context.reloadEntity(collection));
+        while (items.hasNext()) {
+            UUID id = items.next().getID();
+            expected.add(id);
+            expectedReport.append("Curated ").append(id).append('\n');
+        }
+        assertEquals(Curator.CURATE_SUCCESS, curator.getStatus(TASK_NAME));
+        assertEquals(8, curated.size());
+        assertTrue("All Items should be curated", curated.containsAll(expected));
+        assertEquals(expectedReport.toString(), reporterOutput.toString());
+        assertEquals("The workers should use the transaction scope of the curator",
+                     Collections.singleton(Curator.TxScope.OBJECT), txScopes);
+    }
+
+    @Test
+    public void testCurate_ConcurrentItemsSuspended() throws Exception {
+        CoreServiceFactory.getInstance().getPluginService().clearNamedPluginClasses();
+
+        final String TASK_NAME = "suspendableTask";
+        ConfigurationService cfg = kernelImpl.getConfigurationService();
+        cfg.setProperty("plugin.named.org.dspace.curate.CurationTask",
+            SuspendableTask.class.getName() + " = " + TASK_NAME);
+
+        Collection collection = createCollection(12);
+        ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+        failingItem = itemService.findByCollection(context, context.reloadEntity(collection)).next().getID();
+
+        Curator curator = new Curator();
+        curator.setReporter(new StringBuilder());
+        curator.setThreads(2);
+        curator.addTask(TASK_NAME);
+        curator.curate(context, collection);
+
+        assertEquals(Curator.CURATE_FAIL, curator.getStatus(TASK_NAME));
+        assertTrue("The curation should be suspended", curated.size() < 12);
+        assertTrue("The failing Item should be curated", curated.contains(failingItem));
+        assertEquals("Items handed to the workers should not be interrupted", 0, interrupted.get());
+    }
+
+    /**
+     * Create a Collection with a number of Items and commit them, so that the
+     * worker threads find them.
+     */
+    private Collection createCollection(int itemCount) throws Exception {
+        CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+        CollectionService collectionService = ContentServiceFactory.getInstance().getCollectionService();
+        WorkspaceItemService workspaceItemService = ContentServiceFactory.getInstance().getWorkspaceItemService();
+        InstallItemService installItemService = ContentServiceFactory.getInstance().getInstallItemService();
+
+        context.turnOffAuthorisationSystem();
+        community = communityService.create(null, context);
+        Collection collection = collectionService.create(context, community);
+        for (int i = 0; i < itemCount; i++) {
+            WorkspaceItem workspaceItem = workspaceItemService.create(context, collection, false);
+            installItemService.installItem(context, workspaceItem);
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+        return context.reloadEntity(collection);
+    }
+
+    /**
+     * Records the Items it is performed on, taking a little time for each,
+     * and fails on {@link #failingItem}.
+     */
+    public static class ConcurrentTask extends AbstractCurationTask {
+        @Override
+        public int perform(DSpaceObject dso) throws IOException {
+            txScopes.add(curator.txScope);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                Thread.currentThread().interrupt();
+                return Curator.CURATE_ERROR;
+            }
+            curated.add(dso.getID());
+            report("Curated " + dso.getID() + "\n");
+            return dso.getID().equals(failingItem) ? Curator.CURATE_FAIL : Curator.CURATE_SUCCESS;
+        }
+    }
+
+    /**
+     * Suspends the curation when it fails.
+     */
+    @Suspendable(statusCodes = {Curator.CURATE_FAIL})
+    public static class SuspendableTask extends ConcurrentTask {
+    }
 }
@@ -0,0 +1,97 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.dspace.AbstractUnitTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DatabaseTaskQueue}.
+ */
+public class DatabaseTaskQueueTest extends AbstractUnitTest {
+
+    private static final String QUEUE = "testqueue";
+
+    private final DatabaseTaskQueue first = new DatabaseTaskQueue();
+    private final DatabaseTaskQueue second = new DatabaseTaskQueue();
+
+    @After
+    public void drainQueue() throws Exception {
+        // also take over the entries still claimed by a test
+        first.claimTimeout = -1000L;
+        while (!first.dequeue(QUEUE, 0L).isEmpty()) {
+            first.release(QUEUE, 0L, true);
+        }
+        first.release(QUEUE, 0L, true);
+    }
+
+    @Test
+    public void testReadersClaimDisjointEntries() throws Exception {
+        first.batchSize = 2;
+        second.batchSize = 2;
+        first.enqueue(QUEUE, entries("123456789/1", "123456789/2", "123456789/3"));
+        assertEquals(3, first.size(QUEUE));
+        assertTrue(Arrays.asList(first.queueNames()).contains(QUEUE));
+
+        List<String> claimedByFirst = objectIds(first.dequeue(QUEUE, 1L));
+        List<String> claimedBySecond = objectIds(second.dequeue(QUEUE, 1L));
+        assertEquals(Arrays.asList("123456789/1", "123456789/2"), claimedByFirst);
+        assertEquals(Arrays.asList("123456789/3"), claimedBySecond);
+
+        first.release(QUEUE, 1L, true);
+        assertEquals(1, first.size(QUEUE));
+        second.release(QUEUE, 1L, true);
+        assertEquals(0, first.size(QUEUE));
+    }
+
+    @Test
+    public void testReleaseWithoutRemovingEntries() throws Exception {
+        first.enqueue(QUEUE, entries("123456789/4"));
+        assertEquals(1, first.dequeue(QUEUE, 2L).size());
+        assertTrue(second.dequeue(QUEUE, 2L).isEmpty());
+        second.release(QUEUE, 2L, true);
+
+        first.release(QUEUE, 2L, false);
+        assertEquals(Arrays.asList("123456789/4"), objectIds(second.dequeue(QUEUE, 3L)));
+    }
+
+    @Test
+    public void testExpiredClaimsAreHandedOutAgain() throws Exception {
+        first.enqueue(QUEUE, entries("123456789/5"));
+        assertEquals(1, first.dequeue(QUEUE, 4L).size());
+
+        second.claimTimeout = -1000L;
+        assertEquals(Arrays.asList("123456789/5"), objectIds(second.dequeue(QUEUE, 4L)));
+    }
+
+    private Set<TaskQueueEntry> entries(String... objectIds) {
+        Set<TaskQueueEntry> entries = new LinkedHashSet<>();
+        for (String objectId : objectIds) {
+            entries.add(new TaskQueueEntry("admin", System.currentTimeMillis(), Arrays.asList("noop"), objectId));
+        }
+        return entries;
+    }
+
+    private List<String> objectIds(Set<TaskQueueEntry> entries) {
+        List<String> objectIds = new ArrayList<>();
+        for (TaskQueueEntry entry : entries) {
+            objectIds.add(entry.getObjectId());
+        }
+        return objectIds;
+    }
+}
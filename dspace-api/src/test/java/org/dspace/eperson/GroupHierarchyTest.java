@@ -0,0 +1,91 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the group hierarchy snapshot
+ */
+public class GroupHierarchyTest {
+
+    private final UUID top = UUID.randomUUID();
+    private final UUID level1 = UUID.randomUUID();
+    private final UUID level2 = UUID.randomUUID();
+    private final UUID otherLevel1 = UUID.randomUUID();
+    private final UUID unrelated = UUID.randomUUID();
+
+    private GroupHierarchy hierarchy;
+
+    @Before
+    public void init() {
+        List<Pair<UUID, UUID>> relations = Arrays.asList(new ImmutablePair<>(top, level1),
+                                                         new ImmutablePair<>(level1, level2),
+                                                         new ImmutablePair<>(top, otherLevel1),
+                                                         new ImmutablePair<>(otherLevel1, level2));
+        hierarchy = new GroupHierarchy(3L, relations);
+    }
+
+    @Test
+    public void isAncestor() {
+        assertTrue(hierarchy.isAncestor(top, level1));
+        assertTrue(hierarchy.isAncestor(top, level2));
+        assertTrue(hierarchy.isAncestor(otherLevel1, level2));
+
+        assertFalse(hierarchy.isAncestor(level2, top));
+        assertFalse(hierarchy.isAncestor(level1, otherLevel1));
+        assertFalse(hierarchy.isAncestor(top, top));
+        assertFalse(hierarchy.isAncestor(top, unrelated));
+        assertFalse(hierarchy.isAncestor(unrelated, level1));
+    }
+
+    @Test
+    public void containsAny() {
+        assertTrue(hierarchy.containsAny(top, Collections.singletonList(level2)));
+        assertTrue(hierarchy.containsAny(unrelated, Arrays.asList(level1, unrelated)));
+        assertFalse(hierarchy.containsAny(level1, Arrays.asList(top, otherLevel1, unrelated)));
+        assertFalse(hierarchy.containsAny(unrelated, Collections.emptyList()));
+    }
+
+    @Test
+    public void getAncestors() {
+        Set<UUID> ancestors = hierarchy.getAncestors(Arrays.asList(level2, unrelated));
+        assertEquals(Set.of(top, level1, otherLevel1), ancestors);
+        assertEquals(Set.of(top), hierarchy.getAncestors(Collections.singletonList(level1)));
+        assertTrue(hierarchy.getAncestors(Collections.singletonList(top)).isEmpty());
+    }
+
+    @Test
+    public void cycles() {
+        GroupHierarchy cyclic = new GroupHierarchy(1L, Arrays.asList(new ImmutablePair<>(top, level1),
+                                                                     new ImmutablePair<>(level1, top)));
+        assertTrue(cyclic.isAncestor(top, level1));
+        assertTrue(cyclic.isAncestor(level1, top));
+        assertTrue(cyclic.isAncestor(top, top));
+        assertEquals(Set.of(top, level1), cyclic.getAncestors(Collections.singletonList(top)));
+    }
+
+    @Test
+    public void versionAndSize() {
+        assertEquals(3L, hierarchy.getVersion());
+        assertEquals(4, hierarchy.size());
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.AbstractUnitTest;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the group membership checks using the snapshot of the group hierarchy with the checks using the
+ * group2groupcache table, for an eperson which is curator of many collections.
+ */
+public class GroupPerformanceTest extends AbstractUnitTest {
+
+    private static final Logger log = LogManager.getLogger(GroupPerformanceTest.class);
+
+    private static final int COLLECTIONS = 200;
+
+    private final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+    private final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private final List<Group> groups = new ArrayList<>();
+    private EPerson curator;
+
+    @Before
+    @Override
+    public void init() {
+        super.init();
+        try {
+            context.turnOffAuthorisationSystem();
+            curator = ePersonService.create(context);
+            curator.setEmail("curator@example.com");
+            ePersonService.update(context, curator);
+
+            // every collection has an administrator group containing a shared curators group
+            Group curators = createGroup("curators");
+            groupService.addMember(context, curators, curator);
+            for (int i = 0; i < COLLECTIONS; i++) {
+                Group collectionAdmins = createGroup("COLLECTION_" + i + "_ADMIN");
+                groupService.addMember(context, collectionAdmins, curators);
+                groupService.update(context, collectionAdmins);
+            }
+            groupService.update(context, curators);
+            context.restoreAuthSystemState();
+            context.commit();
+        } catch (Exception e) {
+            throw new AssertionError("Error in init: " + e.getMessage(), e);
+        }
+    }
+
+    @After
+    @Override
+    public void destroy() {
+        try {
+            configurationService.setProperty("groups.hierarchy.snapshot.enabled", null);
+            context.turnOffAuthorisationSystem();
+            for (Group group : groups) {
+                groupService.delete(context, context.reloadEntity(group));
+            }
+            ePersonService.delete(context, context.reloadEntity(curator));
+            context.restoreAuthSystemState();
+            context.commit();
+        } catch (Exception e) {
+            throw new AssertionError("Error in destroy: " + e.getMessage(), e);
+        }
+        super.destroy();
+    }
+
+    @Test
+    public void testSnapshotMatchesDatabase() throws Exception {
+        curator = context.reloadEntity(curator);
+
+        configurationService.setProperty("groups.hierarchy.snapshot.enabled", false);
+        Set<Group> fromDatabase = groupService.allMemberGroupsSet(context, curator);
+        context.clearCachedGroupMemberships();
+
+        configurationService.setProperty("groups.hierarchy.snapshot.enabled", true);
+        Set<Group> fromSnapshot = groupService.allMemberGroupsSet(context, curator);
+
+        // the curators group, the anonymous group and the groups of the collections
+        assertEquals(COLLECTIONS + 2, fromSnapshot.size());
+        assertEquals(fromDatabase, fromSnapshot);
+    }
+
+    @Test
+    public void testManyMembershipChecks() throws Exception {
+        curator = context.reloadEntity(curator);
+
+        configurationService.setProperty("groups.hierarchy.snapshot.enabled", false);
+        long databaseDuration = checkMemberships();
+
+        configurationService.setProperty("groups.hierarchy.snapshot.enabled", true);
+        // build the snapshot before measuring
+        groupService.isMember(context, curator, groups.get(1));
+        long snapshotDuration = checkMemberships();
+
+        log.info("Membership checks took {} ms using the group2groupcache table and {} ms using the snapshot",
+                 databaseDuration, snapshotDuration);
+    }
+
+    private long checkMemberships() throws Exception {
+        long startTime = System.currentTimeMillis();
+        for (int round = 0; round < 10; round++) {
+            // every round starts with an empty cache, like a new request
+            context.clearCachedGroupMemberships();
+            for (Group group : groups) {
+                assertTrue(groupService.isMember(context, curator, group));
+            }
+            assertEquals(COLLECTIONS + 2, groupService.allMemberGroupsSet(context, curator).size());
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    private Group createGroup(String name) throws Exception {
+        Group group = groupService.create(context);
+        group.setName(name);
+        groupService.update(context, group);
+        groups.add(group);
+        return group;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the {@link RDFConversionPipeline}. The conversion of the
+ * Items themselves is replaced by empty models, and the RDFizer runs as dry
+ * run, so no triplestore is needed.
+ */
+public class RDFConversionPipelineIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int ITEMS = 5;
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private Collection collection;
+    private final Set<UUID> itemIds = new HashSet<>();
+    private Path checkpoint;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection").build();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(ItemBuilder.createItem(context, collection).withTitle("Item " + i).build().getID());
+        }
+        context.restoreAuthSystemState();
+        // the workers read the Items with Contexts of their own
+        context.commit();
+
+        configurationService.setProperty("rdf.storage.batch.size", 2);
+        checkpoint = Files.createTempFile("rdf-checkpoint", ".txt");
+        Files.delete(checkpoint);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("rdf.storage.batch.size", null);
+        Files.deleteIfExists(checkpoint);
+        super.destroy();
+    }
+
+    @Test
+    public void testItemsAreConvertedOnWorkers() throws Exception {
+        RecordingPipeline pipeline = new RecordingPipeline(newRDFizer(), context, 2, null, false);
+        pipeline.submit(context, collection.getID(), itemService.findByCollection(context, collection));
+        pipeline.finish();
+
+        assertEquals(itemIds, pipeline.convertedIds);
+        assertEquals(ITEMS, pipeline.convertedItems.get());
+        assertFalse("No Item must be converted on the main thread",
+                    pipeline.threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testCompletedCollectionsAreSkippedOnResume() throws Exception {
+        RecordingPipeline pipeline = new RecordingPipeline(newRDFizer(), context, 2, checkpoint, false);
+        pipeline.submit(context, collection.getID(), itemService.findByCollection(context, collection));
+        pipeline.finish();
+        List<String> recorded = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        assertEquals(Collections.singletonList(collection.getID().toString()), recorded);
+
+        RecordingPipeline resumed = new RecordingPipeline(newRDFizer(), context, 2, checkpoint, false);
+        assertTrue(resumed.isCompleted(collection.getID()));
+        resumed.finish();
+    }
+
+    @Test
+    public void testFailedCollectionsAreNotRecorded() throws Exception {
+        RecordingPipeline pipeline = new RecordingPipeline(newRDFizer(), context, 2, checkpoint, true);
+        pipeline.submit(context, collection.getID(), itemService.findByCollection(context, collection));
+        pipeline.finish();
+
+        assertTrue(!Files.exists(checkpoint) || Files.readAllLines(checkpoint, StandardCharsets.UTF_8).isEmpty());
+        RecordingPipeline resumed = new RecordingPipeline(newRDFizer(), context, 2, checkpoint, false);
+        assertFalse(resumed.isCompleted(collection.getID()));
+        resumed.finish();
+    }
+
+    private RDFizer newRDFizer() {
+        RDFizer rdfizer = new RDFizer();
+        rdfizer.setDryrun(true);
+        rdfizer.overrideContext(context);
+        // the RDFizer opened a READ_ONLY Context, which shares the session of the test
+        context.setMode(Context.Mode.READ_WRITE);
+        return rdfizer;
+    }
+
+    /**
+     * Pipeline recording which Items were converted on which threads.
+     */
+    private static class RecordingPipeline extends RDFConversionPipeline {
+        private final Set<UUID> convertedIds = Collections.synchronizedSet(new HashSet<>());
+        private final Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        private final boolean fail;
+
+        RecordingPipeline(RDFizer rdfizer, Context context, int threads, Path checkpoint, boolean fail)
+            throws Exception {
+            super(rdfizer, context, threads, checkpoint);
+            this.fail = fail;
+        }
+
+        @Override
+        protected void convertItem(Context context, Item item, Map<String, Model> converted, List<String> empty) {
+            if (fail) {
+                throw new IllegalStateException("Conversion failed");
+            }
+            threads.add(Thread.currentThread().getName());
+            convertedIds.add(item.getID());
+            converted.put(item.getID().toString(), ModelFactory.createDefaultModel());
+        }
+    }
+}
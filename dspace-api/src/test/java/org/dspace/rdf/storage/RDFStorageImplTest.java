@@ -0,0 +1,70 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.rdf.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.DatasetFactory;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.update.GraphStoreFactory;
+import com.hp.hpl.jena.update.UpdateAction;
+import org.junit.Test;
+
+/**
+ * Test of the batched SPARQL UPDATE request of {@link RDFStorageImpl}, run
+ * against an in-memory dataset instead of a triplestore.
+ */
+public class RDFStorageImplTest {
+
+    private static final String NS = "http://localhost/rdf/";
+
+    private final RDFStorageImpl storage = new RDFStorageImpl();
+
+    @Test
+    public void testUpdateRequestReplacesOnlyTheGivenGraphs() {
+        Dataset dataset = DatasetFactory.createMem();
+        dataset.addNamedModel(NS + "replaced", model("old", "old value"));
+        dataset.addNamedModel(NS + "untouched", model("other", "other value"));
+
+        Map<String, Model> models = new LinkedHashMap<>();
+        models.put(NS + "replaced", model("new", "new value"));
+        models.put(NS + "added", model("added", "added value"));
+        UpdateAction.execute(storage.createUpdateRequest(models), GraphStoreFactory.create(dataset));
+
+        assertTrue(dataset.getNamedModel(NS + "replaced").isIsomorphicWith(model("new", "new value")));
+        assertTrue(dataset.getNamedModel(NS + "added").isIsomorphicWith(model("added", "added value")));
+        assertTrue(dataset.getNamedModel(NS + "untouched").isIsomorphicWith(model("other", "other value")));
+        assertEquals(1, dataset.getNamedModel(NS + "replaced").size());
+    }
+
+    @Test
+    public void testUpdateRequestClearsGraphsOfEmptyModels() {
+        Dataset dataset = DatasetFactory.createMem();
+        dataset.addNamedModel(NS + "emptied", model("old", "old value"));
+        dataset.addNamedModel(NS + "untouched", model("other", "other value"));
+
+        Map<String, Model> models = new LinkedHashMap<>();
+        models.put(NS + "emptied", ModelFactory.createDefaultModel());
+        UpdateAction.execute(storage.createUpdateRequest(models), GraphStoreFactory.create(dataset));
+
+        assertTrue(dataset.getNamedModel(NS + "emptied").isEmpty());
+        assertTrue(dataset.getNamedModel(NS + "untouched").isIsomorphicWith(model("other", "other value")));
+    }
+
+    private static Model model(String subject, String value) {
+        Model model = ModelFactory.createDefaultModel();
+        model.createResource(NS + subject).addProperty(model.createProperty(NS, "value"), value);
+        return model;
+    }
+}
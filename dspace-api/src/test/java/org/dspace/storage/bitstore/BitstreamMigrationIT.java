@@ -0,0 +1,200 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the {@link BitstreamMigration}. The bitstreams are moved
+ * between two assetstores in temporary directories, so that the bitstreams of
+ * other tests are not migrated.
+ */
+public class BitstreamMigrationIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int BITSTREAMS = 4;
+    private static final int SOURCE = 90;
+    private static final int DESTINATION = 91;
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private final List<UUID> ids = new ArrayList<>();
+    private final Map<Integer, BitStoreService> stores = new HashMap<>();
+    private File storeDir;
+    private File checkpoint;
+    private int originalStore;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        storeDir = Files.createTempDirectory("assetstores").toFile();
+        stores.put(SOURCE, newStore(new File(storeDir, "source")));
+        stores.put(DESTINATION, newStore(new File(storeDir, "destination")));
+        checkpoint = new File(storeDir, "checkpoint.properties");
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        for (int i = 0; i < BITSTREAMS; i++) {
+            byte[] content = ("Bitstream " + i).getBytes(StandardCharsets.UTF_8);
+            Bitstream bitstream;
+            try (InputStream is = new ByteArrayInputStream(content)) {
+                bitstream = BitstreamBuilder.createBitstream(context, item, is).withName("file" + i).build();
+            }
+            originalStore = bitstream.getStoreNumber();
+            try (InputStream is = new ByteArrayInputStream(content)) {
+                stores.get(SOURCE).put(bitstream, is);
+            }
+            bitstream.setStoreNumber(SOURCE);
+            bitstreamService.update(context, bitstream);
+            ids.add(bitstream.getID());
+        }
+        context.restoreAuthSystemState();
+        // the batches are migrated with Contexts of their own
+        context.commit();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        // the test stores are unknown to the rest of the tests
+        context.turnOffAuthorisationSystem();
+        for (UUID id : ids) {
+            Bitstream bitstream = find(id);
+            if (bitstream != null) {
+                bitstream.setStoreNumber(originalStore);
+                bitstreamService.update(context, bitstream);
+            }
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+        FileUtils.deleteDirectory(storeDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testFailedBatchIsResumed() throws Exception {
+        // the batch of the second bitstream fails with an unexpected error
+        BitstreamMigration migration = newMigration(ids.get(1));
+        migration.migrate(context);
+
+        assertEquals(BITSTREAMS - 1, migration.getMigrated());
+        for (UUID id : ids) {
+            assertEquals(id.equals(ids.get(1)) ? SOURCE : DESTINATION, (int) find(id).getStoreNumber());
+        }
+        Properties properties = readCheckpoint();
+        assertEquals(String.valueOf(BITSTREAMS - 1), properties.getProperty(BitstreamMigration.CHECKPOINT_MIGRATED));
+        assertEquals(ids.get(1).toString(), properties.getProperty(BitstreamMigration.CHECKPOINT_FAILED));
+
+        // a resumed run skips the failed bitstream
+        BitstreamMigration resumed = newMigration(null);
+        resumed.migrate(context);
+        assertEquals(0, resumed.getMigrated());
+        assertEquals(SOURCE, (int) find(ids.get(1)).getStoreNumber());
+
+        // unless the failed bitstreams are retried
+        BitstreamMigration retried = newMigration(null);
+        retried.setRetryFailed(true);
+        retried.migrate(context);
+        assertEquals(1, retried.getMigrated());
+        for (UUID id : ids) {
+            Bitstream bitstream = find(id);
+            assertEquals(DESTINATION, (int) bitstream.getStoreNumber());
+            assertNotNull(stores.get(DESTINATION).about(bitstream, new HashMap<>()));
+        }
+        properties = readCheckpoint();
+        assertEquals(String.valueOf(BITSTREAMS), properties.getProperty(BitstreamMigration.CHECKPOINT_MIGRATED));
+        assertEquals("", properties.getProperty(BitstreamMigration.CHECKPOINT_FAILED));
+    }
+
+    private BitstreamMigration newMigration(UUID failing) {
+        BitstreamMigration migration = new FailingMigration(stores, failing);
+        migration.setThreads(2);
+        migration.setCheckpoint(checkpoint);
+        migration.setOut(null);
+        return migration;
+    }
+
+    private Bitstream find(UUID id) throws Exception {
+        // the bitstreams were updated by the Contexts of the workers
+        Bitstream cached = bitstreamService.find(context, id);
+        if (cached != null) {
+            context.uncacheEntity(cached);
+        }
+        return bitstreamService.find(context, id);
+    }
+
+    private Properties readCheckpoint() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(checkpoint)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static DSBitStoreService newStore(File dir) {
+        DSBitStoreService store = new DSBitStoreService();
+        store.setBaseDir(dir);
+        return store;
+    }
+
+    /**
+     * Migration throwing an unexpected error for one bitstream.
+     */
+    private class FailingMigration extends BitstreamMigration {
+        private final UUID failing;
+
+        FailingMigration(Map<Integer, BitStoreService> stores, UUID failing) {
+            super(stores, SOURCE, DESTINATION);
+            this.failing = failing;
+        }
+
+        @Override
+        protected boolean migrateBitstream(Context context, Bitstream bitstream)
+            throws SQLException, AuthorizeException {
+            if (bitstream.getID().equals(failing)) {
+                throw new IllegalStateException("Migration failed");
+            }
+            return super.migrateBitstream(context, bitstream);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.junit.Test;
+
+/**
+ * Integration test of the batched cleanup of the
+ * {@link BitstreamStorageServiceImpl}.
+ */
+public class BitstreamStorageServiceImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int BITSTREAMS = 7;
+    private static final int BATCH_SIZE = 2;
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+    private final BitstreamStorageService bitstreamStorageService =
+        StorageServiceFactory.getInstance().getBitstreamStorageService();
+
+    @Test
+    public void testCleanupOverSeveralBatches() throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+
+        List<UUID> ids = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < BITSTREAMS; i++) {
+            Bitstream bitstream;
+            try (InputStream is = new ByteArrayInputStream(("Bitstream " + i).getBytes(StandardCharsets.UTF_8))) {
+                bitstream = BitstreamBuilder.createBitstream(context, item, is).withName("file" + i).build();
+            }
+            BitStoreService store = bitstreamStorageService.getStores().get(bitstream.getStoreNumber());
+            assumeTrue(store instanceof DSBitStoreService);
+            File file = ((DSBitStoreService) store).getFile(bitstream);
+            if (i % 3 == 0) {
+                // the record of a bitstream whose file is gone is deleted as well
+                assertTrue(file.delete());
+            } else {
+                // files which were just written are left alone
+                assertTrue(file.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+            }
+            bitstreamService.delete(context, bitstream);
+            ids.add(bitstream.getID());
+            files.add(file);
+        }
+        context.restoreAuthSystemState();
+        // the cleanup runs with a Context of its own
+        context.commit();
+
+        bitstreamStorageService.cleanup(true, false, 2, BATCH_SIZE);
+
+        for (int i = 0; i < BITSTREAMS; i++) {
+            assertNull("Record of bitstream " + i + " must be deleted", bitstreamService.find(context, ids.get(i)));
+            assertFalse("File of bitstream " + i + " must be deleted", files.get(i).exists());
+        }
+    }
+}
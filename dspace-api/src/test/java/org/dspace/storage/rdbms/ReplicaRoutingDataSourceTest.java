@@ -0,0 +1,142 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ReplicaRoutingDataSource}, with two embedded databases standing in for the primary database and
+ * its replica.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private BasicDataSource primary;
+    private BasicDataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+
+        routingDataSource = new ReplicaRoutingDataSource();
+        routingDataSource.setPrimary(primary);
+        routingDataSource.setReplica(replica);
+        routingDataSource.setReplicaEnabled(true);
+        // writes of earlier tests on this thread are not taken into account
+        routingDataSource.setReadYourWrites(-1L);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ReplicaRoutingDataSource.setReadOnly(false);
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseReplica() throws Exception {
+        assertEquals("primary", getDatabaseName());
+        assertFalse(ReplicaRoutingDataSource.isUsingReplica());
+
+        ReplicaRoutingDataSource.setReadOnly(true);
+        assertEquals("replica", getDatabaseName());
+        assertTrue(ReplicaRoutingDataSource.isUsingReplica());
+    }
+
+    @Test
+    public void testReadYourWrites() throws Exception {
+        routingDataSource.setReadYourWrites(60000L);
+        ReplicaRoutingDataSource.recordWrite();
+        ReplicaRoutingDataSource.setReadOnly(true);
+        assertEquals("primary", getDatabaseName());
+
+        // other threads have not written anything
+        String[] name = new String[1];
+        Thread thread = new Thread(() -> {
+            ReplicaRoutingDataSource.setReadOnly(true);
+            try {
+                name[0] = getDatabaseName();
+            } catch (SQLException e) {
+                name[0] = e.getMessage();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertEquals("replica", name[0]);
+    }
+
+    @Test
+    public void testLaggingReplicaIsNotUsed() throws Exception {
+        routingDataSource.setLagQuery("SELECT lag FROM replica_lag");
+        routingDataSource.setMaxLag(1000L);
+        routingDataSource.setLagInterval(-1L);
+        ReplicaRoutingDataSource.setReadOnly(true);
+
+        setLag(5000L);
+        assertEquals("primary", getDatabaseName());
+        setLag(10L);
+        assertEquals("replica", getDatabaseName());
+    }
+
+    @Test
+    public void testDisabledReplicaIsNotUsed() throws Exception {
+        routingDataSource = new ReplicaRoutingDataSource();
+        routingDataSource.setPrimary(primary);
+        routingDataSource.setReplica(replica);
+        routingDataSource.afterPropertiesSet();
+
+        ReplicaRoutingDataSource.setReadOnly(true);
+        assertEquals("primary", getDatabaseName());
+    }
+
+    private BasicDataSource createDatabase(String name) throws SQLException {
+        BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS database_name");
+            statement.execute("CREATE TABLE database_name (name VARCHAR(16))");
+            statement.execute("INSERT INTO database_name VALUES ('" + name + "')");
+            statement.execute("DROP TABLE IF EXISTS replica_lag");
+            statement.execute("CREATE TABLE replica_lag (lag BIGINT)");
+            statement.execute("INSERT INTO replica_lag VALUES (0)");
+        }
+        return dataSource;
+    }
+
+    private void setLag(long lag) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE replica_lag SET lag = " + lag);
+        }
+    }
+
+    private String getDatabaseName() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet results = statement.executeQuery("SELECT name FROM database_name")) {
+            results.next();
+            return results.getString(1);
+        }
+    }
+}
@@ -12,16 +12,25 @@ import static org.dspace.xoai.util.ItemUtils.retrieveMetadata;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.exceptions.ConfigurationException;
@@ -37,7 +46,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrQuery.ORDER;
+import org.apache.solr.client.solrj.SolrRequest;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.authorize.ResourcePolicy;
@@ -99,7 +111,7 @@ public class XOAI {
 
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
-    private List<String> getFileFormats(Item item) {
+    private List<String> getFileFormats(Context context, Item item) {
         List<String> formats = new ArrayList<>();
         try {
             for (Bundle b : itemService.getBundles(item, "ORIGINAL")) {
@@ -217,16 +229,28 @@ public class XOAI {
      */
     private Iterator<Item> getItemsWithPossibleChangesBefore(Date last) throws DSpaceSolrIndexerException, IOException {
         try {
-            SolrQuery params = new SolrQuery("item.willChangeStatus:true").addField("item.id");
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
+            int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
             List<Item> items = new LinkedList<>();
-            for (int i = 0; i < documents.getNumFound(); i++) {
-                Item item = itemService.find(context,
-                        UUID.fromString((String) documents.get(i).getFieldValue("item.id")));
-                if (item.getLastModified().before(last)) {
-                    items.add(item);
+            int start = 0;
+            SolrDocumentList documents;
+            do {
+                SolrQuery params = new SolrQuery("item.willChangeStatus:true").addField("item.id")
+                    .setStart(start).setRows(batchSize);
+                documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
+                List<UUID> ids = new ArrayList<>(documents.size());
+                for (SolrDocument document : documents) {
+                    ids.add(UUID.fromString(String.valueOf(document.getFieldValue("item.id"))));
                 }
-            }
+                // Resolve the whole page with a single query instead of one find() per item
+                Iterator<Item> candidates = itemService.findByIds(context, ids);
+                while (candidates.hasNext()) {
+                    Item item = candidates.next();
+                    if (item.getLastModified().before(last)) {
+                        items.add(item);
+                    }
+                }
+                start += documents.size();
+            } while (!documents.isEmpty() && start < documents.getNumFound());
             return items.iterator();
         } catch (SolrServerException | SQLException | DSpaceSolrException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
@@ -250,85 +274,188 @@ public class XOAI {
     }
 
     /**
-     * Check if an item is already indexed. Using this, it is possible to check
-     * if withdrawn or nondiscoverable items have to be indexed at all.
+     * Look up the current visibility flag of a batch of items in the index
+     * with a single query. Using this, it is possible to check if withdrawn or
+     * nondiscoverable items have to be indexed at all, and whether an
+     * embargoed item is currently flagged visible.
      *
-     * @param item
-     *            Item that should be checked for its presence in the index.
-     * @return has it been indexed?
+     * @param ids
+     *            Items that should be checked for their presence in the index.
+     * @return the <code>item.public</code> flag of every indexed item, keyed
+     *         by item id. Items which have not been indexed are absent.
      */
-    private boolean checkIfIndexed(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.id");
-        try {
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            return documents.getNumFound() == 1;
-        } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
+    private Map<UUID, Boolean> getIndexedVisibility(List<UUID> ids) throws IOException {
+        Map<UUID, Boolean> visibility = new HashMap<>();
+        if (ids.isEmpty()) {
+            return visibility;
         }
-    }
-     /**
-     * Check if an item is flagged visible in the index.
-     *
-     * @param item
-     *            Item that should be checked for its presence in the index.
-     * @return has it been indexed?
-     */
-    private boolean checkIfVisibleInOAI(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.public");
+        StringJoiner terms = new StringJoiner(",", "{!terms f=item.id}", "");
+        for (UUID id : ids) {
+            terms.add(id.toString());
+        }
+        SolrQuery params = new SolrQuery(terms.toString())
+            .addField("item.id").addField("item.public").setRows(ids.size());
         try {
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            if (documents.getNumFound() == 1) {
-                return (boolean) documents.get(0).getFieldValue("item.public");
-            } else {
-                return false;
+            // the id list does not fit into a GET request for larger batches
+            QueryResponse response = solrServerResolver.getServer().query(params, SolrRequest.METHOD.POST);
+            for (SolrDocument document : response.getResults()) {
+                Object isPublic = document.getFieldValue("item.public");
+                visibility.put(UUID.fromString(String.valueOf(document.getFieldValue("item.id"))),
+                               isPublic != null && (boolean) isPublic);
             }
-        } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
+        } catch (SolrServerException e) {
+            log.error(e.getMessage(), e);
         }
+        return visibility;
     }
 
+    /**
+     * Index the given items. Solr documents are built in batches of
+     * <code>oai.import.batch.size</code> items, either on the calling thread or,
+     * if <code>oai.import.threads</code> is greater than one, on a pool of
+     * workers which each use their own read-only Context. Batches are only sent
+     * to Solr, the caller is responsible for committing.
+     *
+     * @param iterator items to index
+     * @return number of items processed
+     */
     private int index(Iterator<Item> iterator)
         throws DSpaceSolrIndexerException {
+        int threads = configurationService.getIntProperty("oai.import.threads", 1);
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
         try {
             int i = 0;
             int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
             SolrClient server = solrServerResolver.getServer();
-            ArrayList<SolrInputDocument> list = new ArrayList<>();
+            List<UUID> batch = new ArrayList<>(batchSize);
             while (iterator.hasNext()) {
-                try {
-                    Item item = iterator.next();
-                    if (item.getHandle() == null) {
-                        log.warn("Skipped item without handle: " + item.getID());
-                    } else {
-                        list.add(this.index(item));
-                    }
-                    //Uncache the item to keep memory consumption low
-                    context.uncacheEntity(item);
-
-                } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
-                    log.error(ex.getMessage(), ex);
+                Item item = iterator.next();
+                if (item.getHandle() == null) {
+                    log.warn("Skipped item without handle: " + item.getID());
+                } else {
+                    batch.add(item.getID());
                 }
+                //Uncache the item to keep memory consumption low
+                context.uncacheEntity(item);
+
                 i++;
                 if (i % 1000 == 0 && batchSize != 1000) {
                     System.out.println(i + " items imported so far...");
                 }
                 if (i % batchSize == 0) {
                     System.out.println(i + " items imported so far...");
-                    server.add(list);
-                    server.commit();
-                    list.clear();
+                    indexBatch(server, executor, threads, batch);
+                    batch.clear();
                 }
             }
             System.out.println("Total: " + i + " items");
-            if (i > 0) {
-                if (!list.isEmpty()) {
-                    server.add(list);
-                }
-                server.commit(true, true);
-                list.clear();
+            if (!batch.isEmpty()) {
+                indexBatch(server, executor, threads, batch);
             }
             return i;
-        } catch (SolrServerException | IOException ex) {
+        } catch (SQLException | SolrServerException | IOException ex) {
+            throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Build and send the Solr documents of one batch of items.
+     *
+     * @param server   OAI Solr core
+     * @param executor worker pool, or null to build the documents on the current thread
+     * @param threads  number of workers in the pool
+     * @param ids      items of the batch
+     */
+    private void indexBatch(SolrClient server, ExecutorService executor, int threads, List<UUID> ids)
+        throws SQLException, SolrServerException, IOException, DSpaceSolrIndexerException {
+        Map<UUID, Boolean> visibility = getIndexedVisibility(ids);
+        List<SolrInputDocument> documents = new ArrayList<>(ids.size());
+        if (executor == null) {
+            documents.addAll(buildDocuments(context, ids, visibility));
+        } else {
+            int chunkSize = (ids.size() + threads - 1) / threads;
+            List<Future<List<SolrInputDocument>>> futures = new ArrayList<>(threads);
+            for (int start = 0; start < ids.size(); start += chunkSize) {
+                List<UUID> chunk = new ArrayList<>(ids.subList(start, Math.min(ids.size(), start + chunkSize)));
+                futures.add(executor.submit(() -> {
+                    Context workerContext = new Context(Context.Mode.READ_ONLY);
+                    try {
+                        return buildDocuments(workerContext, chunk, visibility);
+                    } finally {
+                        workerContext.abort();
+                    }
+                }));
+            }
+            for (Future<List<SolrInputDocument>> future : futures) {
+                try {
+                    documents.addAll(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DSpaceSolrIndexerException(e.getMessage(), e);
+                } catch (ExecutionException e) {
+                    throw new DSpaceSolrIndexerException(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        if (!documents.isEmpty()) {
+            server.add(documents);
+        }
+    }
+
+    /**
+     * Load the given items in one query and build their Solr documents.
+     *
+     * @param context    context to load the items with
+     * @param ids        items to build documents for
+     * @param visibility current visibility of the already indexed items
+     * @return the Solr documents
+     */
+    private List<SolrInputDocument> buildDocuments(Context context, List<UUID> ids, Map<UUID, Boolean> visibility)
+        throws SQLException {
+        List<SolrInputDocument> documents = new ArrayList<>(ids.size());
+        // the metadata, bundles and bitstreams of all items end up in the document
+        Iterator<Item> items = itemService.prefetch(context, itemService.findByIds(context, ids), true);
+        while (items.hasNext()) {
+            Item item = items.next();
+            try {
+                documents.add(this.index(context, item, visibility.get(item.getID())));
+            } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+                log.error(ex.getMessage(), ex);
+            }
+            //Uncache the item to keep memory consumption low
+            context.uncacheEntity(item);
+        }
+        return documents;
+    }
+
+    /**
+     * Re-index the given items and commit, e.g. for items changed since the
+     * last import. Items which no longer exist or have no handle are skipped.
+     *
+     * @param ids items to index
+     * @return number of items processed
+     * @throws DSpaceSolrIndexerException if indexing failed
+     */
+    public int index(List<UUID> ids) throws DSpaceSolrIndexerException {
+        try {
+            List<Item> items = new ArrayList<>(ids.size());
+            Iterator<Item> found = itemService.findByIds(context, ids);
+            while (found.hasNext()) {
+                Item item = found.next();
+                if (item.isArchived() || item.isWithdrawn()) {
+                    items.add(item);
+                }
+            }
+            int result = this.index(items.iterator());
+            if (result > 0) {
+                solrServerResolver.getServer().commit();
+            }
+            return result;
+        } catch (SQLException | SolrServerException | IOException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
         }
     }
@@ -343,7 +470,7 @@ public class XOAI {
      * @return date
      * @throws SQLException
      */
-    private Date getMostRecentModificationDate(Item item) throws SQLException {
+    private Date getMostRecentModificationDate(Context context, Item item) throws SQLException {
         List<Date> dates = new LinkedList<>();
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
@@ -369,7 +496,15 @@ public class XOAI {
         return lastChange;
     }
 
-    private SolrInputDocument index(Item item)
+    /**
+     * Build the Solr document of an item.
+     *
+     * @param context context the item belongs to
+     * @param item item to index
+     * @param indexedVisibility the item.public flag currently in the index, or
+     *            null if the item has not been indexed yet
+     */
+    private SolrInputDocument index(Context context, Item item, Boolean indexedVisibility)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
         SolrInputDocument doc = new SolrInputDocument();
         doc.addField("item.id", item.getID().toString());
@@ -377,9 +512,9 @@ public class XOAI {
         String handle = item.getHandle();
         doc.addField("item.handle", handle);
 
-        boolean isEmbargoed = !this.isPublic(item);
-        boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
-        boolean isIndexed = this.checkIfIndexed(item);
+        boolean isEmbargoed = !this.isPublic(context, item);
+        boolean isCurrentlyVisible = indexedVisibility != null && indexedVisibility;
+        boolean isIndexed = indexedVisibility != null;
 
         /*
          * If the item is not under embargo, it should be visible. If it is,
@@ -401,7 +536,7 @@ public class XOAI {
         // if the visibility of the item will change in the future due to an
         // embargo, mark it as such.
 
-        doc.addField("item.willChangeStatus", willChangeStatus(item));
+        doc.addField("item.willChangeStatus", willChangeStatus(context, item));
 
         /*
          * Mark an item as deleted not only if it is withdrawn, but also if it
@@ -427,7 +562,7 @@ public class XOAI {
          * most recent of those which have already passed.
          */
         doc.addField("item.lastmodified", SolrUtils.getDateFormatter()
-                .format(this.getMostRecentModificationDate(item)));
+                .format(this.getMostRecentModificationDate(context, item)));
 
         if (item.getSubmitter() != null) {
             doc.addField("item.submitter", item.getSubmitter().getEmail());
@@ -454,7 +589,7 @@ public class XOAI {
             }
         }
 
-        for (String f : getFileFormats(item)) {
+        for (String f : getFileFormats(context, item)) {
             doc.addField("metadata.dc.format.mimetype", f);
         }
 
@@ -465,7 +600,9 @@ public class XOAI {
         }
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(out, Second);
+        boolean compress = configurationService.getBooleanProperty("oai.import.compile.compress", false);
+        OutputStream target = compress ? new GZIPOutputStream(out) : out;
+        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(target, Second);
         Metadata metadata = retrieveMetadata(context, item);
 
         // Do any additional metadata element, depends on the plugins
@@ -476,7 +613,13 @@ public class XOAI {
         metadata.write(xmlContext);
         xmlContext.getWriter().flush();
         xmlContext.getWriter().close();
-        doc.addField("item.compile", out.toString());
+        if (compress) {
+            // finish the gzip stream, closing the XML writer does not close it
+            target.close();
+            doc.addField("item.compile.gz", out.toByteArray());
+        } else {
+            doc.addField("item.compile", out.toString());
+        }
 
         if (verbose) {
             println(String.format("Item %s with handle %s indexed",
@@ -486,7 +629,7 @@ public class XOAI {
         return doc;
     }
 
-    private boolean willChangeStatus(Item item) throws SQLException {
+    private boolean willChangeStatus(Context context, Item item) throws SQLException {
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
             if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
@@ -502,7 +645,7 @@ public class XOAI {
         return false;
     }
 
-    private boolean isPublic(Item item) {
+    private boolean isPublic(Context context, Item item) {
         boolean pub = false;
         try {
             // Check if READ access allowed on this Item
@@ -0,0 +1,146 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+import org.dspace.xoai.services.api.cache.XOAICacheService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Event consumer which keeps the OAI Solr core up to date as items change,
+ * so that the OAI index does not depend on a cron driven "oai import".
+ * Changed items are collected during the transaction and queued when the
+ * events are dispatched. A single worker thread re-indexes the queued items in
+ * batches with a Context of its own, as all Contexts of a thread share one
+ * database session and the dispatching Context may still be in use. The cached
+ * OAI responses are purged afterwards.
+ * <p>
+ * Deleted items are not removed from the OAI core, they are dropped by the
+ * next full import, exactly as with the import script.
+ */
+public class XOAIIndexEventConsumer implements Consumer {
+    private static final Logger log = LogManager.getLogger(XOAIIndexEventConsumer.class);
+
+    private static AnnotationConfigApplicationContext applicationContext;
+
+    /**
+     * Items waiting to be re-indexed, shared by all instances of the consumer.
+     */
+    private static final Set<UUID> queue = new LinkedHashSet<>();
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "oai-index-consumer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // UUIDs of the items to re-index
+    private Set<UUID> itemsToUpdate = new LinkedHashSet<>();
+
+    @Override
+    public void initialize() throws Exception {
+
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        if (itemsToUpdate == null) {
+            itemsToUpdate = new LinkedHashSet<>();
+        }
+
+        int st = event.getSubjectType();
+        int et = event.getEventType();
+        if (st == Constants.ITEM) {
+            if (et != Event.DELETE) {
+                itemsToUpdate.add(event.getSubjectID());
+            }
+        } else if (st == Constants.BUNDLE) {
+            // bitstreams added to or removed from a bundle change the compiled metadata of the item
+            DSpaceObject subject = event.getSubject(ctx);
+            if (subject != null) {
+                for (Item item : ((Bundle) subject).getItems()) {
+                    itemsToUpdate.add(item.getID());
+                }
+            }
+        } else {
+            log.warn("XOAIIndexEventConsumer should not have been given this kind of subject in an event, "
+                         + "skipping: " + event.toString());
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (itemsToUpdate == null || itemsToUpdate.isEmpty()) {
+            return;
+        }
+        synchronized (queue) {
+            queue.addAll(itemsToUpdate);
+        }
+        itemsToUpdate.clear();
+        worker.submit(XOAIIndexEventConsumer::indexQueuedItems);
+    }
+
+    /**
+     * Re-index the items queued so far. Runs on the worker thread; if several
+     * transactions queued items meanwhile, the first run indexes them all and
+     * the others find the queue empty.
+     */
+    protected static void indexQueuedItems() {
+        List<UUID> ids;
+        synchronized (queue) {
+            if (queue.isEmpty()) {
+                return;
+            }
+            ids = new ArrayList<>(queue);
+            queue.clear();
+        }
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            AnnotationConfigApplicationContext applicationContext = getApplicationContext();
+            XOAI indexer = new XOAI(context, false, false, false);
+            applicationContext.getAutowireCapableBeanFactory().autowireBean(indexer);
+            int indexed = indexer.index(ids);
+            if (indexed > 0) {
+                applicationContext.getBean(XOAICacheService.class).deleteAll();
+            }
+            log.debug("Updated " + indexed + " item(s) in the OAI index");
+        } catch (Exception e) {
+            log.error("Unable to update " + ids.size() + " item(s) in the OAI index", e);
+        } finally {
+            context.abort();
+        }
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+
+    }
+
+    private static synchronized AnnotationConfigApplicationContext getApplicationContext() {
+        if (applicationContext == null) {
+            applicationContext = new AnnotationConfigApplicationContext(BasicConfiguration.class);
+        }
+        return applicationContext;
+    }
+}
@@ -7,13 +7,20 @@
  */
 package org.dspace.xoai.data;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.core.ItemMetadata;
 import com.lyncode.xoai.dataprovider.core.ReferenceSet;
+import com.lyncode.xoai.dataprovider.xml.xoai.Metadata;
+import com.lyncode.xoai.dataprovider.xml.xoai.XOAIParser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.common.SolrDocument;
@@ -26,6 +33,7 @@ public class DSpaceSolrItem extends DSpaceItem {
         .getLogger(DSpaceSolrItem.class);
 
     private final String unparsedMD;
+    private final byte[] compressedMD;
     private ItemMetadata metadata;
     private final String handle;
     private final Date lastMod;
@@ -35,6 +43,7 @@ public class DSpaceSolrItem extends DSpaceItem {
     public DSpaceSolrItem(SolrDocument doc) {
         log.debug("Creating OAI Item from Solr source");
         unparsedMD = (String) doc.getFieldValue("item.compile");
+        compressedMD = (byte[]) doc.getFieldValue("item.compile.gz");
         handle = (String) doc.getFieldValue("item.handle");
         lastMod = (Date) doc.getFieldValue("item.lastmodified");
         sets = new ArrayList<>();
@@ -61,7 +70,17 @@ public class DSpaceSolrItem extends DSpaceItem {
     @Override
     public ItemMetadata getMetadata() {
         if (metadata == null) {
-            metadata = new ItemMetadata(unparsedMD);
+            if (compressedMD != null) {
+                // parse straight from the decompressing stream, without an intermediate XML string
+                try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressedMD))) {
+                    metadata = new ItemMetadata(XOAIParser.parse(input));
+                } catch (IOException | XMLStreamException e) {
+                    log.error("Unable to read the compiled metadata of item " + handle, e);
+                    metadata = new ItemMetadata(new Metadata());
+                }
+            } else {
+                metadata = new ItemMetadata(unparsedMD);
+            }
         }
         return metadata;
     }
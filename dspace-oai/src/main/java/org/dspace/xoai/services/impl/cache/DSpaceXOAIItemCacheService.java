@@ -10,17 +10,21 @@ package org.dspace.xoai.services.impl.cache;
 import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
 import static org.apache.commons.io.FileUtils.deleteDirectory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
 import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
 import com.lyncode.xoai.dataprovider.xml.xoai.Metadata;
 import com.lyncode.xoai.dataprovider.xml.xoai.XOAIParser;
-import org.apache.commons.io.FileUtils;
 import org.dspace.content.Item;
 import org.dspace.xoai.services.api.cache.XOAIItemCacheService;
 import org.dspace.xoai.services.api.config.ConfigurationService;
@@ -62,15 +66,22 @@ public class DSpaceXOAIItemCacheService implements XOAIItemCacheService {
 
     @Override
     public Metadata get(Item item) throws IOException {
-        System.out.println(FileUtils.readFileToString(getMetadataCache(item)));
         Metadata metadata;
-        FileInputStream input = new FileInputStream(getMetadataCache(item));
+        InputStream input = new BufferedInputStream(new FileInputStream(getMetadataCache(item)));
         try {
+            // entries may have been written with or without compression
+            input.mark(2);
+            int magic = input.read() | (input.read() << 8);
+            input.reset();
+            if (magic == GZIPInputStream.GZIP_MAGIC) {
+                input = new GZIPInputStream(input);
+            }
             metadata = XOAIParser.parse(input);
         } catch (XMLStreamException e) {
             throw new IOException(e);
+        } finally {
+            input.close();
         }
-        input.close();
 
         return metadata;
     }
@@ -78,7 +89,10 @@ public class DSpaceXOAIItemCacheService implements XOAIItemCacheService {
 
     @Override
     public void put(Item item, Metadata metadata) throws IOException {
-        FileOutputStream output = new FileOutputStream(getMetadataCache(item));
+        OutputStream output = new FileOutputStream(getMetadataCache(item));
+        if (configurationService.getBooleanProperty("oai", "import.compile.compress", false)) {
+            output = new GZIPOutputStream(output);
+        }
         try {
             XmlOutputContext context = XmlOutputContext.emptyContext(output, Second);
             metadata.write(context);
@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.data;
+
+import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
+import com.lyncode.xoai.dataprovider.xml.xoai.Element;
+import com.lyncode.xoai.dataprovider.xml.xoai.Metadata;
+import org.apache.solr.common.SolrDocument;
+import org.dspace.xoai.data.DSpaceSolrItem;
+import org.junit.Test;
+
+/**
+ * Tests reading the compiled metadata of an item from the OAI Solr core, with
+ * and without compression.
+ */
+public class DSpaceSolrItemTest {
+
+    private static final String TITLE = "Gzip round trip";
+
+    @Test
+    public void readsCompressedMetadata() throws Exception {
+        SolrDocument doc = createDocument();
+        doc.setField("item.compile.gz", write(createMetadata(), true));
+
+        DSpaceSolrItem item = new DSpaceSolrItem(doc);
+        assertThat(item.getMetadata("dc.title"), is(Collections.singletonList(TITLE)));
+    }
+
+    @Test
+    public void readsUncompressedMetadata() throws Exception {
+        SolrDocument doc = createDocument();
+        doc.setField("item.compile", new String(write(createMetadata(), false), StandardCharsets.UTF_8));
+
+        DSpaceSolrItem item = new DSpaceSolrItem(doc);
+        assertThat(item.getMetadata("dc.title"), is(Collections.singletonList(TITLE)));
+    }
+
+    private SolrDocument createDocument() {
+        SolrDocument doc = new SolrDocument();
+        doc.setField("item.handle", "123456789/1");
+        doc.setField("item.lastmodified", new Date());
+        doc.setField("item.deleted", false);
+        return doc;
+    }
+
+    private Metadata createMetadata() {
+        Element.Field field = new Element.Field();
+        field.setName("value");
+        field.setValue(TITLE);
+        Element value = new Element();
+        value.setName("none");
+        value.getField().add(field);
+        Element title = new Element();
+        title.setName("title");
+        title.getElement().add(value);
+        Element dc = new Element();
+        dc.setName("dc");
+        dc.getElement().add(title);
+        Metadata metadata = new Metadata();
+        metadata.getElement().add(dc);
+        return metadata;
+    }
+
+    /**
+     * Serialize the metadata the way the OAI import does.
+     */
+    private byte[] write(Metadata metadata, boolean compress) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream target = compress ? new GZIPOutputStream(out) : out;
+        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(target, Second);
+        metadata.write(xmlContext);
+        xmlContext.getWriter().flush();
+        xmlContext.getWriter().close();
+        target.close();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.dspace.core.QueryStatistics;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller reporting the database statistics of this node, see {@link QueryStatistics} and the Hibernate
+ * {@link Statistics}: the executed statements, the connection pool, and the hit ratios of the second level cache
+ * regions and the query cache.
+ * <p>
+ * Endpoint: /api/system/databasestatistics
+ * This controller can:
+ *     - report the statistics (GET /api/system/databasestatistics)
+ *     - switch the statistics on or off (POST /api/system/databasestatistics?enabled=true)
+ *     - reset the statistics (DELETE /api/system/databasestatistics)
+ */
+@RestController
+@RequestMapping("/api/system/databasestatistics")
+public class DatabaseStatisticsRestController {
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @RequestMapping(method = RequestMethod.GET)
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = getHibernateStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", QueryStatistics.isEnabled());
+
+        QueryStatistics totals = QueryStatistics.getTotals();
+        Map<String, Object> statements = new LinkedHashMap<>();
+        statements.put("count", totals.getStatementCount());
+        statements.put("time", totals.getStatementTime());
+        statements.put("slowCount", totals.getSlowStatementCount());
+        statements.put("hibernateQueryCount", statistics.getQueryExecutionCount());
+        statements.put("hibernateQueryMaxTime", statistics.getQueryExecutionMaxTime());
+        statements.put("hibernateQueryMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("statements", statements);
+
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("connectionCount", totals.getConnectionCount());
+        pool.put("connectionWaitTime", totals.getConnectionWaitTime());
+        DataSource dataSource = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                     .getServiceByName("dataSource", DataSource.class);
+        if (dataSource instanceof BasicDataSource) {
+            BasicDataSource basicDataSource = (BasicDataSource) dataSource;
+            pool.put("active", basicDataSource.getNumActive());
+            pool.put("idle", basicDataSource.getNumIdle());
+            pool.put("maxTotal", basicDataSource.getMaxTotal());
+        }
+        result.put("connectionPool", pool);
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            caches.put(regionName, getCacheStatistics(region.getHitCount(), region.getMissCount(),
+                                                      region.getPutCount(), region.getElementCountInMemory()));
+        }
+        caches.put("queryCache", getCacheStatistics(statistics.getQueryCacheHitCount(),
+                                                    statistics.getQueryCacheMissCount(),
+                                                    statistics.getQueryCachePutCount(), -1));
+        result.put("caches", caches);
+        return result;
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @RequestMapping(method = RequestMethod.POST)
+    public Map<String, Object> setEnabled(@RequestParam(name = "enabled") boolean enabled) {
+        QueryStatistics.setEnabled(enabled);
+        getHibernateStatistics().setStatisticsEnabled(enabled);
+        return getStatistics();
+    }
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @RequestMapping(method = RequestMethod.DELETE)
+    public ResponseEntity reset() {
+        QueryStatistics.resetTotals();
+        getHibernateStatistics().clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private Map<String, Object> getCacheStatistics(long hits, long misses, long puts, long elements) {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", hits);
+        cache.put("misses", misses);
+        cache.put("puts", puts);
+        cache.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        if (elements >= 0) {
+            cache.put("elements", elements);
+        }
+        return cache;
+    }
+
+    private Statistics getHibernateStatistics() {
+        return DSpaceServicesFactory.getInstance().getServiceManager()
+                                    .getServiceByName("sessionFactory", SessionFactory.class).getStatistics();
+    }
+}
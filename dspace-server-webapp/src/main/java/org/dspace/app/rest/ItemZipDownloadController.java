@@ -0,0 +1,208 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFIER_AS_UUID;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.connector.ClientAbortException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.model.ItemRest;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.app.rest.utils.HttpHeadersInitializer;
+import org.dspace.app.rest.utils.ZipArchiveResource;
+import org.dspace.app.statistics.clarin.ClarinMatomoBitstreamTracker;
+import org.dspace.authorize.AuthorizationBitstreamUtils;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.authorize.DownloadTokenExpiredException;
+import org.dspace.authorize.MissingLicenseAgreementException;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Item;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.EventService;
+import org.dspace.usage.UsageEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This controller streams all readable files of the ORIGINAL bundle of an item as a single ZIP archive, which is
+ * generated while it is sent, see {@link ZipArchiveResource}.
+ * <p>
+ * The authorization and the CLARIN license of every file are checked once, before the archive is sent. If a
+ * file requires a license agreement the user has not made yet, the download is refused as a whole, like the
+ * download of that single file would be. Range requests are supported, so an interrupted download can be
+ * resumed. A download is logged as one usage event of the item.
+ *
+ * <pre>
+ * {@code
+ * https://<dspace.server.url>/api/core/items/26453b4d-e513-44e8-8d5b-395f62972eff/allzip
+ * }
+ * </pre>
+ */
+@RestController
+@RequestMapping("/api/" + ItemRest.CATEGORY + "/" + ItemRest.PLURAL_NAME + REGEX_REQUESTMAPPING_IDENTIFIER_AS_UUID
+    + "/allzip")
+public class ItemZipDownloadController {
+
+    private static final Logger log = LogManager.getLogger(ItemZipDownloadController.class);
+
+    //Most file systems are configured to use block sizes of 4096 or 8192 and our buffer should be a multiple of that.
+    private static final int BUFFER_SIZE = 4096 * 10;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private AuthorizeService authorizeService;
+
+    @Autowired
+    private AuthorizationBitstreamUtils authorizationBitstreamUtils;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    ClarinMatomoBitstreamTracker matomoBitstreamTracker;
+
+    @PreAuthorize("hasPermission(#uuid, 'ITEM', 'READ')")
+    @RequestMapping(method = {RequestMethod.GET, RequestMethod.HEAD})
+    public ResponseEntity downloadAll(@PathVariable UUID uuid, HttpServletResponse response,
+                                      HttpServletRequest request) throws IOException, SQLException {
+
+        Context context = ContextUtil.obtainContext(request);
+
+        Item item = itemService.find(context, uuid);
+        if (item == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+
+        String name = (item.getHandle() != null ? item.getHandle().replace('/', '_') : uuid.toString()) + ".zip";
+        long lastModified = item.getLastModified().getTime();
+        ZipArchiveResource archive = new ZipArchiveResource(name, lastModified);
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (Bundle bundle : itemService.getBundles(item, Constants.CONTENT_BUNDLE_NAME)) {
+            bitstreams.addAll(bundle.getBitstreams());
+        }
+        // resolve the licenses of all files at once
+        authorizationBitstreamUtils.prefetchLicenses(context, item, bitstreams);
+
+        Set<String> entryNames = new HashSet<>();
+        for (Bitstream bitstream : bitstreams) {
+            try {
+                authorizeService.authorizeAction(context, bitstream, Constants.READ);
+            } catch (MissingLicenseAgreementException | DownloadTokenExpiredException e) {
+                // If the bitstream has RES or ACA license and the user is Anonymous return NotAuthorized
+                if (!authorizationBitstreamUtils.authorizeLicenseWithUser(context, bitstream.getID())) {
+                    response.sendError(HttpStatus.UNAUTHORIZED.value(),
+                                       "Anonymous user cannot download bitstream with REC or ACA license");
+                } else {
+                    response.sendError(HttpStatus.UNAUTHORIZED.value(),
+                                       e instanceof MissingLicenseAgreementException ?
+                                           MissingLicenseAgreementException.NAME :
+                                           DownloadTokenExpiredException.NAME);
+                }
+                return null;
+            } catch (AuthorizeException e) {
+                // the files the user may not read are left out
+                continue;
+            }
+            archive.addEntry(getEntryName(bitstream, entryNames), bitstream);
+        }
+        if (archive.getEntryCount() == 0) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "The item has no files which can be downloaded");
+            return null;
+        }
+
+        // a HEAD request downloads nothing
+        boolean download = !RequestMethod.HEAD.name().equals(request.getMethod());
+        if (download && StringUtils.isBlank(request.getHeader("Range"))) {
+            //We only log a download request when serving a request without Range header, see
+            //BitstreamRestController.
+            eventService.fireEvent(new UsageEvent(UsageEvent.Action.VIEW, request, context, item));
+        }
+
+        try {
+            HttpHeadersInitializer httpHeadersInitializer = new HttpHeadersInitializer()
+                .withBufferSize(BUFFER_SIZE)
+                .withFileName(name)
+                .withLength(archive.contentLength())
+                .withChecksum(archive.getChecksum())
+                .withMimetype("application/zip")
+                .withLastModified(lastModified)
+                .withDisposition(HttpHeadersInitializer.CONTENT_DISPOSITION_ATTACHMENT)
+                .with(request)
+                .with(response);
+
+            // Track the download statistics - only if the downloading has started (the condition is inside the method)
+            if (download) {
+                matomoBitstreamTracker.trackItemDownload(context, request, item);
+            }
+
+            //We have all the data we need, close the connection to the database so that it doesn't stay open during
+            //download/streaming
+            context.complete();
+
+            //Send the data
+            if (httpHeadersInitializer.isValid()) {
+                HttpHeaders httpHeaders = httpHeadersInitializer.initialiseHeaders();
+                return ResponseEntity.ok().headers(httpHeaders).body(archive);
+            }
+        } catch (ClientAbortException ex) {
+            log.debug("Client aborted the request before the download was completed. " +
+                          "Client is probably switching to a Range request.", ex);
+        }
+        return null;
+    }
+
+    /**
+     * Get a name for the file in the archive which is not used by another file yet. The name of the file is reduced
+     * to its last path segment, so that an archive cannot write outside of the directory it is extracted to.
+     *
+     * @param bitstream  the file
+     * @param entryNames the names used so far
+     * @return the name
+     */
+    private String getEntryName(Bitstream bitstream, Set<String> entryNames) {
+        String name = StringUtils.defaultString(bitstream.getName()).replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        if (StringUtils.isBlank(name) || name.equals(".") || name.equals("..")) {
+            name = bitstream.getID().toString();
+        }
+        String entryName = name;
+        int prefix = 1; // only used with name conflict
+        while (!entryNames.add(entryName)) {
+            // keep prepending numbers to the name until unique
+            entryName = prefix + "_" + name;
+            prefix++;
+        }
+        return entryName;
+    }
+}
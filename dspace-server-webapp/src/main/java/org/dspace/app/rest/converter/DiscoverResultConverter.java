@@ -7,6 +7,8 @@
  */
 package org.dspace.app.rest.converter;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,10 +22,13 @@ import org.dspace.app.rest.model.SearchResultEntryRest;
 import org.dspace.app.rest.model.SearchResultsRest;
 import org.dspace.app.rest.parameter.SearchFilter;
 import org.dspace.app.rest.projection.Projection;
+import org.dspace.content.Item;
+import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
 import org.dspace.discovery.DiscoverResult;
 import org.dspace.discovery.IndexableObject;
 import org.dspace.discovery.configuration.DiscoveryConfiguration;
+import org.dspace.discovery.indexobject.IndexableItem;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -46,6 +51,8 @@ public class DiscoverResultConverter {
     @Autowired
     private DiscoverFacetsConverter facetConverter;
     @Autowired
+    private ItemService itemService;
+    @Autowired
     private SearchFilterToAppliedFilterConverter searchFilterToAppliedFilterConverter;
 
     public SearchResultsRest convert(final Context context, final String query, final List<String> dsoTypes,
@@ -59,7 +66,7 @@ public class DiscoverResultConverter {
 
         setRequestInformation(context, query, dsoTypes, configurationName, scope, searchFilters, page, resultsRest);
 
-        addSearchResults(searchResult, resultsRest, projection);
+        addSearchResults(context, searchResult, resultsRest, projection);
 
         addFacetValues(context, searchResult, resultsRest, configuration, projection);
 
@@ -73,8 +80,9 @@ public class DiscoverResultConverter {
         facetConverter.addFacetValues(context, searchResult, resultsRest, configuration, projection);
     }
 
-    private void addSearchResults(final DiscoverResult searchResult, final SearchResultsRest resultsRest,
-                                  final Projection projection) {
+    private void addSearchResults(final Context context, final DiscoverResult searchResult,
+                                  final SearchResultsRest resultsRest, final Projection projection) {
+        prefetchItems(context, searchResult);
         for (IndexableObject dspaceObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
             SearchResultEntryRest resultEntry = new SearchResultEntryRest();
             resultEntry.setProjection(projection);
@@ -96,6 +104,23 @@ public class DiscoverResultConverter {
         }
     }
 
+    /**
+     * Load the metadata of all items of the page at once, instead of one query per item during the conversion
+     */
+    private void prefetchItems(final Context context, final DiscoverResult searchResult) {
+        List<Item> items = new ArrayList<>();
+        for (IndexableObject indexableObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
+            if (indexableObject instanceof IndexableItem) {
+                items.add(((IndexableItem) indexableObject).getIndexedObject());
+            }
+        }
+        try {
+            itemService.prefetch(context, items, false);
+        } catch (SQLException e) {
+            log.warn("Unable to prefetch the metadata of the search results", e);
+        }
+    }
+
     private RestAddressableModel convertDSpaceObject(final IndexableObject indexableObject,
                                                      final Projection projection) {
         return converter.toRest(indexableObject.getIndexedObject(), projection);
@@ -15,7 +15,9 @@ import javax.servlet.http.HttpServletRequest;
 import org.dspace.app.rest.model.BitstreamRest;
 import org.dspace.app.rest.model.BundleRest;
 import org.dspace.app.rest.projection.Projection;
+import org.dspace.authorize.AuthorizationBitstreamUtils;
 import org.dspace.content.Bundle;
+import org.dspace.content.Item;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.content.service.BundleService;
 import org.dspace.core.Context;
@@ -39,6 +41,9 @@ public class BundleBitstreamLinkRepository extends AbstractDSpaceRestRepository
     @Autowired
     BundleService bundleService;
 
+    @Autowired
+    AuthorizationBitstreamUtils authorizationBitstreamUtils;
+
     @PreAuthorize("hasPermission(#bundleId, 'BUNDLE', 'READ')")
     public Page<BitstreamRest> getBitstreams(@Nullable HttpServletRequest request,
                                              UUID bundleId,
@@ -51,6 +56,9 @@ public class BundleBitstreamLinkRepository extends AbstractDSpaceRestRepository
                 throw new ResourceNotFoundException("No such bundle: " + bundleId);
             }
             Pageable pageable = utils.getPageable(optionalPageable);
+            // resolve the licenses of the bitstreams at once rather than while authorizing each of them
+            Item item = bundle.getItems().isEmpty() ? null : bundle.getItems().get(0);
+            authorizationBitstreamUtils.prefetchLicenses(context, item, bundle.getBitstreams());
             return converter.toRestPage(bundle.getBitstreams(), pageable, projection);
         } catch (SQLException e) {
             throw new RuntimeException(e);
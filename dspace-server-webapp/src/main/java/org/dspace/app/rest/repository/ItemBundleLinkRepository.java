@@ -8,6 +8,8 @@
 package org.dspace.app.rest.repository;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
@@ -15,6 +17,9 @@ import javax.servlet.http.HttpServletRequest;
 import org.dspace.app.rest.model.BundleRest;
 import org.dspace.app.rest.model.ItemRest;
 import org.dspace.app.rest.projection.Projection;
+import org.dspace.authorize.AuthorizationBitstreamUtils;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
 import org.dspace.content.Item;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
@@ -35,6 +40,9 @@ public class ItemBundleLinkRepository extends AbstractDSpaceRestRepository
     @Autowired
     ItemService itemService;
 
+    @Autowired
+    AuthorizationBitstreamUtils authorizationBitstreamUtils;
+
     @PreAuthorize("hasPermission(#itemId, 'ITEM', 'READ')")
     public Page<BundleRest> getBundles(@Nullable HttpServletRequest request,
                                        UUID itemId,
@@ -46,6 +54,13 @@ public class ItemBundleLinkRepository extends AbstractDSpaceRestRepository
             if (item == null) {
                 throw new ResourceNotFoundException("No such item: " + itemId);
             }
+            // resolve the licenses of the bitstreams which may be embedded at once rather than while authorizing
+            // each of them
+            List<Bitstream> bitstreams = new ArrayList<>();
+            for (Bundle bundle : item.getBundles()) {
+                bitstreams.addAll(bundle.getBitstreams());
+            }
+            authorizationBitstreamUtils.prefetchLicenses(context, item, bitstreams);
             return converter.toRestPage(item.getBundles(), optionalPageable, projection);
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -140,6 +140,7 @@ public class ItemRestRepository extends DSpaceObjectRestRepository<Item, ItemRes
             while (it.hasNext()) {
                 items.add(it.next());
             }
+            itemService.prefetch(context, items, false);
             return converter.toRestPage(items, pageable, total, utils.obtainProjection());
         } catch (SQLException e) {
             throw new RuntimeException(e.getMessage(), e);
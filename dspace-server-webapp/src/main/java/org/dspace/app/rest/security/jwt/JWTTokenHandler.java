@@ -11,6 +11,9 @@ import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import javax.servlet.http.HttpServletRequest;
 
 import com.nimbusds.jose.CompressionAlgorithm;
@@ -79,6 +82,14 @@ public abstract class JWTTokenHandler {
     private String generatedJwtKey;
     private String generatedEncryptionKey;
 
+    /**
+     * Tokens which have recently been decrypted and verified, so that requests reusing the same token
+     * don't need to go through the signature verification again
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final LongAdder tokenCacheHits = new LongAdder();
+    private final LongAdder tokenCacheMisses = new LongAdder();
+
     /**
      * Get the configuration property key for the token secret.
      * @return the configuration property key
@@ -109,6 +120,12 @@ public abstract class JWTTokenHandler {
      */
     protected abstract String getCompressionEnabledConfigurationKey();
 
+    /**
+     * Get the configuration property key for the time verified tokens are cached.
+     * @return the configuration property key
+     */
+    protected abstract String getTokenCacheTtlConfigurationKey();
+
     /**
      * Retrieve EPerson from a JSON Web Token (JWT)
      *
@@ -125,6 +142,13 @@ public abstract class JWTTokenHandler {
         if (StringUtils.isBlank(token)) {
             return null;
         }
+        long cacheTtl = getTokenCacheTtl();
+        if (cacheTtl > 0) {
+            EPerson ePerson = parseEPersonFromVerifiedToken(token, request, context);
+            if (ePerson != null) {
+                return ePerson;
+            }
+        }
         // parse/decrypt the token
         SignedJWT signedJWT = getSignedJWT(token);
         // get the claims set from the parsed token
@@ -141,6 +165,9 @@ public abstract class JWTTokenHandler {
                 jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
             }
 
+            if (cacheTtl > 0) {
+                cacheVerifiedToken(token, jwtClaimsSet, ePerson, cacheTtl);
+            }
             return ePerson;
         } else {
             log.warn(getIpAddress(request) + " tried to use an expired or non-valid token");
@@ -195,6 +222,7 @@ public abstract class JWTTokenHandler {
         if (StringUtils.isNotBlank(token)) {
 
             EPerson ePerson = parseEPersonFromToken(token, request, context);
+            verifiedTokens.remove(token);
             if (ePerson != null) {
                 ePerson.setSessionSalt("");
             }
@@ -202,6 +230,36 @@ public abstract class JWTTokenHandler {
         }
     }
 
+    /**
+     * Time in milliseconds a verified token is remembered, 0 (the default) disables the cache
+     * @return cache time to live in milliseconds
+     */
+    public long getTokenCacheTtl() {
+        return configurationService.getLongProperty(getTokenCacheTtlConfigurationKey(), 0);
+    }
+
+    /**
+     * Maximum number of verified tokens to remember
+     * @return maximum cache size
+     */
+    public int getTokenCacheSize() {
+        return configurationService.getIntProperty("jwt.token.cache.size", 10000);
+    }
+
+    /**
+     * @return number of requests authenticated from the verified token cache
+     */
+    public long getTokenCacheHits() {
+        return tokenCacheHits.sum();
+    }
+
+    /**
+     * @return number of requests for which the token had to be decrypted and verified
+     */
+    public long getTokenCacheMisses() {
+        return tokenCacheMisses.sum();
+    }
+
     /**
      * Retrieve the token secret key from configuration. If not specified, generate and cache a random 32 byte key
      * @return configuration value or random 32 byte key
@@ -310,6 +368,60 @@ public abstract class JWTTokenHandler {
         return signedJWT;
     }
 
+    /**
+     * Retrieve the EPerson from a token which has recently been verified, without decrypting the token and
+     * checking its signature again. The EPerson is still loaded from the current Context, and the token is only
+     * accepted as long as the session salt it was verified with is unchanged (i.e. no logout happened since) and
+     * it has not expired.
+     * @param token token as a string
+     * @param request current request
+     * @param context current Context
+     * @return the EPerson, or null if the token is not (or no longer) in the cache
+     * @throws SQLException
+     */
+    private EPerson parseEPersonFromVerifiedToken(String token, HttpServletRequest request, Context context)
+        throws SQLException {
+        VerifiedToken verifiedToken = verifiedTokens.get(token);
+        if (verifiedToken != null) {
+            if (verifiedToken.validUntil > System.currentTimeMillis()) {
+                EPerson ePerson = getEPerson(context, verifiedToken.claimsSet);
+                if (ePerson != null && StringUtils.equals(verifiedToken.sessionSalt, ePerson.getSessionSalt())) {
+                    tokenCacheHits.increment();
+                    for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
+                        jwtClaimProvider.parseClaim(context, request, verifiedToken.claimsSet);
+                    }
+                    return ePerson;
+                }
+            }
+            verifiedTokens.remove(token);
+        }
+        tokenCacheMisses.increment();
+        if (log.isDebugEnabled()) {
+            log.debug("Token cache hits: " + tokenCacheHits.sum() + ", misses: " + tokenCacheMisses.sum());
+        }
+        return null;
+    }
+
+    /**
+     * Remember a verified token until the cache time to live or its expiration time is reached, whichever
+     * comes first.
+     * @param token token as a string
+     * @param jwtClaimsSet verified claims set of the token
+     * @param ePerson EPerson the token was verified for
+     * @param cacheTtl cache time to live in milliseconds
+     */
+    private void cacheVerifiedToken(String token, JWTClaimsSet jwtClaimsSet, EPerson ePerson, long cacheTtl) {
+        long now = System.currentTimeMillis();
+        if (verifiedTokens.size() >= getTokenCacheSize()) {
+            verifiedTokens.values().removeIf(verifiedToken -> verifiedToken.validUntil <= now);
+            if (verifiedTokens.size() >= getTokenCacheSize()) {
+                verifiedTokens.clear();
+            }
+        }
+        long validUntil = Math.min(now + cacheTtl, jwtClaimsSet.getExpirationTime().getTime());
+        verifiedTokens.put(token, new VerifiedToken(jwtClaimsSet, ePerson.getSessionSalt(), validUntil));
+    }
+
     /**
      * Based on the given JWT claims set (which should include an EPerson ID), locate the
      * corresponding EPerson in the current Context
@@ -433,4 +545,19 @@ public abstract class JWTTokenHandler {
         byte[] secretKey = bytesKeyGenerator.generateKey();
         return Base64.encodeBase64String(secretKey);
     }
+
+    /**
+     * The outcome of a successful token verification
+     */
+    private static class VerifiedToken {
+        private final JWTClaimsSet claimsSet;
+        private final String sessionSalt;
+        private final long validUntil;
+
+        VerifiedToken(JWTClaimsSet claimsSet, String sessionSalt, long validUntil) {
+            this.claimsSet = claimsSet;
+            this.sessionSalt = sessionSalt;
+            this.validUntil = validUntil;
+        }
+    }
 }
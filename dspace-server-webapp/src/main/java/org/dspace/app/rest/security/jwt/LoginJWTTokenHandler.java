@@ -39,4 +39,9 @@ public class LoginJWTTokenHandler extends JWTTokenHandler {
     protected String getCompressionEnabledConfigurationKey() {
         return "jwt.login.compression.enabled";
     }
+
+    @Override
+    protected String getTokenCacheTtlConfigurationKey() {
+        return "jwt.login.token.cache.ttl";
+    }
 }
@@ -91,4 +91,9 @@ public class ShortLivedJWTTokenHandler extends JWTTokenHandler {
     protected String getCompressionEnabledConfigurationKey() {
         return "jwt.shortLived.compression.enabled";
     }
+
+    @Override
+    protected String getTokenCacheTtlConfigurationKey() {
+        return "jwt.shortLived.token.cache.ttl";
+    }
 }
@@ -12,6 +12,8 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.ThreadContext;
+import org.dspace.core.Context;
+import org.dspace.core.QueryStatistics;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.filter.AbstractRequestLoggingFilter;
@@ -30,6 +32,11 @@ import org.springframework.web.filter.AbstractRequestLoggingFilter;
  * friendly client applications (such as our angular UI), if specified as
  * X-Correlation-ID (correlationID)
  *
+ * While the database statistics are enabled (db.statistics.enabled), requests
+ * which execute more statements than logging.server.query-count-threshold, or
+ * spend more milliseconds on them than logging.server.query-time-threshold, are
+ * logged with their statistics.
+ *
  * @author Andrea Bollini (andrea.bollini at 4science.it)
  */
 public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter {
@@ -89,9 +96,25 @@ public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter
         if (isAfterRequestLoggingEnabled()) {
             logger.info(message);
         }
+        logQueryStatistics(request);
         ThreadContext.clearAll();
     }
 
+    private void logQueryStatistics(HttpServletRequest request) {
+        if (!QueryStatistics.isEnabled() || !ContextUtil.isContextAvailable(request)) {
+            return;
+        }
+        Context context = (Context) request.getAttribute(ContextUtil.DSPACE_CONTEXT);
+        QueryStatistics statistics = context.getQueryStatistics();
+        if (statistics.getStatementCount() > configurationService
+                .getLongProperty("logging.server.query-count-threshold", 100L)
+            || statistics.getStatementTime() > configurationService
+                .getLongProperty("logging.server.query-time-threshold", 1000L)) {
+            logger.warn(request.getMethod() + " " + request.getRequestURI() + " executed " + statistics + ", "
+                            + context.getReadOnlyCache());
+        }
+    }
+
     private boolean isAfterRequestLoggingEnabled() {
         return configurationService.getBooleanProperty("logging.server.include-after-request");
     }
@@ -0,0 +1,498 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Context;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A {@link AbstractResource} which streams a set of bitstreams as a ZIP archive generated on the fly.
+ * <p>
+ * All entries are stored uncompressed, so the position of every header and every byte of content in the archive
+ * follows from the names and sizes of the bitstreams alone. Thus the length of the archive is known up front, and
+ * {@link InputStream#skip(long)} jumps to any offset without reading the preceding bitstreams, which is what Spring
+ * uses to serve Range requests, so that interrupted downloads can be resumed. The CRC-32 of an entry is only known
+ * once its content has been read, so it is written in a data descriptor after the content. The CRCs are remembered
+ * in a bounded cache ('download.all.crc.cache.size' entries, keyed by the internal id of the stored file), so that
+ * resuming a download does not have to read the bitstreams which were already sent to compute the central
+ * directory. ZIP64 extensions are used for large bitstreams and archives.
+ * <p>
+ * The bitstreams are read straight from the bitstore; the caller is responsible for authorizing them.
+ */
+public class ZipArchiveResource extends AbstractResource {
+
+    private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP64_ENTRY_LIMIT = 0xFFFF;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    // sizes are followed by a data descriptor, names are UTF-8
+    private static final int FLAGS = 0x0008 | 0x0800;
+
+    private static final Map<String, Long> crcCache = Collections.synchronizedMap(
+        new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            private final int maxSize = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                             .getIntProperty("download.all.crc.cache.size", 10000);
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSize;
+            }
+        });
+
+    private final BitstreamStorageService bitstreamStorageService =
+        StorageServiceFactory.getInstance().getBitstreamStorageService();
+
+    private final String name;
+    private final List<Entry> entries = new ArrayList<>();
+    private final int dosTime;
+    private final int dosDate;
+    private long centralDirectoryOffset;
+
+    /**
+     * @param name         the file name of the archive
+     * @param lastModified the modification time of all entries, in milliseconds
+     */
+    public ZipArchiveResource(String name, long lastModified) {
+        this.name = name;
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            time = LocalDateTime.of(1980, 1, 1, 0, 0);
+        }
+        dosTime = (time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1);
+        dosDate = ((time.getYear() - 1980) << 9) | (time.getMonthValue() << 5) | time.getDayOfMonth();
+    }
+
+    /**
+     * Add a bitstream to the end of the archive.
+     *
+     * @param entryName the name of the entry, unique within the archive
+     * @param bitstream the bitstream, which does not need to be attached to a Context
+     */
+    public void addEntry(String entryName, Bitstream bitstream) {
+        Entry entry = new Entry(entryName, bitstream, centralDirectoryOffset);
+        entries.add(entry);
+        centralDirectoryOffset = entry.end();
+    }
+
+    /**
+     * @return a checksum of the names and content of the entries, which changes whenever the archive changes
+     */
+    public String getChecksum() {
+        StringBuilder layout = new StringBuilder();
+        for (Entry entry : entries) {
+            layout.append(entry.name).append('\0').append(entry.bitstream.getInternalId()).append('\0')
+                  .append(entry.size).append('\n');
+        }
+        return DigestUtils.md5Hex(layout.toString());
+    }
+
+    /**
+     * @return the number of entries in the archive
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    @Override
+    public String getDescription() {
+        return "zip archive [" + name + "]";
+    }
+
+    @Override
+    public String getFilename() {
+        return name;
+    }
+
+    @Override
+    public long contentLength() {
+        return centralDirectoryOffset + getCentralDirectoryLength();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new ArchiveInputStream();
+    }
+
+    private long getCentralDirectoryLength() {
+        return getCentralHeadersLength() + (isZip64() ? 56 + 20 : 0) + 22;
+    }
+
+    private long getCentralHeadersLength() {
+        long centralHeadersLength = 0;
+        for (Entry entry : entries) {
+            centralHeadersLength += 46 + entry.nameBytes.length + entry.getCentralExtraLength();
+        }
+        return centralHeadersLength;
+    }
+
+    private boolean isZip64() {
+        return entries.size() >= ZIP64_ENTRY_LIMIT || centralDirectoryOffset >= ZIP64_LIMIT
+            || getCentralHeadersLength() >= ZIP64_LIMIT;
+    }
+
+    /**
+     * Get the CRC-32 of the content of an entry, from the cache or else by reading the bitstream.
+     */
+    private long getCrc(Entry entry, Context context) throws IOException {
+        if (entry.crc < 0) {
+            Long cached = crcCache.get(entry.getCacheKey());
+            if (cached != null) {
+                entry.crc = cached;
+            } else {
+                CRC32 crc = new CRC32();
+                byte[] buffer = new byte[8192];
+                try (InputStream in = retrieve(context, entry)) {
+                    int count;
+                    while ((count = in.read(buffer)) != -1) {
+                        crc.update(buffer, 0, count);
+                    }
+                }
+                setCrc(entry, crc.getValue());
+            }
+        }
+        return entry.crc;
+    }
+
+    private void setCrc(Entry entry, long crc) {
+        entry.crc = crc;
+        crcCache.put(entry.getCacheKey(), crc);
+    }
+
+    private InputStream retrieve(Context context, Entry entry) throws IOException {
+        try {
+            return bitstreamStorageService.retrieve(context, entry.bitstream);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private byte[] getCentralDirectory(Context context) throws IOException {
+        LittleEndianOutputStream out = new LittleEndianOutputStream();
+        for (Entry entry : entries) {
+            boolean zip64Offset = entry.offset >= ZIP64_LIMIT;
+            out.writeInt(CENTRAL_HEADER_SIGNATURE);
+            out.writeShort(45);
+            out.writeShort(entry.getVersionNeeded());
+            out.writeShort(FLAGS);
+            out.writeShort(0);
+            out.writeShort(dosTime);
+            out.writeShort(dosDate);
+            out.writeInt((int) getCrc(entry, context));
+            out.writeInt((int) (entry.zip64 ? ZIP64_LIMIT : entry.size));
+            out.writeInt((int) (entry.zip64 ? ZIP64_LIMIT : entry.size));
+            out.writeShort(entry.nameBytes.length);
+            out.writeShort(entry.getCentralExtraLength());
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeInt(0);
+            out.writeInt((int) (zip64Offset ? ZIP64_LIMIT : entry.offset));
+            out.write(entry.nameBytes, 0, entry.nameBytes.length);
+            if (entry.getCentralExtraLength() > 0) {
+                out.writeShort(0x0001);
+                out.writeShort(entry.getCentralExtraLength() - 4);
+                if (entry.zip64) {
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.size);
+                }
+                if (zip64Offset) {
+                    out.writeLong(entry.offset);
+                }
+            }
+        }
+        long centralDirectoryLength = out.size();
+        long end = centralDirectoryOffset + centralDirectoryLength;
+        boolean zip64 = isZip64();
+        if (zip64) {
+            out.writeInt(ZIP64_END_SIGNATURE);
+            out.writeLong(44);
+            out.writeShort(45);
+            out.writeShort(45);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(entries.size());
+            out.writeLong(entries.size());
+            out.writeLong(centralDirectoryLength);
+            out.writeLong(centralDirectoryOffset);
+            out.writeInt(ZIP64_LOCATOR_SIGNATURE);
+            out.writeInt(0);
+            out.writeLong(end);
+            out.writeInt(1);
+        }
+        out.writeInt(END_SIGNATURE);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(zip64 ? ZIP64_ENTRY_LIMIT : entries.size());
+        out.writeShort(zip64 ? ZIP64_ENTRY_LIMIT : entries.size());
+        out.writeInt((int) (zip64 ? ZIP64_LIMIT : centralDirectoryLength));
+        out.writeInt((int) (zip64 ? ZIP64_LIMIT : centralDirectoryOffset));
+        out.writeShort(0);
+        return out.toByteArray();
+    }
+
+    /**
+     * The layout of one entry of the archive: local header, content and data descriptor.
+     */
+    private class Entry {
+        private final String name;
+        private final byte[] nameBytes;
+        private final Bitstream bitstream;
+        private final long size;
+        private final boolean zip64;
+        private final long offset;
+        private final byte[] localHeader;
+        private long crc = -1;
+
+        private Entry(String name, Bitstream bitstream, long offset) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.bitstream = bitstream;
+            this.size = bitstream.getSizeBytes();
+            this.zip64 = size >= ZIP64_LIMIT;
+            this.offset = offset;
+
+            LittleEndianOutputStream out = new LittleEndianOutputStream();
+            out.writeInt(LOCAL_HEADER_SIGNATURE);
+            out.writeShort(getVersionNeeded());
+            out.writeShort(FLAGS);
+            out.writeShort(0);
+            out.writeShort(dosTime);
+            out.writeShort(dosDate);
+            out.writeInt(0);
+            out.writeInt((int) (zip64 ? ZIP64_LIMIT : size));
+            out.writeInt((int) (zip64 ? ZIP64_LIMIT : size));
+            out.writeShort(nameBytes.length);
+            out.writeShort(zip64 ? 20 : 0);
+            out.write(nameBytes, 0, nameBytes.length);
+            if (zip64) {
+                out.writeShort(0x0001);
+                out.writeShort(16);
+                out.writeLong(size);
+                out.writeLong(size);
+            }
+            localHeader = out.toByteArray();
+        }
+
+        private int getVersionNeeded() {
+            return zip64 || offset >= ZIP64_LIMIT ? 45 : 20;
+        }
+
+        private int getCentralExtraLength() {
+            int extraLength = (zip64 ? 16 : 0) + (offset >= ZIP64_LIMIT ? 8 : 0);
+            return extraLength > 0 ? extraLength + 4 : 0;
+        }
+
+        private long dataOffset() {
+            return offset + localHeader.length;
+        }
+
+        private long descriptorOffset() {
+            return dataOffset() + size;
+        }
+
+        private long end() {
+            return descriptorOffset() + (zip64 ? 24 : 16);
+        }
+
+        private byte[] getDataDescriptor(Context context) throws IOException {
+            LittleEndianOutputStream out = new LittleEndianOutputStream();
+            out.writeInt(DATA_DESCRIPTOR_SIGNATURE);
+            out.writeInt((int) getCrc(this, context));
+            if (zip64) {
+                out.writeLong(size);
+                out.writeLong(size);
+            } else {
+                out.writeInt((int) size);
+                out.writeInt((int) size);
+            }
+            return out.toByteArray();
+        }
+
+        private String getCacheKey() {
+            return bitstream.getInternalId() + ":" + size;
+        }
+    }
+
+    /**
+     * Generates the archive, starting at any offset.
+     */
+    private class ArchiveInputStream extends InputStream {
+        private long position = 0;
+        private int current = 0;
+        private Context context;
+
+        // the content of the current entry, and the CRC of the content read so far if it is read from the start
+        private InputStream data;
+        private long dataPosition;
+        private CRC32 dataCrc;
+
+        private byte[] centralDirectory;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            long total = contentLength();
+            if (position >= total) {
+                return -1;
+            }
+            while (current < entries.size() && position >= entries.get(current).end()) {
+                closeData();
+                current++;
+            }
+            int count;
+            if (current < entries.size()) {
+                Entry entry = entries.get(current);
+                if (position < entry.dataOffset()) {
+                    count = copy(entry.localHeader, position - entry.offset, b, off, len);
+                } else if (position < entry.descriptorOffset()) {
+                    count = readData(entry, b, off, len);
+                } else {
+                    count = copy(entry.getDataDescriptor(getContext()), position - entry.descriptorOffset(),
+                                 b, off, len);
+                }
+            } else {
+                if (centralDirectory == null) {
+                    centralDirectory = getCentralDirectory(getContext());
+                }
+                count = copy(centralDirectory, position - centralDirectoryOffset, b, off, len);
+            }
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, contentLength() - position));
+            if (skipped > 0) {
+                // the content is reopened at the new position when it is read
+                closeData();
+                position += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeData();
+            if (context != null && context.isValid()) {
+                context.abort();
+            }
+        }
+
+        private int readData(Entry entry, byte[] b, int off, int len) throws IOException {
+            long offsetInData = position - entry.dataOffset();
+            if (data == null) {
+                data = retrieve(getContext(), entry);
+                dataPosition = 0;
+                dataCrc = offsetInData == 0 && entry.crc < 0 ? new CRC32() : null;
+                while (dataPosition < offsetInData) {
+                    long skipped = data.skip(offsetInData - dataPosition);
+                    if (skipped <= 0) {
+                        if (data.read() == -1) {
+                            throw new IOException("Bitstream " + entry.bitstream.getID() + " is shorter than "
+                                                      + entry.size + " bytes");
+                        }
+                        skipped = 1;
+                    }
+                    dataPosition += skipped;
+                }
+            }
+            int count = data.read(b, off, (int) Math.min(len, entry.size - offsetInData));
+            if (count == -1) {
+                throw new IOException("Bitstream " + entry.bitstream.getID() + " is shorter than "
+                                          + entry.size + " bytes");
+            }
+            dataPosition += count;
+            if (dataCrc != null) {
+                dataCrc.update(b, off, count);
+                if (dataPosition == entry.size) {
+                    setCrc(entry, dataCrc.getValue());
+                }
+            }
+            if (dataPosition == entry.size) {
+                closeData();
+            }
+            return count;
+        }
+
+        private void closeData() throws IOException {
+            if (data != null) {
+                data.close();
+                data = null;
+                dataCrc = null;
+            }
+        }
+
+        private Context getContext() {
+            if (context == null) {
+                context = new Context(Context.Mode.READ_ONLY);
+            }
+            return context;
+        }
+
+        private int copy(byte[] source, long sourcePosition, byte[] b, int off, int len) {
+            int count = (int) Math.min(len, source.length - sourcePosition);
+            System.arraycopy(source, (int) sourcePosition, b, off, count);
+            return count;
+        }
+    }
+
+    /**
+     * Writes the little-endian fields of the ZIP format.
+     */
+    private static class LittleEndianOutputStream extends ByteArrayOutputStream {
+        private void writeShort(int value) {
+            write(value & 0xFF);
+            write((value >>> 8) & 0xFF);
+        }
+
+        private void writeInt(int value) {
+            writeShort(value & 0xFFFF);
+            writeShort((value >>> 16) & 0xFFFF);
+        }
+
+        private void writeLong(long value) {
+            writeInt((int) value);
+            writeInt((int) (value >>> 32));
+        }
+    }
+}
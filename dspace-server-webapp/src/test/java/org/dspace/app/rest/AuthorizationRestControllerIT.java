@@ -9,6 +9,9 @@ package org.dspace.app.rest;
 
 import static org.dspace.app.rest.repository.ClarinLicenseRestRepository.OPERATION_PATH_LICENSE_RESOURCE;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -24,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.ws.rs.core.MediaType;
 
 import com.jayway.jsonpath.matchers.JsonPathMatchers;
@@ -260,6 +264,43 @@ public class AuthorizationRestControllerIT extends AbstractControllerIntegration
                 .andExpect(status().reason(is(Matchers.is(MissingLicenseAgreementException.NAME))));
     }
 
+    // The licenses of many bitstreams are resolved at once like the license of a single bitstream
+    @Test
+    public void shouldResolveLicensesToAgreeInBulk() throws Exception {
+        // Prepare environment
+        attachLicenseToBitstream();
+
+        Bitstream bitstream = witem.getItem().getBundles().get(0).getBitstreams().get(0);
+        List<UUID> bitstreamIDs = List.of(bitstream.getID());
+
+        // The admin hasn't filled in any information yet
+        Map<UUID, ClarinLicense> licensesToAgree =
+                clarinLicenseResourceMappingService.getLicensesToAgree(context, admin.getID(), bitstreamIDs);
+        assertEquals(clarinLicense.getID(), licensesToAgree.get(bitstream.getID()).getID());
+        assertEquals(clarinLicenseResourceMappingService.getLicenseToAgree(context, admin.getID(), bitstream.getID())
+                        .getID(), licensesToAgree.get(bitstream.getID()).getID());
+
+        context.turnOffAuthorisationSystem();
+        ClarinUserRegistration clarinUserRegistration = ClarinUserRegistrationBuilder
+                .createClarinUserRegistration(context)
+                .withEPersonID(admin.getID())
+                .build();
+        List<ClarinLicenseResourceMapping> clarinLicenseResourceMappings =
+                clarinLicenseResourceMappingService.findAllByLicenseId(context, clarinLicense.getID());
+        ClarinLicenseResourceUserAllowanceBuilder.createClarinLicenseResourceUserAllowance(context)
+                .withMapping(clarinLicenseResourceMappings.get(0))
+                .withUser(clarinUserRegistration)
+                .build();
+        context.restoreAuthSystemState();
+
+        // The license is confirmed only once, the admin has filled in the information now
+        assertTrue(clarinLicenseResourceMappingService.getLicensesToAgree(context, admin.getID(), bitstreamIDs)
+                .isEmpty());
+        // An anonymous user has to agree
+        assertFalse(clarinLicenseResourceMappingService.getLicensesToAgree(context, null, bitstreamIDs)
+                .isEmpty());
+    }
+
     // 400
     @Test
     public void shouldReturnNotFoundExceptionWhenIdIsNull() throws Exception {
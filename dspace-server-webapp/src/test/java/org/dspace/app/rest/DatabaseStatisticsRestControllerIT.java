@@ -0,0 +1,65 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Integration test to test the /api/system/databasestatistics endpoint
+ */
+public class DatabaseStatisticsRestControllerIT extends AbstractControllerIntegrationTest {
+
+    @After
+    public void disableStatistics() throws Exception {
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(post("/api/system/databasestatistics").param("enabled", "false"))
+                        .andExpect(status().isOk());
+    }
+
+    @Test
+    public void statisticsAreCollectedWhileEnabled() throws Exception {
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(delete("/api/system/databasestatistics"))
+                        .andExpect(status().isNoContent());
+        getClient(token).perform(post("/api/system/databasestatistics").param("enabled", "true"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.enabled", is(true)));
+
+        getClient(token).perform(get("/api/core/communities"))
+                        .andExpect(status().isOk());
+
+        getClient(token).perform(get("/api/system/databasestatistics"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.enabled", is(true)))
+                        .andExpect(jsonPath("$.statements.count", greaterThan(0)))
+                        .andExpect(jsonPath("$.connectionPool.connectionCount", greaterThan(0)))
+                        .andExpect(jsonPath("$.caches.queryCache.hitRatio").exists());
+    }
+
+    @Test
+    public void onlyAdminsMayReadStatistics() throws Exception {
+        getClient().perform(get("/api/system/databasestatistics"))
+                   .andExpect(status().isUnauthorized());
+
+        String token = getAuthToken(eperson.getEmail(), password);
+        getClient(token).perform(get("/api/system/databasestatistics"))
+                        .andExpect(status().isForbidden());
+        getClient(token).perform(post("/api/system/databasestatistics").param("enabled", "true"))
+                        .andExpect(status().isForbidden());
+    }
+}
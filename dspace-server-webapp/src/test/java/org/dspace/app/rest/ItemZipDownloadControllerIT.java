@@ -0,0 +1,243 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.dspace.authorize.MissingLicenseAgreementException;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.ClarinLicenseBuilder;
+import org.dspace.builder.ClarinLicenseResourceMappingBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.EPersonBuilder;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.clarin.ClarinLicense;
+import org.dspace.content.clarin.ClarinLicenseResourceMapping;
+import org.dspace.content.service.clarin.ClarinLicenseResourceMappingService;
+import org.dspace.content.service.clarin.ClarinLicenseService;
+import org.dspace.core.Constants;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.dspace.statistics.ObjectCount;
+import org.dspace.statistics.SolrLoggerServiceImpl;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.SolrLoggerService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration test to test the /api/core/items/[id]/allzip endpoint
+ */
+public class ItemZipDownloadControllerIT extends AbstractControllerIntegrationTest {
+
+    private final SolrLoggerService solrLoggerService =
+        StatisticsServiceFactory.getInstance().getSolrLoggerService();
+
+    @Autowired
+    private ClarinLicenseService clarinLicenseService;
+
+    @Autowired
+    private ClarinLicenseResourceMappingService clarinLicenseResourceMappingService;
+
+    private Item item;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection 1").build();
+        item = ItemBuilder.createItem(context, collection).withTitle("Public item").build();
+        Group staffGroup = GroupBuilder.createGroup(context).withName("Staff").build();
+
+        createBitstream("a.txt", "first file", null);
+        createBitstream("b.txt", "second file", null);
+        // same name as the first file
+        createBitstream("a.txt", "third file", null);
+        createBitstream("restricted.txt", "restricted file", staffGroup);
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void downloadAllReadableFiles() throws Exception {
+        byte[] archive = getClient().perform(get("/api/core/items/" + item.getID() + "/allzip"))
+                                    .andExpect(status().isOk())
+                                    .andExpect(content().contentType("application/zip"))
+                                    .andExpect(header().string("Accept-Ranges", "bytes"))
+                                    .andReturn().getResponse().getContentAsByteArray();
+
+        File file = File.createTempFile("allzip", ".zip");
+        try {
+            Files.write(file.toPath(), archive);
+            try (ZipFile zip = new ZipFile(file)) {
+                List<String> names = new ArrayList<>();
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    names.add(entries.nextElement().getName());
+                }
+                assertEquals(List.of("a.txt", "b.txt", "1_a.txt"), names);
+                assertEquals("first file", read(zip, "a.txt"));
+                assertEquals("second file", read(zip, "b.txt"));
+                assertEquals("third file", read(zip, "1_a.txt"));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void resumeDownload() throws Exception {
+        byte[] archive = getClient().perform(get("/api/core/items/" + item.getID() + "/allzip"))
+                                    .andExpect(status().isOk())
+                                    .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] rest = getClient().perform(get("/api/core/items/" + item.getID() + "/allzip")
+                                              .header("Range", "bytes=40-"))
+                                 .andExpect(status().is(206))
+                                 .andExpect(header().longValue("Content-Length", archive.length - 40))
+                                 .andExpect(header().string("Content-Range",
+                                                            "bytes 40-" + (archive.length - 1) + "/" + archive.length))
+                                 .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] expected = new byte[archive.length - 40];
+        System.arraycopy(archive, 40, expected, 0, expected.length);
+        assertArrayEquals(expected, rest);
+    }
+
+    @Test
+    public void entryNamesCannotLeaveTheArchive() throws Exception {
+        context.turnOffAuthorisationSystem();
+        createBitstream("../../x.txt", "parent file", null);
+        createBitstream("/etc/y.txt", "absolute file", null);
+        createBitstream("a\\..\\z.txt", "windows file", null);
+        Bitstream dots = createBitstream("..", "dots file", null);
+        context.restoreAuthSystemState();
+
+        byte[] archive = getClient().perform(get("/api/core/items/" + item.getID() + "/allzip"))
+                                    .andExpect(status().isOk())
+                                    .andReturn().getResponse().getContentAsByteArray();
+
+        File file = File.createTempFile("allzip", ".zip");
+        try {
+            Files.write(file.toPath(), archive);
+            try (ZipFile zip = new ZipFile(file)) {
+                List<String> names = new ArrayList<>();
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    names.add(entries.nextElement().getName());
+                }
+                assertEquals(List.of("a.txt", "b.txt", "1_a.txt", "x.txt", "y.txt", "z.txt",
+                                     dots.getID().toString()), names);
+                assertEquals("parent file", read(zip, "x.txt"));
+                assertEquals("absolute file", read(zip, "y.txt"));
+                assertEquals("windows file", read(zip, "z.txt"));
+                assertEquals("dots file", read(zip, dots.getID().toString()));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void downloadRefusedWithoutLicenseAgreement() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Bitstream licensed = createBitstream("licensed.txt", "licensed file", null);
+        ClarinLicense clarinLicense = ClarinLicenseBuilder.createClarinLicense(context).build();
+        clarinLicense.setName("Test Clarin License");
+        // ask always
+        clarinLicense.setConfirmation(2);
+        clarinLicenseService.update(context, clarinLicense);
+        ClarinLicenseResourceMapping mapping =
+            ClarinLicenseResourceMappingBuilder.createClarinLicenseResourceMapping(context).build();
+        mapping.setLicense(clarinLicense);
+        mapping.setBitstream(licensed);
+        clarinLicenseResourceMappingService.update(context, mapping);
+        // neither the submitter of the item nor an administrator, who need no agreement
+        EPerson user = EPersonBuilder.createEPerson(context).withEmail("reader@example.com")
+                                     .withPassword(password).build();
+        context.restoreAuthSystemState();
+
+        String token = getAuthToken(user.getEmail(), password);
+        getClient(token).perform(get("/api/core/items/" + item.getID() + "/allzip"))
+                        .andExpect(status().isUnauthorized())
+                        .andExpect(status().reason(is(MissingLicenseAgreementException.NAME)));
+    }
+
+    @Test
+    public void headRequestIsNotCountedAsDownload() throws Exception {
+        getClient().perform(head("/api/core/items/" + item.getID() + "/allzip"))
+                   .andExpect(status().isOk());
+        checkNumberOfStatsRecords(0);
+
+        getClient().perform(get("/api/core/items/" + item.getID() + "/allzip"))
+                   .andExpect(status().isOk());
+        checkNumberOfStatsRecords(1);
+    }
+
+    @Test
+    public void itemNotFound() throws Exception {
+        getClient().perform(get("/api/core/items/" + UUID.randomUUID() + "/allzip"))
+                   .andExpect(status().isNotFound());
+    }
+
+    private Bitstream createBitstream(String name, String content, Group readerGroup) throws Exception {
+        try (InputStream is = IOUtils.toInputStream(content, CharEncoding.UTF_8)) {
+            BitstreamBuilder builder = BitstreamBuilder.createBitstream(context, item, is)
+                                                       .withName(name)
+                                                       .withMimeType("text/plain");
+            if (readerGroup != null) {
+                builder.withReaderGroup(readerGroup);
+            }
+            return builder.build();
+        }
+    }
+
+    // Verify number of downloads of the item
+    private void checkNumberOfStatsRecords(int expectedNumberOfStatsRecords) throws Exception {
+        // force a Solr commit, statistics hits are not committed to Solr until autoCommit next runs
+        ((SolrLoggerServiceImpl) solrLoggerService).new ResultProcessor().commit();
+        ObjectCount objectCount = solrLoggerService.queryTotal("type:" + Constants.ITEM
+                                                                   + " AND id:" + item.getID(), null, 1);
+        assertEquals(expectedNumberOfStatsRecords, objectCount.getCount());
+    }
+
+    private String read(ZipFile zip, String name) throws Exception {
+        try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            return IOUtils.toString(in, CharEncoding.UTF_8);
+        }
+    }
+}
@@ -152,4 +152,34 @@ public class JWTTokenHandlerTest {
         assertEquals(null, parsed);
     }
 
+    @Test
+    public void testVerifiedTokenCache() throws Exception {
+        JWTTokenHandler tokenHandler = getTokenHandler();
+        String expirationKey = tokenHandler.getTokenExpirationConfigurationKey();
+        String cacheTtlKey = tokenHandler.getTokenCacheTtlConfigurationKey();
+        when(configurationService.getLongProperty(expirationKey, 1800000)).thenReturn(1800000L);
+        when(configurationService.getLongProperty(cacheTtlKey, 0)).thenReturn(60000L);
+        when(configurationService.getIntProperty("jwt.token.cache.size", 10000)).thenReturn(10000);
+        when(ePersonClaimProvider.getEPerson(any(Context.class), any(JWTClaimsSet.class))).thenReturn(ePerson);
+        Date previous = new Date(System.currentTimeMillis() - 10000000000L);
+        String token = tokenHandler.createTokenForEPerson(context, new MockHttpServletRequest(), previous);
+        // the first request verifies the token, the second one is served from the cache
+        assertEquals(ePerson, tokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(ePerson, tokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(1, tokenHandler.getTokenCacheMisses());
+        assertEquals(1, tokenHandler.getTokenCacheHits());
+        // a new session salt (e.g. after a logout on another node) invalidates the cached token
+        when(ePerson.getSessionSalt()).thenReturn("12345678901234567890123456789012");
+        assertEquals(null, tokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(1, tokenHandler.getTokenCacheHits());
+    }
+
+    /**
+     * @return the token handler under test, the tests which do not depend on
+     * the kind of token are run with every handler through this method.
+     */
+    protected JWTTokenHandler getTokenHandler() {
+        return loginJWTTokenHandler;
+    }
+
 }